@@ -0,0 +1,458 @@
+package com.acmemail.judah.cartesian_plane;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import javax.swing.SwingUtilities;
+
+import com.acmemail.judah.cartesian_plane.input.PointBuffer;
+
+/**
+ * Generates the points of a plot
+ * on a background thread,
+ * so that a long plot
+ * does not freeze the user interface.
+ * The points are generated by a plotter
+ * that fills a PointBuffer;
+ * see {@linkplain CartesianPlane#setBufferPlotter(Consumer)}.
+ * <p>
+ * While a plot is in progress
+ * partial results are published periodically,
+ * no more often than once every
+ * {@linkplain #FRAME_INTERVAL} milliseconds;
+ * when the plot is complete
+ * the full result is published.
+ * Partial results are accumulated incrementally:
+ * each publication copies only the points
+ * generated since the previous publication.
+ * Results are published on the event dispatch thread:
+ * the published points become available via
+ * {@linkplain #getPoints()},
+ * the client's update task is executed,
+ * and a {@linkplain Progress} object
+ * is propagated via the NotificationManager
+ * with the property
+ * {@linkplain CPConstants#PLOT_PROGRESS_NP}.
+ * </p>
+ * <p>
+ * Starting a new plot
+ * cancels the plot in progress, if any.
+ * A cancelled plot is abandoned
+ * the next time it adds points to its buffer
+ * (see {@linkplain PointBuffer#setMonitor(PointBuffer.Monitor)});
+ * any results it has not yet published are discarded.
+ * Plots are executed one at a time, in order,
+ * on a single thread,
+ * so a plotter need not be thread-safe
+ * with respect to other plotters.
+ * </p>
+ * <p>
+ * With the exception of the plotter itself,
+ * which is executed on the background thread,
+ * all methods of this class
+ * must be invoked on the event dispatch thread.
+ * </p>
+ * 
+ * @author Jack Straub
+ */
+public class BackgroundPlotter
+{
+    /**
+     * The minimum interval, in milliseconds,
+     * between the publication of partial results.
+     */
+    public static final long    FRAME_INTERVAL  = 40;
+
+    /** The minimum interval between partial results, in nanoseconds. */
+    private static final long   frameNanos      =
+        TimeUnit.MILLISECONDS.toNanos( FRAME_INTERVAL );
+
+    /** Executes plots, one at a time, on a background thread. */
+    private final ExecutorService   executor    =
+        Executors.newSingleThreadExecutor( r -> {
+            Thread  thread  = new Thread( r, "BackgroundPlotter" );
+            thread.setDaemon( true );
+            return thread;
+        });
+    /** Executed on the EDT every time a result is published. */
+    private final Runnable          onUpdate;
+    /** The most recently published points. */
+    private PointBuffer             points      = new PointBuffer();
+    /** The plot in progress; null if none. */
+    private Job                     currJob     = null;
+
+    /**
+     * Constructor.
+     * Establishes the task
+     * to execute every time a result is published;
+     * typically the task repaints the component
+     * that displays the plot.
+     * 
+     * @param onUpdate  the task to execute when a result is published
+     */
+    public BackgroundPlotter( Runnable onUpdate )
+    {
+        this.onUpdate = onUpdate;
+    }
+
+    /**
+     * Starts a plot using a given plotter,
+     * cancelling the plot in progress, if any.
+     * The points published by the previous plot
+     * remain available until the new plot
+     * publishes its first result.
+     * 
+     * @param plotter   the given plotter
+     */
+    public void start( Consumer<PointBuffer> plotter )
+    {
+        start( plotter, () -> {} );
+    }
+
+    /**
+     * Starts a plot using a given plotter,
+     * cancelling the plot in progress, if any,
+     * and establishes a task
+     * to execute when the plot is complete.
+     * The task is executed on the event dispatch thread,
+     * before the client's update task,
+     * only if the plot completes successfully
+     * without being cancelled.
+     * A plotter that stores its results
+     * somewhere other than its PointBuffer
+     * may use the task
+     * to publish those results.
+     * 
+     * @param plotter       the given plotter
+     * @param onComplete    task to execute when the plot is complete
+     */
+    public void start( Consumer<PointBuffer> plotter, Runnable onComplete )
+    {
+        cancel();
+        currJob = new Job( plotter, onComplete );
+        propagate( Progress.State.STARTED, 0, null );
+        executor.execute( currJob );
+    }
+
+    /**
+     * Cancels the plot in progress, if any.
+     * The points published by the plot
+     * remain available.
+     */
+    public void cancel()
+    {
+        if ( currJob != null )
+        {
+            currJob.cancelled = true;
+            currJob = null;
+            propagate( Progress.State.CANCELLED, points.size(), null );
+        }
+    }
+
+    /**
+     * Cancels the plot in progress, if any,
+     * and discards all published points.
+     */
+    public void clear()
+    {
+        cancel();
+        points = new PointBuffer();
+    }
+
+    /**
+     * Indicates whether a plot is in progress.
+     * 
+     * @return  true if a plot is in progress
+     */
+    public boolean isRunning()
+    {
+        return currJob != null;
+    }
+
+    /**
+     * Gets the most recently published points.
+     * The buffer must not be modified.
+     * 
+     * @return  the most recently published points
+     */
+    public PointBuffer getPoints()
+    {
+        return points;
+    }
+
+    /**
+     * Propagates a Progress object
+     * describing the state of this plotter.
+     * 
+     * @param state     the state of the current plot
+     * @param size      the number of points published
+     * @param error     the exception that terminated the plot, if any
+     */
+    private void propagate( Progress.State state, int size, Throwable error )
+    {
+        NotificationManager.INSTANCE.propagateNotification(
+            this,
+            CPConstants.PLOT_PROGRESS_NP,
+            new Progress( state, size, error )
+        );
+    }
+
+    /**
+     * Describes the progress of a background plot.
+     * 
+     * @author Jack Straub
+     */
+    public static class Progress
+    {
+        /** The states of a background plot. */
+        public enum State
+        {
+            /** The plot has been started. */
+            STARTED,
+            /** The plot has published partial results. */
+            RUNNING,
+            /** The plot is complete. */
+            COMPLETED,
+            /** The plot was cancelled before completion. */
+            CANCELLED,
+            /** The plot was terminated by an exception. */
+            FAILED
+        }
+
+        /** The state of the plot. */
+        private final State     state;
+        /** The number of points published by the plot. */
+        private final int       size;
+        /** The exception that terminated the plot; null if none. */
+        private final Throwable error;
+
+        /**
+         * Constructor.
+         * Establishes the state of a plot,
+         * the number of points it has published,
+         * and the exception that terminated it, if any.
+         * 
+         * @param state the state of the plot
+         * @param size  the number of points published
+         * @param error the exception that terminated the plot; may be null
+         */
+        public Progress( State state, int size, Throwable error )
+        {
+            this.state = state;
+            this.size = size;
+            this.error = error;
+        }
+
+        /**
+         * Gets the state of the plot.
+         * 
+         * @return  the state of the plot
+         */
+        public State getState()
+        {
+            return state;
+        }
+
+        /**
+         * Gets the number of points published by the plot.
+         * 
+         * @return  the number of points published by the plot
+         */
+        public int getSize()
+        {
+            return size;
+        }
+
+        /**
+         * Gets the exception that terminated the plot.
+         * 
+         * @return
+         *      the exception that terminated the plot,
+         *      or null if none
+         */
+        public Throwable getError()
+        {
+            return error;
+        }
+
+        /**
+         * Indicates whether the plot is in progress.
+         * 
+         * @return  true if the plot is in progress
+         */
+        public boolean isRunning()
+        {
+            boolean result  =
+                state == State.STARTED || state == State.RUNNING;
+            return result;
+        }
+    }
+
+    /**
+     * Executes a single plot on the background thread,
+     * and monitors its buffer
+     * in order to publish partial results
+     * and detect cancellation.
+     * 
+     * @author Jack Straub
+     */
+    private class Job implements Runnable, PointBuffer.Monitor
+    {
+        /** The plotter that generates the points of the plot. */
+        private final Consumer<PointBuffer> plotter;
+        /** Executed on the EDT when the plot is complete. */
+        private final Runnable              onComplete;
+        /** Set on the EDT to abandon the plot. */
+        private volatile boolean            cancelled       = false;
+        /** The time at which a result was last published. */
+        private long                        lastPublished;
+        /** 
+         * The points published as partial results so far.
+         * Only ever appended to; see checkpoint.
+         */
+        private PointBuffer                 partial         = null;
+        /** The buffer whose points were copied to partial. */
+        private PointBuffer                 source          = null;
+
+        /**
+         * Constructor.
+         * Establishes the plotter
+         * that generates the points of the plot,
+         * and the task to execute
+         * when the plot is complete.
+         * 
+         * @param plotter       the given plotter
+         * @param onComplete    the task to execute on completion
+         */
+        public Job( Consumer<PointBuffer> plotter, Runnable onComplete )
+        {
+            this.plotter = plotter;
+            this.onComplete = onComplete;
+        }
+
+        @Override
+        public void run()
+        {
+            // A plot superseded before it could start is skipped.
+            if ( !cancelled )
+            {
+                PointBuffer buffer  = new PointBuffer();
+                lastPublished = System.nanoTime();
+                buffer.setMonitor( this );
+                try
+                {
+                    plotter.accept( buffer );
+                    buffer.setMonitor( null );
+                    publish( buffer, Progress.State.COMPLETED, null );
+                }
+                catch ( CancellationException exc )
+                {
+                    // Abandoned by checkpoint; nothing to publish.
+                }
+                catch ( RuntimeException exc )
+                {
+                    publish( new PointBuffer(), Progress.State.FAILED, exc );
+                }
+            }
+        }
+
+        /**
+         * Abandons the plot if it has been cancelled,
+         * otherwise publishes the points
+         * generated so far,
+         * if the frame interval has elapsed.
+         * <p>
+         * The published points are accumulated
+         * in a buffer owned by this Job,
+         * to which only the points
+         * added to the given buffer
+         * since the previous publication are copied,
+         * so that the cost of publication
+         * is proportional to the number of new points,
+         * rather than to the size of the plot.
+         * The EDT is given a {@linkplain PointBuffer#view() view}
+         * of the accumulated points,
+         * which shares the accumulating buffer's arrays,
+         * so partial results occupy one copy of the plot,
+         * plus any arrays the accumulating buffer has outgrown
+         * while the EDT still holds a view of them.
+         * Points are only ever appended
+         * beyond the end of a published view,
+         * and a view is handed to the EDT
+         * via SwingUtilities.invokeLater,
+         * so every point in a view is visible to the EDT,
+         * and none is modified while the EDT reads it.
+         * </p>
+         * <p>
+         * A plot is assumed to add points to the end of its buffer,
+         * and not to replace points already checkpointed.
+         * If the monitored buffer is replaced,
+         * or shrinks,
+         * the accumulated points are discarded
+         * and the points of the buffer are copied in full.
+         * Partial results are for display only;
+         * the final result of a plot
+         * is always the plotter's own buffer.
+         * </p>
+         * 
+         * @param buffer    the buffer filled by the plot
+         * 
+         * @throws CancellationException if the plot has been cancelled
+         */
+        @Override
+        public void checkpoint( PointBuffer buffer )
+        {
+            if ( cancelled )
+                throw new CancellationException();
+            long    now     = System.nanoTime();
+            if ( now - lastPublished >= frameNanos )
+            {
+                // The EDT may still hold a view of the accumulated
+                // points, so they are never cleared or overwritten;
+                // a new buffer is started instead.
+                if ( buffer != source || buffer.size() < partial.size() )
+                {
+                    partial = new PointBuffer( buffer.size() );
+                    source = buffer;
+                }
+                partial.addAll( buffer, partial.size() );
+                publish( partial.view(), Progress.State.RUNNING, null );
+                lastPublished = now;
+            }
+        }
+
+        /**
+         * Publishes a given result
+         * on the event dispatch thread,
+         * unless the plot has been cancelled
+         * in the meantime.
+         * 
+         * @param result    the given result
+         * @param state     the state of the plot
+         * @param error     the exception that terminated the plot, if any
+         */
+        private void
+        publish( PointBuffer result, Progress.State state, Throwable error )
+        {
+            SwingUtilities.invokeLater( () -> {
+                if ( currJob == this )
+                {
+                    points = result;
+                    if ( state != Progress.State.RUNNING )
+                        currJob = null;
+                    if ( state == Progress.State.COMPLETED )
+                        onComplete.run();
+                    BackgroundPlotter.this.propagate(
+                        state,
+                        result.size(),
+                        error
+                    );
+                    onUpdate.run();
+                }
+            });
+        }
+    }
+}
@@ -363,6 +363,11 @@ public class CPConstants
     /////////////////////////////////////////////////
     /** Notifies the application that the graphic must be redrawn. */
     public static final String  REDRAW_NP               = "redraw";
+    /** 
+     * Reports the progress of a background plot;
+     * the data is a {@linkplain BackgroundPlotter.Progress}.
+     */
+    public static final String  PLOT_PROGRESS_NP        = "plotProgress";
     
     /////////////////////////////////////////////////
     //   Component names
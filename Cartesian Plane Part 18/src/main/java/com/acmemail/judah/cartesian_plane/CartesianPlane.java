@@ -4,14 +4,23 @@ import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.awt.Shape;
+import java.awt.image.BufferedImage;
 import java.awt.geom.Rectangle2D;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+
+import com.acmemail.judah.cartesian_plane.input.PointBuffer;
+import com.acmemail.judah.cartesian_plane.input.Viewport;
 
 /**
  * This class encapsulates the display of a Cartesian plane.
@@ -403,10 +412,11 @@ public class CartesianPlane
      */
     private static final PropertyManager pmgr   = PropertyManager.INSTANCE;
     
+    // A Profile stores the window size as a float, e.g. "500.0".
     private static final int    mainWindowWidthDV   =
-        pmgr.asInt( CPConstants.MW_WIDTH_PN );
+        pmgr.asFloat( CPConstants.MW_WIDTH_PN ).intValue();
     private static final int    mainWindowHeightDV   =
-        pmgr.asInt( CPConstants.MW_HEIGHT_PN );
+        pmgr.asFloat( CPConstants.MW_HEIGHT_PN ).intValue();
     
     /////////////////////////////////////////////////
     //   General grid properties
@@ -453,6 +463,52 @@ public class CartesianPlane
     private Supplier<Stream<PlotCommand>>   streamSupplier  = 
         () -> Stream.empty();
     
+    /**
+     * Factory, set by the user,
+     * that creates a plotter
+     * to fill a PointBuffer with the points of a curve.
+     * If non-null, used instead of the stream supplier.
+     */
+    private Function<Viewport,Consumer<PointBuffer>>    bufferPlotter   =
+        null;
+    /** 
+     * Executes the plotters of bufferPlotter and imagePlotter
+     * on a background thread.
+     */
+    private final BackgroundPlotter         plotWorker      = 
+        new BackgroundPlotter( this::repaint );
+    /**
+     * Factory, set by the user,
+     * that creates a plotter
+     * to obtain an image covering the grid.
+     * If non-null, used instead of the stream supplier
+     * and buffer plotter.
+     */
+    private Function<Viewport,Supplier<BufferedImage>>  imagePlotter    =
+        null;
+    /** 
+     * The image most recently generated by the image plotter;
+     * null if none.
+     */
+    private BufferedImage                   plotImage       = null;
+    /**
+     * Overlaid plots, set by the user.
+     * If non-empty, used instead of the stream supplier
+     * and buffer plotter.
+     */
+    private List<PlotLayer>                 layers          = List.of();
+    /**
+     * Instrumentation hook, set by the user,
+     * notified with the decimator of the buffer plot or layers
+     * every time they are drawn; may be null.
+     */
+    private Consumer<PlotDecimator>         decimationMonitor   = null;
+    /** 
+     * The visible region of the grid, in user coordinates;
+     * null until the grid has been painted with a non-empty size.
+     */
+    private volatile Viewport               viewport        = null;
+    
     /////////////////////////////////////////////////
     //   Plot properties (properties to use
     //   when plotting a point on the grid)
@@ -462,6 +518,31 @@ public class CartesianPlane
     private PlotShape  plotShape       = new PointShape();
     
     private GraphManager  graphMgr;
+    
+    /////////////////////////////////////////////////
+    //   Grid cache. The background, grid lines,
+    //   axes, tics and labels are drawn once
+    //   into an image, which is drawn again
+    //   every time the plane is painted.
+    //   The image is redrawn only when the size
+    //   of the window, the grid rectangle,
+    //   the device scale or the profile changes.
+    /////////////////////////////////////////////////
+    /** The image of the grid; null until first drawn. */
+    private BufferedImage       gridImage           = null;
+    /** The grid rectangle in effect when the image was drawn. */
+    private Rectangle2D         gridImageRect       = null;
+    /** The device scale in effect when the image was drawn. */
+    private double              gridImageScale      = 0;
+    /** The profile version in effect when the image was drawn. */
+    private int                 gridImageVersion    = -1;
+    /** 
+     * Incremented every time a property
+     * that affects the appearance of the grid changes.
+     */
+    private int                 profileVersion      = 0;
+    /** The number of times the grid image has been drawn. */
+    private int                 gridBuildCount      = 0;
 
     ///////////////////////////////////////////////////////
     //
@@ -473,7 +554,7 @@ public class CartesianPlane
     private int                 currHeight;
     private Graphics2D          gtx;
     private Rectangle2D         gridRect;
-    private PlotShape           currPlotShape;
+    private PlotBatch           plotBatch;
     private double              xOffset;
     private double              yOffset;
         
@@ -499,10 +580,11 @@ public class CartesianPlane
         setPreferredSize( dim );
         pmgr.addPropertyChangeListener( this );
         
-        // Register listener for redraw notifications
+        // Register listener for redraw notifications; they may
+        // originate on any thread.
         NotificationManager.INSTANCE.addNotificationListener(
             CPConstants.REDRAW_NP,
-            e -> repaint()
+            e -> SwingUtilities.invokeLater( this::redraw )
         );
         
         graphMgr = new GraphManager( gridRect, new Profile() );
@@ -543,21 +625,22 @@ public class CartesianPlane
         Shape   origClip    = gtx.getClip();
         gtx.setClip( gridRect );
         
-        // The plot color and plot shape are set to defaults
-        // each time paintComponent is invoked. The user can
-        // change the values but they will only be in effect
-        // for the duration of one paintComponent execute; with
-        // the next paintComponent execution they will return
-        // to their default values.
-        currPlotShape = plotShape;
-        
         // Values to use in mapping Cartesian coordinates 
         // to pixel coordinates
         xOffset = gridRect.getX() + (gridRect.getWidth() - 1) / 2;
         yOffset = gridRect.getY() + (gridRect.getHeight() - 1) / 2;
+        Viewport    oldViewport = viewport;
+        updateViewport();
+        if ( viewport != oldViewport )
+            startPlot();
 
-        graphMgr.refresh( gtx, gridRect );
-        graphMgr.drawAll();
+        if ( imagePlotter != null && viewport != null )
+        {
+            graphMgr.refresh( gtx, gridRect );
+            drawImagePlot();
+        }
+        else
+            drawGrid();
         drawUserPlot();
         
         gtx.setClip( origClip );
@@ -573,8 +656,51 @@ public class CartesianPlane
     {
         double  xco = userXco * gridUnit + xOffset;
         double  yco = -userYco * gridUnit + yOffset;
-        Shape   shape   = currPlotShape.getShape( xco, yco );
-        gtx.draw( shape );
+        plotBatch.add( xco, yco );
+    }
+    
+    /**
+     * Plots a point,
+     * given in user coordinates,
+     * via a given decimator.
+     * 
+     * @param userXco   the x-coordinate of the point
+     * @param userYco   the y-coordinate of the point
+     * @param decimator the given decimator
+     * 
+     * @see #plotPoint(float, float)
+     */
+    private void 
+    plotPoint( float userXco, float userYco, PlotDecimator decimator )
+    {
+        double  xco = userXco * gridUnit + xOffset;
+        double  yco = -userYco * gridUnit + yOffset;
+        decimator.add( xco, yco );
+    }
+    
+    /**
+     * Returns the region of the grid
+     * that is currently visible,
+     * in user coordinates,
+     * together with the number of device pixels per unit.
+     * The viewport is recalculated
+     * every time the grid is painted,
+     * so it follows changes to the size of the window
+     * and to the grid unit.
+     * A plotter installed via
+     * {@linkplain #setBufferPlotterFactory(Function)}
+     * is given the viewport
+     * to limit its plot to the visible region;
+     * this method may be invoked
+     * from the plotter's background thread.
+     * 
+     * @return  
+     *      the visible region of the grid,
+     *      or null if the grid has not yet been painted
+     */
+    public Viewport getViewport()
+    {
+        return viewport;
     }
     
     /**
@@ -585,7 +711,7 @@ public class CartesianPlane
      */
     public void setPlotColor( Color color )
     {
-        gtx.setColor( color );
+        plotBatch.setColor( color );
     }
     
     /**
@@ -596,7 +722,7 @@ public class CartesianPlane
      */
     public void setPlotShape( PlotShape plotShape )
     {
-        currPlotShape = plotShape;
+        plotBatch.setShape( plotShape );
     }
     
     public void propertyChange( PropertyChangeEvent evt )
@@ -673,6 +799,7 @@ public class CartesianPlane
         
         if ( update )
         {
+            ++profileVersion;
             graphMgr.resetProfile();
             repaint();
         }
@@ -688,19 +815,474 @@ public class CartesianPlane
      */
     public void setStreamSupplier( Supplier<Stream<PlotCommand>> supplier )
     {
+        bufferPlotter = null;
+        imagePlotter = null;
+        layers = List.of();
+        plotWorker.clear();
         if ( supplier != null )
             streamSupplier = supplier;
         else
             streamSupplier = () -> Stream.empty();
     }
     
+    /**
+     * Sets the plotter
+     * that will fill a PointBuffer
+     * with the points of a curve.
+     * This is the preferred alternative
+     * to {@linkplain #setStreamSupplier(Supplier)}
+     * for large plots;
+     * the points are stored in a buffer,
+     * so no object is created for an individual point.
+     * <p>
+     * The plotter is executed on a background thread
+     * (see {@linkplain BackgroundPlotter})
+     * when it is set,
+     * when the viewport changes
+     * and when a {@linkplain CPConstants#REDRAW_NP redraw}
+     * notification is received;
+     * in between, the plane is painted
+     * using the most recent result.
+     * Partial results are painted
+     * while the plotter is running.
+     * Executing the plotter
+     * cancels any previous execution
+     * that has not yet completed.
+     * </p>
+     * <p>
+     * Setting a plotter
+     * replaces any previously set stream supplier,
+     * image plotter or layers.
+     * </p>
+     * 
+     * @param plotter   the plotter; may be null
+     * 
+     * @see #setBufferPlotterFactory(Function)
+     */
+    public void setBufferPlotter( Consumer<PointBuffer> plotter )
+    {
+        setBufferPlotterFactory( plotter != null ? v -> plotter : null );
+    }
+    
+    /**
+     * Sets the factory
+     * that creates the plotter
+     * that will fill a PointBuffer
+     * with the points of a curve.
+     * The plotter is used exactly as described for
+     * {@linkplain #setBufferPlotter(Consumer)};
+     * however, a new plotter is obtained from the factory
+     * every time a plot is started.
+     * The factory is invoked on the event dispatch thread,
+     * and is given the current viewport,
+     * which is null if the grid has not yet been painted.
+     * This allows the factory to take a snapshot
+     * of the data to be plotted,
+     * such as a copy of an Equation,
+     * so that the plotter,
+     * which is executed on a background thread,
+     * never accesses data that is modified
+     * on the event dispatch thread.
+     * 
+     * @param factory   the factory; may be null
+     */
+    public void 
+    setBufferPlotterFactory( Function<Viewport,Consumer<PointBuffer>> factory )
+    {
+        streamSupplier = () -> Stream.empty();
+        imagePlotter = null;
+        layers = List.of();
+        bufferPlotter = factory;
+        if ( factory != null )
+            plotWorker.start( factory.apply( viewport ) );
+        else
+            plotWorker.clear();
+    }
+    
+    /**
+     * Sets the plotter
+     * that will produce an image
+     * covering the visible region of the grid,
+     * such as a domain coloring.
+     * The plotter is given the current viewport,
+     * and must return an image
+     * with one pixel per device pixel of the viewport;
+     * the image is drawn beneath the grid lines, axes and labels.
+     * <p>
+     * The plotter is executed on a background thread
+     * (see {@linkplain BackgroundPlotter})
+     * when it is set,
+     * when the viewport changes
+     * and when a {@linkplain CPConstants#REDRAW_NP redraw}
+     * notification is received;
+     * until it completes
+     * the plane is painted
+     * using the previous image, if any.
+     * Since a redraw does not necessarily change the image
+     * the plotter should cache its image
+     * while its input is unchanged.
+     * </p>
+     * <p>
+     * Setting a plotter
+     * replaces any previously set stream supplier,
+     * buffer plotter or layers.
+     * </p>
+     * 
+     * @param plotter   the plotter; may be null
+     * 
+     * @see #setImagePlotterFactory(Function)
+     */
+    public void setImagePlotter( Function<Viewport,BufferedImage> plotter )
+    {
+        setImagePlotterFactory( 
+            plotter != null ? v -> () -> plotter.apply( v ) : null
+        );
+    }
+    
+    /**
+     * Sets the factory
+     * that creates the plotter
+     * that will produce an image
+     * covering the visible region of the grid.
+     * The plotter is used exactly as described for
+     * {@linkplain #setImagePlotter(Function)};
+     * however, a new plotter is obtained from the factory
+     * every time an image is started.
+     * The factory is invoked on the event dispatch thread,
+     * and is given the current viewport,
+     * so that it may take a snapshot
+     * of the data to be rendered;
+     * the plotter is executed on a background thread.
+     * 
+     * @param factory   the factory; may be null
+     */
+    public void setImagePlotterFactory( 
+        Function<Viewport,Supplier<BufferedImage>> factory
+    )
+    {
+        streamSupplier = () -> Stream.empty();
+        bufferPlotter = null;
+        imagePlotter = factory;
+        plotImage = null;
+        layers = List.of();
+        plotWorker.clear();
+        startPlot();
+    }
+    
+    /**
+     * Sets a list of plots
+     * to overlay on the grid,
+     * each drawn with its own color and shape.
+     * The layers are drawn in order,
+     * so the last layer in the list is drawn on top.
+     * <p>
+     * The layers are replotted on a background thread
+     * (see {@linkplain BackgroundPlotter})
+     * when they are set,
+     * when the viewport changes
+     * and when a {@linkplain CPConstants#REDRAW_NP redraw}
+     * notification is received.
+     * Only visible layers
+     * whose equations have changed
+     * since they were last plotted
+     * are regenerated;
+     * the others are drawn
+     * from their most recent plots.
+     * </p>
+     * <p>
+     * Setting a list of layers
+     * replaces any previously set stream supplier,
+     * buffer plotter or image plotter.
+     * </p>
+     * 
+     * @param layers    the list of layers; may be null
+     * 
+     * @see PlotLayer#setVisible(boolean)
+     */
+    public void setLayers( List<PlotLayer> layers )
+    {
+        streamSupplier = () -> Stream.empty();
+        bufferPlotter = null;
+        imagePlotter = null;
+        plotWorker.clear();
+        this.layers = layers != null ? List.copyOf( layers ) : List.of();
+        startPlot();
+    }
+    
+    /**
+     * Sets the instrumentation hook
+     * that is notified every time
+     * the plot of the buffer plotter or layers is drawn.
+     * Before they are drawn
+     * the points of the plot
+     * are passed through a {@linkplain PlotDecimator},
+     * which omits points that would have no visible effect;
+     * the hook is given the decimator
+     * after the plot has been drawn,
+     * from which it may obtain the number of points
+     * that were, and were not, drawn,
+     * and the reduction ratio.
+     * The hook is invoked on the event dispatch thread.
+     * 
+     * @param monitor   the instrumentation hook; may be null
+     */
+    public void setDecimationMonitor( Consumer<PlotDecimator> monitor )
+    {
+        decimationMonitor = monitor;
+    }
+    
+    /**
+     * Responds to a redraw notification.
+     * If a buffer plotter or layers are set
+     * the plot is generated again,
+     * since the data it plots may have changed;
+     * in any case, the plane is repainted.
+     */
+    private void redraw()
+    {
+        startPlot();
+        repaint();
+    }
+    
+    /**
+     * Starts generating the plot
+     * of the buffer plotter, layers or image plotter
+     * on the background thread,
+     * if any is set.
+     * An image is not started
+     * until the viewport is known.
+     */
+    private void startPlot()
+    {
+        if ( bufferPlotter != null )
+            plotWorker.start( bufferPlotter.apply( viewport ) );
+        else if ( imagePlotter != null && viewport != null )
+        {
+            Supplier<BufferedImage> plotter = imagePlotter.apply( viewport );
+            BufferedImage[]         result  = new BufferedImage[1];
+            plotWorker.start( 
+                b -> result[0] = plotter.get(), 
+                () -> plotImage = result[0]
+            );
+        }
+        else if ( !layers.isEmpty() )
+        {
+            PlotLayer.Update    update  =
+                new PlotLayer.Update( layers, viewport );
+            plotWorker.start( update, update );
+        }
+    }
+    
     /**
      * Draws the user plot.
+     * Points are drawn in batches
+     * (see {@linkplain PlotBatch}).
+     * The points of the buffer plotter or layers
+     * are first decimated
+     * (see {@linkplain PlotDecimator}),
+     * and the decimator is given to the
+     * {@linkplain #setDecimationMonitor(Consumer) decimation monitor},
+     * if any.
      */
     private void drawUserPlot()
     {
+        // The plot color and plot shape are set to defaults
+        // each time paintComponent is invoked. The user can
+        // change the values but they will only be in effect
+        // for the duration of one paintComponent execute; with
+        // the next paintComponent execution they will return
+        // to their default values.
         gtx.setColor( plotColor );
-        streamSupplier.get().forEach( c -> c.execute() );
+        plotBatch = new PlotBatch( gtx, plotShape );
+        PlotDecimator   decimator   = null;
+        if ( bufferPlotter != null || !layers.isEmpty() )
+        {
+            Rectangle   bounds  =
+                gtx.getTransform().createTransformedShape( gridRect )
+                    .getBounds();
+            decimator = new PlotDecimator( plotBatch, bounds );
+        }
+        if ( bufferPlotter != null )
+            drawBufferPlot( decimator );
+        else if ( !layers.isEmpty() )
+            drawLayers( decimator );
+        else
+            streamSupplier.get().forEach( c -> c.execute() );
+        plotBatch.flush();
+        if ( decimator != null && decimationMonitor != null )
+            decimationMonitor.accept( decimator );
+    }
+    
+    /**
+     * Draws the background, grid lines, axes, tics and labels
+     * from the cached image of the grid,
+     * first redrawing the image
+     * if the size of the window, the grid rectangle,
+     * the device scale or the profile
+     * has changed since it was last drawn.
+     * The image covers the whole window,
+     * with one pixel per device pixel,
+     * and is clipped to the grid rectangle
+     * when it is drawn.
+     */
+    private void drawGrid()
+    {
+        double  devScale    = Math.max( 1, gtx.getTransform().getScaleX() );
+        int     imageWidth  = (int)Math.ceil( currWidth * devScale );
+        int     imageHeight = (int)Math.ceil( currHeight * devScale );
+        boolean valid       =
+            gridImage != null
+            && gridImage.getWidth() == imageWidth
+            && gridImage.getHeight() == imageHeight
+            && gridImageScale == devScale
+            && gridImageVersion == profileVersion
+            && gridRect.equals( gridImageRect );
+        if ( !valid && imageWidth > 0 && imageHeight > 0 )
+        {
+            gridImage = new BufferedImage( 
+                imageWidth, 
+                imageHeight, 
+                BufferedImage.TYPE_INT_RGB
+            );
+            Graphics2D  imageGtx    = gridImage.createGraphics();
+            imageGtx.setRenderingHints( gtx.getRenderingHints() );
+            imageGtx.scale( devScale, devScale );
+            imageGtx.setClip( gridRect );
+            graphMgr.refresh( imageGtx, gridRect );
+            graphMgr.drawAll();
+            imageGtx.dispose();
+            gridImageRect = gridRect;
+            gridImageScale = devScale;
+            gridImageVersion = profileVersion;
+            ++gridBuildCount;
+        }
+        if ( gridImage != null )
+            gtx.drawImage( gridImage, 0, 0, currWidth, currHeight, null );
+    }
+    
+    /**
+     * Gets the number of times
+     * the grid image has been drawn.
+     * Intended for testing the grid cache.
+     * 
+     * @return  the number of times the grid image has been drawn
+     */
+    int getGridBuildCount()
+    {
+        return gridBuildCount;
+    }
+    
+    /**
+     * Draws the grid
+     * with the image most recently generated by the image plotter,
+     * if any,
+     * between the background and the grid lines.
+     * The image is scaled to fill the grid rectangle.
+     */
+    private void drawImagePlot()
+    {
+        graphMgr.drawBackground();
+        if ( plotImage != null )
+            gtx.drawImage( 
+                plotImage,
+                (int)Math.round( gridRect.getX() ),
+                (int)Math.round( gridRect.getY() ),
+                (int)Math.round( gridRect.getWidth() ),
+                (int)Math.round( gridRect.getHeight() ),
+                null
+            );
+        graphMgr.drawGridLines();
+        graphMgr.drawAxes();
+        graphMgr.drawMinorTics();
+        graphMgr.drawMajorTics();
+        graphMgr.drawText();
+    }
+    
+    /**
+     * Draws the user plot
+     * from the points most recently published
+     * by the buffer plotter.
+     * Breaks in the buffer are skipped.
+     * 
+     * @param decimator the decimator through which to plot the points
+     */
+    private void drawBufferPlot( PlotDecimator decimator )
+    {
+        PointBuffer pointBuffer = plotWorker.getPoints();
+        int         size        = pointBuffer.size();
+        double[]    xcos        = pointBuffer.getXArray();
+        double[]    ycos        = pointBuffer.getYArray();
+        for ( int inx = 0 ; inx < size ; ++inx )
+            if ( !pointBuffer.isBreak( inx ) )
+                plotPoint( (float)xcos[inx], (float)ycos[inx], decimator );
+    }
+    
+    /**
+     * Draws the visible layers,
+     * each with its own color and shape,
+     * from their most recent plots.
+     * Breaks in the plots are skipped.
+     * 
+     * @param decimator the decimator through which to plot the points
+     */
+    private void drawLayers( PlotDecimator decimator )
+    {
+        for ( PlotLayer layer : layers )
+        {
+            if ( layer.isVisible() )
+            {
+                PointBuffer points  = layer.getPoints();
+                int         size    = points.size();
+                double[]    xcos    = points.getXArray();
+                double[]    ycos    = points.getYArray();
+                setPlotColor( layer.getColor() );
+                setPlotShape( layer.getShape() );
+                decimator.reset();
+                for ( int inx = 0 ; inx < size ; ++inx )
+                    if ( !points.isBreak( inx ) )
+                        plotPoint( 
+                            (float)xcos[inx],
+                            (float)ycos[inx],
+                            decimator
+                        );
+            }
+        }
+        setPlotShape( plotShape );
+    }
+    
+    /**
+     * Recalculates the viewport
+     * from the current grid rectangle, grid unit
+     * and graphics context.
+     * The current viewport is retained
+     * if it is unchanged.
+     */
+    private void updateViewport()
+    {
+        if ( gridRect.getWidth() > 0 && gridRect.getHeight() > 0 )
+        {
+            // Convert the corners of the grid rectangle to
+            // user coordinates; see plotPoint.
+            double      minXco      = (gridRect.getMinX() - xOffset) / gridUnit;
+            double      maxXco      = (gridRect.getMaxX() - xOffset) / gridUnit;
+            double      minYco      = (yOffset - gridRect.getMaxY()) / gridUnit;
+            double      maxYco      = (yOffset - gridRect.getMinY()) / gridUnit;
+            Rectangle2D bounds      = 
+                new Rectangle2D.Double( 
+                    minXco, 
+                    minYco, 
+                    maxXco - minXco, 
+                    maxYco - minYco
+                );
+            
+            // On a high resolution display there may be more than one
+            // device pixel per logical pixel.
+            double      devScale    = gtx.getTransform().getScaleX();
+            double      ppu         = gridUnit * Math.max( 1, devScale );
+            Viewport    newViewport = new Viewport( bounds, ppu );
+            if ( !newViewport.equals( viewport ) )
+                viewport = newViewport;
+        }
     }
     
     private void paintMargins()
@@ -2,16 +2,15 @@ package com.acmemail.judah.cartesian_plane;
 
 import java.awt.BasicStroke;
 import java.awt.Color;
-import java.awt.Font;
 import java.awt.Graphics2D;
 import java.awt.Rectangle;
 import java.awt.Stroke;
 import java.awt.font.FontRenderContext;
 import java.awt.font.TextLayout;
 import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
 import java.awt.geom.Rectangle2D;
 import java.util.Iterator;
-import java.util.stream.StreamSupport;
 
 import javax.swing.JComponent;
 
@@ -84,6 +83,11 @@ public class GraphManager
      * referenced by an instance variable for convenience.
      */
     private final LinePropertySet   gridLine;
+    /** 
+     * The layouts of the labels drawn on the major tics;
+     * retained from one refresh to the next.
+     */
+    private final LabelCache        labelCache  = new LabelCache();
     
     
     /** 
@@ -96,6 +100,13 @@ public class GraphManager
     private float               gridUnit;
     /**  Graphics context; updated every time refresh() is invoked. */
     private Graphics2D          gtx;
+    /** 
+     * True to draw each set of lines, and the axes,
+     * as a single path; false (the default)
+     * to draw every line separately.
+     * @see #setDrawLinesAsPath(boolean)
+     */
+    private boolean             linesAsPath = false;
     
     /**
      * Constructor.
@@ -191,6 +202,57 @@ public class GraphManager
         profile.reset();
     }
     
+    /**
+     * Returns the cache of the layouts of the labels
+     * drawn on the major tics.
+     * The cache is emptied
+     * when the label font or the grid unit changes;
+     * its statistics show
+     * how often the labels were drawn
+     * without being formatted and laid out again.
+     * 
+     * @return  the cache of the layouts of the labels
+     */
+    public LabelCache getLabelCache()
+    {
+        return labelCache;
+    }
+    
+    /**
+     * Sets the flag that determines
+     * whether the grid lines, tic marks and axes
+     * are each drawn as a single path
+     * (see {@linkplain LineGenerator#getPath()})
+     * or line by line.
+     * Drawing a path is faster,
+     * but Java2D rasterizes a thin line
+     * at a fractional coordinate
+     * differently in a path,
+     * so the output is not always
+     * pixel-for-pixel the same
+     * as drawing line by line.
+     * The default is false.
+     * 
+     * @param linesAsPath   true to draw lines as paths
+     */
+    public void setDrawLinesAsPath( boolean linesAsPath )
+    {
+        this.linesAsPath = linesAsPath;
+    }
+    
+    /**
+     * Indicates whether the grid lines, tic marks and axes
+     * are each drawn as a single path.
+     * 
+     * @return  true if lines are drawn as paths
+     * 
+     * @see #setDrawLinesAsPath(boolean)
+     */
+    public boolean isDrawLinesAsPath()
+    {
+        return linesAsPath;
+    }
+    
     /**
      * Draw all the components of the sample graph.
      */
@@ -223,6 +285,10 @@ public class GraphManager
 
     /**
      * Draw the x- and y-axes.
+     * If lines are drawn as paths
+     * the axes are drawn as one path,
+     * so that they are rasterized
+     * the same way as the tic marks.
      */
     public void drawAxes()
     {
@@ -230,8 +296,18 @@ public class GraphManager
         gtx.setStroke( getStroke( axis.getStroke() ) );
         
         Iterator<Line2D>    iter    = LineGenerator.axesIterator( rect );
-        gtx.draw( iter.next() );
-        gtx.draw( iter.next() );
+        if ( linesAsPath )
+        {
+            Path2D  path    = new Path2D.Float();
+            path.append( iter.next(), false );
+            path.append( iter.next(), false );
+            gtx.draw( path );
+        }
+        else
+        {
+            gtx.draw( iter.next() );
+            gtx.draw( iter.next() );
+        }
     }
 
     /**
@@ -281,7 +357,10 @@ public class GraphManager
     }
 
     /**
-     * Draw the lines for the given line property set on the graph.
+     * Draw the lines for the given line property set on the graph,
+     * line by line or,
+     * if {@linkplain #setDrawLinesAsPath(boolean) enabled},
+     * as one path.
      *
      * @param   propSet the given line property set
      */
@@ -303,15 +382,18 @@ public class GraphManager
                 );
             gtx.setStroke( stroke );
             gtx.setColor( color );
-            StreamSupport
-                .stream( lineGen.spliterator(), false )
-                .forEach( gtx::draw );
+            if ( linesAsPath )
+                gtx.draw( lineGen.getPath() );
+            else
+                lineGen.forEachLine( gtx::draw );
         }
     }
     
     /**
      * Draw the text for the labels on either the vertical (x-axis)
      * or horizontal (y-axis) major tic marks.
+     * The layout of each label
+     * is obtained from the label cache.
      * 
      * @param orientation   
      *      LineGenerator.VERTICAL or LineGenerator.HORIZONTAL
@@ -326,14 +408,13 @@ public class GraphManager
         String  fontName    = mainWindow.getFontName();
         int     fontSize    = (int)mainWindow.getFontSize();
         int     fontStyle   = mainWindow.getFontStyle();
-        Font    labelFont   = 
-            new Font( fontName, fontStyle, fontSize );
-        gtx.setFont( labelFont );
+        FontRenderContext   frc     = gtx.getFontRenderContext();
+        labelCache.validate( fontName, fontStyle, fontSize, frc, gridUnit );
+        gtx.setFont( labelCache.getFont() );
 
         Color   fontColor   = mainWindow.getFGColor();
         gtx.setColor( fontColor );
         
-        FontRenderContext   frc     = gtx.getFontRenderContext();
         float   originXco   = (float)rect.getCenterX();
         float   originYco   = (float)rect.getCenterY();
         LineGenerator       lineGen = 
@@ -352,9 +433,7 @@ public class GraphManager
             float       delta   = orientation == LineGenerator.HORIZONTAL ?
                 (originYco - yco1) : (xco2 - originXco); 
             float       unit    = delta / gridUnit;
-            String      label   = String.format( "%3.2f", unit );
-            TextLayout  layout  = 
-                new TextLayout( label, labelFont, frc );
+            TextLayout  layout  = labelCache.getLayout( unit );
             Rectangle2D bounds  = layout.getBounds();
             float       xco     = 0;
             float       yco     = 0;
@@ -0,0 +1,276 @@
+package com.acmemail.judah.cartesian_plane;
+
+import java.awt.Font;
+import java.awt.font.FontRenderContext;
+import java.awt.font.TextLayout;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of the text layouts
+ * of the labels drawn on the major tics of a grid.
+ * A label is identified
+ * by the value it displays,
+ * the font in which it is drawn
+ * and the precision with which the value is formatted;
+ * formatting the value
+ * and laying out the resulting text
+ * is done only the first time the label is needed.
+ * <p>
+ * The font, precision and grid unit
+ * are common to every label in the cache.
+ * The font is established,
+ * together with the grid unit
+ * and the font render context,
+ * by {@linkplain #validate(String, int, int, FontRenderContext, float)};
+ * if any of them has changed
+ * since the cache was last validated
+ * the cache is emptied.
+ * The font render context is included
+ * because the layout of text
+ * depends on the transform and rendering hints
+ * of the graphics context in which it is drawn.
+ * </p>
+ * <p>
+ * When the cache is full
+ * the least recently used label is discarded.
+ * The cache keeps a count of hits, misses
+ * and the number of times it has been invalidated.
+ * A LabelCache is not thread-safe;
+ * it is intended to be used
+ * from the event dispatch thread.
+ * </p>
+ * 
+ * @author Jack Straub
+ * 
+ * @see GraphManager#getLabelCache()
+ */
+public class LabelCache
+{
+    /** Default maximum number of labels in a cache. */
+    public static final int DEFAULT_CAPACITY    = 256;
+    /** Default number of digits following the decimal point. */
+    public static final int DEFAULT_PRECISION   = 2;
+
+    /** Maximum number of labels in this cache. */
+    private final int                       capacity;
+    /** The format with which to convert a value to a label. */
+    private final String                    format;
+    /** The labels in this cache, by value, in access order. */
+    private final Map<Float,TextLayout>     map;
+
+    /** The font of the labels in this cache; null if none. */
+    private Font                            font        = null;
+    /** The context in which the labels were laid out. */
+    private FontRenderContext               frc         = null;
+    /** The grid unit in effect when the cache was validated. */
+    private float                           gridUnit    = Float.NaN;
+    /** Number of requests satisfied from the cache. */
+    private long                            hits        = 0;
+    /** Number of requests that required a new layout. */
+    private long                            misses      = 0;
+    /** Number of times the cache has been emptied by validate. */
+    private long                            invalidations   = 0;
+
+    /**
+     * Default constructor.
+     * Instantiates a cache
+     * with a default capacity and precision.
+     */
+    public LabelCache()
+    {
+        this( DEFAULT_CAPACITY, DEFAULT_PRECISION );
+    }
+
+    /**
+     * Constructor.
+     * Instantiates a cache
+     * with a given capacity,
+     * whose labels are formatted
+     * with a given number of digits
+     * following the decimal point.
+     * 
+     * @param capacity  the given capacity
+     * @param precision the given number of digits
+     * 
+     * @throws IllegalArgumentException
+     *      if capacity is not positive
+     *      or precision is negative
+     */
+    public LabelCache( int capacity, int precision )
+    {
+        if ( capacity < 1 )
+        {
+            String  msg = "Invalid capacity: " + capacity;
+            throw new IllegalArgumentException( msg );
+        }
+        if ( precision < 0 )
+        {
+            String  msg = "Invalid precision: " + precision;
+            throw new IllegalArgumentException( msg );
+        }
+        this.capacity = capacity;
+        format = "%3." + precision + "f";
+        map = new LinkedHashMap<>( 16, .75f, true ) {
+            private static final long serialVersionUID = 1L;
+            @Override
+            protected boolean
+            removeEldestEntry( Map.Entry<Float,TextLayout> eldest )
+            {
+                return size() > LabelCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Establishes the font of the labels,
+     * the context in which they are laid out
+     * and the grid unit.
+     * If any of them has changed
+     * since the cache was last validated
+     * the cache is emptied.
+     * 
+     * @param fontName  the name of the font
+     * @param fontStyle the style of the font
+     * @param fontSize  the size of the font
+     * @param frc       the context in which labels are laid out
+     * @param gridUnit  the grid unit
+     */
+    public void validate(
+        String fontName,
+        int fontStyle,
+        int fontSize,
+        FontRenderContext frc,
+        float gridUnit
+    )
+    {
+        boolean valid   =
+            font != null
+            && font.getName().equals( fontName )
+            && font.getStyle() == fontStyle
+            && font.getSize() == fontSize
+            && frc.equals( this.frc )
+            && Float.compare( gridUnit, this.gridUnit ) == 0;
+        if ( !valid )
+        {
+            if ( font != null )
+                ++invalidations;
+            map.clear();
+            font = new Font( fontName, fontStyle, fontSize );
+            this.frc = frc;
+            this.gridUnit = gridUnit;
+        }
+    }
+
+    /**
+     * Returns the font of the labels in this cache.
+     * 
+     * @return
+     *      the font of the labels in this cache,
+     *      or null if the cache has never been validated
+     */
+    public Font getFont()
+    {
+        return font;
+    }
+
+    /**
+     * Returns the layout of the label
+     * that displays a given value,
+     * formatting the value and laying out the label
+     * if it is not in the cache.
+     * 
+     * @param value the given value
+     * 
+     * @return  the layout of the label that displays the given value
+     * 
+     * @throws IllegalStateException
+     *      if the cache has never been validated
+     */
+    public TextLayout getLayout( float value )
+    {
+        if ( font == null )
+            throw new IllegalStateException( "Cache not validated" );
+        TextLayout  layout  = map.get( value );
+        if ( layout != null )
+            ++hits;
+        else
+        {
+            ++misses;
+            String  label   = String.format( format, value );
+            layout = new TextLayout( label, font, frc );
+            map.put( value, layout );
+        }
+        return layout;
+    }
+
+    /**
+     * Returns the maximum number of labels
+     * in this cache.
+     * 
+     * @return  the maximum number of labels in this cache
+     */
+    public int getCapacity()
+    {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of labels
+     * currently in this cache.
+     * 
+     * @return  the number of labels currently in this cache
+     */
+    public int size()
+    {
+        return map.size();
+    }
+
+    /**
+     * Returns the number of requests
+     * satisfied from this cache.
+     * 
+     * @return  the number of requests satisfied from this cache
+     */
+    public long getHitCount()
+    {
+        return hits;
+    }
+
+    /**
+     * Returns the number of requests
+     * that required a new layout.
+     * 
+     * @return  the number of requests that required a new layout
+     */
+    public long getMissCount()
+    {
+        return misses;
+    }
+
+    /**
+     * Returns the number of times
+     * this cache has been emptied
+     * because the font, font render context
+     * or grid unit changed.
+     * 
+     * @return  the number of times this cache has been invalidated
+     */
+    public long getInvalidationCount()
+    {
+        return invalidations;
+    }
+
+    /**
+     * Discards all labels in this cache,
+     * and resets the hit, miss and invalidation counts to 0.
+     * The font is retained.
+     */
+    public void clear()
+    {
+        map.clear();
+        hits = 0;
+        misses = 0;
+        invalidations = 0;
+    }
+}
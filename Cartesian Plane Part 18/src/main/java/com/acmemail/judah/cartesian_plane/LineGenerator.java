@@ -1,12 +1,12 @@
 package com.acmemail.judah.cartesian_plane;
 
 import java.awt.geom.Line2D;
-import java.awt.geom.Point2D;
+import java.awt.geom.Path2D;
 import java.awt.geom.Rectangle2D;
-import java.util.ArrayList;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
 
 /**
  * An instance of this class
@@ -30,6 +30,13 @@ import java.util.List;
  * the user can obtain an Iterator&lt;Line2D&gt;
  * to generate the lines,
  * or use a for-each loop.
+ * Where the lines are only to be drawn,
+ * {@link #forEachLine(Consumer)}
+ * traverses them without creating
+ * a new object for every line,
+ * and {@link #getPath()}
+ * combines them in a single shape
+ * that can be drawn with one operation.
  * Lines are never generated at the edges;
  * for example, 
  * given a rectangle=(0, 0, 200, 300)
@@ -150,7 +157,7 @@ Iterator<Line2D>    axisIterator    =
 gtx.draw( axisIterator.next() );
 gtx.draw( axisIterator.next() );
 </div>
- *
+ * 
  * @author Jack Straub
  */
 public class LineGenerator implements Iterable<Line2D>
@@ -175,12 +182,18 @@ public class LineGenerator implements Iterable<Line2D>
     /** Orientation, set in constructor. */
     private final int           orientation;
     
-    /** List containing the axial lines. */
-    private final List<Line2D>  axes        = new LinkedList<>();
-    /** List containing the non-axial horizontal lines. */
-    private final List<Line2D>  horLines    = new LinkedList<>();
-    /** List containing the non-axial vertical lines. */
-    private final List<Line2D>  vertLines   = new LinkedList<>();
+    /** 
+     * Y-coordinates of the non-axial horizontal lines,
+     * in ascending order;
+     * computed the first time they are needed.
+     */
+    private float[]             horYcos     = null;
+    /** 
+     * X-coordinates of the non-axial vertical lines,
+     * in ascending order;
+     * computed the first time they are needed.
+     */
+    private float[]             vertXcos    = null;
     
     /** 
      * X-coordinate of the origin of the encapsulated grid. Equivalent
@@ -271,6 +284,9 @@ public class LineGenerator implements Iterable<Line2D>
      * with the given bounding rectangle,
      * grid unit, lines-per-unit line length,
      * and orientation.
+     * The lines themselves
+     * are not computed
+     * until they are first needed.
      * 
      * @param rect          the given bounding rectangle
      * @param gridUnit      the given grid unit
@@ -298,9 +314,6 @@ public class LineGenerator implements Iterable<Line2D>
         rightLimit = (float)rect.getMaxX();
         topLimit = (float)rect.getMinY();
         bottomLimit = (float)rect.getMaxY();
-        computeHorizontals();
-        computeVerticals();
-        computeAxes();
     }
     
     /**
@@ -328,26 +341,110 @@ public class LineGenerator implements Iterable<Line2D>
      * the vertical and/or horizontal lines
      * depending on the parameters
      * passed to the constructor.
+     * Each line returned by the iterator
+     * is a new object,
+     * which the caller may retain.
      * 
      * @return 
      *      an iterator to traverse
      *      the non-axial lines of the encapsulated grid
      * 
      * See {@link #VERTICAL}, {@link #HORIZONTAL}, {@link #BOTH}.
+     * 
+     * @see #forEachLine(Consumer)
      */
     @Override
     public Iterator<Line2D> iterator()
     {
-        List<Line2D>    allLines    = new ArrayList<>();
-        if ( (orientation & HORIZONTAL) != 0 )
-            allLines.addAll( horLines );
-        if ( (orientation & VERTICAL) != 0 )
-            allLines.addAll( vertLines );
+        int                 count   = getLineCount();
+        Iterator<Line2D>    iter    = new Iterator<>() {
+            private int next    = 0;
+            
+            @Override
+            public boolean hasNext()
+            {
+                return next < count;
+            }
             
-        Iterator<Line2D>    iter    = allLines.iterator();
+            @Override
+            public Line2D next()
+            {
+                if ( next >= count )
+                    throw new NoSuchElementException();
+                Line2D  line    = new Line2D.Float();
+                setLine( next++, line );
+                return line;
+            }
+        };
         return iter;
     }
     
+    /**
+     * Passes each of the non-axial lines
+     * of the encapsulated grid
+     * to a given consumer,
+     * in the order of {@link #iterator()}.
+     * A single Line2D object
+     * is reused for every line,
+     * so the consumer must not retain it;
+     * this is the preferred way
+     * to draw the lines individually.
+     * 
+     * @param action    the given consumer
+     */
+    public void forEachLine( Consumer<? super Line2D> action )
+    {
+        int     count   = getLineCount();
+        Line2D  line    = new Line2D.Float();
+        for ( int inx = 0 ; inx < count ; ++inx )
+        {
+            setLine( inx, line );
+            action.accept( line );
+        }
+    }
+    
+    /**
+     * Returns a single shape
+     * containing all the non-axial lines
+     * of the encapsulated grid,
+     * each as a separate segment
+     * with the same end points
+     * as the corresponding line
+     * traversed by {@link #iterator()}.
+     * <p>
+     * Drawing the shape
+     * with a single call to Graphics2D.draw
+     * is much faster than drawing the lines individually,
+     * but it is not always pixel-for-pixel equivalent:
+     * with the default stroke control,
+     * Java2D rasterizes a thin line
+     * whose coordinates fall between pixels
+     * differently depending on whether
+     * it is drawn as a Line2D or as part of a path.
+     * The two agree when the coordinates
+     * and the stroke width are integers.
+     * To keep a grid, its tic marks and its axes aligned
+     * draw all of them the same way;
+     * by default {@linkplain GraphManager} draws them line by line,
+     * and as paths only if asked to
+     * (see {@linkplain GraphManager#setDrawLinesAsPath(boolean)}).
+     * </p>
+     * 
+     * @return  
+     *      a shape containing all the non-axial lines
+     *      of the encapsulated grid
+     */
+    public Path2D getPath()
+    {
+        int     count   = getLineCount();
+        Path2D  path    = new Path2D.Float( Path2D.WIND_NON_ZERO, 2 * count );
+        forEachLine( line -> {
+            path.moveTo( line.getX1(), line.getY1() );
+            path.lineTo( line.getX2(), line.getY2() );
+        });
+        return path;
+    }
+    
     /**
      * Returns an iterator
      * that traverses the x- and y-axes
@@ -358,7 +455,11 @@ public class LineGenerator implements Iterable<Line2D>
      */
     public Iterator<Line2D> axesIterator()
     {
-        return axes.iterator();
+        Line2D  xAxis   = 
+            new Line2D.Float( leftLimit, originYco, rightLimit, originYco );
+        Line2D  yAxis   = 
+            new Line2D.Float( originXco, topLimit, originXco, bottomLimit );
+        return List.of( xAxis, yAxis ).iterator();
     }
     
     /**
@@ -372,7 +473,7 @@ public class LineGenerator implements Iterable<Line2D>
      */
     public float getHorLineCount()
     {
-        return horLines.size();
+        return getHorYcos().length;
     }
 
     /**
@@ -386,93 +487,126 @@ public class LineGenerator implements Iterable<Line2D>
      */
     public float getVertLineCount()
     {
-        return vertLines.size();
+        return getVertXcos().length;
     }
-
+    
     /**
-     * Computes the non-axial horizontal lines
-     * in the encapsulated grid.
-     * Added to the horizontal line list
-     * in ascending order of the y-coordinates.
+     * Returns the number of non-axial lines
+     * traversed by {@link #iterator()},
+     * taking into account the orientation
+     * passed to the constructor.
+     * 
+     * @return  the number of lines traversed by the iterator
      */
-    private void computeHorizontals()
+    private int getLineCount()
     {
-        float   spacing = gpu / lpu;
-        float   xco1    = originXco - horLength / 2;
-        float   xco2    = originXco + horLength / 2;
-
-        for ( 
-            float yco = originYco - spacing ; 
-            yco > topLimit ; 
-            yco -= spacing
-        )
-        {
-            Point2D left    = new Point2D.Double( xco1, yco );
-            Point2D right   = new Point2D.Double( xco2, yco );
-            Line2D  line    = new Line2D.Double( left, right );
-            horLines.add( 0, line );
-        }
-
-        for ( 
-            float yco = originYco + spacing ; 
-            yco < bottomLimit ; 
-            yco += spacing
-        )
-        {
-            Point2D left    = new Point2D.Double( xco1, yco );
-            Point2D right   = new Point2D.Double( xco2, yco );
-            Line2D  line    = new Line2D.Double( left, right );
-            horLines.add( line );
-        }
+        int     count   = 0;
+        if ( (orientation & HORIZONTAL) != 0 )
+            count += getHorYcos().length;
+        if ( (orientation & VERTICAL) != 0 )
+            count += getVertXcos().length;
+        return count;
     }
     
     /**
-     * Computes the non-axial vertical lines
-     * in the encapsulated grid.
-     * Added to the vertical line list
-     * in ascending order of the x-coordinates.
+     * Sets a given Line2D object
+     * to the non-axial line at a given index
+     * in the order of {@link #iterator()}:
+     * horizontal lines, if any, from top to bottom,
+     * followed by vertical lines, if any, from left to right.
+     * 
+     * @param inx   the given index
+     * @param line  the given Line2D object
      */
-    private void computeVerticals()
+    private void setLine( int inx, Line2D line )
     {
-        float   spacing = gpu / lpu;
-        float   yco1    = originYco - vertLength / 2;
-        float   yco2    = originYco + vertLength / 2;
-
-        for ( 
-            float xco = originXco - spacing ;
-            xco > leftLimit ; 
-            xco -= spacing
-        )
+        int     horCount    = 
+            (orientation & HORIZONTAL) != 0 ? getHorYcos().length : 0;
+        if ( inx < horCount )
         {
-            Point2D top     = new Point2D.Double( xco, yco1 );
-            Point2D bottom  = new Point2D.Double( xco, yco2 );
-            Line2D  line    = new Line2D.Double( top, bottom );
-            vertLines.add( 0, line );
+            float   yco     = horYcos[inx];
+            float   xco1    = originXco - horLength / 2;
+            float   xco2    = originXco + horLength / 2;
+            line.setLine( xco1, yco, xco2, yco );
         }
-
-        for ( 
-            float xco = originXco + spacing ; 
-            xco < rightLimit ; 
-            xco += spacing
-        )
+        else
         {
-            Point2D top     = new Point2D.Double( xco, yco1 );
-            Point2D bottom  = new Point2D.Double( xco, yco2 );
-            Line2D  line    = new Line2D.Double( top, bottom );
-            vertLines.add( line );
+            float   xco     = getVertXcos()[inx - horCount];
+            float   yco1    = originYco - vertLength / 2;
+            float   yco2    = originYco + vertLength / 2;
+            line.setLine( xco, yco1, xco, yco2 );
         }
     }
+
+    /**
+     * Returns the y-coordinates 
+     * of the non-axial horizontal lines
+     * in the encapsulated grid,
+     * in ascending order,
+     * computing them if necessary.
+     * 
+     * @return  
+     *      the y-coordinates of the non-axial horizontal lines
+     */
+    private float[] getHorYcos()
+    {
+        if ( horYcos == null )
+            horYcos = computeCoordinates( originYco, topLimit, bottomLimit );
+        return horYcos;
+    }
+    
+    /**
+     * Returns the x-coordinates 
+     * of the non-axial vertical lines
+     * in the encapsulated grid,
+     * in ascending order,
+     * computing them if necessary.
+     * 
+     * @return  
+     *      the x-coordinates of the non-axial vertical lines
+     */
+    private float[] getVertXcos()
+    {
+        if ( vertXcos == null )
+            vertXcos = computeCoordinates( originXco, leftLimit, rightLimit );
+        return vertXcos;
+    }
     
     /**
-     * Computes the axes of the encapsulated grid.
+     * Computes the coordinates of the non-axial lines
+     * in one direction,
+     * spaced according to the grid unit and lines-per-unit,
+     * moving away from a given origin
+     * and stopping short of given limits.
+     * The coordinates are returned
+     * in ascending order.
+     * 
+     * @param origin    the given origin
+     * @param lower     the given lower limit
+     * @param upper     the given upper limit
+     * 
+     * @return  the coordinates of the non-axial lines, in ascending order
      */
-    private void computeAxes()
+    private float[] computeCoordinates( float origin, float lower, float upper )
     {
-        Point2D hPoint1 = new Point2D.Double( leftLimit, originYco );
-        Point2D hPoint2 = new Point2D.Double( rightLimit, originYco );
-        Point2D vPoint1 = new Point2D.Double( originXco, topLimit );
-        Point2D vPoint2 = new Point2D.Double( originXco, bottomLimit );
-        axes.add( new Line2D.Double( hPoint1, hPoint2 ) );
-        axes.add( new Line2D.Double( vPoint1, vPoint2 ) );
+        // The coordinates are accumulated, rather than calculated
+        // from an index, so that they are the same as they always
+        // have been. Count them before storing them.
+        float   spacing = gpu / lpu;
+        int     below   = 0;
+        for ( float co = origin - spacing ; co > lower ; co -= spacing )
+            ++below;
+        int     above   = 0;
+        for ( float co = origin + spacing ; co < upper ; co += spacing )
+            ++above;
+        
+        float[] coords  = new float[below + above];
+        int     inx     = below;
+        for ( float co = origin - spacing ; co > lower ; co -= spacing )
+            coords[--inx] = co;
+        inx = below;
+        for ( float co = origin + spacing ; co < upper ; co += spacing )
+            coords[inx++] = co;
+        return coords;
     }
 }
@@ -0,0 +1,518 @@
+package com.acmemail.judah.cartesian_plane;
+
+import java.awt.AlphaComposite;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * Draws the points of a plot
+ * in batches,
+ * rather than with one call to Graphics2D.draw
+ * for every point.
+ * Points are added to the batch
+ * in pixel coordinates,
+ * and are drawn in the current color
+ * using the current PlotShape.
+ * Changing the color or the shape
+ * first draws any points
+ * already in the batch,
+ * so points are drawn in the order
+ * in which they are added,
+ * and the result is visually identical
+ * to drawing each point individually.
+ * <ul>
+ * <li>
+ *     Points drawn with a {@linkplain PointShape}
+ *     in an opaque color
+ *     are accumulated in a single shape,
+ *     which is drawn with one operation,
+ *     except when antialiasing is enabled
+ *     in a scaled graphics context.
+ *     Unless antialiasing is enabled,
+ *     the graphics context is scaled
+ *     or it has a non-default stroke,
+ *     each point is represented
+ *     by the device pixel that drawing it individually
+ *     would have set.
+ * </li>
+ * <li>
+ *     Points drawn with a {@linkplain CircleShape}
+ *     or {@linkplain DiamondShape}
+ *     are drawn by stamping a pre-rendered image
+ *     of the shape (a <em>sprite</em>).
+ *     Since the way a shape is rasterized
+ *     depends on the fractional part of its position,
+ *     a separate sprite is rendered,
+ *     when first needed,
+ *     for each quarter pixel offset;
+ *     a sprite may therefore be stamped
+ *     up to a quarter of a pixel
+ *     from the exact position of its point.
+ * </li>
+ * <li>
+ *     Unless antialiasing is enabled,
+ *     a point that would be drawn, in an opaque color,
+ *     exactly where the previous point was drawn
+ *     is omitted,
+ *     since drawing it has no visible effect.
+ *     Dense plots often have many such points.
+ * </li>
+ * <li>
+ *     Points drawn with any other PlotShape
+ *     are drawn individually.
+ * </li>
+ * </ul>
+ * A batch must be {@linkplain #flush() flushed}
+ * after the last point is added.
+ * 
+ * @author Jack Straub
+ */
+public class PlotBatch
+{
+    /** The maximum number of points in a batch. */
+    private static final int    MAX_POINTS      = 4096;
+    /** The number of sprites rendered per pixel, in each direction. */
+    private static final int    PHASES          = 4;
+    /** The stroke of an unmodified graphics context. */
+    private static final BasicStroke    defaultStroke   = new BasicStroke();
+
+    /** Draw each point individually. */
+    private static final int    DIRECT  = 0;
+    /** Accumulate points in a single shape. */
+    private static final int    POINTS  = 1;
+    /** Stamp a sprite for each point. */
+    private static final int    SPRITES = 2;
+
+    /** The graphics context in which to draw. */
+    private final Graphics2D        gtx;
+    /** The transform from pixel coordinates to device coordinates. */
+    private final AffineTransform   transform;
+    /**
+     * True if the transform has no rotation or shear,
+     * so that sprites can be stamped
+     * in device coordinates.
+     */
+    private final boolean           stampable;
+    /** Accumulates the points drawn with a PointShape. */
+    private final Path2D            path        = new Path2D.Float();
+    /** The device x-coordinates of the sprites to stamp. */
+    private final int[]             stampXcos   = new int[MAX_POINTS];
+    /** The device y-coordinates of the sprites to stamp. */
+    private final int[]             stampYcos   = new int[MAX_POINTS];
+    /** The sprites to stamp, by index into the sprite array. */
+    private final int[]             stampPhases = new int[MAX_POINTS];
+    /**
+     * The sprites for the current color and shape, by offset;
+     * each is rendered the first time it is needed.
+     */
+    private final BufferedImage[]   sprites     =
+        new BufferedImage[PHASES * PHASES];
+
+    /** True if a point is represented by a single device pixel. */
+    private final boolean           pixelExact;
+    /** True if points drawn with a PointShape may be batched. */
+    private final boolean           batchPoints;
+    /** True if antialiasing is enabled. */
+    private final boolean           smooth;
+
+    /** The shape with which to draw points. */
+    private PlotShape               shape;
+    /** The way in which points are drawn: DIRECT, POINTS or SPRITES. */
+    private int                     mode;
+    /** True if the current color is opaque. */
+    private boolean                 opaque;
+    /** The number of points in the batch. */
+    private int                     count;
+    /** The device x-coordinate of the previous point in the batch. */
+    private int                     prevXco;
+    /** The device y-coordinate of the previous point in the batch. */
+    private int                     prevYco;
+    /** The offset within its pixel of the previous point in the batch. */
+    private int                     prevPhase;
+    /** The device x-coordinate of the origin of every sprite. */
+    private int                     spriteXco;
+    /** The device y-coordinate of the origin of every sprite. */
+    private int                     spriteYco;
+
+    /**
+     * Constructor.
+     * Establishes the graphics context in which to draw
+     * and the initial shape.
+     * The initial color
+     * is the current color of the graphics context.
+     * The transform, rendering hints and stroke
+     * of the graphics context
+     * must not be changed
+     * while the batch is in use.
+     * 
+     * @param gtx   the graphics context in which to draw
+     * @param shape the initial shape
+     */
+    public PlotBatch( Graphics2D gtx, PlotShape shape )
+    {
+        this.gtx = gtx;
+        transform = gtx.getTransform();
+        int     flags   =
+            AffineTransform.TYPE_FLIP
+            | AffineTransform.TYPE_MASK_ROTATION
+            | AffineTransform.TYPE_GENERAL_TRANSFORM;
+        stampable = (transform.getType() & flags) == 0;
+        
+        Object  antialias   =
+            gtx.getRenderingHint( RenderingHints.KEY_ANTIALIASING );
+        smooth = antialias == RenderingHints.VALUE_ANTIALIAS_ON;
+        int     translate   = AffineTransform.TYPE_TRANSLATION;
+        boolean scaled      = (transform.getType() & ~translate) != 0;
+        pixelExact =
+            !scaled && !smooth && defaultStroke.equals( gtx.getStroke() );
+        
+        // Antialiased points in a scaled context are blended
+        // differently when they are drawn as a single shape.
+        batchPoints = !(scaled && smooth);
+        opaque = isOpaque( gtx.getColor() );
+        setShape( shape );
+    }
+
+    /**
+     * Sets the color with which to draw points,
+     * first drawing any points in the batch.
+     * 
+     * @param color the color with which to draw points
+     */
+    public void setColor( Color color )
+    {
+        flush();
+        gtx.setColor( color );
+        opaque = isOpaque( color );
+        selectMode();
+    }
+
+    /**
+     * Sets the shape with which to draw points,
+     * first drawing any points in the batch.
+     * 
+     * @param shape the shape with which to draw points
+     */
+    public void setShape( PlotShape shape )
+    {
+        flush();
+        this.shape = shape;
+        selectMode();
+    }
+
+    /**
+     * Adds a point to the batch,
+     * drawing the batch if it is full.
+     * 
+     * @param xco   the x-coordinate of the point, in pixels
+     * @param yco   the y-coordinate of the point, in pixels
+     */
+    public void add( double xco, double yco )
+    {
+        if ( mode == DIRECT )
+            gtx.draw( shape.getShape( xco, yco ) );
+        else if ( mode == POINTS )
+            addPoint( xco, yco );
+        else
+            addSprite( xco, yco );
+        if ( count == MAX_POINTS )
+            flush();
+    }
+
+    /**
+     * Draws any points in the batch,
+     * and empties the batch.
+     */
+    public void flush()
+    {
+        if ( count > 0 )
+        {
+            if ( mode == POINTS && pixelExact )
+                gtx.fill( path );
+            else if ( mode == POINTS )
+                gtx.draw( path );
+            else
+            {
+                // The stamps are in device coordinates.
+                gtx.setTransform( new AffineTransform() );
+                for ( int inx = 0 ; inx < count ; ++inx )
+                {
+                    BufferedImage   sprite  = getSprite( stampPhases[inx] );
+                    int             xco     = stampXcos[inx] - spriteXco;
+                    int             yco     = stampYcos[inx] - spriteYco;
+                    gtx.drawImage( sprite, xco, yco, null );
+                }
+                gtx.setTransform( transform );
+            }
+            path.reset();
+            count = 0;
+        }
+    }
+    
+    /**
+     * Returns the number of distinct positions,
+     * in each direction,
+     * at which a point can be drawn
+     * within a single device pixel,
+     * if drawing a point again
+     * at the same position
+     * has no visible effect;
+     * otherwise returns 0.
+     * Two points at the same position
+     * are those for which
+     * {@linkplain #toDeviceX(double)}
+     * and {@linkplain #toDeviceY(double)}
+     * fall in the same fraction of the same device pixel,
+     * the fraction being calculated
+     * as <em>(int)((d - floor(d)) * phases)</em>.
+     * The result changes
+     * when the color or shape changes.
+     * 
+     * @return  
+     *      the number of distinct positions within a pixel,
+     *      or 0 if a repeated point
+     *      may change the rendered result
+     */
+    int getPhases()
+    {
+        int     phases  = 0;
+        if ( opaque && !smooth )
+        {
+            if ( mode == POINTS && pixelExact )
+                phases = 1;
+            else if ( mode == SPRITES )
+                phases = PHASES;
+        }
+        return phases;
+    }
+    
+    /**
+     * Converts a given x-coordinate
+     * from pixels to device pixels.
+     * 
+     * @param xco   the given x-coordinate, in pixels
+     * 
+     * @return  the given x-coordinate in device pixels
+     */
+    double toDeviceX( double xco )
+    {
+        return transform.getScaleX() * xco + transform.getTranslateX();
+    }
+    
+    /**
+     * Converts a given y-coordinate
+     * from pixels to device pixels.
+     * 
+     * @param yco   the given y-coordinate, in pixels
+     * 
+     * @return  the given y-coordinate in device pixels
+     */
+    double toDeviceY( double yco )
+    {
+        return transform.getScaleY() * yco + transform.getTranslateY();
+    }
+    
+    /**
+     * Selects the way in which points are drawn
+     * for the current color and shape,
+     * and discards the sprites for the previous color and shape.
+     * Points drawn with a PointShape
+     * are accumulated in a single shape
+     * only if the color is opaque,
+     * since translucent points that overlap
+     * would otherwise be blended once instead of repeatedly.
+     * Squares are drawn individually
+     * because drawing a rectangle
+     * is already faster than stamping an image.
+     */
+    private void selectMode()
+    {
+        if ( shape instanceof PointShape && batchPoints && opaque )
+            mode = POINTS;
+        else if (
+            stampable
+            && (shape instanceof CircleShape || shape instanceof DiamondShape)
+        )
+            mode = SPRITES;
+        else
+            mode = DIRECT;
+        for ( int inx = 0 ; inx < sprites.length ; ++inx )
+            sprites[inx] = null;
+    }
+    
+    /**
+     * Indicates whether drawing a given color
+     * twice in the same place
+     * has the same result as drawing it once.
+     * 
+     * @param color the given color
+     * 
+     * @return  true if the given color is opaque
+     */
+    private boolean isOpaque( Color color )
+    {
+        boolean result  = 
+            color.getAlpha() == 255
+            && gtx.getComposite() == AlphaComposite.SrcOver;
+        return result;
+    }
+    
+    /**
+     * Indicates whether a point to be drawn
+     * at given device coordinates
+     * may be omitted,
+     * because it would be drawn in exactly the same place
+     * as the previous point in the batch,
+     * with the same result.
+     * Otherwise, the given coordinates are recorded
+     * as those of the previous point.
+     * 
+     * @param devXco    the given device x-coordinate
+     * @param devYco    the given device y-coordinate
+     * @param phase     the offset of the point within the pixel
+     * 
+     * @return  true if the point may be omitted
+     */
+    private boolean isRepeat( int devXco, int devYco, int phase )
+    {
+        boolean result  =
+            count > 0
+            && opaque
+            && !smooth
+            && devXco == prevXco
+            && devYco == prevYco
+            && phase == prevPhase;
+        prevXco = devXco;
+        prevYco = devYco;
+        prevPhase = phase;
+        return result;
+    }
+
+    /**
+     * Adds a point drawn with a PointShape
+     * to the accumulated shape.
+     * If the point is represented by a single device pixel
+     * a unit square covering the pixel
+     * is added to the shape,
+     * which will be filled;
+     * otherwise a line of length 0
+     * is added to the shape,
+     * which will be drawn.
+     * 
+     * @param xco   the x-coordinate of the point, in pixels
+     * @param yco   the y-coordinate of the point, in pixels
+     */
+    private void addPoint( double xco, double yco )
+    {
+        if ( pixelExact )
+        {
+            // Drawn individually, a line of length 0 sets the
+            // device pixel containing it.
+            double  transX  = transform.getTranslateX();
+            double  transY  = transform.getTranslateY();
+            double  devXco  = Math.floor( toDeviceX( xco ) );
+            double  devYco  = Math.floor( toDeviceY( yco ) );
+            if ( !isRepeat( (int)devXco, (int)devYco, 0 ) )
+            {
+                double  left    = devXco - transX;
+                double  top     = devYco - transY;
+                path.moveTo( left, top );
+                path.lineTo( left + 1, top );
+                path.lineTo( left + 1, top + 1 );
+                path.lineTo( left, top + 1 );
+                path.closePath();
+                ++count;
+            }
+        }
+        else
+        {
+            path.moveTo( xco, yco );
+            path.lineTo( xco, yco );
+            ++count;
+        }
+    }
+
+    /**
+     * Adds a point to be drawn by stamping a sprite.
+     * 
+     * @param xco   the x-coordinate of the point, in pixels
+     * @param yco   the y-coordinate of the point, in pixels
+     */
+    private void addSprite( double xco, double yco )
+    {
+        double  devXco  = toDeviceX( xco );
+        double  devYco  = toDeviceY( yco );
+        double  intXco  = Math.floor( devXco );
+        double  intYco  = Math.floor( devYco );
+        int     phaseX  = (int)((devXco - intXco) * PHASES);
+        int     phaseY  = (int)((devYco - intYco) * PHASES);
+        int     phase   = phaseY * PHASES + phaseX;
+        if ( !isRepeat( (int)intXco, (int)intYco, phase ) )
+        {
+            stampXcos[count] = (int)intXco;
+            stampYcos[count] = (int)intYco;
+            stampPhases[count] = phase;
+            ++count;
+        }
+    }
+
+    /**
+     * Returns the sprite
+     * for a given offset within a pixel,
+     * rendering it if necessary.
+     * The sprite is the image of the current shape,
+     * drawn in the current color,
+     * with its origin
+     * at (spriteXco, spriteYco) plus the offset,
+     * in device pixels.
+     * 
+     * @param phase the index of the given offset
+     * 
+     * @return  the sprite for the given offset
+     */
+    private BufferedImage getSprite( int phase )
+    {
+        if ( sprites[phase] == null )
+        {
+            double          scaleX  = transform.getScaleX();
+            double          scaleY  = transform.getScaleY();
+            Shape           outline = shape.getShape( 0, 0 );
+            Rectangle2D     bounds  =
+                gtx.getStroke().createStrokedShape( outline ).getBounds2D();
+            spriteXco = (int)Math.ceil( -bounds.getMinX() * scaleX ) + 2;
+            spriteYco = (int)Math.ceil( -bounds.getMinY() * scaleY ) + 2;
+            int             width   =
+                spriteXco + (int)Math.ceil( bounds.getMaxX() * scaleX ) + 3;
+            int             height  =
+                spriteYco + (int)Math.ceil( bounds.getMaxY() * scaleY ) + 3;
+            BufferedImage   sprite  =
+                new BufferedImage(
+                    width,
+                    height,
+                    BufferedImage.TYPE_INT_ARGB
+                );
+            Graphics2D      spriteGtx   = sprite.createGraphics();
+            spriteGtx.setRenderingHints( gtx.getRenderingHints() );
+            spriteGtx.setStroke( gtx.getStroke() );
+            spriteGtx.setColor( gtx.getColor() );
+            spriteGtx.translate( spriteXco, spriteYco );
+            spriteGtx.scale( scaleX, scaleY );
+            double          xco     =
+                (double)(phase % PHASES) / PHASES / scaleX;
+            double          yco     =
+                (double)(phase / PHASES) / PHASES / scaleY;
+            spriteGtx.draw( shape.getShape( xco, yco ) );
+            spriteGtx.dispose();
+            sprites[phase] = sprite;
+        }
+        return sprites[phase];
+    }
+
+}
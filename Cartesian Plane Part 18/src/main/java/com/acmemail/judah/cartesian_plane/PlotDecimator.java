@@ -0,0 +1,205 @@
+package com.acmemail.judah.cartesian_plane;
+
+import java.awt.Rectangle;
+
+/**
+ * Removes, from the points of a plot,
+ * those that would have no visible effect
+ * if they were drawn,
+ * before passing the remaining points
+ * to a {@linkplain PlotBatch}.
+ * Points are projected to device coordinates
+ * and grouped by device pixel column;
+ * within each run of consecutive points
+ * that fall in the same column
+ * only the first point
+ * to fall at each position in the column
+ * is drawn.
+ * The number of points drawn
+ * is therefore bounded by the number of device pixels
+ * that the plot covers,
+ * rather than by the number of points in the plot.
+ * <p>
+ * A point is removed only if
+ * the batch reports
+ * that drawing a point again
+ * at the same position
+ * has no visible effect
+ * (see {@linkplain PlotBatch#getPhases()}),
+ * so the rendered result is pixel-for-pixel identical
+ * to drawing every point.
+ * Otherwise, as for translucent colors,
+ * antialiased drawing
+ * and shapes that are drawn individually,
+ * every point is drawn.
+ * Points that lie above or below
+ * a given region of the device
+ * are also always drawn.
+ * </p>
+ * <p>
+ * The decimator keeps count
+ * of the points it receives
+ * and the points it passes to the batch,
+ * from which the {@linkplain #getReductionRatio() reduction ratio}
+ * of a plot can be calculated.
+ * </p>
+ * 
+ * @author Jack Straub
+ * 
+ * @see CartesianPlane#setDecimationMonitor(java.util.function.Consumer)
+ */
+public class PlotDecimator
+{
+    /** The batch to which to pass points. */
+    private final PlotBatch batch;
+    /** The top of the region of the device in which to decimate. */
+    private final int       top;
+    /** The number of device pixel rows in the region. */
+    private final int       rows;
+
+    /**
+     * For each position in the current column,
+     * the run in which a point
+     * was last drawn at that position.
+     */
+    private int[]           runs        = new int[0];
+    /** The number of distinct positions in a pixel, in each direction. */
+    private int             phases;
+    /** The identifier of the current run. */
+    private int             run         = 0;
+    /** The device pixel column of the current run. */
+    private int             column      = 0;
+    /** The number of points received. */
+    private long            inputCount  = 0;
+    /** The number of points passed to the batch. */
+    private long            outputCount = 0;
+
+    /**
+     * Constructor.
+     * Establishes the batch to which to pass points,
+     * and the region of the device,
+     * in device pixels,
+     * in which points are decimated;
+     * this is typically the bounds
+     * of the graphics context's clip region.
+     * 
+     * @param batch     the batch to which to pass points
+     * @param bounds    the region in which points are decimated
+     */
+    public PlotDecimator( PlotBatch batch, Rectangle bounds )
+    {
+        this.batch = batch;
+        top = bounds.y;
+        rows = Math.max( 0, bounds.height );
+        reset();
+    }
+
+    /**
+     * Begins a new run of points.
+     * Must be invoked
+     * after the color or shape of the batch changes,
+     * since points drawn in one color or shape
+     * are not repeats of points drawn in another.
+     */
+    public void reset()
+    {
+        phases = batch.getPhases();
+        int     size    = rows * phases * phases;
+        if ( runs.length < size )
+            runs = new int[size];
+        ++run;
+    }
+
+    /**
+     * Passes a point to the batch,
+     * unless drawing it would have no visible effect.
+     * 
+     * @param xco   the x-coordinate of the point, in pixels
+     * @param yco   the y-coordinate of the point, in pixels
+     */
+    public void add( double xco, double yco )
+    {
+        ++inputCount;
+        if ( phases == 0 || !isRepeat( xco, yco ) )
+        {
+            batch.add( xco, yco );
+            ++outputCount;
+        }
+    }
+
+    /**
+     * Returns the number of points received.
+     * 
+     * @return  the number of points received
+     */
+    public long getInputCount()
+    {
+        return inputCount;
+    }
+
+    /**
+     * Returns the number of points passed to the batch.
+     * 
+     * @return  the number of points passed to the batch
+     */
+    public long getOutputCount()
+    {
+        return outputCount;
+    }
+
+    /**
+     * Returns the ratio of the number of points received
+     * to the number of points passed to the batch.
+     * If no points have been received
+     * the ratio is 1.
+     * 
+     * @return
+     *      the ratio of the number of points received
+     *      to the number of points passed to the batch
+     */
+    public double getReductionRatio()
+    {
+        double  ratio   =
+            outputCount == 0 ? 1 : (double)inputCount / outputCount;
+        return ratio;
+    }
+
+    /**
+     * Indicates whether a point
+     * falls at a position in the current column
+     * at which a point has already been drawn
+     * in the current run.
+     * If the point falls in a different column
+     * a new run is begun.
+     * The position is calculated
+     * exactly as {@linkplain PlotBatch} calculates it.
+     * 
+     * @param xco   the x-coordinate of the point, in pixels
+     * @param yco   the y-coordinate of the point, in pixels
+     * 
+     * @return  true if the point may be omitted
+     */
+    private boolean isRepeat( double xco, double yco )
+    {
+        double  devXco  = batch.toDeviceX( xco );
+        double  devYco  = batch.toDeviceY( yco );
+        double  intXco  = Math.floor( devXco );
+        double  intYco  = Math.floor( devYco );
+        int     row     = (int)intYco - top;
+        boolean result  = false;
+        if ( (int)intXco != column )
+        {
+            column = (int)intXco;
+            ++run;
+        }
+        if ( row >= 0 && row < rows )
+        {
+            int     phaseX  = (int)((devXco - intXco) * phases);
+            int     phaseY  = (int)((devYco - intYco) * phases);
+            int     inx     = (row * phases + phaseY) * phases + phaseX;
+            result = runs[inx] == run;
+            runs[inx] = run;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,331 @@
+package com.acmemail.judah.cartesian_plane;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.acmemail.judah.cartesian_plane.input.Command;
+import com.acmemail.judah.cartesian_plane.input.Equation;
+import com.acmemail.judah.cartesian_plane.input.IntervalPlotter;
+import com.acmemail.judah.cartesian_plane.input.OverlayPlotter;
+import com.acmemail.judah.cartesian_plane.input.PointBuffer;
+import com.acmemail.judah.cartesian_plane.input.Viewport;
+
+/**
+ * Encapsulates one of several plots
+ * overlaid on the Cartesian plane:
+ * a snapshot of an equation,
+ * the type of plot to generate from it,
+ * and the color and shape
+ * with which to draw its points.
+ * See {@linkplain CartesianPlane#setLayers(List)}.
+ * <p>
+ * A layer keeps the points of its most recent plot,
+ * together with the {@linkplain Equation#getVersion() version}
+ * of the equation that generated them,
+ * and, if the plot was
+ * {@linkplain IntervalPlotter#culls(Equation) culled}
+ * to the y-range of the viewport,
+ * the viewport.
+ * When the layers of the plane are replotted
+ * only those layers that are visible,
+ * and whose equations,
+ * or the y-ranges of whose culled plots,
+ * have changed
+ * since they were last plotted,
+ * are regenerated;
+ * so, for example,
+ * hiding and then showing a layer
+ * does not regenerate any plot.
+ * The stale layers are regenerated together
+ * by an {@linkplain OverlayPlotter}.
+ * </p>
+ * <p>
+ * A layer plots a {@linkplain Equation#copy() copy}
+ * of the equation it is given,
+ * taken when the layer is constructed,
+ * so later changes to the original equation
+ * do not affect the layer;
+ * to plot the changed equation
+ * construct a new layer.
+ * With the exception of the plot itself,
+ * a PlotLayer, and its copy of the equation,
+ * must be accessed
+ * from the event dispatch thread.
+ * The plot is generated on a background thread
+ * from a further copy of the equation,
+ * which no other thread accesses.
+ * </p>
+ * 
+ * @author Jack Straub
+ */
+public class PlotLayer
+{
+    /** The snapshot of the equation from which the plot is generated. */
+    private final Equation      equation;
+    /** The type of plot to generate. */
+    private final Command       plotType;
+    /** The color with which to draw the plot. */
+    private final Color         color;
+    /** The shape with which to draw each point of the plot. */
+    private final PlotShape     shape;
+    /** True if the plot is to be drawn. */
+    private boolean             visible     = true;
+    /** The points of the most recent plot. */
+    private PointBuffer         points      = new PointBuffer( 0 );
+    /**
+     * The version of the equation
+     * that generated the most recent plot;
+     * -1 if the layer has not been plotted.
+     */
+    private volatile long       version     = -1;
+    /**
+     * The viewport to whose y-range
+     * the most recent plot was culled;
+     * null if none.
+     */
+    private Viewport            yRange      = null;
+
+    /**
+     * Constructor.
+     * Establishes the equation,
+     * type of plot,
+     * color and shape
+     * of this layer.
+     * The layer keeps a copy of the given equation.
+     * 
+     * @param equation  the equation from which the plot is generated
+     * @param plotType
+     *      the type of plot to generate:
+     *      YPLOT, XYPLOT, RPLOT, TPLOT or FPLOT
+     * @param color     the color with which to draw the plot
+     * @param shape     the shape with which to draw each point
+     */
+    public PlotLayer(
+        Equation equation,
+        Command plotType,
+        Color color,
+        PlotShape shape
+    )
+    {
+        this.equation = equation.copy();
+        this.plotType = plotType;
+        this.color = color;
+        this.shape = shape;
+    }
+
+    /**
+     * Gets this layer's copy of the equation
+     * from which the plot is generated.
+     * Changing the copy
+     * causes the layer to be replotted
+     * the next time the layers are plotted.
+     * 
+     * @return  the equation from which the plot is generated
+     */
+    public Equation getEquation()
+    {
+        return equation;
+    }
+
+    /**
+     * Gets the type of plot generated by this layer.
+     * 
+     * @return  the type of plot generated by this layer
+     */
+    public Command getPlotType()
+    {
+        return plotType;
+    }
+
+    /**
+     * Gets the color with which to draw the plot.
+     * 
+     * @return  the color with which to draw the plot
+     */
+    public Color getColor()
+    {
+        return color;
+    }
+
+    /**
+     * Gets the shape with which to draw each point of the plot.
+     * 
+     * @return  the shape with which to draw each point of the plot
+     */
+    public PlotShape getShape()
+    {
+        return shape;
+    }
+
+    /**
+     * Indicates whether the plot is to be drawn.
+     * 
+     * @return  true if the plot is to be drawn
+     */
+    public boolean isVisible()
+    {
+        return visible;
+    }
+
+    /**
+     * Determines whether the plot is to be drawn.
+     * A hidden layer is not replotted,
+     * but retains the points of its most recent plot.
+     * After changing the visibility of a layer
+     * the client should request a
+     * {@linkplain CPConstants#REDRAW_NP redraw}.
+     * 
+     * @param visible   true if the plot is to be drawn
+     */
+    public void setVisible( boolean visible )
+    {
+        this.visible = visible;
+    }
+
+    /**
+     * Gets the points of the most recent plot.
+     * The buffer must not be modified.
+     * 
+     * @return  the points of the most recent plot
+     */
+    public PointBuffer getPoints()
+    {
+        return points;
+    }
+
+    /**
+     * Gets the version of the equation
+     * that generated the most recent plot.
+     * 
+     * @return
+     *      the version of the equation
+     *      that generated the most recent plot,
+     *      or -1 if the layer has not been plotted
+     */
+    public long getVersion()
+    {
+        return version;
+    }
+
+    /**
+     * Replots the visible, stale layers
+     * of a given list.
+     * When it is constructed,
+     * on the event dispatch thread,
+     * the Update gives each equation the current viewport,
+     * selects the stale layers
+     * and copies their equations;
+     * on the background thread
+     * it regenerates the stale plots from the copies
+     * (see {@linkplain #accept(PointBuffer)});
+     * on the event dispatch thread
+     * it publishes the new plots to their layers
+     * (see {@linkplain #run()}).
+     * The buffer passed to the Update
+     * is not filled,
+     * but its monitor is shared with the buffers
+     * of the regenerated plots,
+     * so that the operation may be cancelled.
+     * 
+     * @author Jack Straub
+     * 
+     * @see BackgroundPlotter#start(Consumer, Runnable)
+     */
+    static class Update implements Consumer<PointBuffer>, Runnable
+    {
+        /** The layers regenerated by this Update. */
+        private final List<PlotLayer>       stale       = new ArrayList<>();
+        /** 
+         * Copies of the equations of the stale layers;
+         * accessed only by the background thread.
+         */
+        private final List<Equation>        equations   = new ArrayList<>();
+        /** The points of the regenerated plots. */
+        private final List<PointBuffer>     buffers     = new ArrayList<>();
+        /** The versions of the equations of the regenerated plots. */
+        private final List<Long>            versions    = new ArrayList<>();
+        /** The viewports to which the regenerated plots are culled. */
+        private final List<Viewport>        yRanges     = new ArrayList<>();
+
+        /**
+         * Constructor.
+         * Gives the equation of every visible layer
+         * the given viewport,
+         * and selects the layers
+         * whose equations have changed
+         * since they were last plotted,
+         * or whose plots are culled to a y-range
+         * different from that of the given viewport.
+         * Must be invoked on the event dispatch thread.
+         * 
+         * @param layers    the layers to replot
+         * @param viewport  the viewport in effect for the plot
+         */
+        public Update( List<PlotLayer> layers, Viewport viewport )
+        {
+            for ( PlotLayer layer : layers )
+            {
+                if ( layer.isVisible() )
+                {
+                    Equation    equation    = layer.equation;
+                    equation.setViewport( viewport );
+                    long        currVersion = equation.getVersion();
+                    Viewport    currYRange  =
+                        layer.plotType == Command.YPLOT
+                        && IntervalPlotter.culls( equation ) ? viewport : null;
+                    if ( currVersion != layer.version 
+                        || !Viewport.sameYRange( currYRange, layer.yRange ) )
+                    {
+                        stale.add( layer );
+                        equations.add( equation.copy() );
+                        versions.add( currVersion );
+                        yRanges.add( currYRange );
+                    }
+                }
+            }
+        }
+
+        /**
+         * Regenerates the plots
+         * of the stale layers.
+         * Executed on the background thread.
+         * 
+         * @param buffer    supplies the monitor for the regenerated plots
+         */
+        @Override
+        public void accept( PointBuffer buffer )
+        {
+            List<Command>       plotTypes   = new ArrayList<>();
+            buffers.clear();
+            for ( PlotLayer layer : stale )
+            {
+                PointBuffer points  = new PointBuffer();
+                points.setMonitor( buffer.getMonitor() );
+                plotTypes.add( layer.plotType );
+                buffers.add( points );
+            }
+            OverlayPlotter.plot( equations, plotTypes, buffers );
+            buffers.forEach( b -> b.setMonitor( null ) );
+        }
+
+        /**
+         * Publishes the regenerated plots
+         * to their layers.
+         * Executed on the event dispatch thread
+         * when the plot is complete.
+         */
+        @Override
+        public void run()
+        {
+            for ( int inx = 0 ; inx < stale.size() ; ++inx )
+            {
+                PlotLayer   layer   = stale.get( inx );
+                layer.points = buffers.get( inx );
+                layer.version = versions.get( inx );
+                layer.yRange = yRanges.get( inx );
+            }
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.acmemail.judah.cartesian_plane;
+
+import java.awt.event.ActionEvent;
+
+import javax.swing.Timer;
+
+import com.acmemail.judah.cartesian_plane.input.ParameterSweep;
+
+/**
+ * Plays back the frames
+ * of a {@linkplain ParameterSweep}
+ * on a Cartesian plane,
+ * at a given number of frames per second.
+ * Each frame is displayed
+ * by installing a buffer plotter
+ * that copies the frame's points
+ * from the sweep;
+ * no frame is recomputed.
+ * By default,
+ * playback returns to the first frame
+ * after the last frame is displayed;
+ * see {@linkplain #setLoop(boolean)}.
+ * <p>
+ * All methods of this class
+ * must be invoked on the event dispatch thread.
+ * </p>
+ * 
+ * @author Jack Straub
+ * 
+ * @see CartesianPlane#setBufferPlotter(java.util.function.Consumer)
+ */
+public class SweepPlayer
+{
+    /** The plane on which the frames are displayed. */
+    private final CartesianPlane    plane;
+    /** The frames to display. */
+    private final ParameterSweep    sweep;
+    /** Fires once per frame while playback is in progress. */
+    private final Timer             timer;
+    /** The index of the frame currently displayed. */
+    private int                     frame   = 0;
+    /** True if playback returns to the first frame after the last. */
+    private boolean                 loop    = true;
+
+    /**
+     * Constructor.
+     * Establishes the plane on which to display frames,
+     * the frames to display,
+     * and the rate at which to display them.
+     * 
+     * @param plane the plane on which to display frames
+     * @param sweep the frames to display
+     * @param fps   the number of frames to display per second
+     * 
+     * @throws IllegalArgumentException if fps is not positive
+     */
+    public SweepPlayer( CartesianPlane plane, ParameterSweep sweep, double fps )
+    {
+        if ( !(fps > 0) )
+        {
+            String  msg = "Invalid frames per second: " + fps;
+            throw new IllegalArgumentException( msg );
+        }
+        this.plane = plane;
+        this.sweep = sweep;
+        int     delay   = (int)Math.max( 1, Math.round( 1000 / fps ) );
+        timer = new Timer( delay, this::advance );
+    }
+
+    /**
+     * Displays the current frame
+     * and starts playback.
+     * If the last frame is displayed
+     * and looping is disabled
+     * playback starts from the first frame.
+     */
+    public void start()
+    {
+        if ( !loop && frame == sweep.getFrameCount() - 1 )
+            frame = 0;
+        show();
+        timer.start();
+    }
+
+    /**
+     * Stops playback.
+     * The current frame remains displayed.
+     */
+    public void stop()
+    {
+        timer.stop();
+    }
+
+    /**
+     * Indicates whether playback is in progress.
+     * 
+     * @return  true if playback is in progress
+     */
+    public boolean isRunning()
+    {
+        return timer.isRunning();
+    }
+
+    /**
+     * Determines whether playback returns
+     * to the first frame
+     * after the last frame is displayed,
+     * or stops.
+     * 
+     * @param loop  true to return to the first frame
+     */
+    public void setLoop( boolean loop )
+    {
+        this.loop = loop;
+    }
+
+    /**
+     * Indicates whether playback returns
+     * to the first frame
+     * after the last frame is displayed.
+     * 
+     * @return  true if playback returns to the first frame
+     */
+    public boolean isLoop()
+    {
+        return loop;
+    }
+
+    /**
+     * Gets the index of the frame currently displayed.
+     * 
+     * @return  the index of the frame currently displayed
+     */
+    public int getFrame()
+    {
+        return frame;
+    }
+
+    /**
+     * Displays the frame at a given index.
+     * 
+     * @param frame the given index
+     * 
+     * @throws IndexOutOfBoundsException if frame is out of range
+     */
+    public void setFrame( int frame )
+    {
+        if ( frame < 0 || frame >= sweep.getFrameCount() )
+        {
+            String  msg = "Invalid frame: " + frame;
+            throw new IndexOutOfBoundsException( msg );
+        }
+        this.frame = frame;
+        show();
+    }
+
+    /**
+     * Displays the next frame.
+     * Invoked by the timer.
+     * 
+     * @param evt   the event that fired the timer; not used
+     */
+    private void advance( ActionEvent evt )
+    {
+        // A tick queued before the timer was stopped is ignored.
+        if ( timer.isRunning() )
+        {
+            int     next    = frame + 1;
+            if ( next < sweep.getFrameCount() )
+                frame = next;
+            else if ( loop )
+                frame = 0;
+            else
+                timer.stop();
+            if ( timer.isRunning() )
+                show();
+        }
+    }
+
+    /**
+     * Displays the current frame.
+     */
+    private void show()
+    {
+        int     curr    = frame;
+        plane.setBufferPlotter( b -> sweep.getFrame( curr, b ) );
+    }
+}
@@ -1,22 +1,36 @@
 package com.acmemail.judah.cartesian_plane.app;
 
+import java.awt.Color;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
 import java.util.function.Supplier;
 
 import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
 
-import com.acmemail.judah.cartesian_plane.CPConstants;
 import com.acmemail.judah.cartesian_plane.CartesianPlane;
-import com.acmemail.judah.cartesian_plane.NotificationManager;
-import com.acmemail.judah.cartesian_plane.PlotPointCommand;
+import com.acmemail.judah.cartesian_plane.PlotLayer;
+import com.acmemail.judah.cartesian_plane.PointShape;
+import com.acmemail.judah.cartesian_plane.SweepPlayer;
 import com.acmemail.judah.cartesian_plane.input.Command;
+import com.acmemail.judah.cartesian_plane.input.DomainColoring;
 import com.acmemail.judah.cartesian_plane.input.Equation;
+import com.acmemail.judah.cartesian_plane.input.EquationAnalyzer;
+import com.acmemail.judah.cartesian_plane.input.EquationAnalyzer.Extremum;
 import com.acmemail.judah.cartesian_plane.input.EquationMap;
 import com.acmemail.judah.cartesian_plane.input.FileManager;
 import com.acmemail.judah.cartesian_plane.input.InputParser;
+import com.acmemail.judah.cartesian_plane.input.IntervalPlotter;
+import com.acmemail.judah.cartesian_plane.input.ParameterSweep;
 import com.acmemail.judah.cartesian_plane.input.ParsedCommand;
+import com.acmemail.judah.cartesian_plane.input.PlotCache;
+import com.acmemail.judah.cartesian_plane.input.PointBuffer;
 import com.acmemail.judah.cartesian_plane.input.Result;
+import com.acmemail.judah.cartesian_plane.input.ValidationException;
+import com.acmemail.judah.cartesian_plane.input.Viewport;
 
 /**
  * Application to read operator input
@@ -32,9 +46,21 @@ public class CommandExecutor
     private static final int    newlLen             = newl.length();
     private static final String nullPlaneError      = 
         "CartesianPlane may not be null";
+    /** Colors assigned, in order, to the layers of an overlay. */
+    private static final Color[]    overlayColors   =
+    {
+        Color.BLUE, Color.RED, Color.GREEN.darker(), Color.MAGENTA,
+        Color.ORANGE.darker(), Color.CYAN.darker(), Color.BLACK
+    };
+    /** Frames per second at which a sweep is played by default. */
+    private static final double     defaultFPS      = 24;
     
     private final CartesianPlane    plane;
+    private final PlotCache         plotCache   = new PlotCache();
+    private final DomainColoring    coloring    = new DomainColoring();
     private InputParser             inputParser;
+    /** Plays the most recent sweep; accessed only on the EDT. */
+    private SweepPlayer             player      = null;
     
     /**
      * Constructor.
@@ -86,12 +112,26 @@ public class CommandExecutor
                 plotR();
             else if ( command == Command.TPLOT )
                 plotT();
+            else if ( command == Command.FPLOT )
+                plotF();
+            else if ( command == Command.DPLOT )
+                plotD();
+            else if ( command == Command.ZPLOT )
+                plotZ();
             else if ( command == Command.OPEN )
                 open( parsedCommand.getArgString() );
             else if ( command == Command.LOAD )
                 load( parsedCommand.getArgString() );
             else if ( command == Command.SELECT )
                 select( parsedCommand.getArgString() );
+            else if ( command == Command.OVERLAY )
+                overlay( parsedCommand.getArgString() );
+            else if ( command == Command.SWEEP )
+                sweep( parsedCommand.getArgString() );
+            else if ( command == Command.ROOTS
+                || command == Command.EXTREMA
+                || command == Command.INTEGRATE )
+                analyze( command, parsedCommand.getArgString() );
             else
                 ;
         } while ( command != Command.EXIT );
@@ -143,17 +183,95 @@ public class CommandExecutor
         );
     }
     
+    /**
+     * Installs a given plot method 
+     * of the current equation
+     * as the buffer plotter of the Cartesian plane;
+     * the plane executes the plotter in the background
+     * and repaints itself as results become available.
+     * The plotter is installed on the event dispatch thread.
+     * <p>
+     * The current equation is modified by this thread,
+     * so the plot is made from a snapshot of the equation,
+     * taken when the plot command is executed;
+     * after that the snapshot is accessed
+     * only on the event dispatch thread.
+     * Before every plot
+     * the snapshot is given the plane's current viewport,
+     * and the background thread is given
+     * a copy of the snapshot,
+     * which no other thread accesses.
+     * If the snapshot has not changed
+     * since the last plot
+     * the previous result is replayed
+     * from the plot cache;
+     * a y-plot that is
+     * {@linkplain IntervalPlotter#culls(Equation) culled}
+     * to the viewport's y-range
+     * is replayed only if the y-range has not changed.
+     * </p>
+     * 
+     * @param plotType  the type of plot
+     * @param plotter   the given plot method
+     */
+    private void 
+    plot( Command plotType, BiConsumer<Equation,PointBuffer> plotter )
+    {
+        stopSweep();
+        Equation    snapshot    = inputParser.getEquation().copy();
+        SwingUtilities.invokeLater( () ->
+            plane.setBufferPlotterFactory( v -> {
+                snapshot.setViewport( v );
+                long        version     = snapshot.getVersion();
+                Viewport    yRange      = 
+                    plotType == Command.YPLOT 
+                    && IntervalPlotter.culls( snapshot ) ? v : null;
+                Equation    equation    = snapshot.copy();
+                return b -> plotCache.plot( 
+                    snapshot, 
+                    version, 
+                    plotType, 
+                    yRange,
+                    p -> plotter.accept( equation, p ), 
+                    b
+                );
+            })
+        );
+    }
+    
     /**
      * Generate a plot of the form y = f(x).
      */
     private void plotY()
     {
-        plane.setStreamSupplier( () ->
-            inputParser.getEquation().yPlot()
-            .map( p -> PlotPointCommand.of( p, plane) )
-        );
-        NotificationManager.INSTANCE
-            .propagateNotification( CPConstants.REDRAW_NP );
+        plot( Command.YPLOT, CommandExecutor::yPlot );
+    }
+    
+    /**
+     * Generates the plot of the y-expression
+     * of a given Equation,
+     * storing the points in a given buffer.
+     * Where possible the plot is generated
+     * by an {@linkplain IntervalPlotter},
+     * which culls samples outside the viewport
+     * and breaks the line at asymptotes;
+     * if the Equation is configured
+     * for parallel or adaptive plotting,
+     * or its y-expression is not supported
+     * by interval evaluation,
+     * the Equation's own plot method is used.
+     * 
+     * @param equation  the given Equation
+     * @param buffer    the given buffer
+     */
+    private static void yPlot( Equation equation, PointBuffer buffer )
+    {
+        boolean interval    = 
+            !equation.isParallel() 
+            && equation.getAdaptiveSampler() == null
+            && IntervalPlotter.yPlot( equation, buffer );
+        if ( !interval )
+            equation.yPlot( buffer );
     }
     
     /**
@@ -162,12 +280,7 @@ public class CommandExecutor
      */
     private void plotR()
     {
-        plane.setStreamSupplier( () ->
-            inputParser.getEquation().rPlot()
-            .map( p -> PlotPointCommand.of( p, plane) )
-        );
-        NotificationManager.INSTANCE
-            .propagateNotification( CPConstants.REDRAW_NP );
+        plot( Command.RPLOT, Equation::rPlot );
     }
     
     /**
@@ -176,12 +289,59 @@ public class CommandExecutor
      */
     private void plotT()
     {
-        plane.setStreamSupplier( () ->
-            inputParser.getEquation().tPlot()
-            .map( p -> PlotPointCommand.of( p, plane) )
+        plot( Command.TPLOT, Equation::tPlot );
+    }
+    
+    /**
+     * Generate a plot from an implicit equation
+     * f(x,y) = 0.
+     */
+    private void plotF()
+    {
+        plot( Command.FPLOT, Equation::fPlot );
+    }
+    
+    /**
+     * Generate a plot of the derivative
+     * of y = f(x),
+     * calculated by automatic differentiation.
+     * If the current equation can't be differentiated
+     * an error is displayed,
+     * and the plot is not changed.
+     */
+    private void plotD()
+    {
+        try
+        {
+            inputParser.getEquation().derivative();
+            plot( Command.DPLOT, (e, b) -> e.derivative().yPlot( b ) );
+        }
+        catch ( ValidationException exc )
+        {
+            showError( new Result( false, List.of( exc.getMessage() ) ) );
+        }
+    }
+    
+    /**
+     * Generate a domain coloring of a complex function
+     * w = f(z).
+     * The image is rendered again
+     * only if the z-expression, the variables
+     * or the plane's viewport change.
+     * The image is rendered on the plane's background thread
+     * from a snapshot of the current equation,
+     * taken when the command is executed;
+     * the plotter is installed on the event dispatch thread.
+     */
+    private void plotZ()
+    {
+        stopSweep();
+        Equation            snapshot    = inputParser.getEquation().copy();
+        String              exprStr     = snapshot.getZExpression();
+        Map<String,Double>  vars        = snapshot.getVars();
+        SwingUtilities.invokeLater( () -> 
+            plane.setImagePlotter( v -> coloring.render( exprStr, vars, v ) )
         );
-        NotificationManager.INSTANCE
-            .propagateNotification( CPConstants.REDRAW_NP );
     }
     
     /**
@@ -189,12 +349,7 @@ public class CommandExecutor
      */
     private void plotXY()
     {
-        plane.setStreamSupplier( () ->
-            inputParser.getEquation().xyPlot()
-            .map( p -> PlotPointCommand.of( p, plane) )
-        );
-        NotificationManager.INSTANCE
-            .propagateNotification( CPConstants.REDRAW_NP );
+        plot( Command.XYPLOT, Equation::xyPlot );
     }
     
     /**
@@ -232,4 +387,196 @@ public class CommandExecutor
         if ( equation != null )
             inputParser = new InputParser( equation );
     }
+    
+    /**
+     * Overlay the plots of the equations
+     * with the given names,
+     * taken from the EquationMap.
+     * Each equation is plotted
+     * according to its most recently recorded plot type,
+     * in its own color.
+     * If a name is not found in the map,
+     * or an equation's plot type is a domain coloring,
+     * an error is displayed
+     * and nothing is plotted.
+     * <p>
+     * The equations in the map may be modified by this thread,
+     * so each layer plots a snapshot of its equation
+     * (see {@linkplain PlotLayer}),
+     * taken when this command is executed;
+     * to plot the modified equations
+     * the operator overlays them again.
+     * </p>
+     * 
+     * @param names a comma-separated list of equation names
+     */
+    private void overlay( String names )
+    {
+        List<PlotLayer> layers  = new ArrayList<>();
+        List<String>    errors  = new ArrayList<>();
+        for ( String name : names.split( "," ) )
+        {
+            String      trimmed     = name.trim();
+            Equation    equation    = EquationMap.getEquation( trimmed );
+            Command     plotType    = equation == null ?
+                Command.INVALID : Command.toCommand( equation.getPlot() );
+            if ( equation == null )
+                errors.add( "Equation not found: \"" + trimmed + "\"" );
+            else if ( plotType == Command.ZPLOT 
+                || plotType == Command.INVALID )
+                errors.add( "Cannot overlay plot type: " + plotType );
+            else
+            {
+                Color   color   = 
+                    overlayColors[layers.size() % overlayColors.length];
+                layers.add( 
+                    new PlotLayer( equation, plotType, color, new PointShape() )
+                );
+            }
+        }
+        
+        if ( !errors.isEmpty() )
+            showError( new Result( false, errors ) );
+        else
+        {
+            stopSweep();
+            SwingUtilities.invokeLater( () -> plane.setLayers( layers ) );
+        }
+    }
+    
+    /**
+     * Animate the plot of the current equation
+     * while sweeping one of its variables across a range.
+     * The argument has the form
+     * <em>name from to frames [fps]</em>.
+     * The plot type is the equation's
+     * most recently recorded plot type.
+     * All frames are computed
+     * before playback begins.
+     * 
+     * @param args  the name of the variable, the range,
+     *              the number of frames
+     *              and, optionally, the frames per second
+     */
+    private void sweep( String args )
+    {
+        String[]    argv        = args.trim().split( "[\\s,]+" );
+        Equation    equation    = inputParser.getEquation();
+        Command     plotType    = Command.toCommand( equation.getPlot() );
+        try
+        {
+            if ( argv.length < 4 || argv.length > 5 )
+                throw new IllegalArgumentException( 
+                    "Usage: sweep name from to frames [fps]"
+                );
+            double  from    = Double.parseDouble( argv[1] );
+            double  to      = Double.parseDouble( argv[2] );
+            int     frames  = Integer.parseInt( argv[3] );
+            double  fps     = 
+                argv.length == 5 ? Double.parseDouble( argv[4] ) : defaultFPS;
+            equation.setViewport( plane.getViewport() );
+            ParameterSweep  sweep       = ParameterSweep.compute( 
+                equation, plotType, argv[0], from, to, frames
+            );
+            SweepPlayer     newPlayer   = 
+                new SweepPlayer( plane, sweep, fps );
+            stopSweep();
+            SwingUtilities.invokeLater( () -> {
+                player = newPlayer;
+                player.start();
+            });
+        }
+        catch ( IllegalArgumentException | ValidationException exc )
+        {
+            showError( new Result( false, List.of( exc.getMessage() ) ) );
+        }
+    }
+    
+    /**
+     * Analyze y = f(x) for the current equation,
+     * and display the result in a message dialog:
+     * find its roots or local extrema,
+     * or calculate its definite integral.
+     * By default the analysis
+     * covers the equation's iteration range;
+     * optionally, the argument may give
+     * the limits of the analysis:
+     * <em>from to</em>.
+     * Results are formatted
+     * using the equation's precision.
+     * 
+     * @param command   ROOTS, EXTREMA or INTEGRATE
+     * @param args      optionally, the limits of the analysis
+     */
+    private void analyze( Command command, String args )
+    {
+        String      trimmed     = args.trim();
+        String[]    argv        = 
+            trimmed.isEmpty() ? new String[0] : trimmed.split( "[\\s,]+" );
+        Equation    equation    = inputParser.getEquation();
+        String      fmt         = "%." + equation.getPrecision() + "f";
+        try
+        {
+            if ( argv.length != 0 && argv.length != 2 )
+                throw new IllegalArgumentException( 
+                    "Usage: " + command.toString().toLowerCase() + " [from to]"
+                );
+            double  from    = argv.length == 0 ?
+                equation.getRangeStart() : Double.parseDouble( argv[0] );
+            double  to      = argv.length == 0 ?
+                equation.getRangeEnd() : Double.parseDouble( argv[1] );
+            double  step    = equation.getRangeStep();
+            StringBuilder   bldr    = new StringBuilder();
+            if ( command == Command.ROOTS )
+            {
+                List<Double>    roots   = 
+                    EquationAnalyzer.findRoots( equation, from, to, step );
+                bldr.append( roots.size() ).append( " root(s)" );
+                for ( double root : roots )
+                    bldr.append( newl ).append( String.format( fmt, root ) );
+            }
+            else if ( command == Command.EXTREMA )
+            {
+                List<Extremum>  extrema = 
+                    EquationAnalyzer.findExtrema( equation, from, to, step );
+                bldr.append( extrema.size() ).append( " extrema" );
+                for ( Extremum extremum : extrema )
+                    bldr.append( newl )
+                        .append( extremum.isMaximum() ? "max " : "min " )
+                        .append( String.format( fmt, extremum.getX() ) )
+                        .append( ", " )
+                        .append( String.format( fmt, extremum.getY() ) );
+            }
+            else
+            {
+                double  integral    = EquationAnalyzer.integrate( 
+                    equation, from, to, EquationAnalyzer.DEFAULT_TOLERANCE
+                );
+                bldr.append( String.format( fmt, integral ) );
+            }
+            JOptionPane.showMessageDialog( 
+                null, 
+                bldr.toString(), 
+                command.toString(), 
+                JOptionPane.INFORMATION_MESSAGE
+            );
+        }
+        catch ( IllegalArgumentException | ValidationException exc )
+        {
+            showError( new Result( false, List.of( exc.getMessage() ) ) );
+        }
+    }
+    
+    /**
+     * Stop playing the most recent sweep, if any,
+     * so that it does not replace a new plot.
+     */
+    private void stopSweep()
+    {
+        SwingUtilities.invokeLater( () -> {
+            if ( player != null )
+                player.stop();
+            player = null;
+        });
+    }
 }
@@ -10,6 +10,7 @@ import java.beans.PropertyChangeEvent;
 import java.text.ParseException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -25,18 +26,24 @@ import javax.swing.JFormattedTextField;
 import javax.swing.JFormattedTextField.AbstractFormatter;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
+import javax.swing.JProgressBar;
 import javax.swing.UIManager;
 import javax.swing.border.Border;
 import javax.swing.text.DefaultFormatter;
 
+import com.acmemail.judah.cartesian_plane.BackgroundPlotter;
+import com.acmemail.judah.cartesian_plane.BackgroundPlotter.Progress;
 import com.acmemail.judah.cartesian_plane.CPConstants;
 import com.acmemail.judah.cartesian_plane.CartesianPlane;
+import com.acmemail.judah.cartesian_plane.NotificationEvent;
 import com.acmemail.judah.cartesian_plane.NotificationManager;
-import com.acmemail.judah.cartesian_plane.PlotPointCommand;
 import com.acmemail.judah.cartesian_plane.PropertyManager;
 import com.acmemail.judah.cartesian_plane.graphics_utils.ComponentException;
 import com.acmemail.judah.cartesian_plane.input.Command;
+import com.acmemail.judah.cartesian_plane.input.DomainColoring;
 import com.acmemail.judah.cartesian_plane.input.Equation;
+import com.acmemail.judah.cartesian_plane.input.PlotCache;
+import com.acmemail.judah.cartesian_plane.input.PointBuffer;
 import com.acmemail.judah.cartesian_plane.input.Result;
 
 /**
@@ -44,9 +51,9 @@ import com.acmemail.judah.cartesian_plane.input.Result;
  * The panel consists of:
  * <ul>
  * <li> 
- *      Four text fields expressing
+ *      Six text fields expressing
  *      the types of equation we are prepared to plot,
- *      YPLOT, XYPLOT, TPLOT and RPLOT.
+ *      YPLOT, XYPLOT, TPLOT, RPLOT, FPLOT and ZPLOT.
  * </li>
  * <li>
  *      A combo box for selecting which equation to plot.
@@ -54,6 +61,10 @@ import com.acmemail.judah.cartesian_plane.input.Result;
  * <li>
  *      A pushbutton for initiating the plot.
  * </li>
+ * <li>
+ *      A progress bar showing the progress of a plot
+ *      executing in the background.
+ * </li>
  * </ul>
  * @author Jack Straub
  * 
@@ -76,7 +87,7 @@ public class PlotPanel extends JPanel
     private static final Color      invalidColor    = Color.RED;
 
     /** 
-     * Configuration parameters for the four types of plot.
+     * Configuration parameters for the six types of plot.
      * Only used for the initialization of {@linkplain #exprMap}.
      * @see ExprFormatter
      * @see #getExprMap()
@@ -87,6 +98,7 @@ public class PlotPanel extends JPanel
             s -> getEquation().setXExpression( s ),
             () -> getEquation().getXExpression(),
             () -> getEquation().xyPlot(),
+            Equation::xyPlot,
             Command.XYPLOT,
             "x="
         ),
@@ -94,6 +106,7 @@ public class PlotPanel extends JPanel
             s -> getEquation().setYExpression( s ),
             () -> getEquation().getYExpression(),
             () -> getEquation().yPlot(),
+            Equation::yPlot,
             Command.YPLOT,
             "y="
         ),
@@ -101,6 +114,7 @@ public class PlotPanel extends JPanel
             s -> getEquation().setRExpression( s ),
             () -> getEquation().getRExpression(),
             () -> getEquation().rPlot(),
+            Equation::rPlot,
             Command.RPLOT,
             "r="
         ),
@@ -108,9 +122,28 @@ public class PlotPanel extends JPanel
             s -> getEquation().setTExpression( s ),
             () -> getEquation().getTExpression(),
             () -> getEquation().tPlot(),
+            Equation::tPlot,
             Command.TPLOT,
             "t="
         ),
+        new ExprFormatter(
+            s -> getEquation().setFExpression( s ),
+            () -> getEquation().getFExpression(),
+            () -> getEquation().fPlot(),
+            Equation::fPlot,
+            Command.FPLOT,
+            "f="
+        ),
+        // A domain coloring is an image, not a set of points; 
+        // see plotAction.
+        new ExprFormatter(
+            s -> getEquation().setZExpression( s ),
+            () -> getEquation().getZExpression(),
+            () -> Stream.empty(),
+            (e,b) -> b.clear(),
+            Command.ZPLOT,
+            "z="
+        ),
     };
 
     /** 
@@ -123,6 +156,8 @@ public class PlotPanel extends JPanel
      * the convenience of the {@linkplain #load(Equation)} method.
      */
     private final JButton               plot    = new JButton( "Plot" );
+    /** Shows the progress of a plot executing in the background. */
+    private final JProgressBar          progress = new JProgressBar();
     /**
      * Map to access all configuration data for a plot type;
      * for example, allows search for the text field associated
@@ -133,6 +168,10 @@ public class PlotPanel extends JPanel
     private Equation                equation    = null;
     /** Object on which to draw plots; null if none. */
     private CartesianPlane          cartPlane   = null;
+    /** Results of recent plots, replayed when an equation is unchanged. */
+    private final PlotCache         plotCache   = new PlotCache();
+    /** Most recent domain coloring, redrawn when unchanged. */
+    private final DomainColoring    coloring    = new DomainColoring();
 
     /**
      * Constructor.
@@ -151,6 +190,11 @@ public class PlotPanel extends JPanel
         add( getExprPanel() );
         add( getComboPanel() );
         load( null );
+        
+        NotificationManager.INSTANCE.addNotificationListener(
+            CPConstants.PLOT_PROGRESS_NP,
+            this::showProgress
+        );
     }
     
     /**
@@ -200,6 +244,10 @@ public class PlotPanel extends JPanel
             // it back to false.
             PropertyManager pmgr    = PropertyManager.INSTANCE;
             pmgr.setProperty( CPConstants.DM_MODIFIED_PN, false );
+            // Plot the new equation; this cancels any plot
+            // of the previous equation that is still in progress.
+            NotificationManager.INSTANCE
+                .propagateNotification( CPConstants.REDRAW_NP );
         }
         else if ( cartPlane != null )
             cartPlane.setStreamSupplier( null );
@@ -227,20 +275,22 @@ public class PlotPanel extends JPanel
     }
     
     /**
-     * Gets a panel containing the four text fields
+     * Gets a panel containing the six text fields
      * associated with equation types.
      * 
      * @return
-     *      panel containing the four text fields
+     *      panel containing the six text fields
      *      associated with equation types
      */
     private JPanel getExprPanel()
     {
-        JPanel      panel   = new JPanel( new GridLayout( 2, 2 ) );
+        JPanel      panel   = new JPanel( new GridLayout( 3, 2 ) );
         panel.add( getExprPanel( Command.XYPLOT ) );
         panel.add( getExprPanel( Command.RPLOT) );
         panel.add( getExprPanel( Command.YPLOT ) );
         panel.add( getExprPanel( Command.TPLOT ) );
+        panel.add( getExprPanel( Command.FPLOT ) );
+        panel.add( getExprPanel( Command.ZPLOT ) );
         return panel;
     }
     
@@ -291,6 +341,9 @@ public class PlotPanel extends JPanel
             .forEach( plots::addItem );
         panel.add( plots );
         panel.add( plot );
+        panel.add( progress );
+        progress.setStringPainted( true );
+        progress.setString( "" );
         plots.addActionListener( this::plotsAction );
         plot.addActionListener( this::plotAction );
         plot.setAlignmentX( Component.CENTER_ALIGNMENT );
@@ -319,24 +372,84 @@ public class PlotPanel extends JPanel
         ExprFormatter   fmt         = exprMap.get( command );
         // The point stream that we get here is solely for the purpose
         // a validating the expression taken from the associated text
-        // field; we can't use it as the stream we supply to the
-        // Cartesian plane. The command that we pass to the Cartesian
-        // plane (setStreamSuppler(...) below) may be executed multiple
+        // field. The plotter that we pass to the Cartesian plane
+        // (setBufferPlotterFactory(...) below) may be executed multiple
         // times (for example, every time the Cartesian plane graphic is 
-        // resized) and, since a stream can only be traversed once, it
-        // must call plotter.get() in order to get a fresh stream each
-        // time.
+        // resized); each time it refills a buffer owned by the
+        // Cartesian plane, so no objects are created for individual
+        // points. If the equation has not changed since the last
+        // plot the buffer is refilled from the plot cache, without
+        // evaluating the expression.
         Stream<Point2D> pointStream = fmt.plotter.get();
 
-        if ( pointStream != null && cartPlane != null )
+        if ( command == Command.ZPLOT && cartPlane != null )
         {
-            cartPlane.setStreamSupplier( () ->
-                fmt.plotter.get()
-                .map( p -> PlotPointCommand.of( p, cartPlane ) )
-            );
-            NotificationManager.INSTANCE
-                .propagateNotification( CPConstants.REDRAW_NP );
+            // The image is rendered again only if the expression,
+            // the variables or the viewport change. The factory is
+            // executed on the EDT, which owns the equation; the image
+            // is rendered on a background thread from a snapshot.
+            cartPlane.setImagePlotterFactory( v -> {
+                Equation            equation    = getEquation();
+                String              exprStr     = equation.getZExpression();
+                Map<String,Double>  vars        = equation.getVars();
+                return () -> coloring.render( exprStr, vars, v );
+            });
+        }
+        else if ( pointStream != null && cartPlane != null )
+        {
+            // Setting the plotter starts the plot; the plane is
+            // repainted as results become available. The factory is
+            // executed on the EDT, which owns the equation; the plot
+            // is made on a background thread from a snapshot of the
+            // equation, which no other thread accesses.
+            cartPlane.setBufferPlotterFactory( v -> {
+                Equation    equation    = getEquation();
+                equation.setViewport( v );
+                long        version     = equation.getVersion();
+                Equation    snapshot    = equation.copy();
+                return b -> plotCache.plot( 
+                    equation, 
+                    version, 
+                    command, 
+                    p -> fmt.bufferPlotter.accept( snapshot, p ), 
+                    b
+                );
+            });
+        }
+    }
+    
+    /**
+     * Updates the progress bar
+     * in response to a notification
+     * from a background plot.
+     * While the plot is running
+     * the progress bar is indeterminate,
+     * and shows the number of points plotted so far.
+     * 
+     * @param event the notification event
+     * 
+     * @see BackgroundPlotter
+     */
+    private void showProgress( NotificationEvent event )
+    {
+        Progress        data    = (Progress)event.getData();
+        boolean         running = data.isRunning();
+        String          text    = null;
+        switch ( data.getState() )
+        {
+        case STARTED:
+            text = "Plotting...";
+            break;
+        case FAILED:
+            text = "Plot failed";
+            break;
+        default:
+            text = data.getSize() + " points";
+            break;
         }
+        progress.setIndeterminate( running );
+        progress.setValue( running ? 0 : progress.getMaximum() );
+        progress.setString( text );
     }
     
     /**
@@ -407,7 +520,8 @@ public class PlotPanel extends JPanel
      * Formatter for a text field containing an expression.
      * Encapsulates all configuration data
      * for a text field associated with
-     * one of the plot commands: YPLOT, XYPLOT, RPLOT, TPLOT.
+     * one of the plot commands: 
+     * YPLOT, XYPLOT, RPLOT, TPLOT, FPLOT, ZPLOT.
      * Configuration data include:
      * <ul>
      * <li>
@@ -429,13 +543,14 @@ public class PlotPanel extends JPanel
      */
     private class ExprFormatter extends DefaultFormatter
     {
-        public final Predicate<String>          pred;
-        public final Supplier<String>           getter;
-        public final Function<String,Result>    setter;
-        public final Supplier<Stream<Point2D>>  plotter;
-        public final Command                    command;
-        public final String                     label;
-        public final JFormattedTextField        textField;
+        public final Predicate<String>                  pred;
+        public final Supplier<String>                   getter;
+        public final Function<String,Result>            setter;
+        public final Supplier<Stream<Point2D>>          plotter;
+        public final BiConsumer<Equation,PointBuffer>   bufferPlotter;
+        public final Command                            command;
+        public final String                             label;
+        public final JFormattedTextField                textField;
         
         /**
          * Constructor.
@@ -456,6 +571,11 @@ public class PlotPanel extends JPanel
          *      function to plot the encapsulated command using the
          *      appropriate expression contained in the currently
          *      open equation
+         * @param bufferPlotter
+         *      function to plot the encapsulated command into a
+         *      PointBuffer using the appropriate expression contained
+         *      in a given equation, typically a snapshot
+         *      of the currently open equation
          * @param command
          *      plot command associated with this object
          * @param label
@@ -463,19 +583,27 @@ public class PlotPanel extends JPanel
          *      encapsulated in this object
          */
         public ExprFormatter( 
-            Function<String,Result>   setter,
-            Supplier<String>          getter,
-            Supplier<Stream<Point2D>> plotter,
-            Command                   command,
-            String                    label
+            Function<String,Result>          setter,
+            Supplier<String>                 getter,
+            Supplier<Stream<Point2D>>        plotter,
+            BiConsumer<Equation,PointBuffer> bufferPlotter,
+            Command                          command,
+            String                           label
         )
         {
             this.getter = getter;
             this.setter = setter;
             this.plotter = plotter;
+            this.bufferPlotter = bufferPlotter;
             this.command = command;
             this.label = label;
-            pred = s -> getEquation().isValidExpression( s );
+            // A z-expression is evaluated with complex arithmetic.
+            if ( command == Command.ZPLOT )
+                pred = s -> DomainColoring
+                    .validate( s, getEquation().getVars().keySet() )
+                    .isSuccess();
+            else
+                pred = s -> getEquation().isValidExpression( s );
             setOverwriteMode( false );
             
             textField = new JFormattedTextField( this );
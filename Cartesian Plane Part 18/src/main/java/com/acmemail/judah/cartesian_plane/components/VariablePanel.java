@@ -27,6 +27,7 @@ import javax.swing.table.TableColumn;
 import javax.swing.table.TableColumnModel;
 
 import com.acmemail.judah.cartesian_plane.CPConstants;
+import com.acmemail.judah.cartesian_plane.NotificationManager;
 import com.acmemail.judah.cartesian_plane.PropertyManager;
 import com.acmemail.judah.cartesian_plane.input.Equation;
 
@@ -270,6 +271,7 @@ public class VariablePanel extends JPanel
         int                 currInx     = 0;
         Vector<Vector>      data        = model.getDataVector();
         Iterator<Vector>    iter        = data.iterator();
+        long                version     = equation.getVersion();
         while ( iter.hasNext() )
         {
             Vector<?>  next    = iter.next();
@@ -282,6 +284,7 @@ public class VariablePanel extends JPanel
         }
         model.setDataVector( data, vHeader );
         configureColumns();
+        redrawIfChanged( version );
     }
     
     /**
@@ -384,10 +387,32 @@ public class VariablePanel extends JPanel
         {
             String  name        = (String)model.getValueAt( row, 0 );
             Double  value       = (Double)model.getValueAt( row, 1 );
+            long    version     = equation.getVersion();
             equation.setVar( name, value );
+            redrawIfChanged( version );
         }
     }
     
+    /**
+     * Requests a redraw of the current plot
+     * if the version of the currently loaded equation
+     * differs from a given version.
+     * Changing a variable
+     * that is not read by any of the equation's expressions
+     * does not change the equation's version,
+     * so it does not cause a redraw.
+     * 
+     * @param version   the given version
+     * 
+     * @see Equation#getVersion()
+     */
+    private void redrawIfChanged( long version )
+    {
+        if ( equation.getVersion() != version )
+            NotificationManager.INSTANCE
+                .propagateNotification( CPConstants.REDRAW_NP );
+    }
+    
     /**
      * Subclass of DefaultTableModel
      * that is used to establish the types
@@ -0,0 +1,757 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+
+/**
+ * Generates the points of a plot
+ * by adaptive, curvature-driven sampling.
+ * The iteration range is first divided
+ * into a small number of equal segments.
+ * Each segment is then subdivided recursively
+ * wherever the curve,
+ * measured in screen coordinates,
+ * turns through more than a given angle,
+ * or where neighbouring points
+ * are further apart than a given distance.
+ * Segments that are already shorter than
+ * a minimum distance are never subdivided.
+ * The result is that flat regions of a plot
+ * are represented by a few points,
+ * while sharp features
+ * receive as many points as they need,
+ * up to a maximum recursion depth
+ * and a maximum total number of evaluations.
+ * <p>
+ * Screen coordinates are obtained
+ * by multiplying user coordinates
+ * by a scale factor,
+ * typically the number of pixels per unit
+ * of the {@linkplain com.acmemail.judah.cartesian_plane.CartesianPlane}
+ * on which the plot will be drawn.
+ * Optionally, the sampler may be given
+ * the bounds of the visible region
+ * in user coordinates;
+ * a segment that lies entirely
+ * beyond one edge of the bounds
+ * is never subdivided,
+ * since nothing of it would be visible.
+ * </p>
+ * <p>
+ * A segment that still fails to converge
+ * at the maximum recursion depth
+ * is examined for a discontinuity.
+ * If its midpoint lies almost entirely
+ * on one side of the segment,
+ * as happens at a jump
+ * or at a pole such as that of <em>tan(x)</em>,
+ * a {@linkplain PointBuffer#addBreak() break}
+ * is inserted into the plot,
+ * so that no false connector is drawn
+ * across the discontinuity.
+ * Points at which the curve is undefined
+ * (NaN or infinite coordinates)
+ * are likewise replaced by a break.
+ * </p>
+ * <p>
+ * An AdaptiveSampler retains state
+ * while generating a plot,
+ * and may not be used
+ * by more than one thread at a time.
+ * </p>
+ * 
+ * @author Jack Straub
+ * 
+ * @see Equation#setAdaptiveSampler(AdaptiveSampler)
+ */
+public class AdaptiveSampler
+{
+    /** Default number of segments in the initial subdivision. */
+    public static final int     DEFAULT_INITIAL_SEGMENTS    = 64;
+    /** Default maximum depth of recursive subdivision. */
+    public static final int     DEFAULT_MAX_DEPTH           = 12;
+    /** Default maximum number of evaluations per plot. */
+    public static final int     DEFAULT_MAX_SAMPLES         = 20_000;
+    /** Default maximum turning angle, in degrees. */
+    public static final double  DEFAULT_MAX_ANGLE           = 4;
+    /** Default maximum distance between points, in pixels. */
+    public static final double  DEFAULT_MAX_DISTANCE        = 8;
+    /** Default minimum distance between points, in pixels. */
+    public static final double  DEFAULT_MIN_DISTANCE        = .5;
+
+    /**
+     * Fraction of the length of a segment
+     * which, if spanned by one half of the segment,
+     * indicates a discontinuity.
+     */
+    private static final double jumpRatio                   = .9;
+
+    /**
+     * Calculates a point on a curve
+     * for a given value of the iteration variable.
+     * 
+     * @author Jack Straub
+     */
+    @FunctionalInterface
+    public interface Curve
+    {
+        /**
+         * Calculates the point on a curve
+         * corresponding to a given value of the iteration variable,
+         * and stores its coordinates in a given object.
+         * 
+         * @param var   the given value of the iteration variable
+         * @param point the given object
+         */
+        void evaluate( double var, Point2D.Double point );
+    }
+
+    /** Number of segments in the initial subdivision. */
+    private int     initialSegments = DEFAULT_INITIAL_SEGMENTS;
+    /** Maximum depth of recursive subdivision. */
+    private int     maxDepth        = DEFAULT_MAX_DEPTH;
+    /** Maximum number of evaluations per plot. */
+    private int     maxSamples      = DEFAULT_MAX_SAMPLES;
+    /** Cosine of the maximum turning angle. */
+    private double  cosMaxAngle     =
+        Math.cos( Math.toRadians( DEFAULT_MAX_ANGLE ) );
+    /** Maximum turning angle, in degrees. */
+    private double  maxAngle        = DEFAULT_MAX_ANGLE;
+    /** Maximum distance between points, in pixels. */
+    private double  maxDistance     = DEFAULT_MAX_DISTANCE;
+    /** Minimum distance between points, in pixels. */
+    private double  minDistance     = DEFAULT_MIN_DISTANCE;
+    /** Pixels per unit in the x direction. */
+    private double  xScale          = 1;
+    /** Pixels per unit in the y direction. */
+    private double  yScale          = 1;
+    /** Bounds of the visible region, in user coordinates; may be null. */
+    private Rectangle2D bounds      = null;
+
+    /** The curve being plotted by the current operation. */
+    private Curve       curve       = null;
+    /** The buffer being filled by the current operation. */
+    private PointBuffer buffer      = null;
+    /** Number of evaluations performed by the last operation. */
+    private int         evalCount   = 0;
+
+    /**
+     * Default constructor.
+     * Instantiates a sampler
+     * with a scale of one pixel per unit
+     * and default tolerances.
+     */
+    public AdaptiveSampler()
+    {
+    }
+
+    /**
+     * Constructor.
+     * Instantiates a sampler
+     * with a given scale
+     * and default tolerances.
+     * 
+     * @param scale pixels per unit in both directions
+     * 
+     * @throws IllegalArgumentException if scale is not positive
+     */
+    public AdaptiveSampler( double scale )
+    {
+        setScale( scale );
+    }
+
+    /**
+     * Returns a new sampler
+     * with the same scale, bounds and tolerances
+     * as this sampler.
+     * The state of any operation in progress
+     * is not copied,
+     * so the new sampler may be used
+     * on a different thread.
+     * 
+     * @return  a copy of this sampler
+     */
+    public AdaptiveSampler copy()
+    {
+        AdaptiveSampler copy    = new AdaptiveSampler();
+        copy.initialSegments = initialSegments;
+        copy.maxDepth = maxDepth;
+        copy.maxSamples = maxSamples;
+        copy.cosMaxAngle = cosMaxAngle;
+        copy.maxAngle = maxAngle;
+        copy.maxDistance = maxDistance;
+        copy.minDistance = minDistance;
+        copy.xScale = xScale;
+        copy.yScale = yScale;
+        copy.bounds = bounds == null ? null : bounds.getBounds2D();
+        return copy;
+    }
+
+    /**
+     * Generates the points of a curve
+     * over a given iteration range,
+     * storing them in a given buffer.
+     * The buffer is cleared
+     * before any points are stored.
+     * If the end of the range precedes its start,
+     * the buffer is left empty.
+     * 
+     * @param start     the start of the iteration range
+     * @param end       the end of the iteration range
+     * @param curve     the curve to plot
+     * @param buffer    the given buffer
+     */
+    public void sample(
+        double start,
+        double end,
+        Curve curve,
+        PointBuffer buffer
+    )
+    {
+        this.curve = curve;
+        this.buffer = buffer;
+        evalCount = 0;
+        buffer.clear();
+
+        if ( end >= start )
+        {
+            // Evaluate the initial subdivision first, so that the
+            // sample budget is only ever applied to refinement.
+            int                 segments    =
+                end > start ? initialSegments : 0;
+            double              step        = (end - start) / initialSegments;
+            double[]            tcos        = new double[segments + 1];
+            Point2D.Double[]    points      = new Point2D.Double[segments + 1];
+            for ( int inx = 0 ; inx <= segments ; ++inx )
+            {
+                tcos[inx] = 
+                    inx == segments && inx > 0 ? end : start + inx * step;
+                points[inx] = evaluate( tcos[inx] );
+            }
+
+            emit( points[0] );
+            for ( int inx = 1 ; inx <= segments ; ++inx )
+            {
+                refine( 
+                    tcos[inx - 1], 
+                    points[inx - 1], 
+                    tcos[inx], 
+                    points[inx], 
+                    0
+                );
+                emit( points[inx] );
+            }
+
+            // Don't leave a dangling break at the end of the plot.
+            int size    = buffer.size();
+            if ( size > 0 && buffer.isBreak( size - 1 ) )
+                buffer.resize( size - 1 );
+        }
+
+        this.curve = null;
+        this.buffer = null;
+    }
+
+    /**
+     * Returns the number of evaluations
+     * performed by the most recent plot.
+     * 
+     * @return  the number of evaluations performed by the most recent plot
+     */
+    public int getEvaluationCount()
+    {
+        return evalCount;
+    }
+
+    /**
+     * Sets the scale used to convert
+     * user coordinates to screen coordinates
+     * in both directions.
+     * 
+     * @param scale pixels per unit
+     * 
+     * @throws IllegalArgumentException if scale is not positive
+     */
+    public void setScale( double scale )
+    {
+        setScale( scale, scale );
+    }
+
+    /**
+     * Sets the scale used to convert
+     * user coordinates to screen coordinates
+     * in the x and y directions.
+     * 
+     * @param xScale    pixels per unit in the x direction
+     * @param yScale    pixels per unit in the y direction
+     * 
+     * @throws IllegalArgumentException if either scale is not positive
+     */
+    public void setScale( double xScale, double yScale )
+    {
+        requirePositive( xScale, "scale" );
+        requirePositive( yScale, "scale" );
+        this.xScale = xScale;
+        this.yScale = yScale;
+    }
+
+    /**
+     * Returns the number of pixels per unit
+     * in the x direction.
+     * 
+     * @return  the number of pixels per unit in the x direction
+     */
+    public double getXScale()
+    {
+        return xScale;
+    }
+
+    /**
+     * Returns the number of pixels per unit
+     * in the y direction.
+     * 
+     * @return  the number of pixels per unit in the y direction
+     */
+    public double getYScale()
+    {
+        return yScale;
+    }
+
+    /**
+     * Sets the bounds of the visible region
+     * in user coordinates.
+     * Null indicates that the visible region
+     * is unbounded;
+     * this is the default.
+     * 
+     * @param bounds    the bounds of the visible region; may be null
+     */
+    public void setBounds( Rectangle2D bounds )
+    {
+        this.bounds = bounds == null ? null : (Rectangle2D)bounds.clone();
+    }
+
+    /**
+     * Returns the bounds of the visible region
+     * in user coordinates.
+     * 
+     * @return  the bounds of the visible region; may be null
+     */
+    public Rectangle2D getBounds()
+    {
+        Rectangle2D result  =
+            bounds == null ? null : (Rectangle2D)bounds.clone();
+        return result;
+    }
+
+    /**
+     * Sets the number of segments
+     * in the initial subdivision of the iteration range.
+     * 
+     * @param segments  the number of segments
+     * 
+     * @throws IllegalArgumentException if segments is not positive
+     */
+    public void setInitialSegments( int segments )
+    {
+        requirePositive( segments, "initial segments" );
+        initialSegments = segments;
+    }
+
+    /**
+     * Returns the number of segments
+     * in the initial subdivision of the iteration range.
+     * 
+     * @return  the number of segments in the initial subdivision
+     */
+    public int getInitialSegments()
+    {
+        return initialSegments;
+    }
+
+    /**
+     * Sets the maximum depth of recursive subdivision.
+     * A depth of 0 disables subdivision.
+     * 
+     * @param maxDepth  the maximum depth of recursive subdivision
+     * 
+     * @throws IllegalArgumentException if maxDepth is negative
+     */
+    public void setMaxDepth( int maxDepth )
+    {
+        if ( maxDepth < 0 )
+            throw new IllegalArgumentException( "Invalid depth: " + maxDepth );
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * Returns the maximum depth of recursive subdivision.
+     * 
+     * @return  the maximum depth of recursive subdivision
+     */
+    public int getMaxDepth()
+    {
+        return maxDepth;
+    }
+
+    /**
+     * Sets the maximum number of evaluations
+     * performed by a single plot.
+     * Once the budget is exhausted
+     * no further subdivision takes place,
+     * but the points of the initial subdivision
+     * are always evaluated.
+     * 
+     * @param maxSamples    the maximum number of evaluations
+     * 
+     * @throws IllegalArgumentException if maxSamples is not positive
+     */
+    public void setMaxSamples( int maxSamples )
+    {
+        requirePositive( maxSamples, "sample budget" );
+        this.maxSamples = maxSamples;
+    }
+
+    /**
+     * Returns the maximum number of evaluations
+     * performed by a single plot.
+     * 
+     * @return  the maximum number of evaluations performed by a single plot
+     */
+    public int getMaxSamples()
+    {
+        return maxSamples;
+    }
+
+    /**
+     * Sets the maximum angle, in degrees,
+     * through which the curve may turn
+     * at the midpoint of a segment
+     * before the segment is subdivided.
+     * 
+     * @param degrees   the maximum angle
+     * 
+     * @throws IllegalArgumentException
+     *      if degrees is not between 0 (exclusive) and 180 (inclusive)
+     */
+    public void setMaxAngle( double degrees )
+    {
+        if ( !(degrees > 0 && degrees <= 180) )
+            throw new IllegalArgumentException( "Invalid angle: " + degrees );
+        maxAngle = degrees;
+        cosMaxAngle = Math.cos( Math.toRadians( degrees ) );
+    }
+
+    /**
+     * Returns the maximum angle, in degrees,
+     * through which the curve may turn
+     * before a segment is subdivided.
+     * 
+     * @return  the maximum angle
+     */
+    public double getMaxAngle()
+    {
+        return maxAngle;
+    }
+
+    /**
+     * Sets the maximum distance, in pixels,
+     * between neighbouring points
+     * before a segment is subdivided.
+     * 
+     * @param pixels    the maximum distance
+     * 
+     * @throws IllegalArgumentException if pixels is not positive
+     */
+    public void setMaxDistance( double pixels )
+    {
+        requirePositive( pixels, "distance" );
+        maxDistance = pixels;
+    }
+
+    /**
+     * Returns the maximum distance, in pixels,
+     * between neighbouring points.
+     * 
+     * @return  the maximum distance between neighbouring points
+     */
+    public double getMaxDistance()
+    {
+        return maxDistance;
+    }
+
+    /**
+     * Sets the distance, in pixels,
+     * below which a segment is never subdivided.
+     * 
+     * @param pixels    the minimum distance
+     * 
+     * @throws IllegalArgumentException if pixels is negative
+     */
+    public void setMinDistance( double pixels )
+    {
+        if ( !(pixels >= 0) )
+            throw new IllegalArgumentException( "Invalid distance: " + pixels );
+        minDistance = pixels;
+    }
+
+    /**
+     * Returns the distance, in pixels,
+     * below which a segment is never subdivided.
+     * 
+     * @return  the minimum distance between neighbouring points
+     */
+    public double getMinDistance()
+    {
+        return minDistance;
+    }
+
+    /**
+     * Subdivides the segment between two given points
+     * as necessary,
+     * storing all points strictly between them
+     * in the buffer.
+     * The end points of the segment
+     * are not stored.
+     * 
+     * @param tco0  the iteration variable at the start of the segment
+     * @param pt0   the point at the start of the segment
+     * @param tco1  the iteration variable at the end of the segment
+     * @param pt1   the point at the end of the segment
+     * @param depth the current depth of recursion
+     */
+    private void refine(
+        double tco0,
+        Point2D.Double pt0,
+        double tco1,
+        Point2D.Double pt1,
+        int depth
+    )
+    {
+        if ( evalCount < maxSamples )
+        {
+            double          tcoM    = (tco0 + tco1) / 2;
+            Point2D.Double  ptM     = evaluate( tcoM );
+            boolean         split   = needsRefinement( pt0, ptM, pt1 );
+            if ( split && depth < maxDepth )
+            {
+                refine( tco0, pt0, tcoM, ptM, depth + 1 );
+                emit( ptM );
+                refine( tcoM, ptM, tco1, pt1, depth + 1 );
+            }
+            else if ( split && isDiscontinuous( pt0, ptM, pt1 ) )
+            {
+                // Keep the midpoint on the side of the jump it belongs to.
+                if ( distance( pt0, ptM ) < distance( ptM, pt1 ) )
+                {
+                    emit( ptM );
+                    buffer.addBreak();
+                }
+                else
+                {
+                    buffer.addBreak();
+                    emit( ptM );
+                }
+            }
+            else
+                emit( ptM );
+        }
+    }
+
+    /**
+     * Determines whether the segment between two given points
+     * must be subdivided,
+     * given the point at its midpoint.
+     * A segment whose points are all undefined,
+     * or all defined,
+     * is subdivided if it is too long,
+     * or if the curve turns too sharply at its midpoint,
+     * unless it lies entirely beyond one edge
+     * of the visible region.
+     * A segment whose points are partly defined
+     * is always subdivided,
+     * in order to locate the boundary
+     * of the curve's domain.
+     * 
+     * @param pt0   the start of the segment
+     * @param ptM   the midpoint of the segment
+     * @param pt1   the end of the segment
+     * 
+     * @return  true if the segment must be subdivided
+     */
+    private boolean needsRefinement(
+        Point2D.Double pt0,
+        Point2D.Double ptM,
+        Point2D.Double pt1
+    )
+    {
+        boolean def0    = isDefined( pt0 );
+        boolean defM    = isDefined( ptM );
+        boolean def1    = isDefined( pt1 );
+        boolean result  = false;
+        if ( def0 && defM && def1 )
+        {
+            double  dist    = distance( pt0, pt1 );
+            if ( isHidden( pt0, ptM, pt1 ) )
+                result = false;
+            else if ( dist > maxDistance )
+                result = true;
+            else if ( dist >= minDistance )
+            {
+                double  ax      = (ptM.x - pt0.x) * xScale;
+                double  ay      = (ptM.y - pt0.y) * yScale;
+                double  bx      = (pt1.x - ptM.x) * xScale;
+                double  by      = (pt1.y - ptM.y) * yScale;
+                double  norm    = Math.hypot( ax, ay ) * Math.hypot( bx, by );
+                if ( norm > 0 )
+                    result = (ax * bx + ay * by) / norm < cosMaxAngle;
+            }
+        }
+        else
+            result = def0 || defM || def1;
+        return result;
+    }
+
+    /**
+     * Determines whether the curve
+     * is discontinuous between two given points.
+     * This is the case if the segment
+     * is longer than the maximum distance,
+     * and its midpoint lies so close to one end
+     * that one half of the segment
+     * spans nearly the whole distance.
+     * 
+     * @param pt0   the start of the segment
+     * @param ptM   the midpoint of the segment
+     * @param pt1   the end of the segment
+     * 
+     * @return  true if the curve is discontinuous between the given points
+     */
+    private boolean isDiscontinuous(
+        Point2D.Double pt0,
+        Point2D.Double ptM,
+        Point2D.Double pt1
+    )
+    {
+        boolean result  = false;
+        if ( isDefined( pt0 ) && isDefined( ptM ) && isDefined( pt1 ) )
+        {
+            double  dist    = distance( pt0, pt1 );
+            double  longest =
+                Math.max( distance( pt0, ptM ), distance( ptM, pt1 ) );
+            result = dist > maxDistance && longest > jumpRatio * dist;
+        }
+        return result;
+    }
+
+    /**
+     * Determines whether three given points
+     * all lie beyond the same edge
+     * of the visible region.
+     * 
+     * @param pt0   the first given point
+     * @param ptM   the second given point
+     * @param pt1   the third given point
+     * 
+     * @return  true if the given points all lie beyond the same edge
+     */
+    private boolean isHidden(
+        Point2D.Double pt0,
+        Point2D.Double ptM,
+        Point2D.Double pt1
+    )
+    {
+        boolean result  = false;
+        if ( bounds != null )
+        {
+            int code    =
+                bounds.outcode( pt0 ) & bounds.outcode( ptM )
+                & bounds.outcode( pt1 );
+            result = code != 0;
+        }
+        return result;
+    }
+
+    /**
+     * Evaluates the current curve
+     * at a given value of the iteration variable.
+     * 
+     * @param tco   the given value
+     * 
+     * @return  the point on the curve at the given value
+     */
+    private Point2D.Double evaluate( double tco )
+    {
+        Point2D.Double  point   = new Point2D.Double();
+        curve.evaluate( tco, point );
+        ++evalCount;
+        return point;
+    }
+
+    /**
+     * Stores a given point in the current buffer.
+     * If the point is undefined
+     * a break is stored instead;
+     * consecutive breaks are never stored,
+     * nor is a break stored
+     * at the start of the buffer.
+     * 
+     * @param point the given point
+     */
+    private void emit( Point2D.Double point )
+    {
+        int size    = buffer.size();
+        if ( isDefined( point ) )
+            buffer.add( point.x, point.y );
+        else if ( size > 0 && !buffer.isBreak( size - 1 ) )
+            buffer.addBreak();
+    }
+
+    /**
+     * Calculates the distance, in pixels,
+     * between two given points.
+     * 
+     * @param pt0   the first given point
+     * @param pt1   the second given point
+     * 
+     * @return  the distance between the given points
+     */
+    private double distance( Point2D.Double pt0, Point2D.Double pt1 )
+    {
+        double  dist    =
+            Math.hypot( (pt1.x - pt0.x) * xScale, (pt1.y - pt0.y) * yScale );
+        return dist;
+    }
+
+    /**
+     * Determines whether both coordinates
+     * of a given point are finite.
+     * 
+     * @param point the given point
+     * 
+     * @return  true if both coordinates of the given point are finite
+     */
+    private static boolean isDefined( Point2D.Double point )
+    {
+        boolean result  =
+            Double.isFinite( point.x ) && Double.isFinite( point.y );
+        return result;
+    }
+
+    /**
+     * Verifies that a given value is positive.
+     * 
+     * @param value the given value
+     * @param what  description of the value, for the error message
+     * 
+     * @throws IllegalArgumentException if value is not positive
+     */
+    private static void requirePositive( double value, String what )
+    {
+        if ( !(value > 0) )
+        {
+            String  msg = "Invalid " + what + ": " + value;
+            throw new IllegalArgumentException( msg );
+        }
+    }
+}
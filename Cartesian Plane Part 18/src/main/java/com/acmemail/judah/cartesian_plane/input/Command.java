@@ -40,6 +40,18 @@ public enum Command
         + "for the evaluation of \"theta\" "
         + "in the polar equation \"t=f(r)\""
     ),
+    /** Sets the expression f(x,y) in an implicit equation f(x,y)=0. */
+    FEQUALS( 
+        "Describes any well-formed expression "
+        + "for the evaluation of \"f\" "
+        + "in the implicit equation \"f(x,y)=0\""
+    ),
+    /** Sets the expression f(z) in a complex function w=f(z). */
+    ZEQUALS( 
+        "Describes any well-formed expression "
+        + "for the evaluation of \"w\" "
+        + "in the complex function \"w=f(z)\""
+    ),
     /** Declares one or more variables. */
     SET( 
         "Describes a comma-separated list of "
@@ -67,8 +79,21 @@ public enum Command
      * displaying a floating point value in a GUI.
      */
     PREC( "For display purposes only: number of decimal points to display" ),
+    /** Derives the iteration range of a y-plot from the visible grid. */
+    AUTORANGE( 
+        "TRUE to iterate a y-plot over the visible x-range, "
+        + "one sample per pixel; FALSE to use START, END and STEP"
+    ),
+    /** Prints the optimized form of an expression; for debugging. */
+    OPTIMIZE( 
+        "For debugging: prints the optimized form of the given expression, "
+        + "or of the x, y, t, r and f expressions"
+    ),
     /** Records the last type of plot; mainly for internal use. */
-    PLOT( "Last recorded plot type: YPLOT, XYPLOT, RPLOT or TPLOT" ),
+    PLOT( 
+        "Last recorded plot type: "
+        + "YPLOT, XYPLOT, RPLOT, TPLOT, FPLOT or ZPLOT"
+    ),
     /** Generates the plot of the function y=f(x). */
     YPLOT( "Generates a plot of the form (x,y) = f(x)" ),
     /** Generates the plot of the parametric equation (x,y)=f(t). */
@@ -77,6 +102,12 @@ public enum Command
     RPLOT( "Generates a plot of the polar equation r = f(t)" ),
     /** Generates the plot of the polar equation t = f(r). */
     TPLOT( "Generates a plot of the polar equation t = f(r)" ),
+    /** Generates the plot of the implicit equation f(x,y) = 0. */
+    FPLOT( "Generates a plot of the implicit equation f(x,y) = 0" ),
+    /** Generates the plot of the derivative of y = f(x). */
+    DPLOT( "Generates a plot of the derivative of y = f(x)" ),
+    /** Generates a domain coloring of the complex function w = f(z). */
+    ZPLOT( "Generates a domain coloring of the complex function w = f(z)" ),
     /** Identifies and empty command string. */
     NONE( "Identifies an empty command string" ),
     /** Identifies an invalid command. */
@@ -90,6 +121,32 @@ public enum Command
     LOAD( "Load one or more equations into memory" ),
     /** Select an equation from the EquationMap. */
     SELECT( "Select an equation from a list" ),
+    /** Overlay the plots of named equations from the EquationMap. */
+    OVERLAY( 
+        "Describes a comma-separated list of names of equations "
+        + "to plot together" 
+    ),
+    /** Animate the plot while sweeping a variable across a range. */
+    SWEEP( 
+        "Describes the name of a variable, the start and end "
+        + "of the sweep, the number of frames and, optionally, "
+        + "the frames per second: name from to frames [fps]" 
+    ),
+    /** Find the roots of y = f(x). */
+    ROOTS( 
+        "Finds the roots of y = f(x) in the iteration range "
+        + "or, optionally, between two given limits: [from to]" 
+    ),
+    /** Find the local extrema of y = f(x). */
+    EXTREMA( 
+        "Finds the local extrema of y = f(x) in the iteration range "
+        + "or, optionally, between two given limits: [from to]" 
+    ),
+    /** Calculate the definite integral of y = f(x). */
+    INTEGRATE( 
+        "Integrates y = f(x) over the iteration range "
+        + "or, optionally, between two given limits: [from to]" 
+    ),
     /** Open a file. */
     OPEN( "Application specific; probably \"open equation file\""),
     /** Save a file. */
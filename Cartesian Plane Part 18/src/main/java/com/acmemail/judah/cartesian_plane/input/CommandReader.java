@@ -37,10 +37,14 @@ public class CommandReader
         new Shortcut( "y=", Command.YEQUALS ),
         new Shortcut( "r=", Command.REQUALS ),
         new Shortcut( "t=", Command.TEQUALS ),
+        new Shortcut( "f=", Command.FEQUALS ),
+        new Shortcut( "z=", Command.ZEQUALS ),
         new Shortcut( "X=", Command.XEQUALS ),
         new Shortcut( "Y=", Command.YEQUALS ),
         new Shortcut( "R=", Command.REQUALS ),
         new Shortcut( "T=", Command.TEQUALS ),
+        new Shortcut( "F=", Command.FEQUALS ),
+        new Shortcut( "Z=", Command.ZEQUALS ),
     };
     
     /** Source of the command line input. */
@@ -0,0 +1,1295 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleUnaryOperator;
+import java.util.stream.DoubleStream;
+import java.util.stream.Stream;
+
+/**
+ * Implementation of the Equation interface
+ * that compiles each expression
+ * into a JVM class.
+ * Expressions are parsed by {@linkplain ExprParser},
+ * which accepts the same syntax as exp4j,
+ * including the custom functions
+ * in {@linkplain Exp4jFunctions};
+ * the resulting tree
+ * is simplified by {@linkplain ExprOptimizer},
+ * and then compiled to bytecode
+ * by {@linkplain ExprCompiler}.
+ * Variables are not bound as constants
+ * before compiling,
+ * so a compiled expression remains valid
+ * when the value of a variable changes.
+ * Plotting an equation
+ * thus amounts to calling
+ * an ordinary Java method
+ * once per sample,
+ * which the JIT compiler can optimize
+ * like any other Java code.
+ * <p>
+ * Upon instantiation
+ * simple expressions for evaluating x and y
+ * are set to "1",
+ * the iteration range is
+ * initialized to valid values
+ * and the following
+ * variables are declared:
+ * <em>x, y, a, b, c, r</em> and <em>t</em>.
+ * The default parameter name
+ * for parametric equations is <em>t</em>.
+ * The default radius name
+ * for polar equations is <em>r</em>.
+ * The default angle name
+ * for polar equations is <em>t</em>.
+ * </p>
+ * 
+ * @author Jack Straub
+ * 
+ * @see Equation
+ * @see ExprParser
+ * @see ExprCompiler
+ */
+public class CompiledEquation implements Equation
+{
+    /** 
+     * Cache of expressions parsed by {@linkplain #evaluate(String)},
+     * shared by all instances of this class.
+     */
+    private static final ExpressionCache<Expr>    exprCache   =
+        new ExpressionCache<>();
+    /** 
+     * Simplifies expressions before they are compiled;
+     * no variables are bound as constants.
+     */
+    private static final ExprOptimizer          optimizer   =
+        new ExprOptimizer( Map.of() );
+    
+    private final Map<String,Double>    vars        = new HashMap<>();
+    private String                      name        = "New Equation";
+    private double                      rStart      = -1;
+    private double                      rEnd        = 1;
+    private double                      rStep       = .05;
+    private String                      rStartExpr  = "1";
+    private String                      rEndExpr    = "1";
+    private String                      rStepExpr   = "1";
+    private String                      plot        = "YPlot";
+    private int                         precision   = 3;
+    private String                      xExprStr    = "1";
+    private String                      yExprStr    = "1";
+    private String                      tExprStr    = "1";
+    private String                      rExprStr    = "1";
+    private String                      fExprStr    = "1";
+    private String                      zExprStr    = DomainColoring.ZED;
+    private Set<String>                 zDeps       = Set.of();
+    private String                      param       = "t";
+    private String                      radius      = "r";
+    private String                      theta       = "t";
+    private Expr                        xExpr       = null;
+    private Expr                        yExpr       = null;
+    private Expr                        tExpr       = null;
+    private Expr                        rExpr       = null;
+    private Expr                        fExpr       = null;
+    private boolean                     parallel    = false;
+    private AdaptiveSampler             sampler     = null;
+    private double                      polarTol    = 0;
+    private boolean                     autoRange   = false;
+    private Viewport                    viewport    = null;
+    private long                        version     = 0;
+
+    /**
+     * Default constructor.
+     * Sets the two expressions
+     * associated with this Equation
+     * to the constant expression "1"
+     * (<em>f(x) = 1, f(y) = 1</em>).
+     * A default set of variables
+     * is registered; see {@linkplain CompiledEquation}.
+     * 
+     * @see CompiledEquation
+     */
+    public CompiledEquation()
+    {
+        initMap();
+        setXExpression( xExprStr );
+        setYExpression( yExprStr );
+        setTExpression( tExprStr );
+        setRExpression( rExprStr );
+        setFExpression( fExprStr );
+    }
+
+    /**
+     * Constructor.
+     * Establishes the expression
+     * associated with the equation <em>y=f(x)</em>.
+     * A default set of variables
+     * is registered; see {@linkplain CompiledEquation}.
+     * 
+     * @param expr  the expression associated with the equation
+     */
+    public CompiledEquation( String expr )
+    {
+        initMap();
+        setXExpression( xExprStr );
+        setYExpression( expr );
+        setTExpression( tExprStr );
+        setRExpression( rExprStr );
+        setFExpression( fExprStr );
+    }
+
+    /**
+     * Constructor.
+     * Establishes the set of variables
+     * and the expression <em>y=f(x)</em>
+     * associated with this Equation.
+     * 
+     * @param vars  the associated set of variables
+     * @param expr  the associated expression
+     */
+    public CompiledEquation( Map<String,Double> vars, String expr )
+    {
+        this.vars.putAll( vars );
+        setXExpression( xExprStr );
+        setYExpression( expr );
+        setTExpression( tExprStr );
+        setRExpression( rExprStr );
+        setFExpression( fExprStr );
+    }
+
+    @Override
+    public void setName( String name )
+    {
+        this.name = name;
+    }
+
+    @Override
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * Returns a newly initialized Equation.
+     * 
+     * @return  a newly initialized Equation
+     */
+    @Override
+    public Equation newEquation()
+    {
+        return new CompiledEquation();
+    }
+
+    @Override
+    public void setVar( String name, double val )
+    {
+        Double  prev    = vars.put( name, val );
+        if ( (prev == null || prev != val) && dependsOn( name ) )
+            ++version;
+    }
+
+    @Override
+    public void removeVar( String name )
+    {
+        if ( vars.remove( name ) != null && dependsOn( name ) )
+            ++version;
+    }
+
+    @Override
+    public Optional<Double> getVar( String name )
+    {
+        Optional<Double>    result  = Optional.empty();
+        Double              val     = vars.get( name );
+        if ( val != null )
+            result = Optional.of( val );
+        return result;
+    }
+
+    @Override
+    public Map<String,Double> getVars()
+    {
+        Map<String,Double>  varsRet = Map.copyOf( vars );
+        return varsRet;
+    }
+
+    @Override
+    public Result setXExpression( String exprStr )
+    {
+        Result    result  = compileExpr( exprStr, e -> xExpr = e );
+        if ( result.isSuccess() )
+        {
+            this.xExprStr = exprStr;
+            ++version;
+        }
+        return result;
+    }
+
+    @Override
+    public Result setYExpression( String exprStr )
+    {
+        Result    result  = compileExpr( exprStr, e -> yExpr = e );
+        if ( result.isSuccess() )
+        {
+            this.yExprStr = exprStr;
+            ++version;
+        }
+        return result;
+    }
+
+    @Override
+    public Result setTExpression( String exprStr )
+    {
+        Result    result  = compileExpr( exprStr, e -> tExpr = e );
+        if ( result.isSuccess() )
+        {
+            this.tExprStr = exprStr;
+            ++version;
+        }
+        return result;
+    }
+
+    @Override
+    public Result setRExpression( String exprStr )
+    {
+        Result    result  = compileExpr( exprStr, e -> rExpr = e );
+        if ( result.isSuccess() )
+        {
+            this.rExprStr = exprStr;
+            ++version;
+        }
+        return result;
+    }
+
+    @Override
+    public Result setFExpression( String exprStr )
+    {
+        Result    result  = compileExpr( exprStr, e -> fExpr = e );
+        if ( result.isSuccess() )
+        {
+            this.fExprStr = exprStr;
+            ++version;
+        }
+        return result;
+    }
+
+    @Override
+    public Result setZExpression( String exprStr )
+    {
+        Result    result  = DomainColoring.validate( exprStr, vars.keySet() );
+        if ( result.isSuccess() )
+        {
+            this.zExprStr = exprStr;
+            zDeps = DomainColoring.dependencies( exprStr );
+            ++version;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean isValidExpression( String exprStr )
+    {
+        boolean status  = true;
+        try
+        {
+            new ExprParser( vars.keySet() ).parse( exprStr );
+        }
+        catch ( ValidationException exc )
+        {
+            status = false;
+        }
+        return status;
+    }
+
+    /**
+     * Iterates over the encapsulated range,
+     * generating the (x,y) coordinates
+     * derived from an equation of the form <em>y=f(x)</em>.
+     * 
+     * @return the (x,y) coordinates derived from the equation
+     * 
+     * @throws ValidationException if the equation is invalid
+     */
+    @Override
+    public Stream<Point2D> yPlot()
+    {
+        Stream<Point2D> stream  = null;
+        if ( parallel || sampler != null )
+            stream = bufferStream( this::yPlot );
+        else
+        {
+            plot = "YPlot";
+            boolean auto    = autoRange && viewport != null;
+            double  start   = auto ? viewport.getXMin() : rStart;
+            double  end     = auto ? viewport.getXMax() : rEnd;
+            double  step    = auto ? viewport.getStep() : rStep;
+            yExpr.prepare( vars, "Unexpected expression validation failure." );
+            int     xSlot   = yExpr.slotOf( "x" );
+            stream =
+                DoubleStream.iterate( start, x -> x <= end, x -> x += step )
+                    .peek( x -> yExpr.set( xSlot, x ) )
+                    .mapToObj( x -> new Point2D.Double( x, yExpr.evaluate() ) );
+        }
+        return stream;
+    }
+
+    /**
+     * Iterates over the encapsulated range,
+     * generating the (x,y) coordinates
+     * derived from a parametric equation.
+     * 
+     * @return the (x,y) coordinates derived from a parametric equation
+     * 
+     * @throws ValidationException if the equation is invalid
+     */
+    @Override
+    public Stream<Point2D> xyPlot()
+    {
+        Stream<Point2D> stream  = null;
+        if ( parallel || sampler != null )
+            stream = bufferStream( this::xyPlot );
+        else
+        {
+            plot = "XYPlot";
+            xExpr.prepare( vars, "Unexpected x-expression validation failure." );
+            yExpr.prepare( vars, "Unexpected y-expression validation failure." );
+            int     xSlot   = xExpr.slotOf( param );
+            int     ySlot   = yExpr.slotOf( param );
+            stream =
+                DoubleStream.iterate( rStart, t -> t <= rEnd, t -> t += rStep )
+                    .peek( t -> xExpr.set( xSlot, t ) )
+                    .peek( t -> yExpr.set( ySlot, t ) )
+                    .mapToObj( t ->
+                        new Point2D.Double(
+                            xExpr.evaluate(),
+                            yExpr.evaluate()
+                ));
+        }
+        return stream;
+    }
+
+    @Override
+    public Stream<Point2D> rPlot()
+    {
+        Stream<Point2D> stream  = null;
+        if ( parallel || sampler != null || polarTol > 0 )
+            stream = bufferStream( this::rPlot );
+        else
+        {
+            plot = "RPlot";
+            rExpr.prepare( vars, "Unexpected r-expression validation failure." );
+            int     tSlot   = rExpr.slotOf( theta );
+            stream =
+                DoubleStream.iterate( rStart, t -> t <= rEnd, t -> t += rStep )
+                    .peek( t -> rExpr.set( tSlot, t ) )
+                    .mapToObj( t -> {
+                        double  rco = rExpr.evaluate();
+                        return new Point2D.Double(
+                            rco * Math.cos( t ), rco * Math.sin( t )
+                        );
+                    });
+        }
+        return stream;
+    }
+
+    @Override
+    public Stream<Point2D> tPlot()
+    {
+        Stream<Point2D> stream  = null;
+        if ( parallel || sampler != null )
+            stream = bufferStream( this::tPlot );
+        else
+        {
+            plot = "TPlot";
+            tExpr.prepare( vars, "Unexpected t-expression validation failure." );
+            int     rSlot   = tExpr.slotOf( radius );
+            stream =
+                DoubleStream.iterate( rStart, r -> r <= rEnd, r -> r += rStep )
+                    .peek( r -> tExpr.set( rSlot, r ) )
+                    .mapToObj( r -> {
+                        double  tco = tExpr.evaluate();
+                        return new Point2D.Double(
+                            r * Math.cos( tco ), r * Math.sin( tco )
+                        );
+                    });
+        }
+        return stream;
+    }
+
+    /**
+     * Generates the (x,y) coordinates
+     * of the curve described by
+     * the implicit equation <em>f(x,y) = 0</em>.
+     * The curve is always traced into a buffer;
+     * see {@linkplain #fPlot(PointBuffer)}.
+     * 
+     * @return the (x,y) coordinates of the curve
+     * 
+     * @throws ValidationException if the equation is invalid
+     */
+    @Override
+    public Stream<Point2D> fPlot()
+    {
+        Stream<Point2D> stream  = bufferStream( this::fPlot );
+        return stream;
+    }
+
+    @Override
+    public void yPlot( PointBuffer buffer )
+    {
+        plot = "YPlot";
+        boolean auto    = autoRange && viewport != null;
+        double  start   = auto ? viewport.getXMin() : rStart;
+        double  end     = auto ? viewport.getXMax() : rEnd;
+        double  step    = auto ? viewport.getStep() : rStep;
+        yExpr.prepare( vars, "Unexpected expression validation failure." );
+        int     xSlot   = yExpr.slotOf( "x" );
+        if ( sampler != null )
+            sampler.sample( start, end, (xco, pt) -> {
+                yExpr.set( xSlot, xco );
+                pt.setLocation( xco, yExpr.evaluate() );
+            }, buffer );
+        else if ( parallel )
+            ParallelPlotter.plot( start, end, step, () -> {
+                Expr    expr    = yExpr.copy();
+                return (b, i, xco) -> {
+                    expr.set( xSlot, xco );
+                    b.set( i, xco, expr.evaluate() );
+                };
+            }, buffer );
+        else
+        {
+            buffer.clear();
+            for ( double xco = start ; xco <= end ; xco += step )
+            {
+                yExpr.set( xSlot, xco );
+                buffer.add( xco, yExpr.evaluate() );
+            }
+        }
+    }
+
+    @Override
+    public DoubleUnaryOperator getYFunction()
+    {
+        yExpr.prepare( vars, "Unexpected expression validation failure." );
+        Expr    expr    = yExpr.copy();
+        int     xSlot   = expr.slotOf( "x" );
+        return xco -> {
+            expr.set( xSlot, xco );
+            return expr.evaluate();
+        };
+    }
+
+    @Override
+    public void xyPlot( PointBuffer buffer )
+    {
+        plot = "XYPlot";
+        xExpr.prepare( vars, "Unexpected x-expression validation failure." );
+        yExpr.prepare( vars, "Unexpected y-expression validation failure." );
+        int     xSlot   = xExpr.slotOf( param );
+        int     ySlot   = yExpr.slotOf( param );
+        if ( sampler != null )
+            sampler.sample( rStart, rEnd, (tco, pt) -> {
+                xExpr.set( xSlot, tco );
+                yExpr.set( ySlot, tco );
+                pt.setLocation( xExpr.evaluate(), yExpr.evaluate() );
+            }, buffer );
+        else if ( parallel )
+            ParallelPlotter.plot( rStart, rEnd, rStep, () -> {
+                Expr    xCopy   = xExpr.copy();
+                Expr    yCopy   = yExpr.copy();
+                return (b, i, tco) -> {
+                    xCopy.set( xSlot, tco );
+                    yCopy.set( ySlot, tco );
+                    b.set( i, xCopy.evaluate(), yCopy.evaluate() );
+                };
+            }, buffer );
+        else
+        {
+            buffer.clear();
+            for ( double tco = rStart ; tco <= rEnd ; tco += rStep )
+            {
+                xExpr.set( xSlot, tco );
+                yExpr.set( ySlot, tco );
+                buffer.add( xExpr.evaluate(), yExpr.evaluate() );
+            }
+        }
+    }
+
+    @Override
+    public void rPlot( PointBuffer buffer )
+    {
+        plot = "RPlot";
+        rExpr.prepare( vars, "Unexpected r-expression validation failure." );
+        int     tSlot   = rExpr.slotOf( theta );
+        if ( sampler != null )
+            sampler.sample( rStart, rEnd, (tco, pt) -> {
+                rExpr.set( tSlot, tco );
+                double  rco = rExpr.evaluate();
+                pt.setLocation( rco * Math.cos( tco ), rco * Math.sin( tco ) );
+            }, buffer );
+        else if ( parallel )
+            ParallelPlotter.plot( rStart, rEnd, rStep, () -> {
+                Expr                expr    = rExpr.copy();
+                IncrementalSinCos   trig    = newSinCos();
+                return (b, i, tco) -> {
+                    expr.set( tSlot, tco );
+                    double  rco = expr.evaluate();
+                    trig.moveTo( i, tco );
+                    b.set( i, rco * trig.cos(), rco * trig.sin() );
+                };
+            }, buffer );
+        else
+        {
+            buffer.clear();
+            IncrementalSinCos   trig    = newSinCos();
+            int                 inx     = 0;
+            for ( double tco = rStart ; tco <= rEnd ; tco += rStep )
+            {
+                rExpr.set( tSlot, tco );
+                double  rco = rExpr.evaluate();
+                trig.moveTo( inx++, tco );
+                buffer.add( rco * trig.cos(), rco * trig.sin() );
+            }
+        }
+    }
+
+    @Override
+    public void tPlot( PointBuffer buffer )
+    {
+        plot = "TPlot";
+        tExpr.prepare( vars, "Unexpected t-expression validation failure." );
+        int     rSlot   = tExpr.slotOf( radius );
+        if ( sampler != null )
+            sampler.sample( rStart, rEnd, (rco, pt) -> {
+                tExpr.set( rSlot, rco );
+                double  tco = tExpr.evaluate();
+                pt.setLocation( rco * Math.cos( tco ), rco * Math.sin( tco ) );
+            }, buffer );
+        else if ( parallel )
+            ParallelPlotter.plot( rStart, rEnd, rStep, () -> {
+                Expr    expr    = tExpr.copy();
+                return (b, i, rco) -> {
+                    expr.set( rSlot, rco );
+                    double  tco = expr.evaluate();
+                    b.set( i, rco * Math.cos( tco ), rco * Math.sin( tco ) );
+                };
+            }, buffer );
+        else
+        {
+            buffer.clear();
+            for ( double rco = rStart ; rco <= rEnd ; rco += rStep )
+            {
+                tExpr.set( rSlot, rco );
+                double  tco = tExpr.evaluate();
+                buffer.add( rco * Math.cos( tco ), rco * Math.sin( tco ) );
+            }
+        }
+    }
+
+    @Override
+    public void fPlot( PointBuffer buffer )
+    {
+        plot = "FPlot";
+        fExpr.prepare( vars, "Unexpected f-expression validation failure." );
+        int         xSlot   = fExpr.slotOf( "x" );
+        int         ySlot   = fExpr.slotOf( "y" );
+        Rectangle2D bounds  = getImplicitBounds();
+        double      step    = viewport != null ? viewport.getStep() : rStep;
+        ImplicitPlotter.plot( bounds, step, parallel, () -> {
+            Expr    expr    = fExpr.copy();
+            return (xco, yco) -> {
+                expr.set( xSlot, xco );
+                expr.set( ySlot, yco );
+                return expr.evaluate();
+            };
+        }, buffer );
+    }
+
+    @Override
+    public String getXExpression()
+    {
+        return xExprStr;
+    }
+
+    @Override
+    public String getYExpression()
+    {
+        return yExprStr;
+    }
+
+    @Override
+    public String getTExpression()
+    {
+        return tExprStr;
+    }
+
+    @Override
+    public String getRExpression()
+    {
+        return rExprStr;
+    }
+
+    @Override
+    public String getFExpression()
+    {
+        return fExprStr;
+    }
+
+    @Override
+    public String getZExpression()
+    {
+        return zExprStr;
+    }
+
+    @Override
+    public Set<String> getXDependencies()
+    {
+        return dependencies( xExpr );
+    }
+
+
+    @Override
+    public Set<String> getYDependencies()
+    {
+        return dependencies( yExpr );
+    }
+
+
+    @Override
+    public Set<String> getTDependencies()
+    {
+        return dependencies( tExpr );
+    }
+
+
+    @Override
+    public Set<String> getRDependencies()
+    {
+        return dependencies( rExpr );
+    }
+
+
+    @Override
+    public Set<String> getFDependencies()
+    {
+        return dependencies( fExpr );
+    }
+    
+    @Override
+    public Set<String> getZDependencies()
+    {
+        return zDeps;
+    }
+
+    @Override
+    public String getParamName()
+    {
+        return param;
+    }
+
+    @Override
+    public void setParamName( String param )
+    {
+        this.param = param;
+        ++version;
+    }
+
+    @Override
+    public String getRadiusName()
+    {
+        return radius;
+    }
+
+    @Override
+    public void setRadiusName( String radius )
+    {
+        this.radius = radius;
+        ++version;
+    }
+
+    @Override
+    public String getThetaName()
+    {
+        return theta;
+    }
+
+    @Override
+    public void setThetaName( String theta )
+    {
+        this.theta = theta;
+        ++version;
+    }
+
+    @Override
+    public Result setRangeStart( String exprStr )
+    {
+        Result  result  =
+            setExpr( exprStr, d -> rStart = d, s -> rStartExpr = s );
+        return result;
+    }
+
+    @Override
+    public double getRangeStart()
+    {
+        return rStart;
+    }
+
+    @Override
+    public String getRangeStartExpr()
+    {
+        return rStartExpr;
+    }
+
+    @Override
+    public Result setRangeEnd( String exprStr )
+    {
+        Result  result  =
+            setExpr( exprStr, d -> rEnd = d, s -> rEndExpr = s );
+        return result;
+    }
+
+    @Override
+    public double getRangeEnd()
+    {
+        return rEnd;
+    }
+
+    @Override
+    public String getRangeEndExpr()
+    {
+        return rEndExpr;
+    }
+
+    @Override
+    public Result setRangeStep( String exprStr )
+    {
+        Result  result  =
+            setExpr( exprStr, d -> rStep = d, s -> rStepExpr = s );
+        return result;
+    }
+
+    @Override
+    public double getRangeStep()
+    {
+        return rStep;
+    }
+
+    @Override
+    public String getRangeStepExpr()
+    {
+        return rStepExpr;
+    }
+
+    @Override
+    public void setPrecision( int precision )
+    {
+        this.precision = precision;
+    }
+
+    @Override
+    public int getPrecision()
+    {
+        return precision;
+    }
+
+    @Override
+    public void setPlot( String plot )
+    {
+        this.plot = plot;
+    }
+
+    @Override
+    public String getPlot()
+    {
+        return plot;
+    }
+
+    @Override
+    public void setParallel( boolean parallel )
+    {
+        this.parallel = parallel;
+    }
+
+    @Override
+    public boolean isParallel()
+    {
+        return parallel;
+    }
+
+    @Override
+    public void setAdaptiveSampler( AdaptiveSampler sampler )
+    {
+        this.sampler = sampler;
+        ++version;
+        if ( sampler != null && viewport != null )
+            viewport.configure( sampler );
+    }
+
+    @Override
+    public AdaptiveSampler getAdaptiveSampler()
+    {
+        return sampler;
+    }
+
+    @Override
+    public void setPolarTolerance( double tolerance )
+    {
+        if ( !(tolerance >= 0) )
+        {
+            String  msg = "Invalid tolerance: " + tolerance;
+            throw new IllegalArgumentException( msg );
+        }
+        if ( tolerance != polarTol )
+            ++version;
+        polarTol = tolerance;
+    }
+
+    @Override
+    public double getPolarTolerance()
+    {
+        return polarTol;
+    }
+
+    @Override
+    public void setAutoRange( boolean autoRange )
+    {
+        this.autoRange = autoRange;
+        ++version;
+    }
+
+    @Override
+    public boolean isAutoRange()
+    {
+        return autoRange;
+    }
+
+    @Override
+    public void setViewport( Viewport viewport )
+    {
+        // A new viewport changes a plot only if it determines
+        // the range of a y-plot or the grid of an f-plot, or
+        // configures the sampler. A y-plot culled by an
+        // IntervalPlotter also depends on the y-range, which
+        // its caches compare separately.
+        boolean implicit    = plot.equalsIgnoreCase( "FPlot" );
+        if ( (autoRange || implicit || sampler != null) 
+            && !Objects.equals( viewport, this.viewport ) )
+            ++version;
+        this.viewport = viewport;
+        if ( viewport != null && sampler != null )
+            viewport.configure( sampler );
+    }
+
+    @Override
+    public Viewport getViewport()
+    {
+        return viewport;
+    }
+
+    @Override
+    public long getVersion()
+    {
+        return version;
+    }
+
+    /**
+     * Returns the cache of expressions
+     * parsed by {@linkplain #evaluate(String)}.
+     * The cache is shared by all instances of this class.
+     * 
+     * @return  the cache of expressions parsed by evaluate(String)
+     */
+    public static ExpressionCache<?> getExpressionCache()
+    {
+        return exprCache;
+    }
+
+    /**
+     * Returns the optimized form of a given expression.
+     * Constant sub-expressions are folded
+     * and simple algebraic identities applied;
+     * variables are not bound as constants.
+     * This is the form that is compiled for plotting.
+     * 
+     * @param exprStr   the given expression
+     * 
+     * @return  
+     *      an Optional containing the optimized expression,
+     *      or an empty Optional if the given expression is invalid
+     */
+    @Override
+    public Optional<String> getOptimizedExpression( String exprStr )
+    {
+        Optional<String>    result  = Optional.empty();
+        try
+        {
+            ExprParser  parser  = new ExprParser( vars.keySet() );
+            ExprNode    root    = optimizer.optimize( parser.parse( exprStr ) );
+            result = Optional.of( root.toString() );
+        }
+        catch ( ValidationException exc )
+        {
+            // Invalid expression; return empty Optional.
+        }
+        return result;
+    }
+
+    /**
+     * Evaluates a given expression
+     * using the current values of this Equation's variables.
+     * Such expressions are typically evaluated once,
+     * so they are interpreted rather than compiled.
+     * Parsed expressions are cached
+     * by expression string and variable names,
+     * so an expression that is evaluated repeatedly
+     * is parsed only once.
+     * 
+     * @param exprStr   the given expression
+     * 
+     * @return
+     *      the value of the given expression,
+     *      or an empty Optional if the expression is invalid
+     */
+    @Override
+    public Optional<Double> evaluate( String exprStr )
+    {
+        Optional<Double>    result  = Optional.empty();
+        Expr                cached  = 
+            exprCache.get( exprStr, vars.keySet(), this::parseInterpreted );
+        if ( cached != null )
+        {
+            // The cached expression is shared; evaluate a copy.
+            Expr    expr    = cached.copy();
+            expr.prepare( vars, "Unexpected expression validation failure." );
+            result = Optional.of( expr.evaluate() );
+        }
+        return result;
+    }
+
+    /**
+     * Parses a given expression
+     * against the currently declared variables,
+     * without compiling it.
+     * 
+     * @param exprStr   the given expression
+     * 
+     * @return  the parsed expression, or null if invalid
+     */
+    private Expr parseInterpreted( String exprStr )
+    {
+        Expr    result  = null;
+        try
+        {
+            ExprParser  parser  = new ExprParser( vars.keySet() );
+            ExprNode    root    = parser.parse( exprStr );
+            result = new Expr( root::evaluate, parser.getVariableNames() );
+        }
+        catch ( ValidationException exc )
+        {
+            // Invalid expression; return null.
+        }
+        return result;
+    }
+
+    /**
+     * Returns the names of the variables
+     * read by a given expression.
+     * If the expression is null
+     * an empty set is returned.
+     * 
+     * @param expr  the given expression
+     * 
+     * @return  the names of the variables read by the given expression
+     */
+    private static Set<String> dependencies( Expr expr )
+    {
+        Set<String> names   = Set.of();
+        if ( expr != null )
+            names = Set.copyOf( List.of( expr.names ) );
+        return names;
+    }
+
+    /**
+     * Creates an object to calculate
+     * the sine and cosine of theta
+     * during an r-plot,
+     * using the current iteration range
+     * and polar tolerance.
+     * 
+     * @return  object to calculate the sine and cosine of theta
+     */
+    private IncrementalSinCos newSinCos()
+    {
+        double              maxAngle    =
+            Math.max( Math.abs( rStart ), Math.abs( rEnd ) );
+        IncrementalSinCos   trig        =
+            new IncrementalSinCos( rStep, maxAngle, polarTol );
+        return trig;
+    }
+
+    /**
+     * Returns the region of the plane
+     * traversed by an f-plot:
+     * the bounds of the viewport, if any,
+     * otherwise the square
+     * in which x and y both traverse
+     * the iteration range.
+     * 
+     * @return  the region of the plane traversed by an f-plot
+     */
+    private Rectangle2D getImplicitBounds()
+    {
+        Rectangle2D bounds  = null;
+        if ( viewport != null )
+            bounds = viewport.getBounds();
+        else
+        {
+            double  size    = rEnd - rStart;
+            bounds = new Rectangle2D.Double( rStart, rStart, size, size );
+        }
+        return bounds;
+    }
+
+    /**
+     * Generates a plot in parallel or adaptively,
+     * using a given buffer-based plot method,
+     * and returns the points of the plot
+     * as a stream.
+     * 
+     * @param plotter   the given plot method
+     * 
+     * @return  the points of the plot, in order
+     */
+    private Stream<Point2D> bufferStream( Consumer<PointBuffer> plotter )
+    {
+        PointBuffer buffer  = new PointBuffer();
+        plotter.accept( buffer );
+        return buffer.stream();
+    }
+
+    /**
+     * Validates an expression and, if valid,
+     * records the expression and it value.
+     * 
+     * @param exprStr       the expression to evaluate
+     * @param valSetter     setter for the value of the expression
+     * @param strSetter     setter for the expression string
+     * 
+     * @return  object indicating result of evaluation
+     */
+    private Result setExpr(
+        String exprStr,
+        DoubleConsumer valSetter,
+        Consumer<String> strSetter
+    )
+    {
+        Result              result  = null;
+        String              str     = exprStr.trim();
+        Optional<Double>    dVal    = evaluate( str );
+        if ( dVal.isPresent() )
+        {
+            valSetter.accept( dVal.get() );
+            strSetter.accept( str );
+            ++version;
+            result = new Result( true );
+        }
+        else
+        {
+            String  invExpr =
+                "Invalid expression: \"" + str + "\"";
+            result = new Result( false, List.of( invExpr ) );
+        }
+        return result;
+    }
+
+    /**
+     * Parses and compiles an expression
+     * from a given string.
+     * If successful,
+     * the compiled expression
+     * is stored at the given destination
+     * and a successful Result is returned.
+     * Otherwise a Result
+     * describing the parsing error
+     * is returned.
+     * 
+     * @param exprStr       source string for compiled expression
+     * @param destination   destination for compiled expression
+     * 
+     * @return  Result object describing the result of the operation
+     */
+    private Result
+    compileExpr( String exprStr, Consumer<Expr> destination )
+    {
+        Result    result  = null;
+        try
+        {
+            ExprParser  parser  = new ExprParser( vars.keySet() );
+            ExprNode    root    = optimizer.optimize( parser.parse( exprStr ) );
+            Expr        expr    =
+                new Expr(
+                    ExprCompiler.compile( root ),
+                    parser.getVariableNames()
+                );
+            destination.accept( expr );
+            result = new Result( true );
+        }
+        catch ( ValidationException exc )
+        {
+            result = new Result( false, List.of( exc.getMessage() ) );
+        }
+        return result;
+    }
+
+    /**
+     * Initializes the variable map
+     * to the default values; see {@linkplain CompiledEquation}.
+     * 
+     * @see CompiledEquation
+     */
+    private void initMap()
+    {
+        vars.put( "x",  0. );
+        vars.put( "y",  0. );
+        vars.put( "a",  0. );
+        vars.put( "b",  0. );
+        vars.put( "c",  0. );
+        vars.put( "r",  0. );
+        vars.put( "t",  0. );
+    }
+
+    /**
+     * Encapsulates a compiled expression
+     * together with the names of its variables
+     * and the array that holds their values.
+     * 
+     * @author Jack Straub
+     */
+    private static class Expr
+    {
+        /** The compiled expression. */
+        private final CompiledExpression    compiled;
+        /** The names of the variables in the expression, by slot. */
+        private final String[]              names;
+        /** The values of the variables in the expression, by slot. */
+        private final double[]              values;
+
+        /**
+         * Constructor.
+         * Establishes the compiled expression
+         * and the names of its variables.
+         * 
+         * @param compiled  the compiled expression
+         * @param names     the names of the variables, by slot
+         */
+        Expr( CompiledExpression compiled, List<String> names )
+        {
+            this.compiled = compiled;
+            this.names = names.toArray( new String[0] );
+            this.values = new double[this.names.length];
+        }
+
+        /**
+         * Constructor.
+         * Creates a copy of a given Expr
+         * that shares its compiled expression
+         * but has its own array of variable values.
+         * 
+         * @param toCopy    the given Expr
+         */
+        private Expr( Expr toCopy )
+        {
+            this.compiled = toCopy.compiled;
+            this.names = toCopy.names;
+            this.values = toCopy.values.clone();
+        }
+
+        /**
+         * Creates a copy of this Expr
+         * for the private use of a single thread
+         * during a parallel plot.
+         * 
+         * @return  a copy of this Expr
+         */
+        Expr copy()
+        {
+            return new Expr( this );
+        }
+
+        /**
+         * Prepares this expression for evaluation
+         * by copying the value of every variable it uses
+         * from a given variable map.
+         * 
+         * @param vars      the given variable map
+         * @param message   message to use if validation fails
+         * 
+         * @throws ValidationException
+         *      if a variable used by this expression
+         *      is missing from the given map
+         */
+        void prepare( Map<String,Double> vars, String message )
+        {
+            for ( int inx = 0 ; inx < names.length ; ++inx )
+            {
+                Double  val = vars.get( names[inx] );
+                if ( val == null )
+                    throw new ValidationException( message );
+                values[inx] = val;
+            }
+        }
+
+        /**
+         * Gets the slot assigned to the variable
+         * with the given name.
+         * Returns -1 if the expression doesn't use the variable.
+         * 
+         * @param name  the given name
+         * 
+         * @return  the slot assigned to the variable, or -1 if none
+         */
+        int slotOf( String name )
+        {
+            int slot    = -1;
+            for ( int inx = 0 ; inx < names.length && slot < 0 ; ++inx )
+                if ( names[inx].equals( name ) )
+                    slot = inx;
+            return slot;
+        }
+
+        /**
+         * Sets the value of the variable
+         * in a given slot.
+         * If the slot is negative
+         * the operation is ignored.
+         * 
+         * @param slot  the given slot
+         * @param val   the value to set
+         */
+        void set( int slot, double val )
+        {
+            if ( slot >= 0 )
+                values[slot] = val;
+        }
+
+        /**
+         * Evaluates the compiled expression
+         * using the current variable values.
+         * 
+         * @return  the value of the expression
+         */
+        double evaluate()
+        {
+            double  val = compiled.evaluate( values );
+            return val;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+/**
+ * An expression that has been compiled
+ * for fast, repeated evaluation.
+ * The values of the variables in the expression
+ * are passed in an array,
+ * indexed by the slot assigned to each variable
+ * when the expression was parsed.
+ * 
+ * @author Jack Straub
+ * 
+ * @see ExprCompiler
+ * @see ExprParser#getVariableNames()
+ */
+public interface CompiledExpression
+{
+    /**
+     * Evaluates this expression
+     * using a given array of variable values.
+     * 
+     * @param vars  the given array of variable values, indexed by slot
+     * 
+     * @return  the value of this expression
+     */
+    double evaluate( double[] vars );
+}
@@ -0,0 +1,205 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * A view of the derivative
+ * of the function <em>y=f(x)</em>
+ * described by an Equation,
+ * calculated by automatic differentiation
+ * (see {@linkplain DualEvaluator}).
+ * The y-expression of the Equation
+ * is parsed by {@linkplain ExprParser},
+ * which accepts the syntax of exp4j;
+ * Equations in other syntaxes,
+ * such as {@linkplain JEPEquation},
+ * are not supported
+ * (see {@linkplain ExprParser#accepts(Equation)});
+ * the values of all variables other than <em>x</em>
+ * are those in effect when the view is created,
+ * and later changes to the Equation
+ * are not reflected in the view.
+ * <p>
+ * The derivative is calculated
+ * in the same pass as the function itself,
+ * so a single evaluation produces
+ * both <em>f(x)</em> and <em>f'(x)</em>,
+ * as required, for example,
+ * by Newton's method
+ * or to draw a tangent line.
+ * The derivative may also be plotted,
+ * over the same range as the Equation's y-plot.
+ * </p>
+ * 
+ * @author Jack Straub
+ * 
+ * @see Equation#derivative()
+ */
+public class Derivative
+{
+    /** The expression tree of the function. */
+    private final ExprNode  root;
+    /** The slot of <em>x</em>, or -1 if the function doesn't use it. */
+    private final int       slot;
+    /** The values of the variables of the function, by slot. */
+    private final double[]  values;
+    /** The start of the range over which to plot. */
+    private final double    start;
+    /** The end of the range over which to plot. */
+    private final double    end;
+    /** The distance between samples in a plot. */
+    private final double    step;
+    /** True if plots are to be generated in parallel. */
+    private final boolean   parallel;
+
+    /**
+     * Constructor.
+     * Establishes the function to differentiate,
+     * which is the y-expression of a given Equation,
+     * the values of its variables,
+     * and the range over which to plot.
+     * If the Equation is in auto range mode,
+     * and its viewport has been established,
+     * the range is that of the viewport.
+     * 
+     * @param equation  the given Equation
+     * 
+     * @throws ValidationException
+     *      if the syntax of the given Equation
+     *      is not that of ExprParser,
+     *      or its y-expression
+     *      is invalid or can't be differentiated
+     */
+    public Derivative( Equation equation )
+    {
+        // In JEP, for example, log is the base 10 logarithm;
+        // differentiating it as exp4j's log would be wrong.
+        if ( !ExprParser.accepts( equation ) )
+        {
+            String  msg = 
+                "Derivative not supported for "
+                + equation.getClass().getSimpleName();
+            throw new ValidationException( msg );
+        }
+        Map<String,Double>  vars    = equation.getVars();
+        ExprParser          parser  = new ExprParser( vars.keySet() );
+        root = parser.parse( equation.getYExpression() );
+        List<String>        names   = parser.getVariableNames();
+        slot = names.indexOf( "x" );
+        values = new double[names.size()];
+        for ( int inx = 0 ; inx < values.length ; ++inx )
+            values[inx] = vars.get( names.get( inx ) );
+
+        Viewport            port    = equation.getViewport();
+        boolean             auto    = equation.isAutoRange() && port != null;
+        start = auto ? port.getXMin() : equation.getRangeStart();
+        end = auto ? port.getXMax() : equation.getRangeEnd();
+        step = auto ? port.getStep() : equation.getRangeStep();
+        parallel = equation.isParallel();
+
+        // Fail now, rather than at plot time, if there is
+        // a function with no derivative rule.
+        newEvaluator();
+    }
+
+    /**
+     * Creates a new evaluator
+     * that calculates the function and its derivative
+     * in a single pass.
+     * An evaluator must not be shared between threads,
+     * but any number of evaluators may be created,
+     * one for each thread.
+     * 
+     * @return  a new evaluator
+     */
+    public DualEvaluator newEvaluator()
+    {
+        DualEvaluator   evaluator   = new DualEvaluator( root, slot, values );
+        return evaluator;
+    }
+
+    /**
+     * Returns the derivative as a function of <em>x</em>.
+     * The function has its own evaluator,
+     * and must not be shared between threads.
+     * 
+     * @return  the derivative as a function of x
+     */
+    public DoubleUnaryOperator getFunction()
+    {
+        DualEvaluator   evaluator   = newEvaluator();
+        return xco -> {
+            evaluator.evaluate( xco );
+            return evaluator.getSlope();
+        };
+    }
+
+    /**
+     * Generates the plot of the derivative,
+     * <em>y=f'(x)</em>,
+     * storing the points in a given buffer.
+     * The buffer is cleared
+     * before any points are stored.
+     * 
+     * @param buffer    the given buffer
+     */
+    public void yPlot( PointBuffer buffer )
+    {
+        plot( null, buffer );
+    }
+
+    /**
+     * Generates, in a single pass,
+     * the plot of the function, <em>y=f(x)</em>,
+     * and the plot of its derivative, <em>y=f'(x)</em>.
+     * The points of the function
+     * are stored in one given buffer
+     * and the points of the derivative in another;
+     * either buffer may be null,
+     * in which case the corresponding plot is discarded.
+     * The buffers are cleared
+     * before any points are stored.
+     * 
+     * @param fBuffer   the buffer for the function; may be null
+     * @param dBuffer   the buffer for the derivative; may be null
+     */
+    public void plot( PointBuffer fBuffer, PointBuffer dBuffer )
+    {
+        if ( parallel )
+        {
+            // The plotter fills the derivative's buffer; the
+            // function's buffer is filled alongside it.
+            PointBuffer fPoints = fBuffer != null ? fBuffer : new PointBuffer();
+            PointBuffer dPoints = dBuffer != null ? dBuffer : new PointBuffer();
+            int         count   =
+                ParallelPlotter.getSampleCount( start, end, step );
+            fPoints.clear();
+            fPoints.resize( count );
+            ParallelPlotter.plot( start, end, step, () -> {
+                DualEvaluator   evaluator   = newEvaluator();
+                return (b, i, xco) -> {
+                    fPoints.set( i, xco, evaluator.evaluate( xco ) );
+                    b.set( i, xco, evaluator.getSlope() );
+                };
+            }, dPoints );
+        }
+        else
+        {
+            DualEvaluator   evaluator   = newEvaluator();
+            if ( fBuffer != null )
+                fBuffer.clear();
+            if ( dBuffer != null )
+                dBuffer.clear();
+            for ( double xco = start ; xco <= end ; xco += step )
+            {
+                double  yco     = evaluator.evaluate( xco );
+                if ( fBuffer != null )
+                    fBuffer.add( xco, yco );
+                if ( dBuffer != null )
+                    dBuffer.add( xco, evaluator.getSlope() );
+            }
+        }
+    }
+}
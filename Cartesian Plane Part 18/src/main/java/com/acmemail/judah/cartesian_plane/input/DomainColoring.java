@@ -0,0 +1,383 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import java.awt.Color;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import org.nfunk.jep.ASTVarNode;
+import org.nfunk.jep.JEP;
+import org.nfunk.jep.Node;
+import org.nfunk.jep.type.Complex;
+
+/**
+ * Renders a <em>domain coloring</em>
+ * of a complex function <em>w = f(z)</em>
+ * over a region of the Cartesian plane.
+ * Every pixel of the region
+ * represents a complex number <em>z = x + iy</em>;
+ * the pixel is colored according to
+ * the value of <em>f(z)</em>:
+ * <ul>
+ * <li>
+ *      the argument (angle) of <em>f(z)</em>
+ *      determines the hue,
+ *      so that, for example,
+ *      positive real values are red
+ *      and negative real values are cyan;
+ * </li>
+ * <li>
+ *      the modulus of <em>f(z)</em>
+ *      determines the brightness:
+ *      zeros of the function are black,
+ *      values of modulus 1 are fully saturated,
+ *      and poles are white.
+ * </li>
+ * </ul>
+ * <p>
+ * The function is described by an expression
+ * in the variable <em>z</em>,
+ * which is evaluated by JEP
+ * with complex arithmetic enabled;
+ * the expression may use the constant <em>i</em>,
+ * JEP's standard functions,
+ * and any real variables
+ * declared in the map passed to the render method.
+ * Pixels at which the function is undefined
+ * are transparent.
+ * </p>
+ * <p>
+ * The rows of the image are divided into bands
+ * that are evaluated in parallel,
+ * each by its own JEP parser;
+ * the colors are written directly
+ * into the image's raster.
+ * The most recently rendered image is cached,
+ * and returned without re-evaluation
+ * until the expression,
+ * the variables
+ * or the viewport changes.
+ * A DomainColoring object is not thread-safe.
+ * </p>
+ * 
+ * @author Jack Straub
+ * 
+ * @see Equation#setZExpression(String)
+ */
+public class DomainColoring
+{
+    /** The name of the complex variable. */
+    public static final String  ZED         = "z";
+    /** The number of bands per available processor. */
+    private static final int    bandsPerCPU = 4;
+
+    /** The expression used to render the cached image. */
+    private String              cachedExpr  = null;
+    /** The variables used to render the cached image. */
+    private Map<String,Double>  cachedVars  = null;
+    /** The viewport used to render the cached image. */
+    private Viewport            cachedPort  = null;
+    /** The cached image; null if none. */
+    private BufferedImage       image       = null;
+    /** The number of times an image has been rendered. */
+    private long                renderCount = 0;
+
+    /**
+     * Determines whether a given string
+     * is a valid expression in the variable <em>z</em>
+     * and a given set of real variables.
+     * If the expression is valid
+     * a successful Result is returned,
+     * otherwise the Result describes the error.
+     * 
+     * @param exprStr   the given string
+     * @param varNames  the names of the real variables
+     * 
+     * @return  Result describing the validity of the expression
+     */
+    public static Result validate( String exprStr, Iterable<String> varNames )
+    {
+        Map<String,Double>  vars    = new HashMap<>();
+        varNames.forEach( n -> vars.put( n, 0. ) );
+        JEP     parser  = newParser( vars, new Complex() );
+        parser.parseExpression( exprStr );
+        Result  result  = null;
+        if ( parser.hasError() )
+            result = new Result( false, List.of( parser.getErrorInfo() ) );
+        else
+            result = new Result( true );
+        return result;
+    }
+
+    /**
+     * Gets the names of the real variables
+     * read by a given valid z-expression.
+     * The complex variable <em>z</em>
+     * is not included.
+     * 
+     * @param exprStr   the given expression
+     * 
+     * @return  the names of the variables read by the given expression
+     */
+    public static Set<String> dependencies( String exprStr )
+    {
+        // Declaring unknown names lets any valid expression parse.
+        JEP         parser  = newParser( Map.of(), new Complex() );
+        parser.setAllowUndeclared( true );
+        parser.parseExpression( exprStr );
+        Set<String> names   = new HashSet<>();
+        if ( !parser.hasError() && parser.getTopNode() != null )
+            addVarNames( parser.getTopNode(), names );
+        names.remove( ZED );
+        return Set.copyOf( names );
+    }
+
+    /**
+     * Returns a domain coloring of the function
+     * described by a given expression
+     * over a given viewport.
+     * The image has one pixel
+     * per device pixel of the viewport.
+     * If the expression, variables and viewport
+     * are the same as those
+     * used to render the previous image,
+     * the previous image is returned.
+     * 
+     * @param exprStr   the given expression
+     * @param vars      the values of the real variables
+     * @param viewport  the given viewport
+     * 
+     * @return  the domain coloring of the given expression
+     * 
+     * @throws ValidationException if the expression is invalid
+     */
+    public BufferedImage
+    render( String exprStr, Map<String,Double> vars, Viewport viewport )
+    {
+        if ( image == null
+            || !exprStr.equals( cachedExpr )
+            || !vars.equals( cachedVars )
+            || !Objects.equals( viewport, cachedPort ) )
+        {
+            Result  result  = validate( exprStr, vars.keySet() );
+            if ( !result.isSuccess() )
+                throw new ValidationException(
+                    "Invalid z-expression: " + exprStr
+                );
+            image = newImage( viewport );
+            paint( exprStr, vars, viewport, image );
+            cachedExpr = exprStr;
+            cachedVars = Map.copyOf( vars );
+            cachedPort = viewport;
+            ++renderCount;
+        }
+        return image;
+    }
+
+    /**
+     * Gets the number of times an image has been rendered.
+     * An image returned from the cache
+     * is not counted.
+     * 
+     * @return  the number of times an image has been rendered
+     */
+    public long getRenderCount()
+    {
+        return renderCount;
+    }
+
+    /**
+     * Discards the cached image, if any.
+     */
+    public void clear()
+    {
+        image = null;
+        cachedExpr = null;
+        cachedVars = null;
+        cachedPort = null;
+    }
+
+    /**
+     * Converts a complex value
+     * to the color used to represent it,
+     * expressed as an integer
+     * in the default ARGB color model.
+     * The argument of the value determines the hue
+     * and the modulus determines the brightness.
+     * If either part of the value is NaN
+     * the color is transparent.
+     * 
+     * @param re    the real part of the value
+     * @param im    the imaginary part of the value
+     * 
+     * @return  the ARGB color representing the value
+     */
+    public static int toARGB( double re, double im )
+    {
+        int     argb    = 0;
+        if ( !Double.isNaN( re ) && !Double.isNaN( im ) )
+        {
+            // Map the modulus from [0,infinity) to [0,1).
+            double  mod     = Math.sqrt( re * re + im * im );
+            double  light   = 2 / Math.PI * Math.atan( mod );
+            double  hue     = Math.atan2( im, re ) / (2 * Math.PI );
+            float   sat     = (float)Math.min( 1, 2 - 2 * light );
+            float   bright  = (float)Math.min( 1, 2 * light );
+            argb = Color.HSBtoRGB( (float)hue, sat, bright );
+        }
+        return argb;
+    }
+
+    /**
+     * Creates an image
+     * with one pixel per device pixel
+     * of a given viewport.
+     * 
+     * @param viewport  the given viewport
+     * 
+     * @return  an image the size of the given viewport
+     */
+    private static BufferedImage newImage( Viewport viewport )
+    {
+        Rectangle2D bounds  = viewport.getBounds();
+        double      ppu     = viewport.getPixelsPerUnit();
+        int         width   =
+            Math.max( 1, (int)Math.round( bounds.getWidth() * ppu ) );
+        int         height  =
+            Math.max( 1, (int)Math.round( bounds.getHeight() * ppu ) );
+        BufferedImage   image   =
+            new BufferedImage( width, height, BufferedImage.TYPE_INT_ARGB );
+        return image;
+    }
+
+    /**
+     * Evaluates a given expression
+     * at every pixel of a given image,
+     * and stores the resulting colors
+     * in the image's raster.
+     * 
+     * @param exprStr   the given expression
+     * @param vars      the values of the real variables
+     * @param viewport  the region of the plane covered by the image
+     * @param image     the given image
+     */
+    private static void paint(
+        String exprStr,
+        Map<String,Double> vars,
+        Viewport viewport,
+        BufferedImage image
+    )
+    {
+        int         width       = image.getWidth();
+        int         height      = image.getHeight();
+        int[]       pixels      =
+            ((DataBufferInt)image.getRaster().getDataBuffer()).getData();
+        Rectangle2D bounds      = viewport.getBounds();
+        double      xScale      = bounds.getWidth() / width;
+        double      yScale      = bounds.getHeight() / height;
+        double      xOrigin     = bounds.getMinX();
+        double      yOrigin     = bounds.getMaxY();
+        int         maxBands    =
+            bandsPerCPU * Runtime.getRuntime().availableProcessors();
+        int         numBands    = Math.min( height, maxBands );
+        int         bandRows    = (height + numBands - 1) / numBands;
+
+        IntStream.range( 0, numBands )
+            .parallel()
+            .forEach( b -> {
+                Complex zed     = new Complex();
+                JEP     parser  = newParser( vars, zed );
+                parser.parseExpression( exprStr );
+                int     first   = b * bandRows;
+                int     last    = Math.min( height, first + bandRows );
+                for ( int row = first ; row < last ; ++row )
+                {
+                    // Sample at the center of each pixel; rows
+                    // increase downward, y increases upward.
+                    double  yco = yOrigin - (row + .5) * yScale;
+                    int     inx = row * width;
+                    for ( int col = 0 ; col < width ; ++col )
+                    {
+                        zed.set( xOrigin + (col + .5) * xScale, yco );
+                        pixels[inx + col] = evaluate( parser );
+                    }
+                }
+            });
+    }
+
+    /**
+     * Evaluates the expression
+     * most recently parsed by a given parser,
+     * and converts the result
+     * to the color that represents it.
+     * 
+     * @param parser    the given parser
+     * 
+     * @return  the ARGB color representing the value of the expression
+     */
+    private static int evaluate( JEP parser )
+    {
+        Object  value   = parser.getValueAsObject();
+        int     argb    = 0;
+        if ( value instanceof Complex )
+        {
+            Complex result  = (Complex)value;
+            argb = toARGB( result.re(), result.im() );
+        }
+        else if ( value instanceof Number )
+            argb = toARGB( ((Number)value).doubleValue(), 0 );
+        return argb;
+    }
+
+    /**
+     * Adds to a given set
+     * the names of all the variables
+     * in the parse tree rooted at a given node.
+     * 
+     * @param node  the given node
+     * @param names the given set
+     */
+    private static void addVarNames( Node node, Set<String> names )
+    {
+        if ( node instanceof ASTVarNode )
+            names.add( ((ASTVarNode)node).getName() );
+        int count   = node.jjtGetNumChildren();
+        for ( int inx = 0 ; inx < count ; ++inx )
+            addVarNames( node.jjtGetChild( inx ), names );
+    }
+
+    /**
+     * Instantiates a JEP parser
+     * with complex arithmetic enabled,
+     * declares a given set of real variables,
+     * and declares <em>z</em>
+     * as a complex variable
+     * with a given value object.
+     * The value object is shared with the parser,
+     * so changing it
+     * changes the value of <em>z</em>.
+     * 
+     * @param vars  the given real variables
+     * @param zed   the value object for <em>z</em>
+     * 
+     * @return  the new parser
+     */
+    private static JEP newParser( Map<String,Double> vars, Complex zed )
+    {
+        JEP parser  = new JEP();
+        parser.addStandardConstants();
+        parser.addStandardFunctions();
+        parser.addComplex();
+        parser.setImplicitMul( true );
+        vars.forEach( parser::addVariable );
+        parser.addVariable( ZED, zed );
+        return parser;
+    }
+}
@@ -0,0 +1,565 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Evaluates an expression tree
+ * produced by {@linkplain ExprParser},
+ * together with its derivative
+ * with respect to one variable,
+ * by forward-mode automatic differentiation.
+ * Every node of the tree
+ * is evaluated as a <em>dual number</em>,
+ * a pair consisting of the node's value
+ * and its derivative, or <em>slope</em>;
+ * the slope of the varying variable is 1,
+ * the slope of a constant
+ * (including any other variable)
+ * is 0,
+ * and the slope of every other node
+ * is calculated from the values and slopes
+ * of its operands
+ * by the chain rule.
+ * The derivative is therefore exact,
+ * to within rounding error,
+ * and is calculated in the same pass as the value,
+ * with no need to evaluate the expression
+ * more than once.
+ * <p>
+ * The tree is translated, once,
+ * into a sequence of steps,
+ * one per node;
+ * each step calculates the value and slope
+ * of one node,
+ * storing them in a term that belongs to the node.
+ * A node whose operands are all constant
+ * is evaluated when the tree is translated.
+ * Values are computed
+ * with exactly the same double operations
+ * as {@linkplain ExprNode#evaluate(double[])}.
+ * </p>
+ * <p>
+ * There is a derivative rule
+ * for every function known to {@linkplain ExprFunction}.
+ * Where a function is not differentiable,
+ * such as <em>abs</em> at 0,
+ * the slope is that of one side or the other;
+ * the slope of a step function,
+ * such as <em>floor</em>,
+ * is 0.
+ * An evaluator keeps working storage
+ * for each node of the tree,
+ * so it must not be shared between threads.
+ * </p>
+ * 
+ * @author Jack Straub
+ * 
+ * @see Derivative
+ */
+public class DualEvaluator
+{
+    /** Natural logarithm of 10. */
+    private static final double ln10    = Math.log( 10 );
+    /** Natural logarithm of 2. */
+    private static final double ln2     = Math.log( 2 );
+
+    /** The slot of the variable with respect to which to differentiate. */
+    private final int               slot;
+    /** The values of all other variables, by slot. */
+    private final double[]          values;
+    /** The steps to execute, in order. */
+    private final List<Runnable>    steps   = new ArrayList<>();
+    /** The term that represents the varying variable. */
+    private final Term              input   = new Term( false );
+    /** The term that represents the root of the tree. */
+    private final Term              result;
+
+    /**
+     * Constructor.
+     * Translates the tree
+     * rooted at a given node
+     * for evaluation with respect to
+     * the variable in a given slot.
+     * 
+     * @param root      the given node
+     * @param slot
+     *      the slot of the variable with respect to which to differentiate;
+     *      may be -1 if the expression doesn't use the variable
+     * @param values    the values of all other variables, by slot
+     * 
+     * @throws ValidationException
+     *      if the tree calls a function
+     *      for which there is no derivative rule
+     */
+    public DualEvaluator( ExprNode root, int slot, double[] values )
+    {
+        this.slot = slot;
+        this.values = values.clone();
+        input.slope = 1;
+        result = root.accept( new Translator() );
+    }
+
+    /**
+     * Evaluates the expression
+     * for a given value of the varying variable.
+     * The derivative calculated in the same pass
+     * may then be obtained from {@linkplain #getSlope()}.
+     * 
+     * @param var   the given value
+     * 
+     * @return  the value of the expression
+     */
+    public double evaluate( double var )
+    {
+        input.value = var;
+        for ( Runnable step : steps )
+            step.run();
+        return result.value;
+    }
+
+    /**
+     * Gets the value of the expression
+     * calculated by the most recent evaluation.
+     * 
+     * @return  the most recently calculated value of the expression
+     */
+    public double getValue()
+    {
+        return result.value;
+    }
+
+    /**
+     * Gets the derivative of the expression
+     * calculated by the most recent evaluation.
+     * 
+     * @return  the most recently calculated derivative of the expression
+     */
+    public double getSlope()
+    {
+        return result.slope;
+    }
+
+    /**
+     * The value and slope of one node of the tree:
+     * a dual number.
+     * 
+     * @author Jack Straub
+     */
+    private static class Term
+    {
+        /** True if this term is a constant. */
+        private final boolean   constant;
+        /** The value of this term. */
+        private double          value;
+        /** The slope of this term. */
+        private double          slope;
+
+        /**
+         * Constructor.
+         * Instantiates a term
+         * whose value and slope
+         * are calculated by a step.
+         * 
+         * @param constant  true if this term is a constant
+         */
+        private Term( boolean constant )
+        {
+            this.constant = constant;
+        }
+
+        /**
+         * Constructor.
+         * Instantiates a constant term
+         * with a given value.
+         * 
+         * @param value the given value
+         */
+        private Term( double value )
+        {
+            this( true );
+            this.value = value;
+        }
+    }
+
+    /**
+     * Translates the nodes of a tree
+     * into steps.
+     * Visiting a node
+     * adds the steps for its sub-tree to the list of steps,
+     * and returns the term
+     * that will hold the node's value and slope.
+     * 
+     * @author Jack Straub
+     */
+    private class Translator implements ExprVisitor<Term>
+    {
+        @Override
+        public Term visit( ExprNode.Constant node )
+        {
+            return new Term( node.getValue() );
+        }
+
+        @Override
+        public Term visit( ExprNode.Variable node )
+        {
+            Term    term    = input;
+            if ( node.getSlot() != slot )
+                term = new Term( values[node.getSlot()] );
+            return term;
+        }
+
+        @Override
+        public Term visit( ExprNode.Negate node )
+        {
+            Term    oper    = node.getOperand().accept( this );
+            Term    dest    = null;
+            if ( oper.constant )
+                dest = new Term( -oper.value );
+            else
+            {
+                dest = new Term( false );
+                Term    term    = dest;
+                steps.add( () -> {
+                    term.value = -oper.value;
+                    term.slope = -oper.slope;
+                });
+            }
+            return dest;
+        }
+
+        @Override
+        public Term visit( ExprNode.Binary node )
+        {
+            ExprNode.Operator   oper    = node.getOperator();
+            Term                left    = node.getLeft().accept( this );
+            Term                right   = node.getRight().accept( this );
+            Term                dest    = null;
+            if ( left.constant && right.constant )
+                dest = new Term( oper.apply( left.value, right.value ) );
+            else
+            {
+                dest = new Term( false );
+                steps.add( binary( oper, left, right, dest ) );
+            }
+            return dest;
+        }
+
+        @Override
+        public Term visit( ExprNode.Call node )
+        {
+            ExprFunction    funk        = node.getFunction();
+            List<ExprNode>  args        = node.getArgs();
+            Term[]          opers       = new Term[args.size()];
+            boolean         allConst    = true;
+            for ( int inx = 0 ; inx < opers.length ; ++inx )
+            {
+                opers[inx] = args.get( inx ).accept( this );
+                allConst &= opers[inx].constant;
+            }
+
+            Term            dest        = null;
+            if ( allConst )
+            {
+                double[]    argv    = new double[opers.length];
+                for ( int inx = 0 ; inx < argv.length ; ++inx )
+                    argv[inx] = opers[inx].value;
+                dest = new Term( funk.apply( argv ) );
+            }
+            else if ( opers.length == 2 && funk.getName().equals( "pow" ) )
+            {
+                dest = new Term( false );
+                steps.add(
+                    binary( ExprNode.Operator.POWER, opers[0], opers[1], dest )
+                );
+            }
+            else if ( opers.length == 1 )
+            {
+                dest = new Term( false );
+                steps.add( unary( funk, opers[0], dest ) );
+            }
+            else
+            {
+                String  msg =
+                    "No derivative rule for function: " + funk.getName();
+                throw new ValidationException( msg );
+            }
+            return dest;
+        }
+
+        /**
+         * Creates a step
+         * that applies a given binary operator
+         * to two given terms,
+         * at least one of which is not constant.
+         * 
+         * @param oper  the given operator
+         * @param left  the left operand
+         * @param right the right operand
+         * @param dest  the term in which to store the result
+         * 
+         * @return  the step
+         */
+        private Runnable binary(
+            ExprNode.Operator oper,
+            Term left,
+            Term right,
+            Term dest
+        )
+        {
+            Runnable    step    = null;
+            switch ( oper )
+            {
+            case ADD:
+                step = () -> {
+                    dest.value = left.value + right.value;
+                    dest.slope = left.slope + right.slope;
+                };
+                break;
+            case SUBTRACT:
+                step = () -> {
+                    dest.value = left.value - right.value;
+                    dest.slope = left.slope - right.slope;
+                };
+                break;
+            case MULTIPLY:
+                step = () -> {
+                    dest.value = left.value * right.value;
+                    dest.slope =
+                        left.slope * right.value + left.value * right.slope;
+                };
+                break;
+            case DIVIDE:
+                step = () -> {
+                    dest.value = left.value / right.value;
+                    dest.slope =
+                        (left.slope - dest.value * right.slope) / right.value;
+                };
+                break;
+            case MODULO:
+                // a % b is a - b * trunc(a / b); the quotient is
+                // piecewise constant.
+                step = () -> {
+                    dest.value = left.value % right.value;
+                    double  quot    = (left.value - dest.value) / right.value;
+                    dest.slope = left.slope - quot * right.slope;
+                };
+                break;
+            case POWER:
+                step = right.constant ?
+                    power( left, right.value, dest ) :
+                    power( left, right, dest );
+                break;
+            }
+            return step;
+        }
+
+        /**
+         * Creates a step
+         * that raises a given term
+         * to a given constant power.
+         * 
+         * @param base  the given term
+         * @param exp   the given power
+         * @param dest  the term in which to store the result
+         * 
+         * @return  the step
+         */
+        private Runnable power( Term base, double exp, Term dest )
+        {
+            Runnable    step    = null;
+            if ( exp == 0 )
+                step = () -> {
+                    dest.value = Math.pow( base.value, exp );
+                    dest.slope = 0;
+                };
+            else
+                step = () -> {
+                    dest.value = Math.pow( base.value, exp );
+                    dest.slope =
+                        exp * Math.pow( base.value, exp - 1 ) * base.slope;
+                };
+            return step;
+        }
+
+        /**
+         * Creates a step
+         * that raises a given term
+         * to a power
+         * given by a non-constant term.
+         * Where the slope of the exponent is 0
+         * the constant-power rule applies,
+         * which is defined for a negative base.
+         * 
+         * @param base  the given term
+         * @param exp   the term that gives the power
+         * @param dest  the term in which to store the result
+         * 
+         * @return  the step
+         */
+        private Runnable power( Term base, Term exp, Term dest )
+        {
+            Runnable    step    = () -> {
+                double  bVal    = base.value;
+                double  eVal    = exp.value;
+                double  value   = Math.pow( bVal, eVal );
+                double  slope   = eVal == 0 ?
+                    0 : eVal * Math.pow( bVal, eVal - 1 ) * base.slope;
+                if ( exp.slope != 0 )
+                    slope += value * Math.log( bVal ) * exp.slope;
+                dest.value = value;
+                dest.slope = slope;
+            };
+            return step;
+        }
+
+        /**
+         * Creates a step
+         * that applies a given function of one argument
+         * to a given term.
+         * 
+         * @param funk  the given function
+         * @param oper  the given term
+         * @param dest  the term in which to store the result
+         * 
+         * @return  the step
+         * 
+         * @throws ValidationException
+         *      if there is no derivative rule for the given function
+         */
+        private Runnable unary( ExprFunction funk, Term oper, Term dest )
+        {
+            DerivativeRule  rule    = getRule( funk.getName() );
+            double[]        argv    = new double[1];
+            Runnable        step    = () -> {
+                double  arg     = oper.value;
+                argv[0] = arg;
+                double  value   = funk.apply( argv );
+                dest.value = value;
+                dest.slope = rule.apply( arg, value ) * oper.slope;
+            };
+            return step;
+        }
+
+        /**
+         * Gets the derivative rule
+         * for the function of one argument
+         * with a given name.
+         * 
+         * @param name  the given name
+         * 
+         * @return  the derivative rule for the given function
+         * 
+         * @throws ValidationException
+         *      if there is no derivative rule for the given function
+         */
+        private DerivativeRule getRule( String name )
+        {
+            DerivativeRule  rule    = null;
+            switch ( name )
+            {
+            case "sin":
+                rule = (u, v) -> Math.cos( u );
+                break;
+            case "cos":
+                rule = (u, v) -> -Math.sin( u );
+                break;
+            case "tan":
+                rule = (u, v) -> 1 + v * v;
+                break;
+            case "asin":
+                rule = (u, v) -> 1 / Math.sqrt( 1 - u * u );
+                break;
+            case "acos":
+                rule = (u, v) -> -1 / Math.sqrt( 1 - u * u );
+                break;
+            case "atan":
+                rule = (u, v) -> 1 / (1 + u * u);
+                break;
+            case "sinh":
+                rule = (u, v) -> Math.cosh( u );
+                break;
+            case "cosh":
+                rule = (u, v) -> Math.sinh( u );
+                break;
+            case "tanh":
+                rule = (u, v) -> 1 - v * v;
+                break;
+            case "abs":
+                rule = (u, v) -> u < 0 ? -1 : 1;
+                break;
+            case "log":
+                rule = (u, v) -> 1 / u;
+                break;
+            case "log10":
+                rule = (u, v) -> 1 / (u * ln10);
+                break;
+            case "log2":
+                rule = (u, v) -> 1 / (u * ln2);
+                break;
+            case "log1p":
+                rule = (u, v) -> 1 / (1 + u);
+                break;
+            case "ceil":
+            case "floor":
+            case "signum":
+                rule = (u, v) -> 0;
+                break;
+            case "sqrt":
+                rule = (u, v) -> .5 / v;
+                break;
+            case "cbrt":
+                rule = (u, v) -> 1 / (3 * v * v);
+                break;
+            case "exp":
+                rule = (u, v) -> v;
+                break;
+            case "expm1":
+                rule = (u, v) -> v + 1;
+                break;
+            case "cot":
+                rule = (u, v) -> -(1 + v * v);
+                break;
+            case "sec":
+                rule = (u, v) -> v * Math.tan( u );
+                break;
+            case "csc":
+                rule = (u, v) -> -v * ExprFunction.cot( u );
+                break;
+            case "toDegrees":
+                rule = (u, v) -> 180 / Math.PI;
+                break;
+            case "toRadians":
+                rule = (u, v) -> Math.PI / 180;
+                break;
+            default:
+                String  msg = "No derivative rule for function: " + name;
+                throw new ValidationException( msg );
+            }
+            return rule;
+        }
+    }
+
+    /**
+     * The derivative of a function of one argument.
+     * 
+     * @author Jack Straub
+     */
+    @FunctionalInterface
+    private interface DerivativeRule
+    {
+        /**
+         * Calculates the derivative of the function
+         * at a given argument.
+         * The value of the function at the argument
+         * is supplied,
+         * for rules that can make use of it.
+         * 
+         * @param arg   the given argument
+         * @param value the value of the function at the given argument
+         * 
+         * @return  the derivative of the function at the given argument
+         */
+        double apply( double arg, double value );
+    }
+}
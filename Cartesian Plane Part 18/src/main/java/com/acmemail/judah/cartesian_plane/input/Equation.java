@@ -1,9 +1,12 @@
 package com.acmemail.judah.cartesian_plane.input;
 
 import java.awt.geom.Point2D;
+import java.math.BigDecimal;
 import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.Set;
+import java.util.function.DoubleUnaryOperator;
 import java.util.stream.Stream;
 
 /**
@@ -53,6 +56,63 @@ public interface Equation
      */
     Equation newEquation();
     
+    /**
+     * Returns a new Equation
+     * of the same type as this Equation,
+     * with the same name, variables,
+     * parameter names, iteration range,
+     * expressions and plot settings.
+     * The iteration range of the new Equation
+     * has the same values as that of this Equation;
+     * an expression of the range is copied
+     * only if it evaluates to the same value in the copy
+     * (the initial expressions, for example,
+     * do not describe the initial values).
+     * The new Equation shares no mutable state
+     * with this Equation,
+     * so the two may be used on different threads;
+     * for this reason the adaptive sampler, if any,
+     * is replaced by a {@linkplain AdaptiveSampler#copy() copy}.
+     * 
+     * @return  a copy of this Equation
+     * 
+     * @see ParameterSweep
+     */
+    default Equation copy()
+    {
+        Equation    copy    = newEquation();
+        copy.setName( getName() );
+        copy.setParamName( getParamName() );
+        copy.setRadiusName( getRadiusName() );
+        copy.setThetaName( getThetaName() );
+        getVars().forEach( copy::setVar );
+        copy.setRangeStart( getRangeStartExpr() );
+        if ( copy.getRangeStart() != getRangeStart() )
+            copy.setRangeStart( toPlainString( getRangeStart() ) );
+        copy.setRangeEnd( getRangeEndExpr() );
+        if ( copy.getRangeEnd() != getRangeEnd() )
+            copy.setRangeEnd( toPlainString( getRangeEnd() ) );
+        copy.setRangeStep( getRangeStepExpr() );
+        if ( copy.getRangeStep() != getRangeStep() )
+            copy.setRangeStep( toPlainString( getRangeStep() ) );
+        copy.setXExpression( getXExpression() );
+        copy.setYExpression( getYExpression() );
+        copy.setTExpression( getTExpression() );
+        copy.setRExpression( getRExpression() );
+        copy.setFExpression( getFExpression() );
+        copy.setZExpression( getZExpression() );
+        copy.setPrecision( getPrecision() );
+        copy.setPlot( getPlot() );
+        copy.setParallel( isParallel() );
+        copy.setPolarTolerance( getPolarTolerance() );
+        copy.setAutoRange( isAutoRange() );
+        copy.setViewport( getViewport() );
+        AdaptiveSampler sampler = getAdaptiveSampler();
+        if ( sampler != null )
+            copy.setAdaptiveSampler( sampler.copy() );
+        return copy;
+    }
+    
     /**
      * Sets the value of a variable to a given value.
      * 
@@ -154,6 +214,43 @@ public interface Equation
      */
     Result setRExpression(String exprStr);
 
+    /**
+     * Parses the expression <em>f(x,y)</em>
+     * used to describe a curve
+     * by the implicit equation <em>f(x,y) = 0</em>
+     * to the given value.
+     * If a parsing error occurs
+     * a description of the error is returned,
+     * otherwise Result.SUCCESS is returned.
+     * 
+     * @param exprStr   the given value
+     * 
+     * @return  the status of the operation
+     * 
+     * @see #fPlot(PointBuffer)
+     */
+    Result setFExpression(String exprStr);
+
+    /**
+     * Parses the expression <em>f(z)</em>
+     * used to describe a complex function
+     * <em>w = f(z)</em>
+     * to the given value.
+     * The expression is evaluated
+     * with complex arithmetic,
+     * where <em>z = x + iy</em>;
+     * it is plotted as a domain coloring
+     * by {@linkplain DomainColoring}.
+     * If a parsing error occurs
+     * a description of the error is returned,
+     * otherwise Result.SUCCESS is returned.
+     * 
+     * @param exprStr   the given value
+     * 
+     * @return  the status of the operation
+     */
+    Result setZExpression(String exprStr);
+
     /**
      * Gets the currently set x-expression.
      * 
@@ -182,6 +279,92 @@ public interface Equation
      */
     String getRExpression();
 
+    /**
+     * Gets the currently set f-expression.
+     * 
+     * @return  the currently set f-expression
+     */
+    String getFExpression();
+
+    /**
+     * Gets the currently set z-expression.
+     * 
+     * @return  the currently set z-expression
+     */
+    String getZExpression();
+
+    /**
+     * Gets the names of the variables and parameters
+     * read by the currently set x-expression.
+     * 
+     * @return  the names of the variables read by the x-expression
+     */
+    Set<String> getXDependencies();
+
+    /**
+     * Gets the names of the variables and parameters
+     * read by the currently set y-expression.
+     * 
+     * @return  the names of the variables read by the y-expression
+     */
+    Set<String> getYDependencies();
+
+    /**
+     * Gets the names of the variables and parameters
+     * read by the currently set t-expression.
+     * 
+     * @return  the names of the variables read by the t-expression
+     */
+    Set<String> getTDependencies();
+
+    /**
+     * Gets the names of the variables and parameters
+     * read by the currently set r-expression.
+     * 
+     * @return  the names of the variables read by the r-expression
+     */
+    Set<String> getRDependencies();
+
+    /**
+     * Gets the names of the variables
+     * read by the currently set f-expression.
+     * 
+     * @return  the names of the variables read by the f-expression
+     */
+    Set<String> getFDependencies();
+
+    /**
+     * Gets the names of the real variables
+     * read by the currently set z-expression.
+     * 
+     * @return  the names of the variables read by the z-expression
+     */
+    Set<String> getZDependencies();
+
+    /**
+     * Determines whether any of the x-, y-, t-, r-, f- or z-expressions
+     * reads the variable with the given name.
+     * If not, changing the value of the variable
+     * cannot change the result of a plot,
+     * and does not change the {@linkplain #getVersion() version}
+     * of this Equation.
+     * 
+     * @param name  the given name
+     * 
+     * @return  true if any expression reads the given variable
+     */
+    default boolean dependsOn( String name )
+    {
+        boolean result  =
+            getXDependencies().contains( name )
+            || getYDependencies().contains( name )
+            || getTDependencies().contains( name )
+            || getRDependencies().contains( name )
+            || getFDependencies().contains( name )
+            || getZDependencies().contains( name );
+        return result;
+    }
+
     /**
      * Iterates over the encapsulated range,
      * generating the (x,y) coordinates 
@@ -234,6 +417,148 @@ public interface Equation
      */
     Stream<Point2D> tPlot();
 
+    /**
+     * Generates the (x,y) coordinates
+     * of the curve described by
+     * the implicit equation <em>f(x,y) = 0</em>.
+     * For details,
+     * see {@linkplain #fPlot(PointBuffer)}.
+     * 
+     * @return the (x,y) coordinates of the curve
+     * 
+     * @throws ValidationException if the equation is invalid
+     */
+    Stream<Point2D> fPlot();
+
+    /**
+     * Iterates over the encapsulated range,
+     * storing in a given buffer the (x,y) coordinates
+     * derived from an equation of the form <em>y=f(x)</em>.
+     * The buffer is cleared before any points are added.
+     * Equivalent to {@linkplain #yPlot()},
+     * but no object is created
+     * for an individual point.
+     *
+     * @param buffer    the given buffer
+     *
+     * @throws ValidationException if the equation is invalid
+     */
+    void yPlot( PointBuffer buffer );
+
+    /**
+     * Returns a function
+     * that evaluates the expression <em>y=f(x)</em>
+     * for a given value of <em>x</em>.
+     * The function uses the values of the variables
+     * at the time it is created;
+     * subsequent changes to the variables
+     * do not affect it.
+     * The function has its own copy
+     * of the parsed expression,
+     * so it may be used concurrently with this Equation,
+     * but it is not itself thread-safe.
+     * 
+     * @return  a function that evaluates the y-expression
+     *
+     * @throws ValidationException if the equation is invalid
+     * 
+     * @see OverlayPlotter
+     */
+    DoubleUnaryOperator getYFunction();
+
+    /**
+     * Returns a view of the derivative
+     * of the expression <em>y=f(x)</em>
+     * with respect to <em>x</em>,
+     * calculated by automatic differentiation.
+     * The view uses the values of the variables,
+     * and the iteration range,
+     * in effect at the time it is created.
+     * 
+     * @return  a view of the derivative of the y-expression
+     *
+     * @throws ValidationException
+     *      if this Equation's syntax is not that of
+     *      {@linkplain ExprParser},
+     *      or the y-expression is invalid
+     *      or can't be differentiated
+     * 
+     * @see Derivative
+     */
+    default Derivative derivative()
+    {
+        Derivative  derivative  = new Derivative( this );
+        return derivative;
+    }
+
+    /**
+     * Iterates over the encapsulated range,
+     * storing in a given buffer the (x,y) coordinates
+     * derived from a parametric equation.
+     * The buffer is cleared before any points are added.
+     * Equivalent to {@linkplain #xyPlot()},
+     * but no object is created
+     * for an individual point.
+     *
+     * @param buffer    the given buffer
+     *
+     * @throws ValidationException if the equation is invalid
+     */
+    void xyPlot( PointBuffer buffer );
+
+    /**
+     * Iterates over the encapsulated range,
+     * storing in a given buffer the (x,y) coordinates
+     * derived from the polar equation r = f(t).
+     * The buffer is cleared before any points are added.
+     * Equivalent to {@linkplain #rPlot()},
+     * but no object is created
+     * for an individual point.
+     *
+     * @param buffer    the given buffer
+     *
+     * @throws ValidationException if the equation is invalid
+     */
+    void rPlot( PointBuffer buffer );
+
+    /**
+     * Iterates over the encapsulated range,
+     * storing in a given buffer the (x,y) coordinates
+     * derived from the polar equation t = f(r).
+     * The buffer is cleared before any points are added.
+     * Equivalent to {@linkplain #tPlot()},
+     * but no object is created
+     * for an individual point.
+     *
+     * @param buffer    the given buffer
+     *
+     * @throws ValidationException if the equation is invalid
+     */
+    void tPlot( PointBuffer buffer );
+
+    /**
+     * Stores in a given buffer
+     * the (x,y) coordinates of the curve
+     * described by the implicit equation <em>f(x,y) = 0</em>.
+     * The buffer is cleared before any points are added.
+     * The curve is traced over a square grid
+     * by {@linkplain ImplicitPlotter}.
+     * If a viewport has been set
+     * the grid covers the viewport,
+     * with one sample per device pixel;
+     * otherwise both x and y
+     * traverse the encapsulated iteration range.
+     * The curve is stored as a series of short segments,
+     * each consisting of two points followed by a break.
+     *
+     * @param buffer    the given buffer
+     *
+     * @throws ValidationException if the equation is invalid
+     * 
+     * @see #setViewport(Viewport)
+     */
+    void fPlot( PointBuffer buffer );
+
     /**
      * Gets the name of the parameter
      * in a parametric equation.
@@ -384,7 +709,193 @@ public interface Equation
      * @return  the type of plot
      */
     String getPlot();
-    
+
+    /**
+     * Selects parallel or sequential plotting.
+     * In parallel mode
+     * the plot methods divide the iteration range
+     * among all available processors,
+     * and samples are generated by index:
+     * the i<sup>th</sup> sample is taken at
+     * <em>start + i * step</em>.
+     * The points of a plot
+     * are always produced in order.
+     * The default is sequential plotting.
+     *
+     * @param parallel  true to select parallel plotting
+     *
+     * @see ParallelPlotter
+     */
+    void setParallel( boolean parallel );
+
+    /**
+     * Returns true if parallel plotting
+     * is selected.
+     *
+     * @return  true if parallel plotting is selected
+     *
+     * @see #setParallel(boolean)
+     */
+    boolean isParallel();
+
+    /**
+     * Selects adaptive or fixed-step plotting.
+     * If a sampler is given,
+     * the plot methods ignore the range step
+     * and sample the iteration range adaptively,
+     * concentrating samples where the curve
+     * bends sharply,
+     * and inserting breaks
+     * at discontinuities.
+     * Adaptive plotting takes precedence
+     * over parallel plotting.
+     * If the sampler is null,
+     * fixed-step plotting is selected;
+     * this is the default.
+     *
+     * @param sampler   the sampler to use; may be null
+     *
+     * @see AdaptiveSampler
+     * @see PointBuffer#isBreak(int)
+     */
+    void setAdaptiveSampler( AdaptiveSampler sampler );
+
+    /**
+     * Returns the sampler used for adaptive plotting,
+     * or null if fixed-step plotting is selected.
+     *
+     * @return  the sampler used for adaptive plotting; may be null
+     *
+     * @see #setAdaptiveSampler(AdaptiveSampler)
+     */
+    AdaptiveSampler getAdaptiveSampler();
+
+    /**
+     * Sets the tolerance
+     * for the sine and cosine of theta
+     * calculated during an r-plot.
+     * If the tolerance is positive,
+     * and the samples are uniformly spaced,
+     * the sine and cosine of successive values of theta
+     * are obtained by rotation
+     * rather than by calling Math.sin and Math.cos,
+     * and are recalculated exactly
+     * often enough to keep the error
+     * within the tolerance;
+     * the error in a plotted point
+     * is at most <em>|r|</em> times the tolerance.
+     * A tolerance of 0
+     * selects exact calculation;
+     * this is the default.
+     * The tolerance has no effect
+     * on adaptive plotting,
+     * or on other types of plot.
+     *
+     * @param tolerance the tolerance
+     *
+     * @throws IllegalArgumentException
+     *      if the tolerance is negative or NaN
+     *
+     * @see IncrementalSinCos
+     */
+    void setPolarTolerance( double tolerance );
+
+    /**
+     * Returns the tolerance
+     * for the sine and cosine of theta
+     * calculated during an r-plot.
+     *
+     * @return  the tolerance; 0 if exact calculation is selected
+     *
+     * @see #setPolarTolerance(double)
+     */
+    double getPolarTolerance();
+
+    /**
+     * Selects or deselects auto range mode.
+     * In auto range mode
+     * a y-plot ignores the encapsulated iteration range,
+     * and instead iterates over the visible x-range
+     * of the most recently set {@linkplain Viewport},
+     * taking one sample per device pixel.
+     * If no viewport has been set
+     * the encapsulated range is used.
+     * Auto range mode has no effect
+     * on other types of plot.
+     * The default is false.
+     *
+     * @param autoRange true to select auto range mode
+     *
+     * @see #setViewport(Viewport)
+     */
+    void setAutoRange( boolean autoRange );
+
+    /**
+     * Returns true if auto range mode
+     * is selected.
+     *
+     * @return  true if auto range mode is selected
+     *
+     * @see #setAutoRange(boolean)
+     */
+    boolean isAutoRange();
+
+    /**
+     * Sets the region of the Cartesian plane
+     * in which plots are displayed.
+     * The viewport determines the iteration range
+     * of a y-plot in auto range mode,
+     * and the grid of an f-plot,
+     * and configures the bounds and scale
+     * of the adaptive sampler, if any.
+     * A y-plot made by an {@linkplain IntervalPlotter}
+     * omits samples outside the viewport's y-range,
+     * but a change to the y-range alone
+     * does not change the {@linkplain #getVersion() version};
+     * see {@linkplain IntervalPlotter#culls(Equation)}.
+     *
+     * @param viewport  the viewport; may be null
+     *
+     * @see #setAutoRange(boolean)
+     * @see #setAdaptiveSampler(AdaptiveSampler)
+     */
+    void setViewport( Viewport viewport );
+
+    /**
+     * Returns the region of the Cartesian plane
+     * in which plots are displayed.
+     *
+     * @return  the viewport; may be null
+     *
+     * @see #setViewport(Viewport)
+     */
+    Viewport getViewport();
+
+    /**
+     * Returns the version of this Equation.
+     * The version changes
+     * whenever this Equation is modified
+     * in a way that may change the result of a plot:
+     * for example, when an expression,
+     * a variable read by an expression
+     * or the iteration range
+     * is changed.
+     * Changing a variable
+     * that no expression reads
+     * does not change the version.
+     * Changes to the internal settings
+     * of an {@linkplain AdaptiveSampler}
+     * are not tracked.
+     * Two plots of the same type
+     * made at the same version
+     * produce the same points.
+     *
+     * @return  the version of this Equation
+     *
+     * @see PlotCache
+     */
+    long getVersion();
+
     /**
      * Determines if a given string
      * is a valid expression.
@@ -479,6 +990,31 @@ public interface Equation
      *      or an empty Optional if an error occurred
      */
     Optional<Double> evaluate( String exprStr );
+
+    /**
+     * Returns the optimized form
+     * of a given expression,
+     * as evaluated by the plot methods
+     * ({@linkplain #yPlot()}, {@linkplain #xyPlot()}, etc.).
+     * Before plotting,
+     * constant sub-expressions are evaluated,
+     * and cheap algebraic simplifications may be applied;
+     * see {@linkplain ExprOptimizer}.
+     * Depending on the implementation,
+     * every variable other than
+     * <em>x</em> and the parameter, radius and angle names
+     * may first be replaced by its current value.
+     * The result is intended for debugging.
+     * If the expression cannot be optimized
+     * it is returned unchanged.
+     * 
+     * @param exprStr   the given expression
+     * 
+     * @return  
+     *      an Optional containing the optimized expression,
+     *      or an empty Optional if the given expression is invalid
+     */
+    Optional<String> getOptimizedExpression( String exprStr );
     
     /**
      * Determine if a given character is alphabetic:
@@ -516,4 +1052,18 @@ public interface Equation
             || (ccc >= '0' && ccc <= '9');
         return result;
     }
+    
+    /**
+     * Converts a given value
+     * to an expression that evaluates to it exactly,
+     * without an exponent.
+     * 
+     * @param value the given value
+     * 
+     * @return  an expression that evaluates to the given value
+     */
+    private static String toPlainString( double value )
+    {
+        return BigDecimal.valueOf( value ).toPlainString();
+    }
 }
\ No newline at end of file
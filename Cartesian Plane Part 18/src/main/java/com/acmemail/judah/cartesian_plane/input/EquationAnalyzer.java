@@ -0,0 +1,826 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Numerical analysis
+ * of the function <em>y=f(x)</em>
+ * described by an Equation:
+ * roots, local extrema and definite integrals.
+ * <p>
+ * Roots and extrema are sought
+ * over an iteration range,
+ * by default the Equation's range.
+ * The function is first sampled
+ * at every step of the range;
+ * an interval between adjacent samples
+ * in which the function changes sign
+ * brackets a root,
+ * which is then located by Brent's method.
+ * Likewise, a sample that is greater (less)
+ * than both its neighbors
+ * brackets a local maximum (minimum),
+ * which is then located by golden section search.
+ * Consequently, a root or extremum
+ * is found only if it is isolated
+ * at the resolution of the step;
+ * for example, a double root
+ * at which the function does not change sign
+ * is reported as an extremum,
+ * but not as a root.
+ * Definite integrals are calculated
+ * by adaptive Gauss-Kronrod quadrature
+ * (the 7-point Gauss rule
+ * paired with the 15-point Kronrod rule).
+ * </p>
+ * <p>
+ * In every case
+ * the work is divided into tasks,
+ * which are processed in parallel;
+ * each task evaluates the function
+ * by its own {@linkplain Equation#getYFunction() y-function},
+ * which has its own copy of the expression.
+ * The y-functions are created on the calling thread,
+ * so the Equation itself
+ * is never accessed concurrently.
+ * </p>
+ * 
+ * @author Jack Straub
+ */
+public class EquationAnalyzer
+{
+    /** The default tolerance for roots, extrema and integrals. */
+    public static final double  DEFAULT_TOLERANCE   = 1E-10;
+
+    /** The number of tasks per available processor. */
+    private static final int    tasksPerCPU         = 4;
+    /** The maximum number of iterations of Brent's method. */
+    private static final int    maxIterations       = 100;
+    /** The maximum number of times an integral is bisected. */
+    private static final int    maxDepth            = 30;
+    /** The ratio used to divide an interval in golden section search. */
+    private static final double goldenRatio         =
+        (3 - Math.sqrt( 5 )) / 2;
+    /** The nodes of the 15-point Kronrod rule, in [0,1]. */
+    private static final double[]   kronrodNodes    =
+    {
+        0.991455371120812639206854697526329,
+        0.949107912342758524526189684047851,
+        0.864864423359769072789712788640926,
+        0.741531185599394439863864773280788,
+        0.586087235467691130294144845693013,
+        0.405845151377397166906606412076961,
+        0.207784955007898467600689403773245,
+        0.000000000000000000000000000000000,
+    };
+    /** The weights of the 15-point Kronrod rule. */
+    private static final double[]   kronrodWeights  =
+    {
+        0.022935322010529224963732008058970,
+        0.063092092629978553290700663189204,
+        0.104790010322250183839876322541518,
+        0.140653259715525918745189590510238,
+        0.169004726639267902826583426598550,
+        0.190350578064785409913256402421014,
+        0.204432940075298892414161999234649,
+        0.209482141084727828012999174891714,
+    };
+    /**
+     * The weights of the 7-point Gauss rule,
+     * whose nodes are the odd-numbered Kronrod nodes.
+     */
+    private static final double[]   gaussWeights    =
+    {
+        0.129484966168869693270611432679082,
+        0.279705391489276667901467771423780,
+        0.381830050505118944950369775488975,
+        0.417959183673469387755102040816327,
+    };
+
+    /**
+     * Default constructor; not used.
+     */
+    private EquationAnalyzer()
+    {
+    }
+
+    /**
+     * Finds the roots of <em>y=f(x)</em>
+     * within the iteration range
+     * of a given Equation.
+     * 
+     * @param equation  the given Equation
+     * 
+     * @return  the roots, in ascending order
+     * 
+     * @throws ValidationException if the equation is invalid
+     * 
+     * @see #findRoots(Equation, double, double, double)
+     */
+    public static List<Double> findRoots( Equation equation )
+    {
+        List<Double>    roots   = findRoots(
+            equation,
+            equation.getRangeStart(),
+            equation.getRangeEnd(),
+            equation.getRangeStep()
+        );
+        return roots;
+    }
+
+    /**
+     * Finds the roots of <em>y=f(x)</em>
+     * within a given range
+     * for a given Equation.
+     * The function is sampled
+     * at every step of the range;
+     * a sample at which the function is 0
+     * is a root,
+     * and every interval between samples
+     * in which the function changes sign
+     * is searched for a root.
+     * A sign change that is caused by a pole,
+     * such as the sign change in <em>1/x</em> at 0,
+     * is not reported;
+     * a root is rejected
+     * if the magnitude of the function at the root
+     * exceeds its magnitude
+     * at both ends of the interval.
+     * 
+     * @param equation  the given Equation
+     * @param start     the start of the given range
+     * @param end       the end of the given range
+     * @param step      the distance between samples
+     * 
+     * @return  the roots, in ascending order
+     * 
+     * @throws IllegalArgumentException if step is not positive
+     * @throws ValidationException if the equation is invalid
+     */
+    public static List<Double> findRoots(
+        Equation equation,
+        double start,
+        double end,
+        double step
+    )
+    {
+        double[]                    xcos    = getSamples( start, end, step );
+        List<DoubleUnaryOperator>   funcs   = getFunctions( equation );
+        double[]                    ycos    = evaluate( funcs, xcos );
+
+        // Samples at which the function is 0 are roots; remember
+        // the start of every interval in which the sign changes.
+        List<Double>    roots       = new ArrayList<>();
+        List<Integer>   brackets    = new ArrayList<>();
+        for ( int inx = 0 ; inx < xcos.length ; ++inx )
+        {
+            if ( ycos[inx] == 0 )
+                roots.add( xcos[inx] );
+            else if ( inx + 1 < xcos.length && ycos[inx] * ycos[inx + 1] < 0 )
+                brackets.add( inx );
+        }
+
+        double[]    found   = new double[brackets.size()];
+        forEach( funcs, found.length, (func, inx) -> {
+            int     left    = brackets.get( inx );
+            double  xLeft   = xcos[left];
+            double  xRight  = xcos[left + 1];
+            double  yLeft   = ycos[left];
+            double  yRight  = ycos[left + 1];
+            double  root    =
+                brent( func, xLeft, xRight, yLeft, yRight );
+            double  limit   = Math.max( Math.abs( yLeft ), Math.abs( yRight ) );
+            found[inx] =
+                Math.abs( func.applyAsDouble( root ) ) <= limit ?
+                root : Double.NaN;
+        });
+        for ( double root : found )
+            if ( !Double.isNaN( root ) )
+                roots.add( root );
+        roots.sort( null );
+        return roots;
+    }
+
+    /**
+     * Finds the local extrema of <em>y=f(x)</em>
+     * within the iteration range
+     * of a given Equation.
+     * 
+     * @param equation  the given Equation
+     * 
+     * @return  the extrema, in ascending order of x
+     * 
+     * @throws ValidationException if the equation is invalid
+     * 
+     * @see #findExtrema(Equation, double, double, double)
+     */
+    public static List<Extremum> findExtrema( Equation equation )
+    {
+        List<Extremum>  extrema = findExtrema(
+            equation,
+            equation.getRangeStart(),
+            equation.getRangeEnd(),
+            equation.getRangeStep()
+        );
+        return extrema;
+    }
+
+    /**
+     * Finds the local extrema of <em>y=f(x)</em>
+     * within a given range
+     * for a given Equation.
+     * The function is sampled
+     * at every step of the range;
+     * every sample that is greater than
+     * the previous sample
+     * and not less than the next sample
+     * brackets a local maximum,
+     * and every sample that is less than
+     * the previous sample
+     * and not greater than the next sample
+     * brackets a local minimum.
+     * The ends of the range
+     * are never reported as extrema.
+     * 
+     * @param equation  the given Equation
+     * @param start     the start of the given range
+     * @param end       the end of the given range
+     * @param step      the distance between samples
+     * 
+     * @return  the extrema, in ascending order of x
+     * 
+     * @throws IllegalArgumentException if step is not positive
+     * @throws ValidationException if the equation is invalid
+     */
+    public static List<Extremum> findExtrema(
+        Equation equation,
+        double start,
+        double end,
+        double step
+    )
+    {
+        double[]                    xcos    = getSamples( start, end, step );
+        List<DoubleUnaryOperator>   funcs   = getFunctions( equation );
+        double[]                    ycos    = evaluate( funcs, xcos );
+
+        // Remember every sample that brackets an extremum; a
+        // positive index denotes a maximum, a negative a minimum.
+        List<Integer>   brackets    = new ArrayList<>();
+        for ( int inx = 1 ; inx < xcos.length - 1 ; ++inx )
+        {
+            double  prev    = ycos[inx - 1];
+            double  curr    = ycos[inx];
+            double  next    = ycos[inx + 1];
+            if ( curr > prev && curr >= next )
+                brackets.add( inx );
+            else if ( curr < prev && curr <= next )
+                brackets.add( -inx );
+        }
+
+        Extremum[]  found   = new Extremum[brackets.size()];
+        forEach( funcs, found.length, (func, inx) -> {
+            int         mid     = brackets.get( inx );
+            Extremum.Type   type    = mid > 0 ?
+                Extremum.Type.MAXIMUM : Extremum.Type.MINIMUM;
+            double      sign    = mid > 0 ? -1 : 1;
+            mid = Math.abs( mid );
+            double      xco     = golden(
+                x -> sign * func.applyAsDouble( x ),
+                xcos[mid - 1],
+                xcos[mid + 1]
+            );
+            found[inx] = new Extremum( xco, func.applyAsDouble( xco ), type );
+        });
+        List<Extremum>  extrema = List.of( found );
+        return extrema;
+    }
+
+    /**
+     * Calculates the definite integral of <em>y=f(x)</em>
+     * over the iteration range
+     * of a given Equation,
+     * using the default tolerance.
+     * 
+     * @param equation  the given Equation
+     * 
+     * @return  the definite integral
+     * 
+     * @throws ValidationException if the equation is invalid
+     * 
+     * @see #integrate(Equation, double, double, double)
+     */
+    public static double integrate( Equation equation )
+    {
+        double  result  = integrate(
+            equation,
+            equation.getRangeStart(),
+            equation.getRangeEnd(),
+            DEFAULT_TOLERANCE
+        );
+        return result;
+    }
+
+    /**
+     * Calculates the definite integral of <em>y=f(x)</em>
+     * from a given lower limit
+     * to a given upper limit
+     * for a given Equation.
+     * The range of integration
+     * is divided into equal subintervals
+     * which are integrated in parallel;
+     * each subinterval is bisected
+     * until the difference between the Gauss
+     * and Kronrod estimates
+     * of every part
+     * is within its share of the given tolerance,
+     * or until the parts become too small.
+     * If the function is undefined or infinite
+     * anywhere it is evaluated
+     * the result is NaN or infinite.
+     * 
+     * @param equation  the given Equation
+     * @param from      the given lower limit
+     * @param to        the given upper limit
+     * @param tolerance the given tolerance
+     * 
+     * @return  the definite integral
+     * 
+     * @throws IllegalArgumentException if tolerance is not positive
+     * @throws ValidationException if the equation is invalid
+     */
+    public static double integrate(
+        Equation equation,
+        double from,
+        double to,
+        double tolerance
+    )
+    {
+        if ( !(tolerance > 0) )
+        {
+            String  msg = "Invalid tolerance: " + tolerance;
+            throw new IllegalArgumentException( msg );
+        }
+        List<DoubleUnaryOperator>   funcs   = getFunctions( equation );
+        int         numParts    = funcs.size();
+        double      width       = (to - from) / numParts;
+        double      partTol     = tolerance / numParts;
+        double[]    parts       = new double[numParts];
+        forEach( funcs, numParts, (func, inx) -> {
+            double  left    = from + inx * width;
+            double  right   = inx == numParts - 1 ? to : left + width;
+            parts[inx] = gaussKronrod( func, left, right, partTol, 0 );
+        });
+
+        // Sum in order, so that the result does not depend
+        // on the order in which the parts were processed.
+        double      result      = 0;
+        for ( double part : parts )
+            result += part;
+        return result;
+    }
+
+    /**
+     * Finds a root of <em>y=f(x)</em>
+     * for a given Equation
+     * by Newton's method,
+     * starting from a given guess.
+     * The derivative required by each iteration
+     * is calculated together with the function,
+     * by {@linkplain Equation#derivative() automatic differentiation},
+     * rather than by finite differences.
+     * Returns NaN if the iteration fails to converge,
+     * for example because it encounters
+     * a point at which the derivative is 0.
+     *
+     * @param equation  the given Equation
+     * @param guess     the given guess
+     *
+     * @return  a root of the function, or NaN if none is found
+     *
+     * @throws ValidationException
+     *      if the equation is invalid or can't be differentiated
+     */
+    public static double newton( Equation equation, double guess )
+    {
+        DualEvaluator   evaluator   = equation.derivative().newEvaluator();
+        double          xco         = guess;
+        boolean         done        = false;
+        for ( int iter = 0 ; iter < maxIterations && !done ; ++iter )
+        {
+            double  yco     = evaluator.evaluate( xco );
+            double  delta   = yco / evaluator.getSlope();
+            xco -= delta;
+            done = yco == 0 || Math.abs( delta )
+                <= DEFAULT_TOLERANCE * (1 + Math.abs( xco ));
+        }
+        if ( !done || !Double.isFinite( xco ) )
+            xco = Double.NaN;
+        return xco;
+    }
+
+    /**
+     * Generates the samples of a given range.
+     * The samples are <em>start + i * step</em>
+     * for every <em>i</em> that does not exceed the end;
+     * if the last such sample is less than the end
+     * the end is added as a final sample.
+     * 
+     * @param start the start of the given range
+     * @param end   the end of the given range
+     * @param step  the distance between samples
+     * 
+     * @return  the samples of the given range
+     * 
+     * @throws IllegalArgumentException if step is not positive
+     */
+    private static double[] getSamples( double start, double end, double step )
+    {
+        if ( !(step > 0) )
+        {
+            String  msg = "Invalid step: " + step;
+            throw new IllegalArgumentException( msg );
+        }
+        int         count   =
+            end < start ? 0 : (int)Math.floor( (end - start) / step ) + 1;
+        boolean     addEnd  =
+            count > 0 && start + (count - 1) * step < end;
+        double[]    samples = new double[addEnd ? count + 1 : count];
+        for ( int inx = 0 ; inx < count ; ++inx )
+            samples[inx] = start + inx * step;
+        if ( addEnd )
+            samples[count] = end;
+        return samples;
+    }
+
+    /**
+     * Creates one y-function
+     * for every task
+     * into which work is to be divided.
+     * 
+     * @param equation  the Equation that supplies the y-functions
+     * 
+     * @return  a list of y-functions, one per task
+     * 
+     * @throws ValidationException if the equation is invalid
+     */
+    private static List<DoubleUnaryOperator> getFunctions( Equation equation )
+    {
+        int     numTasks    =
+            tasksPerCPU * Runtime.getRuntime().availableProcessors();
+        List<DoubleUnaryOperator>   funcs   = new ArrayList<>();
+        for ( int inx = 0 ; inx < numTasks ; ++inx )
+            funcs.add( equation.getYFunction() );
+        return funcs;
+    }
+
+    /**
+     * Evaluates a function at every element
+     * of a given array of samples.
+     * 
+     * @param funcs     one copy of the function per task
+     * @param xcos      the given array of samples
+     * 
+     * @return  the value of the function at every sample
+     */
+    private static double[]
+    evaluate( List<DoubleUnaryOperator> funcs, double[] xcos )
+    {
+        double[]    ycos    = new double[xcos.length];
+        forEach( funcs, xcos.length, (func, inx) ->
+            ycos[inx] = func.applyAsDouble( xcos[inx] )
+        );
+        return ycos;
+    }
+
+    /**
+     * Performs a given action
+     * for every index from 0 to a given count,
+     * in parallel.
+     * The indices are dealt to the tasks in turn;
+     * every task performs its actions
+     * using its own copy of the function.
+     * 
+     * @param funcs     one copy of the function per task
+     * @param count     the given count
+     * @param action    the given action
+     */
+    private static void forEach(
+        List<DoubleUnaryOperator> funcs,
+        int count,
+        ObjIntConsumer<DoubleUnaryOperator> action
+    )
+    {
+        int     numTasks    = Math.min( count, funcs.size() );
+        IntStream.range( 0, numTasks )
+            .parallel()
+            .forEach( t -> {
+                DoubleUnaryOperator func    = funcs.get( t );
+                for ( int inx = t ; inx < count ; inx += numTasks )
+                    action.accept( func, inx );
+            });
+    }
+
+    /**
+     * Finds a root of a given function
+     * within a given interval
+     * by Brent's method.
+     * The function must have opposite signs
+     * at the ends of the interval.
+     * 
+     * @param func  the given function
+     * @param left  the left end of the interval
+     * @param right the right end of the interval
+     * @param fLeft the value of the function at the left end
+     * @param fRight the value of the function at the right end
+     * 
+     * @return  a root of the function
+     */
+    private static double brent(
+        DoubleUnaryOperator func,
+        double left,
+        double right,
+        double fLeft,
+        double fRight
+    )
+    {
+        // a is the previous iterate, b the current best estimate
+        // and c the point that keeps the root bracketed with b.
+        double  aco     = left;
+        double  bco     = right;
+        double  cco     = right;
+        double  fa      = fLeft;
+        double  fb      = fRight;
+        double  fc      = fRight;
+        double  dist    = right - left;
+        double  prev    = dist;
+        boolean done    = false;
+        for ( int iter = 0 ; iter < maxIterations && !done ; ++iter )
+        {
+            if ( (fb > 0) == (fc > 0) )
+            {
+                cco = aco;
+                fc = fa;
+                dist = bco - aco;
+                prev = dist;
+            }
+            if ( Math.abs( fc ) < Math.abs( fb ) )
+            {
+                aco = bco;
+                bco = cco;
+                cco = aco;
+                fa = fb;
+                fb = fc;
+                fc = fa;
+            }
+            double  tol     =
+                2 * Math.ulp( 1.0 ) * Math.abs( bco )
+                + DEFAULT_TOLERANCE / 2;
+            double  mid     = (cco - bco) / 2;
+            if ( Math.abs( mid ) <= tol || fb == 0 )
+                done = true;
+            else
+            {
+                if ( Math.abs( prev ) >= tol
+                    && Math.abs( fa ) > Math.abs( fb ) )
+                {
+                    // Attempt inverse quadratic interpolation,
+                    // or the secant method if only two points
+                    // are distinct.
+                    double  sco     = fb / fa;
+                    double  pco;
+                    double  qco;
+                    if ( aco == cco )
+                    {
+                        pco = 2 * mid * sco;
+                        qco = 1 - sco;
+                    }
+                    else
+                    {
+                        double  qtmp    = fa / fc;
+                        double  rco     = fb / fc;
+                        pco = sco * (2 * mid * qtmp * (qtmp - rco)
+                            - (bco - aco) * (rco - 1));
+                        qco = (qtmp - 1) * (rco - 1) * (sco - 1);
+                    }
+                    if ( pco > 0 )
+                        qco = -qco;
+                    pco = Math.abs( pco );
+                    double  min1    = 3 * mid * qco - Math.abs( tol * qco );
+                    double  min2    = Math.abs( prev * qco );
+                    if ( 2 * pco < Math.min( min1, min2 ) )
+                    {
+                        prev = dist;
+                        dist = pco / qco;
+                    }
+                    else
+                    {
+                        dist = mid;
+                        prev = dist;
+                    }
+                }
+                else
+                {
+                    dist = mid;
+                    prev = dist;
+                }
+                aco = bco;
+                fa = fb;
+                bco += Math.abs( dist ) > tol ?
+                    dist : Math.copySign( tol, mid );
+                fb = func.applyAsDouble( bco );
+            }
+        }
+        return bco;
+    }
+
+    /**
+     * Finds a local minimum of a given function
+     * within a given interval
+     * by golden section search.
+     * 
+     * @param func  the given function
+     * @param left  the left end of the interval
+     * @param right the right end of the interval
+     * 
+     * @return  the location of a local minimum
+     */
+    private static double
+    golden( DoubleUnaryOperator func, double left, double right )
+    {
+        double  aco     = left;
+        double  bco     = right;
+        double  xco1    = aco + goldenRatio * (bco - aco);
+        double  xco2    = bco - goldenRatio * (bco - aco);
+        double  fco1    = func.applyAsDouble( xco1 );
+        double  fco2    = func.applyAsDouble( xco2 );
+        while ( bco - aco > DEFAULT_TOLERANCE * (1 + Math.abs( xco1 )) )
+        {
+            if ( fco1 <= fco2 )
+            {
+                bco = xco2;
+                xco2 = xco1;
+                fco2 = fco1;
+                xco1 = aco + goldenRatio * (bco - aco);
+                fco1 = func.applyAsDouble( xco1 );
+            }
+            else
+            {
+                aco = xco1;
+                xco1 = xco2;
+                fco1 = fco2;
+                xco2 = bco - goldenRatio * (bco - aco);
+                fco2 = func.applyAsDouble( xco2 );
+            }
+        }
+        return (aco + bco) / 2;
+    }
+
+    /**
+     * Integrates a given function
+     * over a given interval
+     * by adaptive Gauss-Kronrod quadrature.
+     * If the Gauss and Kronrod estimates
+     * differ by more than the given tolerance
+     * the interval is bisected,
+     * and each half is integrated
+     * with half the tolerance.
+     * 
+     * @param func      the given function
+     * @param left      the left end of the interval
+     * @param right     the right end of the interval
+     * @param tolerance the given tolerance
+     * @param depth     the number of bisections so far
+     * 
+     * @return  the integral of the function over the interval
+     */
+    private static double gaussKronrod(
+        DoubleUnaryOperator func,
+        double left,
+        double right,
+        double tolerance,
+        int depth
+    )
+    {
+        double  center  = (left + right) / 2;
+        double  half    = (right - left) / 2;
+        double  fCenter = func.applyAsDouble( center );
+        int     last    = kronrodNodes.length - 1;
+        double  kronrod = fCenter * kronrodWeights[last];
+        double  gauss   = fCenter * gaussWeights[gaussWeights.length - 1];
+        for ( int inx = 0 ; inx < last ; ++inx )
+        {
+            double  offset  = half * kronrodNodes[inx];
+            double  sum     =
+                func.applyAsDouble( center - offset )
+                + func.applyAsDouble( center + offset );
+            kronrod += kronrodWeights[inx] * sum;
+            if ( inx % 2 == 1 )
+                gauss += gaussWeights[inx / 2] * sum;
+        }
+        kronrod *= half;
+        gauss *= half;
+
+        // There is no point in bisecting an interval
+        // on which the function is undefined or infinite.
+        double  result  = kronrod;
+        if ( Double.isFinite( kronrod )
+            && Math.abs( kronrod - gauss ) > tolerance
+            && depth < maxDepth )
+            result =
+                gaussKronrod( func, left, center, tolerance / 2, depth + 1 )
+                + gaussKronrod( func, center, right, tolerance / 2, depth + 1 );
+        return result;
+    }
+
+    /**
+     * Describes a local extremum of a function:
+     * its location, value and type.
+     * 
+     * @author Jack Straub
+     */
+    public static class Extremum
+    {
+        /** The types of extremum. */
+        public enum Type
+        {
+            /** A local minimum. */
+            MINIMUM,
+            /** A local maximum. */
+            MAXIMUM
+        }
+
+        /** The x-coordinate of the extremum. */
+        private final double    xco;
+        /** The value of the function at the extremum. */
+        private final double    yco;
+        /** The type of the extremum. */
+        private final Type      type;
+
+        /**
+         * Constructor.
+         * Establishes the location, value and type
+         * of the extremum.
+         * 
+         * @param xco   the x-coordinate of the extremum
+         * @param yco   the value of the function at the extremum
+         * @param type  the type of the extremum
+         */
+        public Extremum( double xco, double yco, Type type )
+        {
+            this.xco = xco;
+            this.yco = yco;
+            this.type = type;
+        }
+
+        /**
+         * Gets the x-coordinate of the extremum.
+         * 
+         * @return  the x-coordinate of the extremum
+         */
+        public double getX()
+        {
+            return xco;
+        }
+
+        /**
+         * Gets the value of the function at the extremum.
+         * 
+         * @return  the value of the function at the extremum
+         */
+        public double getY()
+        {
+            return yco;
+        }
+
+        /**
+         * Gets the type of the extremum.
+         * 
+         * @return  the type of the extremum
+         */
+        public Type getType()
+        {
+            return type;
+        }
+
+        /**
+         * Indicates whether the extremum is a maximum.
+         * 
+         * @return  true if the extremum is a maximum
+         */
+        public boolean isMaximum()
+        {
+            return type == Type.MAXIMUM;
+        }
+
+        @Override
+        public String toString()
+        {
+            String  str = type + " (" + xco + "," + yco + ")";
+            return str;
+        }
+    }
+}
@@ -1,12 +1,17 @@
 package com.acmemail.judah.cartesian_plane.input;
 
 import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.DoubleConsumer;
+import java.util.function.DoubleUnaryOperator;
 import java.util.stream.DoubleStream;
 import java.util.stream.Stream;
 
@@ -44,6 +49,13 @@ import net.objecthunter.exp4j.ValidationResult;
  */
 public class Exp4jEquation implements Equation
 {
+    /** 
+     * Cache of expressions parsed by {@linkplain #evaluate(String)},
+     * shared by all instances of this class.
+     */
+    private static final ExpressionCache<Expression>  exprCache   =
+        new ExpressionCache<>();
+    
     private final Map<String,Double>    vars        = new HashMap<>();
     private String                      name        = "New Equation";
     private double                      rStart      = -1;
@@ -58,6 +70,9 @@ public class Exp4jEquation implements Equation
     private String                      yExprStr    = "1";
     private String                      tExprStr    = "1";
     private String                      rExprStr    = "1";
+    private String                      fExprStr    = "1";
+    private String                      zExprStr    = DomainColoring.ZED;
+    private Set<String>                 zDeps       = Set.of();
     private String                      param       = "t";
     private String                      radius      = "r";
     private String                      theta       = "t";
@@ -65,6 +80,23 @@ public class Exp4jEquation implements Equation
     private Expression                  yExpr       = null;
     private Expression                  tExpr       = null;
     private Expression                  rExpr       = null;
+    private Expression                  fExpr       = null;
+    private boolean                     parallel    = false;
+    private AdaptiveSampler             sampler     = null;
+    private double                      polarTol    = 0;
+    private boolean                     autoRange   = false;
+    private Viewport                    viewport    = null;
+    private long                        version     = 0;
+    
+    /** 
+     * Optimized expressions, keyed by expression string;
+     * see {@linkplain #prepare(String, Expression, String)}.
+     */
+    private final Map<String,Expression>    optCache    = new HashMap<>();
+    /** The version of this Equation in effect when optCache was filled. */
+    private long                            optVersion  = -1;
+    /** The number of times an expression has been optimized. */
+    private long                            optCount    = 0;
     
     /**
      * Default constructor.
@@ -84,6 +116,7 @@ public class Exp4jEquation implements Equation
         setYExpression( yExprStr );
         setTExpression( tExprStr );
         setRExpression( rExprStr );
+        setFExpression( fExprStr );
     }
     
     /**
@@ -102,6 +135,7 @@ public class Exp4jEquation implements Equation
         setYExpression( expr );
         setTExpression( tExprStr );
         setTExpression( rExprStr );
+        setFExpression( fExprStr );
     }
     
     /**
@@ -121,6 +155,7 @@ public class Exp4jEquation implements Equation
         setYExpression( expr );
         setTExpression( tExprStr );
         setTExpression( rExprStr );
+        setFExpression( fExprStr );
     }
     
     @Override
@@ -148,6 +183,9 @@ public class Exp4jEquation implements Equation
     
     /**
      * Sets the value of a variable to a given value.
+     * The version of this Equation changes
+     * only if the value changes
+     * and the variable is read by an expression.
      * 
      * @param name  the name of the variable
      * @param val   the given value
@@ -155,7 +193,9 @@ public class Exp4jEquation implements Equation
     @Override
     public void setVar( String name, double val )
     {
-        vars.put( name, val );
+        Double  prev    = vars.put( name, val );
+        if ( (prev == null || prev != val) && dependsOn( name ) )
+            ++version;
     }
     
     /**
@@ -169,7 +209,8 @@ public class Exp4jEquation implements Equation
     @Override
     public void removeVar( String name )
     {
-        vars.remove( name );
+        if ( vars.remove( name ) != null && dependsOn( name ) )
+            ++version;
     }
     
     /**
@@ -216,7 +257,10 @@ public class Exp4jEquation implements Equation
     {
         Result    result  = validateExpr( exprStr, e -> xExpr = e );
         if ( result.isSuccess() )
+        {
             this.xExprStr = exprStr;
+            ++version;
+        }
         return result;
     }
     
@@ -225,7 +269,10 @@ public class Exp4jEquation implements Equation
     {
         Result    result  = validateExpr( exprStr, e -> tExpr = e );
         if ( result.isSuccess() )
+        {
             this.tExprStr = exprStr;
+            ++version;
+        }
         return result;
     }
     
@@ -234,7 +281,35 @@ public class Exp4jEquation implements Equation
     {
         Result    result  = validateExpr( exprStr, e -> rExpr = e );
         if ( result.isSuccess() )
+        {
             this.rExprStr = exprStr;
+            ++version;
+        }
+        return result;
+    }
+    
+    @Override
+    public Result setFExpression( String exprStr )
+    {
+        Result    result  = validateExpr( exprStr, e -> fExpr = e );
+        if ( result.isSuccess() )
+        {
+            this.fExprStr = exprStr;
+            ++version;
+        }
+        return result;
+    }
+
+    @Override
+    public Result setZExpression( String exprStr )
+    {
+        Result    result  = DomainColoring.validate( exprStr, vars.keySet() );
+        if ( result.isSuccess() )
+        {
+            this.zExprStr = exprStr;
+            zDeps = DomainColoring.dependencies( exprStr );
+            ++version;
+        }
         return result;
     }
     
@@ -255,7 +330,10 @@ public class Exp4jEquation implements Equation
     {
         Result    result  = validateExpr( exprStr, e -> yExpr = e );
         if ( result.isSuccess() )
+        {
             this.yExprStr = exprStr;
+            ++version;
+        }
         return result;
     }
     
@@ -292,18 +370,24 @@ public class Exp4jEquation implements Equation
     @Override
     public Stream<Point2D> yPlot()
     {
-        plot = "YPlot";
-        yExpr.setVariables( vars );
-        ValidationResult    result    = yExpr.validate( true );
-        if ( result != ValidationResult.SUCCESS )
+        Stream<Point2D> stream  = null;
+        if ( parallel || sampler != null )
+            stream = bufferStream( this::yPlot );
+        else
         {
-            String  message = "Unexpected expression validation failure.";
-            throw new ValidationException( message );
+            plot = "YPlot";
+            boolean auto    = autoRange && viewport != null;
+            double  start   = auto ? viewport.getXMin() : rStart;
+            double  end     = auto ? viewport.getXMax() : rEnd;
+            double  step    = auto ? viewport.getStep() : rStep;
+            Expression  yOpt    = prepare(
+                yExprStr, yExpr, "Unexpected expression validation failure."
+            );
+            stream =
+                DoubleStream.iterate( start, x -> x <= end, x -> x += step )
+                    .peek( d -> yOpt.setVariable( "x", d ) )
+                    .mapToObj( d -> new Point2D.Double( d, yOpt.evaluate() ) );
         }
-        Stream<Point2D> stream  =
-            DoubleStream.iterate( rStart, x -> x <= rEnd, x -> x += rStep )
-                .peek( d -> yExpr.setVariable( "x", d ) )
-                .mapToObj( d -> new Point2D.Double( d, yExpr.evaluate() ) );
         return stream;
     }
     
@@ -319,74 +403,277 @@ public class Exp4jEquation implements Equation
     @Override
     public Stream<Point2D> xyPlot()
     {
-        plot = "XYPlot";
-        xExpr.setVariables( vars );
-        ValidationResult    result    = xExpr.validate( true );
-        if ( !result.isValid() )
-        {
-            String  message = "Unexpected x-expression validation failure.";
-            throw new ValidationException( message );
-        }
-        yExpr.setVariables( vars );
-        result = yExpr.validate( true );
-        if ( !result.isValid() )
+        Stream<Point2D> stream  = null;
+        if ( parallel || sampler != null )
+            stream = bufferStream( this::xyPlot );
+        else
         {
-            String  message = "Unexpected y-expression validation failure.";
-            throw new ValidationException( message );
+            plot = "XYPlot";
+            Expression  xOpt    = prepare(
+                xExprStr, xExpr, "Unexpected x-expression validation failure."
+            );
+            Expression  yOpt    = prepare(
+                yExprStr, yExpr, "Unexpected y-expression validation failure."
+            );
+            stream =
+                DoubleStream.iterate( rStart, t -> t <= rEnd, t -> t += rStep )
+                    .peek( t -> xOpt.setVariable( param, t ) )
+                    .peek( t -> yOpt.setVariable( param, t ) )
+                    .mapToObj( t -> 
+                        new Point2D.Double( 
+                            xOpt.evaluate(), 
+                            yOpt.evaluate() 
+                ));
         }
-        
-        Stream<Point2D> stream  =
-            DoubleStream.iterate( rStart, t -> t <= rEnd, t -> t += rStep )
-                .peek( t -> xExpr.setVariable( param, t ) )
-                .peek( t -> yExpr.setVariable( param, t ) )
-                .mapToObj( t -> 
-                    new Point2D.Double( 
-                        xExpr.evaluate(), 
-                        yExpr.evaluate() 
-            ));
         return stream;
     }
     
     @Override
     public Stream<Point2D> rPlot()
     {
-        plot = "RPlot";
-        rExpr.setVariables( vars );
-        ValidationResult    result    = rExpr.validate( true );
-        if ( !result.isValid() )
+        Stream<Point2D> stream  = null;
+        if ( parallel || sampler != null || polarTol > 0 )
+            stream = bufferStream( this::rPlot );
+        else
         {
-            String  message = "Unexpected r-expression validation failure.";
-            throw new ValidationException( message );
+            plot = "RPlot";
+            Expression  rOpt    = prepare(
+                rExprStr, rExpr, "Unexpected r-expression validation failure."
+            );
+            stream =
+                DoubleStream.iterate( rStart, t -> t <= rEnd, t -> t += rStep )
+                    .peek( t -> rOpt.setVariable( theta, t ) )
+                    .mapToObj( t -> {
+                        double  rco = rOpt.evaluate();
+                        return new Point2D.Double(
+                            rco * Math.cos( t ), rco * Math.sin( t )
+                        );
+                    });
         }
-
-        Stream<Point2D> stream  =
-            DoubleStream.iterate( rStart, t -> t <= rEnd, t -> t += rStep )
-                .peek( t -> rExpr.setVariable( theta, t ) )
-                .mapToObj( t -> Polar.of( rExpr.evaluate(), t ) )
-                .map( Polar::toPoint );
         return stream;
     }
     
     @Override
     public Stream<Point2D> tPlot()
     {
-        plot = "TPlot";
-        tExpr.setVariables( vars );
-        ValidationResult    result    = tExpr.validate( true );
-        if ( !result.isValid() )
+        Stream<Point2D> stream  = null;
+        if ( parallel || sampler != null )
+            stream = bufferStream( this::tPlot );
+        else
         {
-            String  message = "Unexpected t-expression validation failure.";
-            throw new ValidationException( message );
+            plot = "TPlot";
+            Expression  tOpt    = prepare(
+                tExprStr, tExpr, "Unexpected t-expression validation failure."
+            );
+            stream =
+                DoubleStream.iterate( rStart, r -> r <= rEnd, r -> r += rStep )
+                    .peek( r -> tOpt.setVariable( radius, r ) )
+                    .mapToObj( r -> {
+                        double  tco = tOpt.evaluate();
+                        return new Point2D.Double(
+                            r * Math.cos( tco ), r * Math.sin( tco )
+                        );
+                    });
         }
-
-        Stream<Point2D> stream  =
-            DoubleStream.iterate( rStart, r -> r <= rEnd, r -> r += rStep )
-                .peek( r -> tExpr.setVariable( radius, r ) )
-                .mapToObj( r -> Polar.of( r, tExpr.evaluate() ) )
-                .map( Polar::toPoint );
         return stream;
     }
     
+    /**
+     * Generates the (x,y) coordinates
+     * of the curve described by
+     * the implicit equation <em>f(x,y) = 0</em>.
+     * The curve is always traced into a buffer;
+     * see {@linkplain #fPlot(PointBuffer)}.
+     * 
+     * @return the (x,y) coordinates of the curve
+     * 
+     * @throws ValidationException if the equation is invalid
+     */
+    @Override
+    public Stream<Point2D> fPlot()
+    {
+        Stream<Point2D> stream  = bufferStream( this::fPlot );
+        return stream;
+    }
+    
+    @Override
+    public void yPlot( PointBuffer buffer )
+    {
+        plot = "YPlot";
+        boolean auto    = autoRange && viewport != null;
+        double  start   = auto ? viewport.getXMin() : rStart;
+        double  end     = auto ? viewport.getXMax() : rEnd;
+        double  step    = auto ? viewport.getStep() : rStep;
+        Expression  yOpt    = prepare(
+            yExprStr, yExpr, "Unexpected expression validation failure."
+        );
+        if ( sampler != null )
+            sampler.sample( start, end, (xco, pt) -> {
+                yOpt.setVariable( "x", xco );
+                pt.setLocation( xco, valueOf( yOpt ) );
+            }, buffer );
+        else if ( parallel )
+            ParallelPlotter.plot( start, end, step, () -> {
+                Expression  expr    = new Expression( yOpt );
+                return (b, i, xco) -> {
+                    expr.setVariable( "x", xco );
+                    b.set( i, xco, expr.evaluate() );
+                };
+            }, buffer );
+        else
+        {
+            buffer.clear();
+            for ( double xco = start ; xco <= end ; xco += step )
+            {
+                yOpt.setVariable( "x", xco );
+                buffer.add( xco, yOpt.evaluate() );
+            }
+        }
+    }
+    
+    @Override
+    public DoubleUnaryOperator getYFunction()
+    {
+        Expression  yOpt    = prepare(
+            yExprStr, yExpr, "Unexpected expression validation failure."
+        );
+        Expression  expr    = new Expression( yOpt );
+        return xco -> {
+            expr.setVariable( "x", xco );
+            return expr.evaluate();
+        };
+    }
+    
+    @Override
+    public void xyPlot( PointBuffer buffer )
+    {
+        plot = "XYPlot";
+        Expression  xOpt    = prepare(
+            xExprStr, xExpr, "Unexpected x-expression validation failure."
+        );
+        Expression  yOpt    = prepare(
+            yExprStr, yExpr, "Unexpected y-expression validation failure."
+        );
+        if ( sampler != null )
+            sampler.sample( rStart, rEnd, (tco, pt) -> {
+                xOpt.setVariable( param, tco );
+                yOpt.setVariable( param, tco );
+                pt.setLocation( valueOf( xOpt ), valueOf( yOpt ) );
+            }, buffer );
+        else if ( parallel )
+            ParallelPlotter.plot( rStart, rEnd, rStep, () -> {
+                Expression  xCopy   = new Expression( xOpt );
+                Expression  yCopy   = new Expression( yOpt );
+                return (b, i, tco) -> {
+                    xCopy.setVariable( param, tco );
+                    yCopy.setVariable( param, tco );
+                    b.set( i, xCopy.evaluate(), yCopy.evaluate() );
+                };
+            }, buffer );
+        else
+        {
+            buffer.clear();
+            for ( double tco = rStart ; tco <= rEnd ; tco += rStep )
+            {
+                xOpt.setVariable( param, tco );
+                yOpt.setVariable( param, tco );
+                buffer.add( xOpt.evaluate(), yOpt.evaluate() );
+            }
+        }
+    }
+    
+    @Override
+    public void rPlot( PointBuffer buffer )
+    {
+        plot = "RPlot";
+        Expression  rOpt    = prepare(
+            rExprStr, rExpr, "Unexpected r-expression validation failure."
+        );
+        if ( sampler != null )
+            sampler.sample( rStart, rEnd, (tco, pt) -> {
+                rOpt.setVariable( theta, tco );
+                double  rco = valueOf( rOpt );
+                pt.setLocation( rco * Math.cos( tco ), rco * Math.sin( tco ) );
+            }, buffer );
+        else if ( parallel )
+            ParallelPlotter.plot( rStart, rEnd, rStep, () -> {
+                Expression          expr    = new Expression( rOpt );
+                IncrementalSinCos   trig    = newSinCos();
+                return (b, i, tco) -> {
+                    expr.setVariable( theta, tco );
+                    double  rco = expr.evaluate();
+                    trig.moveTo( i, tco );
+                    b.set( i, rco * trig.cos(), rco * trig.sin() );
+                };
+            }, buffer );
+        else
+        {
+            buffer.clear();
+            IncrementalSinCos   trig    = newSinCos();
+            int                 inx     = 0;
+            for ( double tco = rStart ; tco <= rEnd ; tco += rStep )
+            {
+                rOpt.setVariable( theta, tco );
+                double  rco = rOpt.evaluate();
+                trig.moveTo( inx++, tco );
+                buffer.add( rco * trig.cos(), rco * trig.sin() );
+            }
+        }
+    }
+    
+    @Override
+    public void tPlot( PointBuffer buffer )
+    {
+        plot = "TPlot";
+        Expression  tOpt    = prepare(
+            tExprStr, tExpr, "Unexpected t-expression validation failure."
+        );
+        if ( sampler != null )
+            sampler.sample( rStart, rEnd, (rco, pt) -> {
+                tOpt.setVariable( radius, rco );
+                double  tco = valueOf( tOpt );
+                pt.setLocation( rco * Math.cos( tco ), rco * Math.sin( tco ) );
+            }, buffer );
+        else if ( parallel )
+            ParallelPlotter.plot( rStart, rEnd, rStep, () -> {
+                Expression  expr    = new Expression( tOpt );
+                return (b, i, rco) -> {
+                    expr.setVariable( radius, rco );
+                    double  tco = expr.evaluate();
+                    b.set( i, rco * Math.cos( tco ), rco * Math.sin( tco ) );
+                };
+            }, buffer );
+        else
+        {
+            buffer.clear();
+            for ( double rco = rStart ; rco <= rEnd ; rco += rStep )
+            {
+                tOpt.setVariable( radius, rco );
+                double  tco = tOpt.evaluate();
+                buffer.add( rco * Math.cos( tco ), rco * Math.sin( tco ) );
+            }
+        }
+    }
+    
+    @Override
+    public void fPlot( PointBuffer buffer )
+    {
+        plot = "FPlot";
+        Expression  fOpt    = prepare(
+            fExprStr, fExpr, "Unexpected f-expression validation failure."
+        );
+        Rectangle2D bounds  = getImplicitBounds();
+        double      step    = viewport != null ? viewport.getStep() : rStep;
+        ImplicitPlotter.plot( bounds, step, parallel, () -> {
+            Expression  expr    = new Expression( fOpt );
+            return (xco, yco) -> {
+                expr.setVariable( "x", xco );
+                expr.setVariable( "y", yco );
+                return valueOf( expr );
+            };
+        }, buffer );
+    }
+    
     /**
      * Gets the currently set x-expression.
      * 
@@ -421,6 +708,58 @@ public class Exp4jEquation implements Equation
         return rExprStr;
     }
     
+    @Override
+    public String getFExpression()
+    {
+        return fExprStr;
+    }
+
+    @Override
+    public String getZExpression()
+    {
+        return zExprStr;
+    }
+    
+    @Override
+    public Set<String> getXDependencies()
+    {
+        return dependencies( xExpr );
+    }
+    
+
+    @Override
+    public Set<String> getYDependencies()
+    {
+        return dependencies( yExpr );
+    }
+    
+
+    @Override
+    public Set<String> getTDependencies()
+    {
+        return dependencies( tExpr );
+    }
+    
+
+    @Override
+    public Set<String> getRDependencies()
+    {
+        return dependencies( rExpr );
+    }
+    
+
+    @Override
+    public Set<String> getFDependencies()
+    {
+        return dependencies( fExpr );
+    }
+    
+    @Override
+    public Set<String> getZDependencies()
+    {
+        return zDeps;
+    }
+    
     @Override
     public String getParamName()
     {
@@ -431,6 +770,7 @@ public class Exp4jEquation implements Equation
     public void setParamName( String param )
     {
         this.param = param;
+        ++version;
     }
     
     @Override
@@ -442,6 +782,7 @@ public class Exp4jEquation implements Equation
     public void setRadiusName( String radius )
     {
         this.radius = radius;
+        ++version;
     }
     
     @Override
@@ -454,6 +795,7 @@ public class Exp4jEquation implements Equation
     public void setThetaName( String theta )
     {
         this.theta = theta;
+        ++version;
     }
     
     /**
@@ -611,10 +953,182 @@ public class Exp4jEquation implements Equation
         return plot;
     }
     
+    @Override
+    public void setParallel( boolean parallel )
+    {
+        this.parallel = parallel;
+    }
+    
+    @Override
+    public boolean isParallel()
+    {
+        return parallel;
+    }
+
+    @Override
+    public void setAdaptiveSampler( AdaptiveSampler sampler )
+    {
+        this.sampler = sampler;
+        ++version;
+        if ( sampler != null && viewport != null )
+            viewport.configure( sampler );
+    }
+
+    @Override
+    public AdaptiveSampler getAdaptiveSampler()
+    {
+        return sampler;
+    }
+
+    @Override
+    public void setPolarTolerance( double tolerance )
+    {
+        if ( !(tolerance >= 0) )
+        {
+            String  msg = "Invalid tolerance: " + tolerance;
+            throw new IllegalArgumentException( msg );
+        }
+        if ( tolerance != polarTol )
+            ++version;
+        polarTol = tolerance;
+    }
+
+    @Override
+    public double getPolarTolerance()
+    {
+        return polarTol;
+    }
+
+    @Override
+    public void setAutoRange( boolean autoRange )
+    {
+        this.autoRange = autoRange;
+        ++version;
+    }
+
+    @Override
+    public boolean isAutoRange()
+    {
+        return autoRange;
+    }
+
+    @Override
+    public void setViewport( Viewport viewport )
+    {
+        // A new viewport changes a plot only if it determines
+        // the range of a y-plot or the grid of an f-plot, or
+        // configures the sampler. A y-plot culled by an
+        // IntervalPlotter also depends on the y-range, which
+        // its caches compare separately.
+        boolean implicit    = plot.equalsIgnoreCase( "FPlot" );
+        if ( (autoRange || implicit || sampler != null) 
+            && !Objects.equals( viewport, this.viewport ) )
+            ++version;
+        this.viewport = viewport;
+        if ( viewport != null && sampler != null )
+            viewport.configure( sampler );
+    }
+
+    @Override
+    public Viewport getViewport()
+    {
+        return viewport;
+    }
+
+    @Override
+    public long getVersion()
+    {
+        return version;
+    }
+    
+    /**
+     * Returns the cache of expressions
+     * parsed by {@linkplain #evaluate(String)}.
+     * The cache is shared by all instances of this class.
+     * 
+     * @return  the cache of expressions parsed by evaluate(String)
+     */
+    public static ExpressionCache<Expression> getExpressionCache()
+    {
+        return exprCache;
+    }
+    
+    /**
+     * Returns the optimized form of a given expression,
+     * with every variable except <em>x</em>, <em>y</em>
+     * and the parameter, radius and angle names
+     * replaced by its current value.
+     * This is the form evaluated by the plot methods.
+     * 
+     * @param exprStr   the given expression
+     * 
+     * @return  
+     *      an Optional containing the optimized expression,
+     *      or an empty Optional if the given expression is invalid
+     */
+    @Override
+    public Optional<String> getOptimizedExpression( String exprStr )
+    {
+        Optional<String>    result  = Optional.empty();
+        if ( isValidExpression( exprStr ) )
+        {
+            String  optStr  = optimize( exprStr );
+            if ( optStr == null || build( optStr ) == null )
+                optStr = exprStr;
+            result = Optional.of( optStr );
+        }
+        return result;
+    }
+    
+    /**
+     * Evaluates a given expression
+     * using the current values of this Equation's variables.
+     * Parsed expressions are cached
+     * by expression string and variable names,
+     * so an expression that is evaluated repeatedly
+     * is parsed only once.
+     * 
+     * @param exprStr   the given expression
+     * 
+     * @return
+     *      the value of the given expression,
+     *      or an empty Optional if the expression is invalid
+     */
     @Override
     public Optional<Double> evaluate( String exprStr )
     {
         Optional<Double>    result  = Optional.empty();
+        Expression          cached  = 
+            exprCache.get( exprStr, vars.keySet(), this::parseValidated );
+        if ( cached != null )
+        {
+            try
+            {
+                // The cached expression is shared; evaluate a copy.
+                Expression  expr    = new Expression( cached );
+                expr.setVariables( vars );
+                double      val     = expr.evaluate();
+                result = Optional.of( val );
+            }
+            catch ( Exception exc )
+            {
+                // For example, division by zero; return empty Optional.
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Parses and validates a given expression
+     * against the currently declared variables.
+     * 
+     * @param exprStr   the given expression
+     * 
+     * @return  the parsed expression, or null if invalid
+     */
+    private Expression parseValidated( String exprStr )
+    {
+        Expression  result  = null;
         try
         {
             Expression  expr    =
@@ -624,10 +1138,8 @@ public class Exp4jEquation implements Equation
                     .build();
             expr.setVariables( vars );
             ValidationResult    exp4jResult = expr.validate( true );
-            if ( !exp4jResult.isValid() )
-                throw new ValidationException();
-            double      val     = expr.evaluate();
-            result = Optional.of(val );
+            if ( exp4jResult.isValid() )
+                result = expr;
         }
         catch ( Exception exc )
         {
@@ -639,6 +1151,266 @@ public class Exp4jEquation implements Equation
         return result;
     }
     
+    /**
+     * Evaluates a given expression
+     * during an adaptive plot.
+     * Adaptive sampling deliberately probes
+     * the neighborhood of poles,
+     * where exp4j is apt to throw an ArithmeticException
+     * (for example, on division by zero);
+     * in this case the expression is treated
+     * as undefined at the current point.
+     * 
+     * @param expr  the given expression
+     * 
+     * @return  the value of the expression, or NaN if undefined
+     */
+    private static double valueOf( Expression expr )
+    {
+        double  value   = Double.NaN;
+        try
+        {
+            value = expr.evaluate();
+        }
+        catch ( ArithmeticException exc )
+        {
+            // Undefined at this point; return NaN.
+        }
+        return value;
+    }
+    
+    /**
+     * Returns the names of the variables
+     * read by a given expression.
+     * If the expression is null
+     * an empty set is returned.
+     * 
+     * @param expr  the given expression
+     * 
+     * @return  the names of the variables read by the given expression
+     */
+    private static Set<String> dependencies( Expression expr )
+    {
+        Set<String> names   = Set.of();
+        if ( expr != null )
+            names = Set.copyOf( expr.getVariableNames() );
+        return names;
+    }
+    
+    /**
+     * Creates an object to calculate
+     * the sine and cosine of theta
+     * during an r-plot,
+     * using the current iteration range
+     * and polar tolerance.
+     * 
+     * @return  object to calculate the sine and cosine of theta
+     */
+    private IncrementalSinCos newSinCos()
+    {
+        double              maxAngle    =
+            Math.max( Math.abs( rStart ), Math.abs( rEnd ) );
+        IncrementalSinCos   trig        =
+            new IncrementalSinCos( rStep, maxAngle, polarTol );
+        return trig;
+    }
+
+    /**
+     * Returns the region of the plane
+     * traversed by an f-plot:
+     * the bounds of the viewport, if any,
+     * otherwise the square
+     * in which x and y both traverse
+     * the iteration range.
+     * 
+     * @return  the region of the plane traversed by an f-plot
+     */
+    private Rectangle2D getImplicitBounds()
+    {
+        Rectangle2D bounds  = null;
+        if ( viewport != null )
+            bounds = viewport.getBounds();
+        else
+        {
+            double  size    = rEnd - rStart;
+            bounds = new Rectangle2D.Double( rStart, rStart, size, size );
+        }
+        return bounds;
+    }
+
+    /**
+     * Generates a plot in parallel or adaptively,
+     * using a given buffer-based plot method,
+     * and returns the points of the plot
+     * as a stream.
+     * 
+     * @param plotter   the given plot method
+     * 
+     * @return  the points of the plot, in order
+     */
+    private Stream<Point2D> bufferStream( Consumer<PointBuffer> plotter )
+    {
+        PointBuffer buffer  = new PointBuffer();
+        plotter.accept( buffer );
+        return buffer.stream();
+    }
+    
+    /**
+     * Prepares a given expression for a plot
+     * by updating its variables
+     * from the current variable map,
+     * and validating the result.
+     * Returns the optimized form of the expression,
+     * with the current values of the variables
+     * bound as constants;
+     * if the expression cannot be optimized
+     * the given expression is returned.
+     * The result is cached
+     * until the version of this Equation changes,
+     * so repeated plots of an unchanged Equation
+     * don't parse and optimize the expression again.
+     * 
+     * @param exprStr   the string from which the expression was built
+     * @param expr      the given expression
+     * @param message   message to use if validation fails
+     * 
+     * @return  the expression to evaluate during the plot
+     * 
+     * @throws ValidationException if the expression is invalid
+     * 
+     * @see #getOptimizedExpression(String)
+     */
+    private Expression 
+    prepare( String exprStr, Expression expr, String message )
+    {
+        if ( optVersion != version )
+        {
+            optCache.clear();
+            optVersion = version;
+        }
+        Expression  optExpr = optCache.get( exprStr );
+        if ( optExpr == null )
+        {
+            expr.setVariables( vars );
+            ValidationResult    result  = expr.validate( true );
+            if ( !result.isValid() )
+                throw new ValidationException( message );
+            
+            String  optStr  = optimize( exprStr );
+            if ( optStr != null )
+                optExpr = build( optStr );
+            if ( optExpr == null )
+                optExpr = expr;
+            optCache.put( exprStr, optExpr );
+            ++optCount;
+        }
+        return optExpr;
+    }
+    
+    /**
+     * Gets the number of times
+     * an expression has been prepared
+     * without finding it in the cache
+     * of optimized expressions.
+     * Intended for testing.
+     * 
+     * @return  the number of times an expression has been optimized
+     */
+    long getOptimizeCount()
+    {
+        return optCount;
+    }
+    
+    /**
+     * Rewrites a given expression
+     * in optimized form.
+     * Every variable except <em>x</em>, <em>y</em>
+     * and the parameter, radius and angle names
+     * is replaced by its current value,
+     * and the result is simplified
+     * by {@linkplain ExprOptimizer}.
+     * If the expression cannot be parsed
+     * null is returned.
+     * 
+     * @param exprStr   the given expression
+     * 
+     * @return  the optimized expression, or null if none
+     */
+    private String optimize( String exprStr )
+    {
+        String  optStr  = null;
+        try
+        {
+            ExprParser          parser      = new ExprParser( vars.keySet() );
+            ExprNode            root        = parser.parse( exprStr );
+            Map<String,Double>  constants   = new HashMap<>( vars );
+            constants.keySet().removeAll( getFreeNames() );
+            optStr = new ExprOptimizer( constants ).optimize( root ).toString();
+        }
+        catch ( ValidationException exc )
+        {
+            // Can't be optimized; return null.
+        }
+        return optStr;
+    }
+    
+    /**
+     * Builds an expression
+     * from an optimized expression string.
+     * The only variables that may appear in the string
+     * are <em>x</em>, <em>y</em>
+     * and the parameter, radius and angle names;
+     * their values are set
+     * from the current variable map.
+     * If the expression cannot be built,
+     * for example because it contains
+     * a value that exp4j cannot parse,
+     * null is returned.
+     * 
+     * @param optStr    the optimized expression string
+     * 
+     * @return  the built expression, or null if none
+     */
+    private Expression build( String optStr )
+    {
+        Expression  result  = null;
+        try
+        {
+            Set<String>         freeNames   = getFreeNames();
+            Map<String,Double>  freeVars    = new HashMap<>( vars );
+            freeVars.keySet().retainAll( freeNames );
+            Expression          expr        =
+                new ExpressionBuilder( optStr )
+                    .variables( freeVars.keySet() )
+                    .functions( Exp4jFunctions.getFunctions() )
+                    .build();
+            expr.setVariables( freeVars );
+            if ( expr.validate( true ).isValid() )
+                result = expr;
+        }
+        catch ( Exception exc )
+        {
+            // ExpressionBuilder may throw an undocumented exception
+            // in the face of an invalid expression; return null.
+        }
+        return result;
+    }
+    
+    /**
+     * Returns the names of the variables
+     * that vary during a plot:
+     * <em>x</em>
+     * and the parameter, radius and angle names.
+     * 
+     * @return  the names of the variables that vary during a plot
+     */
+    private Set<String> getFreeNames()
+    {
+        Set<String> names   = 
+            new HashSet<>( List.of( "x", "y", param, radius, theta ) );
+        return names;
+    }
+    
     /**
      * Validates an expression and, if valid,
      * records the expression and it value.
@@ -662,6 +1434,7 @@ public class Exp4jEquation implements Equation
         {
             valSetter.accept( dVal.get() );
             strSetter.accept( str );
+            ++version;
             result = new Result( true );
         }
         else
@@ -0,0 +1,655 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles an expression tree
+ * produced by {@linkplain ExprParser}
+ * into a JVM class
+ * that implements {@linkplain CompiledExpression}.
+ * The generated class
+ * has a single <em>evaluate</em> method
+ * consisting of straight-line bytecode:
+ * variables are loaded from the array passed to the method,
+ * arithmetic operators become the corresponding
+ * JVM instructions
+ * (<em>dadd, dmul,</em> etc.)
+ * and function calls become <em>invokestatic</em> instructions
+ * (see {@linkplain ExprFunction}).
+ * The class is defined
+ * as a hidden class
+ * via {@linkplain MethodHandles.Lookup#defineHiddenClass},
+ * which makes it eligible
+ * for garbage collection
+ * as soon as the compiled expression is discarded.
+ * <p>
+ * Because the generated code is ordinary bytecode
+ * the JIT compiler can inline the arithmetic
+ * and the calls to <em>Math</em> methods,
+ * which it cannot do
+ * for an expression that is interpreted
+ * by walking a tree.
+ * If for any reason the class cannot be generated
+ * the tree itself is returned,
+ * wrapped in a CompiledExpression
+ * that evaluates it by walking the tree.
+ * </p>
+ * 
+ * @author Jack Straub
+ * 
+ * @see CompiledExpression
+ * @see ExprNode
+ */
+public class ExprCompiler
+{
+    /** Internal name of the generated class. */
+    private static final String className       =
+        "com/acmemail/judah/cartesian_plane/input/GeneratedExpression";
+    /** Internal name of the interface implemented by the generated class. */
+    private static final String interfaceName   =
+        "com/acmemail/judah/cartesian_plane/input/CompiledExpression";
+    /** Internal name of the ExprFunction class. */
+    private static final String funkClassName   =
+        "com/acmemail/judah/cartesian_plane/input/ExprFunction";
+    /** Maximum length of the code in a JVM method. */
+    private static final int    maxCodeLength   = 65535;
+
+    // JVM access flags
+    private static final int    ACC_PUBLIC      = 0x0001;
+    private static final int    ACC_FINAL       = 0x0010;
+    private static final int    ACC_SUPER       = 0x0020;
+    private static final int    ACC_SYNTHETIC   = 0x1000;
+
+    // JVM opcodes
+    private static final int    ICONST_0        = 0x03;
+    private static final int    DCONST_0        = 0x0e;
+    private static final int    DCONST_1        = 0x0f;
+    private static final int    BIPUSH          = 0x10;
+    private static final int    SIPUSH          = 0x11;
+    private static final int    LDC2_W          = 0x14;
+    private static final int    ALOAD_0         = 0x2a;
+    private static final int    ALOAD_1         = 0x2b;
+    private static final int    DALOAD          = 0x31;
+    private static final int    DADD            = 0x63;
+    private static final int    DSUB            = 0x67;
+    private static final int    DMUL            = 0x6b;
+    private static final int    DDIV            = 0x6f;
+    private static final int    DREM            = 0x73;
+    private static final int    DNEG            = 0x77;
+    private static final int    DRETURN         = 0xaf;
+    private static final int    RETURN          = 0xb1;
+    private static final int    INVOKESPECIAL   = 0xb7;
+    private static final int    INVOKESTATIC    = 0xb8;
+
+    /**
+     * Default constructor; not used.
+     */
+    private ExprCompiler()
+    {
+    }
+
+    /**
+     * Compiles the expression tree
+     * rooted at a given node.
+     * 
+     * @param root  the given node
+     * 
+     * @return  the compiled expression
+     */
+    public static CompiledExpression compile( ExprNode root )
+    {
+        CompiledExpression  compiled    = null;
+        try
+        {
+            byte[]                  bytes   = generate( root );
+            MethodHandles.Lookup    lookup  =
+                MethodHandles.lookup().defineHiddenClass( bytes, true );
+            Class<?>                clazz   = lookup.lookupClass();
+            Object                  obj     =
+                clazz.getDeclaredConstructor().newInstance();
+            compiled = (CompiledExpression)obj;
+        }
+        catch ( ReflectiveOperationException
+            | IllegalStateException
+            | UnsupportedOperationException
+            | LinkageError exc )
+        {
+            // The expression can't be compiled; maybe it's too
+            // long, or maybe hidden classes are not permitted in
+            // this environment. Fall back on the tree.
+            compiled = root::evaluate;
+        }
+        return compiled;
+    }
+
+    /**
+     * Generates the class file
+     * for the compiled version of a given expression tree.
+     * 
+     * @param root  the root of the given expression tree
+     * 
+     * @return  the generated class file
+     * 
+     * @throws IllegalStateException
+     *      if the generated code exceeds the JVM limits
+     * @throws UnsupportedOperationException
+     *      if the tree contains a function that can't be compiled
+     */
+    static byte[] generate( ExprNode root )
+    {
+        ConstantPool    pool    = new ConstantPool();
+        CodeEmitter     emitter = new CodeEmitter( pool );
+        root.accept( emitter );
+        emitter.emit( DRETURN );
+
+        byte[]          code    = emitter.code.toByteArray();
+        if ( code.length > maxCodeLength )
+            throw new IllegalStateException( "Expression too long" );
+
+        int thisClass   = pool.classRef( className );
+        int superClass  = pool.classRef( "java/lang/Object" );
+        int iface       = pool.classRef( interfaceName );
+        int objInit     =
+            pool.methodRef( "java/lang/Object", "<init>", "()V" );
+        int initName    = pool.utf8( "<init>" );
+        int initDesc    = pool.utf8( "()V" );
+        int evalName    = pool.utf8( "evaluate" );
+        int evalDesc    = pool.utf8( "([D)D" );
+        int codeName    = pool.utf8( "Code" );
+
+        ByteArrayOutputStream   bytes   = new ByteArrayOutputStream();
+        try ( DataOutputStream out = new DataOutputStream( bytes ) )
+        {
+            out.writeInt( 0xCAFEBABE );
+            out.writeShort( 0 );    // minor version
+            out.writeShort( 61 );   // major version: Java 17
+            pool.write( out );
+            out.writeShort( ACC_PUBLIC | ACC_FINAL | ACC_SUPER | ACC_SYNTHETIC );
+            out.writeShort( thisClass );
+            out.writeShort( superClass );
+            out.writeShort( 1 );    // interface count
+            out.writeShort( iface );
+            out.writeShort( 0 );    // field count
+            out.writeShort( 2 );    // method count
+
+            // public <init>() { super(); }
+            byte[]  initCode    =
+            {
+                (byte)ALOAD_0,
+                (byte)INVOKESPECIAL,
+                (byte)(objInit >> 8),
+                (byte)objInit,
+                (byte)RETURN
+            };
+            writeMethod( out, initName, initDesc, codeName, 1, 1, initCode );
+
+            // public double evaluate( double[] vars )
+            writeMethod(
+                out,
+                evalName,
+                evalDesc,
+                codeName,
+                emitter.maxDepth,
+                2,
+                code
+            );
+            out.writeShort( 0 );    // attribute count
+        }
+        catch ( IOException exc )
+        {
+            // ByteArrayOutputStream doesn't throw IOException
+            throw new IllegalStateException( exc );
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Writes a public method
+     * to a class file.
+     * 
+     * @param out       the stream to write to
+     * @param name      constant pool index of the method name
+     * @param desc      constant pool index of the method descriptor
+     * @param codeName  constant pool index of the string "Code"
+     * @param maxStack  maximum depth of the operand stack
+     * @param maxLocals number of local variable slots
+     * @param code      the method's bytecode
+     * 
+     * @throws IOException  if an I/O error occurs
+     */
+    private static void writeMethod(
+        DataOutputStream out,
+        int name,
+        int desc,
+        int codeName,
+        int maxStack,
+        int maxLocals,
+        byte[] code
+    ) throws IOException
+    {
+        out.writeShort( ACC_PUBLIC );
+        out.writeShort( name );
+        out.writeShort( desc );
+        out.writeShort( 1 );    // attribute count
+        out.writeShort( codeName );
+        out.writeInt( 12 + code.length );
+        out.writeShort( maxStack );
+        out.writeShort( maxLocals );
+        out.writeInt( code.length );
+        out.write( code );
+        out.writeShort( 0 );    // exception table length
+        out.writeShort( 0 );    // attribute count
+    }
+
+    /**
+     * Visitor that emits the bytecode
+     * for an expression tree,
+     * keeping track of the maximum depth
+     * of the operand stack.
+     * Note that every double
+     * occupies two words on the operand stack.
+     */
+    private static class CodeEmitter implements ExprVisitor<Void>
+    {
+        /** The constant pool of the class being generated. */
+        private final ConstantPool          pool;
+        /** The generated code. */
+        private final ByteArrayOutputStream code        =
+            new ByteArrayOutputStream();
+        /** Current depth of the operand stack. */
+        private int                         depth       = 0;
+        /** Maximum depth of the operand stack. */
+        private int                         maxDepth    = 0;
+
+        /**
+         * Constructor.
+         * Establishes the constant pool
+         * of the class being generated.
+         * 
+         * @param pool  the constant pool
+         */
+        CodeEmitter( ConstantPool pool )
+        {
+            this.pool = pool;
+        }
+
+        @Override
+        public Void visit( ExprNode.Constant node )
+        {
+            double  value   = node.getValue();
+            if ( Double.doubleToRawLongBits( value ) == 0 )
+                emit( DCONST_0 );
+            else if ( value == 1 )
+                emit( DCONST_1 );
+            else
+                emit( LDC2_W, pool.doubleConst( value ) );
+            push( 2 );
+            return null;
+        }
+
+        @Override
+        public Void visit( ExprNode.Variable node )
+        {
+            emit( ALOAD_1 );
+            push( 1 );
+            pushInt( node.getSlot() );
+            emit( DALOAD );
+            push( -2 );
+            push( 2 );
+            return null;
+        }
+
+        @Override
+        public Void visit( ExprNode.Negate node )
+        {
+            node.getOperand().accept( this );
+            emit( DNEG );
+            return null;
+        }
+
+        @Override
+        public Void visit( ExprNode.Binary node )
+        {
+            node.getLeft().accept( this );
+            node.getRight().accept( this );
+            switch ( node.getOperator() )
+            {
+            case ADD:
+                emit( DADD );
+                break;
+            case SUBTRACT:
+                emit( DSUB );
+                break;
+            case MULTIPLY:
+                emit( DMUL );
+                break;
+            case DIVIDE:
+                emit( DDIV );
+                break;
+            case MODULO:
+                emit( DREM );
+                break;
+            case POWER:
+                emit(
+                    INVOKESTATIC,
+                    pool.methodRef( "java/lang/Math", "pow", "(DD)D" )
+                );
+                break;
+            }
+            push( -2 );
+            return null;
+        }
+
+        @Override
+        public Void visit( ExprNode.Call node )
+        {
+            ExprFunction    funk    = node.getFunction();
+            int             arity   = funk.getArity();
+            int             method  = 0;
+            if ( funk.isIntrinsic() )
+            {
+                method =
+                    pool.methodRef(
+                        funk.getOwner(),
+                        funk.getMethod(),
+                        funk.getDescriptor()
+                    );
+            }
+            else if ( arity == 1 || arity == 2 )
+            {
+                String  invoker = "invoke" + arity;
+                String  desc    = "(I" + funk.getDescriptor().substring( 1 );
+                method = pool.methodRef( funkClassName, invoker, desc );
+                pushInt( funk.getID() );
+            }
+            else
+            {
+                String  msg =
+                    "Can't compile call to function " + funk.getName();
+                throw new UnsupportedOperationException( msg );
+            }
+
+            int             before  = depth;
+            for ( ExprNode arg : node.getArgs() )
+                arg.accept( this );
+            emit( INVOKESTATIC, method );
+            // Pop the arguments (and function ID, if any),
+            // push the result.
+            depth = before - (funk.isIntrinsic() ? 0 : 1);
+            push( 2 );
+            return null;
+        }
+
+        /**
+         * Emits the instruction
+         * that pushes a given integer
+         * onto the operand stack.
+         * 
+         * @param value the given integer
+         */
+        private void pushInt( int value )
+        {
+            if ( value >= 0 && value <= 5 )
+                emit( ICONST_0 + value );
+            else if ( value <= Byte.MAX_VALUE )
+            {
+                emit( BIPUSH );
+                code.write( value );
+            }
+            else
+            {
+                emit( SIPUSH );
+                code.write( value >> 8 );
+                code.write( value );
+            }
+            push( 1 );
+        }
+
+        /**
+         * Emits a single-byte instruction.
+         * 
+         * @param opcode    the instruction opcode
+         */
+        private void emit( int opcode )
+        {
+            code.write( opcode );
+        }
+
+        /**
+         * Emits an instruction
+         * with a two-byte operand.
+         * 
+         * @param opcode    the instruction opcode
+         * @param operand   the operand
+         */
+        private void emit( int opcode, int operand )
+        {
+            code.write( opcode );
+            code.write( operand >> 8 );
+            code.write( operand );
+        }
+
+        /**
+         * Adjusts the depth of the operand stack
+         * by a given number of words,
+         * updating the maximum depth as necessary.
+         * 
+         * @param words the given number of words; may be negative
+         */
+        private void push( int words )
+        {
+            depth += words;
+            maxDepth = Math.max( depth, maxDepth );
+        }
+    }
+
+    /**
+     * Encapsulates the constant pool
+     * of the class being generated.
+     * Duplicate entries are not added.
+     */
+    private static class ConstantPool
+    {
+        // Constant pool tags
+        private static final int    CONSTANT_Utf8           = 1;
+        private static final int    CONSTANT_Double         = 6;
+        private static final int    CONSTANT_Class          = 7;
+        private static final int    CONSTANT_Methodref      = 10;
+        private static final int    CONSTANT_NameAndType    = 12;
+
+        /** Encoded entries in the constant pool. */
+        private final List<byte[]>          entries = new ArrayList<>();
+        /** Maps a key describing an entry to its index. */
+        private final Map<String,Integer>   indices = new HashMap<>();
+        /**
+         * The index of the next entry;
+         * constant pool indices start at 1.
+         */
+        private int                         nextInx = 1;
+
+        /**
+         * Gets the index of a CONSTANT_Utf8 entry,
+         * adding the entry if necessary.
+         * 
+         * @param str   the string encoded by the entry
+         * 
+         * @return  the index of the entry
+         */
+        int utf8( String str )
+        {
+            Integer inx = indices.get( "U" + str );
+            if ( inx == null )
+            {
+                ByteArrayOutputStream   bytes   = new ByteArrayOutputStream();
+                try ( DataOutputStream out = new DataOutputStream( bytes ) )
+                {
+                    out.writeByte( CONSTANT_Utf8 );
+                    out.writeUTF( str );
+                }
+                catch ( IOException exc )
+                {
+                    throw new IllegalStateException( exc );
+                }
+                inx = add( "U" + str, bytes.toByteArray(), 1 );
+            }
+            return inx;
+        }
+
+        /**
+         * Gets the index of a CONSTANT_Class entry,
+         * adding the entry if necessary.
+         * 
+         * @param name  the internal name of the class
+         * 
+         * @return  the index of the entry
+         */
+        int classRef( String name )
+        {
+            Integer inx = indices.get( "C" + name );
+            if ( inx == null )
+            {
+                int nameInx = utf8( name );
+                inx = add( "C" + name, ref( CONSTANT_Class, nameInx ), 1 );
+            }
+            return inx;
+        }
+
+        /**
+         * Gets the index of a CONSTANT_Methodref entry,
+         * adding the entry if necessary.
+         * 
+         * @param owner the internal name of the class declaring the method
+         * @param name  the name of the method
+         * @param desc  the method descriptor
+         * 
+         * @return  the index of the entry
+         */
+        int methodRef( String owner, String name, String desc )
+        {
+            String  key = "M" + owner + "." + name + desc;
+            Integer inx = indices.get( key );
+            if ( inx == null )
+            {
+                int classInx    = classRef( owner );
+                int natInx      = nameAndType( name, desc );
+                inx =
+                    add( key, ref( CONSTANT_Methodref, classInx, natInx ), 1 );
+            }
+            return inx;
+        }
+
+        /**
+         * Gets the index of a CONSTANT_Double entry,
+         * adding the entry if necessary.
+         * 
+         * @param value the value of the entry
+         * 
+         * @return  the index of the entry
+         */
+        int doubleConst( double value )
+        {
+            long    bits    = Double.doubleToRawLongBits( value );
+            Integer inx     = indices.get( "D" + bits );
+            if ( inx == null )
+            {
+                byte[]  bytes   = new byte[9];
+                bytes[0] = CONSTANT_Double;
+                for ( int jnx = 8 ; jnx > 0 ; --jnx, bits >>>= 8 )
+                    bytes[jnx] = (byte)bits;
+                // A double occupies two constant pool entries
+                inx = add( "D" + Double.doubleToRawLongBits( value ), bytes, 2 );
+            }
+            return inx;
+        }
+
+        /**
+         * Writes the constant pool,
+         * preceded by its count,
+         * to a given stream.
+         * 
+         * @param out   the given stream
+         * 
+         * @throws IOException if an I/O error occurs
+         */
+        void write( DataOutputStream out ) throws IOException
+        {
+            out.writeShort( nextInx );
+            for ( byte[] entry : entries )
+                out.write( entry );
+        }
+
+        /**
+         * Gets the index of a CONSTANT_NameAndType entry,
+         * adding the entry if necessary.
+         * 
+         * @param name  the name of the field or method
+         * @param desc  the field or method descriptor
+         * 
+         * @return  the index of the entry
+         */
+        private int nameAndType( String name, String desc )
+        {
+            String  key = "N" + name + desc;
+            Integer inx = indices.get( key );
+            if ( inx == null )
+            {
+                int nameInx = utf8( name );
+                int descInx = utf8( desc );
+                inx =
+                    add( key, ref( CONSTANT_NameAndType, nameInx, descInx ), 1 );
+            }
+            return inx;
+        }
+
+        /**
+         * Adds an entry to the constant pool.
+         * 
+         * @param key   key describing the entry
+         * @param entry the encoded entry
+         * @param size  the number of indices occupied by the entry
+         * 
+         * @return  the index of the entry
+         * 
+         * @throws IllegalStateException if the constant pool is full
+         */
+        private int add( String key, byte[] entry, int size )
+        {
+            int inx = nextInx;
+            nextInx += size;
+            if ( nextInx > 0xFFFF )
+                throw new IllegalStateException( "Constant pool overflow" );
+            entries.add( entry );
+            indices.put( key, inx );
+            return inx;
+        }
+
+        /**
+         * Encodes an entry
+         * consisting of a tag
+         * followed by one or more two-byte indices.
+         * 
+         * @param tag       the tag of the entry
+         * @param indices   the indices in the entry
+         * 
+         * @return  the encoded entry
+         */
+        private static byte[] ref( int tag, int... indices )
+        {
+            byte[]  bytes   = new byte[1 + 2 * indices.length];
+            bytes[0] = (byte)tag;
+            for ( int inx = 0 ; inx < indices.length ; ++inx )
+            {
+                bytes[1 + 2 * inx] = (byte)(indices[inx] >> 8);
+                bytes[2 + 2 * inx] = (byte)indices[inx];
+            }
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,446 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+import net.objecthunter.exp4j.function.Function;
+
+/**
+ * Describes a function
+ * that may be invoked from an expression
+ * parsed by {@linkplain ExprParser}.
+ * The set of available functions
+ * consists of the functions built into exp4j
+ * (<em>sin, cos, sqrt, pow,</em> etc.)
+ * plus the custom functions
+ * found in {@linkplain Exp4jFunctions}.
+ * <p>
+ * Most functions are <em>intrinsic</em>,
+ * meaning that they are implemented
+ * by a public static method
+ * that takes one or two doubles
+ * and returns a double,
+ * such as <em>Math.sin</em> or <em>ExprFunction.sec</em>.
+ * A call to an intrinsic function
+ * can be compiled directly to an <em>invokestatic</em> instruction;
+ * see {@linkplain ExprCompiler}.
+ * A custom function
+ * that has no intrinsic implementation
+ * is invoked indirectly
+ * via {@linkplain #invoke1(int, double)}
+ * or {@linkplain #invoke2(int, double, double)}.
+ * </p>
+ * 
+ * @author Jack Straub
+ * 
+ * @see ExprParser
+ * @see ExprCompiler
+ */
+public class ExprFunction
+{
+    /** Internal name of the Math class. */
+    private static final String math        = "java/lang/Math";
+    /** Internal name of this class. */
+    private static final String self        =
+        "com/acmemail/judah/cartesian_plane/input/ExprFunction";
+
+    /**
+     * List of all functions,
+     * indexed by function ID.
+     */
+    private static final List<ExprFunction>         funkList    =
+        new ArrayList<>();
+    /** Map of all functions, keyed by function name. */
+    private static final Map<String,ExprFunction>   funkMap     =
+        new HashMap<>();
+
+    static
+    {
+        unary( "sin", math, "sin", a -> Math.sin( a[0] ) );
+        unary( "cos", math, "cos", a -> Math.cos( a[0] ) );
+        unary( "tan", math, "tan", a -> Math.tan( a[0] ) );
+        unary( "asin", math, "asin", a -> Math.asin( a[0] ) );
+        unary( "acos", math, "acos", a -> Math.acos( a[0] ) );
+        unary( "atan", math, "atan", a -> Math.atan( a[0] ) );
+        unary( "sinh", math, "sinh", a -> Math.sinh( a[0] ) );
+        unary( "cosh", math, "cosh", a -> Math.cosh( a[0] ) );
+        unary( "tanh", math, "tanh", a -> Math.tanh( a[0] ) );
+        unary( "abs", math, "abs", a -> Math.abs( a[0] ) );
+        unary( "log", math, "log", a -> Math.log( a[0] ) );
+        unary( "log10", math, "log10", a -> Math.log10( a[0] ) );
+        unary( "log2", self, "log2", a -> log2( a[0] ) );
+        unary( "log1p", math, "log1p", a -> Math.log1p( a[0] ) );
+        unary( "ceil", math, "ceil", a -> Math.ceil( a[0] ) );
+        unary( "floor", math, "floor", a -> Math.floor( a[0] ) );
+        unary( "sqrt", math, "sqrt", a -> Math.sqrt( a[0] ) );
+        unary( "cbrt", math, "cbrt", a -> Math.cbrt( a[0] ) );
+        unary( "exp", math, "exp", a -> Math.exp( a[0] ) );
+        unary( "expm1", math, "expm1", a -> Math.expm1( a[0] ) );
+        unary( "signum", math, "signum", a -> Math.signum( a[0] ) );
+        add(
+            new ExprFunction( "pow", 2, math, "pow",
+                a -> Math.pow( a[0], a[1] )
+        ));
+
+        // Custom functions; these must agree with the
+        // implementations in Exp4jFunctions and JEPFunctions.
+        unary( "cot", self, "cot", a -> cot( a[0] ) );
+        unary( "sec", self, "sec", a -> sec( a[0] ) );
+        unary( "csc", self, "csc", a -> csc( a[0] ) );
+        unary( "toDegrees", self, "toDegrees", a -> toDegrees( a[0] ) );
+        unary( "toRadians", self, "toRadians", a -> toRadians( a[0] ) );
+
+        // Any custom function without an intrinsic implementation
+        // is invoked via its exp4j implementation.
+        for ( Function funk : Exp4jFunctions.getFunctions() )
+        {
+            String  name    = funk.getName();
+            if ( !funkMap.containsKey( name ) )
+                add( new ExprFunction( name, funk ) );
+        }
+    }
+
+    /** The ID of this function. */
+    private int                             id;
+    /** The name of this function. */
+    private final String                    name;
+    /** The number of arguments required by this function. */
+    private final int                       arity;
+    /**
+     * Internal name of the class that declares the
+     * static method that implements this function;
+     * null if this function has no intrinsic implementation.
+     */
+    private final String                    owner;
+    /**
+     * The name of the static method
+     * that implements this function;
+     * null if this function has no intrinsic implementation.
+     */
+    private final String                    method;
+    /** Evaluates this function given an array of arguments. */
+    private final ToDoubleFunction<double[]>    impl;
+
+    /**
+     * Constructor.
+     * Instantiates an intrinsic function.
+     * 
+     * @param name      the name of the function
+     * @param arity     the number of arguments required by the function
+     * @param owner
+     *      internal name of the class that declares
+     *      the implementing method
+     * @param method    name of the implementing method
+     * @param impl      evaluates the function given an array of arguments
+     */
+    private ExprFunction(
+        String name,
+        int arity,
+        String owner,
+        String method,
+        ToDoubleFunction<double[]> impl
+    )
+    {
+        this.name = name;
+        this.arity = arity;
+        this.owner = owner;
+        this.method = method;
+        this.impl = impl;
+    }
+
+    /**
+     * Constructor.
+     * Instantiates a function
+     * that is implemented by a custom exp4j function.
+     * 
+     * @param name  the name of the function
+     * @param funk  the exp4j function
+     */
+    private ExprFunction( String name, Function funk )
+    {
+        this( name, funk.getNumArguments(), null, null, funk::apply );
+    }
+
+    /**
+     * Gets the function with the given name.
+     * Returns null if not found.
+     * 
+     * @param name  the given name
+     * 
+     * @return  the function with the given name, or null if none
+     */
+    public static ExprFunction get( String name )
+    {
+        ExprFunction    funk    = funkMap.get( name );
+        return funk;
+    }
+
+    /**
+     * Gets an unmodifiable map of all functions,
+     * keyed by function name.
+     * 
+     * @return  map of all functions
+     */
+    public static Map<String,ExprFunction> getFunctions()
+    {
+        Map<String,ExprFunction>    map =
+            Collections.unmodifiableMap( funkMap );
+        return map;
+    }
+
+    /**
+     * Gets the name of this function.
+     * 
+     * @return  the name of this function
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * Gets the number of arguments
+     * required by this function.
+     * 
+     * @return  the number of arguments required by this function
+     */
+    public int getArity()
+    {
+        return arity;
+    }
+
+    /**
+     * Gets the ID of this function.
+     * Used to invoke a function that has
+     * no intrinsic implementation.
+     * 
+     * @return  the ID of this function
+     * 
+     * @see #invoke1(int, double)
+     * @see #invoke2(int, double, double)
+     */
+    public int getID()
+    {
+        return id;
+    }
+
+    /**
+     * Returns true if this function
+     * has an intrinsic implementation.
+     * 
+     * @return  true if this function has an intrinsic implementation
+     */
+    public boolean isIntrinsic()
+    {
+        boolean intrinsic   = owner != null;
+        return intrinsic;
+    }
+
+    /**
+     * Gets the internal name of the class
+     * that declares the intrinsic implementation
+     * of this function.
+     * Returns null if this function is not intrinsic.
+     * 
+     * @return
+     *      the internal name of the class that implements
+     *      this function, or null if none
+     */
+    public String getOwner()
+    {
+        return owner;
+    }
+
+    /**
+     * Gets the name of the static method
+     * that implements this function.
+     * Returns null if this function is not intrinsic.
+     * 
+     * @return
+     *      the name of the method that implements this function,
+     *      or null if none
+     */
+    public String getMethod()
+    {
+        return method;
+    }
+
+    /**
+     * Gets the JVM descriptor
+     * of the method that implements this function,
+     * for example "(D)D" for a function
+     * of one argument.
+     * 
+     * @return  the JVM descriptor of the implementing method
+     */
+    public String getDescriptor()
+    {
+        String  desc    = "(" + "D".repeat( arity ) + ")D";
+        return desc;
+    }
+
+    /**
+     * Applies this function to the given arguments.
+     * 
+     * @param args  the given arguments
+     * 
+     * @return  the result of applying this function
+     */
+    public double apply( double... args )
+    {
+        double  result  = impl.applyAsDouble( args );
+        return result;
+    }
+
+    /**
+     * Invokes the function of one argument
+     * with the given ID.
+     * Used by compiled expressions to call
+     * a function that has no intrinsic implementation.
+     * 
+     * @param id    the given ID
+     * @param arg   the argument to the function
+     * 
+     * @return  the result of invoking the function
+     */
+    public static double invoke1( int id, double arg )
+    {
+        double  result  = funkList.get( id ).apply( arg );
+        return result;
+    }
+
+    /**
+     * Invokes the function of two arguments
+     * with the given ID.
+     * Used by compiled expressions to call
+     * a function that has no intrinsic implementation.
+     * 
+     * @param id    the given ID
+     * @param arg1  the first argument to the function
+     * @param arg2  the second argument to the function
+     * 
+     * @return  the result of invoking the function
+     */
+    public static double invoke2( int id, double arg1, double arg2 )
+    {
+        double  result  = funkList.get( id ).apply( arg1, arg2 );
+        return result;
+    }
+
+    /**
+     * Calculates the base-2 logarithm of a given value.
+     * 
+     * @param arg   the given value
+     * 
+     * @return  the base-2 logarithm of the given value
+     */
+    public static double log2( double arg )
+    {
+        double  log = Math.log( arg ) / Math.log( 2 );
+        return log;
+    }
+
+    /**
+     * Calculates the cotangent of a given angle.
+     * 
+     * @param arg   the given angle, in radians
+     * 
+     * @return  the cotangent of the given angle
+     */
+    public static double cot( double arg )
+    {
+        double  cotan   = 1.0 / Math.tan( arg );
+        return cotan;
+    }
+
+    /**
+     * Calculates the secant of a given angle.
+     * 
+     * @param arg   the given angle, in radians
+     * 
+     * @return  the secant of the given angle
+     */
+    public static double sec( double arg )
+    {
+        double  secant  = 1.0 / Math.cos( arg );
+        return secant;
+    }
+
+    /**
+     * Calculates the cosecant of a given angle.
+     * 
+     * @param arg   the given angle, in radians
+     * 
+     * @return  the cosecant of the given angle
+     */
+    public static double csc( double arg )
+    {
+        double  cosecant    = 1.0 / Math.sin( arg );
+        return cosecant;
+    }
+
+    /**
+     * Converts an angle in radians to degrees.
+     * 
+     * @param arg   the given angle, in radians
+     * 
+     * @return  the given angle, in degrees
+     */
+    public static double toDegrees( double arg )
+    {
+        double  degrees = arg * 180 / Math.PI;
+        return degrees;
+    }
+
+    /**
+     * Converts an angle in degrees to radians.
+     * 
+     * @param arg   the given angle, in degrees
+     * 
+     * @return  the given angle, in radians
+     */
+    public static double toRadians( double arg )
+    {
+        double  radians = arg * Math.PI / 180.;
+        return radians;
+    }
+
+    /**
+     * Adds a function of one argument
+     * with an intrinsic implementation
+     * to the list of functions.
+     * 
+     * @param name      the name of the function
+     * @param owner
+     *      internal name of the class that declares
+     *      the implementing method
+     * @param method    name of the implementing method
+     * @param impl      evaluates the function given an array of arguments
+     */
+    private static void unary(
+        String name,
+        String owner,
+        String method,
+        ToDoubleFunction<double[]> impl
+    )
+    {
+        add( new ExprFunction( name, 1, owner, method, impl ) );
+    }
+
+    /**
+     * Adds a given function to the list of functions,
+     * assigning it an ID.
+     * 
+     * @param funk  the given function
+     */
+    private static void add( ExprFunction funk )
+    {
+        funk.id = funkList.size();
+        funkList.add( funk );
+        funkMap.put( funk.name, funk );
+    }
+}
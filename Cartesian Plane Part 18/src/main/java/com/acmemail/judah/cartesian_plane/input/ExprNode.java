@@ -0,0 +1,607 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Node in an expression tree
+ * produced by {@linkplain ExprParser}.
+ * A node can be evaluated directly,
+ * by walking the tree,
+ * or traversed by an {@linkplain ExprVisitor},
+ * for example to compile the tree to bytecode
+ * (see {@linkplain ExprCompiler}).
+ * <p>
+ * Variables are evaluated
+ * by position rather than by name.
+ * Each variable in a tree
+ * is assigned a <em>slot</em>,
+ * which is the index in an array of doubles
+ * at which the value of the variable is stored.
+ * </p>
+ * <p>
+ * The <em>toString</em> method of a node
+ * produces an expression string
+ * that can be parsed back into an equivalent tree,
+ * using parentheses only where required
+ * by the precedence of the operators involved.
+ * </p>
+ * 
+ * @author Jack Straub
+ * 
+ * @see ExprParser
+ * @see ExprVisitor
+ */
+public abstract class ExprNode
+{
+    /** Precedence of an operand: a constant, variable or function. */
+    private static final int    operandPrec     = 100;
+    /** Precedence of the unary minus operator. */
+    private static final int    negatePrec      = 50;
+
+    /**
+     * Evaluates the tree rooted at this node.
+     * 
+     * @param vars  array of variable values, indexed by slot
+     * 
+     * @return  the value of the tree rooted at this node
+     */
+    public abstract double evaluate( double[] vars );
+
+    /**
+     * Invokes the method of the given visitor
+     * appropriate to the type of this node.
+     * 
+     * @param <R>       type of value produced by the visitor
+     * @param visitor   the given visitor
+     * 
+     * @return  the value produced by the visitor
+     */
+    public abstract <R> R accept( ExprVisitor<R> visitor );
+
+    /**
+     * Gets the precedence of the operation
+     * represented by this node.
+     * Used to determine where parentheses are required
+     * when converting a tree to a string.
+     * 
+     * @return  the precedence of this node
+     */
+    abstract int precedence();
+
+    /**
+     * Numeric constant.
+     * A constant may optionally have a name,
+     * such as <em>pi</em> or <em>e</em>.
+     * 
+     * @author Jack Straub
+     */
+    public static class Constant extends ExprNode
+    {
+        /** The value of this constant. */
+        private final double    value;
+        /** The name of this constant; may be null. */
+        private final String    name;
+
+        /**
+         * Constructor.
+         * Instantiates an unnamed constant
+         * with the given value.
+         * 
+         * @param value the given value
+         */
+        public Constant( double value )
+        {
+            this( value, null );
+        }
+
+        /**
+         * Constructor.
+         * Instantiates a constant
+         * with the given value and name.
+         * 
+         * @param value the given value
+         * @param name  the given name; may be null
+         */
+        public Constant( double value, String name )
+        {
+            this.value = value;
+            this.name = name;
+        }
+
+        /**
+         * Gets the value of this constant.
+         * 
+         * @return  the value of this constant
+         */
+        public double getValue()
+        {
+            return value;
+        }
+
+        /**
+         * Gets the name of this constant.
+         * Returns null if this constant is unnamed.
+         * 
+         * @return  the name of this constant, or null if none
+         */
+        public String getName()
+        {
+            return name;
+        }
+
+        @Override
+        public double evaluate( double[] vars )
+        {
+            return value;
+        }
+
+        @Override
+        public <R> R accept( ExprVisitor<R> visitor )
+        {
+            return visitor.visit( this );
+        }
+
+        @Override
+        int precedence()
+        {
+            int prec    = value < 0 && name == null ? negatePrec : operandPrec;
+            return prec;
+        }
+
+        @Override
+        public String toString()
+        {
+            String  str = null;
+            if ( name != null )
+                str = name;
+            else if ( value == (long)value && Math.abs( value ) < 1e15 )
+                str = Long.toString( (long)value );
+            else if ( Double.isFinite( value ) )
+                str = BigDecimal.valueOf( value ).toPlainString();
+            else
+                str = Double.toString( value );
+            return str;
+        }
+    }
+
+    /**
+     * Variable.
+     * The value of a variable is taken
+     * from the array of variable values
+     * passed to the evaluate method,
+     * at the index given by the variable's slot.
+     * 
+     * @author Jack Straub
+     */
+    public static class Variable extends ExprNode
+    {
+        /** The name of this variable. */
+        private final String    name;
+        /** The slot assigned to this variable. */
+        private final int       slot;
+
+        /**
+         * Constructor.
+         * Establishes the name and slot of this variable.
+         * 
+         * @param name  the name of this variable
+         * @param slot  the slot assigned to this variable
+         */
+        public Variable( String name, int slot )
+        {
+            this.name = name;
+            this.slot = slot;
+        }
+
+        /**
+         * Gets the name of this variable.
+         * 
+         * @return  the name of this variable
+         */
+        public String getName()
+        {
+            return name;
+        }
+
+        /**
+         * Gets the slot assigned to this variable.
+         * 
+         * @return  the slot assigned to this variable
+         */
+        public int getSlot()
+        {
+            return slot;
+        }
+
+        @Override
+        public double evaluate( double[] vars )
+        {
+            return vars[slot];
+        }
+
+        @Override
+        public <R> R accept( ExprVisitor<R> visitor )
+        {
+            return visitor.visit( this );
+        }
+
+        @Override
+        int precedence()
+        {
+            return operandPrec;
+        }
+
+        @Override
+        public String toString()
+        {
+            return name;
+        }
+    }
+
+    /**
+     * Unary minus operation.
+     * 
+     * @author Jack Straub
+     */
+    public static class Negate extends ExprNode
+    {
+        /** The operand of this operation. */
+        private final ExprNode  operand;
+
+        /**
+         * Constructor.
+         * Establishes the operand of this operation.
+         * 
+         * @param operand   the operand of this operation
+         */
+        public Negate( ExprNode operand )
+        {
+            this.operand = operand;
+        }
+
+        /**
+         * Gets the operand of this operation.
+         * 
+         * @return  the operand of this operation
+         */
+        public ExprNode getOperand()
+        {
+            return operand;
+        }
+
+        @Override
+        public double evaluate( double[] vars )
+        {
+            return -operand.evaluate( vars );
+        }
+
+        @Override
+        public <R> R accept( ExprVisitor<R> visitor )
+        {
+            return visitor.visit( this );
+        }
+
+        @Override
+        int precedence()
+        {
+            return negatePrec;
+        }
+
+        @Override
+        public String toString()
+        {
+            String  str =
+                "-" + parenthesize( operand, operand.precedence() <= negatePrec );
+            return str;
+        }
+    }
+
+    /**
+     * Binary operation.
+     * 
+     * @author Jack Straub
+     */
+    public static class Binary extends ExprNode
+    {
+        /** The operator of this operation. */
+        private final Operator  oper;
+        /** The left operand of this operation. */
+        private final ExprNode  left;
+        /** The right operand of this operation. */
+        private final ExprNode  right;
+
+        /**
+         * Constructor.
+         * Establishes the operator and operands
+         * of this operation.
+         * 
+         * @param oper  the operator of this operation
+         * @param left  the left operand of this operation
+         * @param right the right operand of this operation
+         */
+        public Binary( Operator oper, ExprNode left, ExprNode right )
+        {
+            this.oper = oper;
+            this.left = left;
+            this.right = right;
+        }
+
+        /**
+         * Gets the operator of this operation.
+         * 
+         * @return  the operator of this operation
+         */
+        public Operator getOperator()
+        {
+            return oper;
+        }
+
+        /**
+         * Gets the left operand of this operation.
+         * 
+         * @return  the left operand of this operation
+         */
+        public ExprNode getLeft()
+        {
+            return left;
+        }
+
+        /**
+         * Gets the right operand of this operation.
+         * 
+         * @return  the right operand of this operation
+         */
+        public ExprNode getRight()
+        {
+            return right;
+        }
+
+        @Override
+        public double evaluate( double[] vars )
+        {
+            double  val =
+                oper.apply( left.evaluate( vars ), right.evaluate( vars ) );
+            return val;
+        }
+
+        @Override
+        public <R> R accept( ExprVisitor<R> visitor )
+        {
+            return visitor.visit( this );
+        }
+
+        @Override
+        int precedence()
+        {
+            return oper.getPrecedence();
+        }
+
+        @Override
+        public String toString()
+        {
+            int     prec        = oper.getPrecedence();
+            int     leftPrec    = left.precedence();
+            int     rightPrec   = right.precedence();
+            boolean leftParen   =
+                leftPrec < prec || (!oper.isLeftAssoc() && leftPrec == prec);
+            boolean rightParen  =
+                rightPrec < prec || (oper.isLeftAssoc() && rightPrec == prec);
+            StringBuilder   bldr    = new StringBuilder();
+            bldr.append( parenthesize( left, leftParen ) )
+                .append( ' ' ).append( oper.getSymbol() ).append( ' ' )
+                .append( parenthesize( right, rightParen ) );
+            return bldr.toString();
+        }
+    }
+
+    /**
+     * Function call.
+     * 
+     * @author Jack Straub
+     */
+    public static class Call extends ExprNode
+    {
+        /** The function invoked by this call. */
+        private final ExprFunction  function;
+        /** The arguments passed to the function. */
+        private final ExprNode[]    args;
+
+        /**
+         * Constructor.
+         * Establishes the function invoked by this call,
+         * and the arguments passed to it.
+         * 
+         * @param function  the function invoked by this call
+         * @param args      the arguments passed to the function
+         */
+        public Call( ExprFunction function, List<ExprNode> args )
+        {
+            this.function = function;
+            this.args = args.toArray( new ExprNode[0] );
+        }
+
+        /**
+         * Gets the function invoked by this call.
+         * 
+         * @return  the function invoked by this call
+         */
+        public ExprFunction getFunction()
+        {
+            return function;
+        }
+
+        /**
+         * Gets the arguments passed to the function.
+         * 
+         * @return  the arguments passed to the function
+         */
+        public List<ExprNode> getArgs()
+        {
+            return List.of( args );
+        }
+
+        @Override
+        public double evaluate( double[] vars )
+        {
+            double[]    vals    = new double[args.length];
+            for ( int inx = 0 ; inx < vals.length ; ++inx )
+                vals[inx] = args[inx].evaluate( vars );
+            double      val     = function.apply( vals );
+            return val;
+        }
+
+        @Override
+        public <R> R accept( ExprVisitor<R> visitor )
+        {
+            return visitor.visit( this );
+        }
+
+        @Override
+        int precedence()
+        {
+            return operandPrec;
+        }
+
+        @Override
+        public String toString()
+        {
+            String  str =
+                Arrays.stream( args )
+                    .map( ExprNode::toString )
+                    .collect( Collectors.joining(
+                        ", ", function.getName() + "(", ")"
+                    ));
+            return str;
+        }
+    }
+
+    /**
+     * Enumerates the binary operators
+     * that may appear in an expression.
+     * Precedence and associativity
+     * are the same as for exp4j.
+     * 
+     * @author Jack Straub
+     */
+    public enum Operator
+    {
+        /** Addition. */
+        ADD( "+", 10, true ),
+        /** Subtraction. */
+        SUBTRACT( "-", 10, true ),
+        /** Multiplication. */
+        MULTIPLY( "*", 20, true ),
+        /** Division. */
+        DIVIDE( "/", 20, true ),
+        /** Remainder. */
+        MODULO( "%", 20, true ),
+        /** Exponentiation; binds more tightly than unary minus. */
+        POWER( "^", 60, false );
+
+        /** The symbol that represents this operator. */
+        private final String    symbol;
+        /** The precedence of this operator. */
+        private final int       prec;
+        /** True if this operator is left-associative. */
+        private final boolean   leftAssoc;
+
+        /**
+         * Constructor.
+         * Establishes the symbol, precedence
+         * and associativity of this operator.
+         * 
+         * @param symbol    the symbol that represents this operator
+         * @param prec      the precedence of this operator
+         * @param leftAssoc true if this operator is left-associative
+         */
+        private Operator( String symbol, int prec, boolean leftAssoc )
+        {
+            this.symbol = symbol;
+            this.prec = prec;
+            this.leftAssoc = leftAssoc;
+        }
+
+        /**
+         * Gets the symbol that represents this operator.
+         * 
+         * @return  the symbol that represents this operator
+         */
+        public String getSymbol()
+        {
+            return symbol;
+        }
+
+        /**
+         * Gets the precedence of this operator.
+         * 
+         * @return  the precedence of this operator
+         */
+        public int getPrecedence()
+        {
+            return prec;
+        }
+
+        /**
+         * Returns true if this operator is left-associative.
+         * 
+         * @return  true if this operator is left-associative
+         */
+        public boolean isLeftAssoc()
+        {
+            return leftAssoc;
+        }
+
+        /**
+         * Applies this operator to the given operands.
+         * 
+         * @param left  the left operand
+         * @param right the right operand
+         * 
+         * @return  the result of the operation
+         */
+        public double apply( double left, double right )
+        {
+            double  result  = 0;
+            switch ( this )
+            {
+            case ADD:
+                result = left + right;
+                break;
+            case SUBTRACT:
+                result = left - right;
+                break;
+            case MULTIPLY:
+                result = left * right;
+                break;
+            case DIVIDE:
+                result = left / right;
+                break;
+            case MODULO:
+                result = left % right;
+                break;
+            case POWER:
+                result = Math.pow( left, right );
+                break;
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Converts a given node to a string,
+     * enclosing it in parentheses if required.
+     * 
+     * @param node      the given node
+     * @param required  true if parentheses are required
+     * 
+     * @return  the string representation of the given node
+     */
+    private static String parenthesize( ExprNode node, boolean required )
+    {
+        String  str = required ? "(" + node + ")" : node.toString();
+        return str;
+    }
+}
@@ -0,0 +1,227 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rewrites an expression tree
+ * produced by {@linkplain ExprParser}
+ * into an equivalent tree
+ * that is cheaper to evaluate.
+ * The rewriting takes place in a single bottom-up pass:
+ * <ul>
+ * <li>
+ *     A variable whose value is known in advance,
+ *     such as a constant declared with a <em>set</em> command,
+ *     is replaced by its value.
+ * </li>
+ * <li>
+ *     An operation or function call
+ *     whose operands are all constants
+ *     is evaluated,
+ *     and replaced by its value.
+ *     All the functions known to {@linkplain ExprFunction}
+ *     are pure,
+ *     so this includes calls to custom functions
+ *     such as <em>toRadians</em> and <em>sec</em>.
+ * </li>
+ * <li>
+ *     Cheap algebraic identities are applied:
+ *     <em>a + 0</em>, <em>0 + a</em>, <em>a - 0</em>,
+ *     <em>a * 1</em>, <em>1 * a</em>, <em>a / 1</em>
+ *     and <em>a ^ 1</em>
+ *     are replaced by <em>a</em>;
+ *     <em>a ^ 0</em> is replaced by 1;
+ *     <em>0 - a</em> is replaced by <em>-a</em>;
+ *     and <em>--a</em> is replaced by <em>a</em>.
+ * </li>
+ * </ul>
+ * <p>
+ * Identities that are not valid
+ * for every double value,
+ * such as <em>a * 0 = 0</em>
+ * (which does not hold if <em>a</em> is infinite or NaN),
+ * are not applied.
+ * A constant operation whose value is not finite,
+ * such as <em>1 / 0</em>,
+ * is not folded,
+ * so that the optimized expression
+ * fails in the same way as the original.
+ * </p>
+ * <p>
+ * Variables that remain in the optimized tree
+ * keep the slots they were assigned by the parser.
+ * </p>
+ * 
+ * @author Jack Straub
+ * 
+ * @see ExprParser
+ * @see Equation#getOptimizedExpression(String)
+ */
+public class ExprOptimizer implements ExprVisitor<ExprNode>
+{
+    /** The values of the variables to replace by constants. */
+    private final Map<String,Double>    constants;
+
+    /**
+     * Constructor.
+     * Establishes the variables
+     * whose values are known in advance.
+     * Any variable not in the given map
+     * is left in the optimized tree.
+     * 
+     * @param constants
+     *      map of the names of the variables
+     *      to replace by constants,
+     *      to their values
+     */
+    public ExprOptimizer( Map<String,Double> constants )
+    {
+        this.constants = Map.copyOf( constants );
+    }
+
+    /**
+     * Optimizes the tree rooted at a given node.
+     * 
+     * @param root  the given node
+     * 
+     * @return  the root of the optimized tree
+     */
+    public ExprNode optimize( ExprNode root )
+    {
+        ExprNode    result  = root.accept( this );
+        return result;
+    }
+
+    @Override
+    public ExprNode visit( ExprNode.Constant node )
+    {
+        return node;
+    }
+
+    @Override
+    public ExprNode visit( ExprNode.Variable node )
+    {
+        ExprNode    result  = node;
+        Double      value   = constants.get( node.getName() );
+        if ( value != null )
+            result = new ExprNode.Constant( value );
+        return result;
+    }
+
+    @Override
+    public ExprNode visit( ExprNode.Negate node )
+    {
+        ExprNode    operand = node.getOperand().accept( this );
+        ExprNode    result  = null;
+        if ( operand instanceof ExprNode.Constant )
+            result = fold( new ExprNode.Negate( operand ) );
+        else if ( operand instanceof ExprNode.Negate )
+            result = ((ExprNode.Negate)operand).getOperand();
+        else
+            result = new ExprNode.Negate( operand );
+        return result;
+    }
+
+    @Override
+    public ExprNode visit( ExprNode.Binary node )
+    {
+        ExprNode.Operator   oper    = node.getOperator();
+        ExprNode            left    = node.getLeft().accept( this );
+        ExprNode            right   = node.getRight().accept( this );
+        ExprNode            result  = null;
+        if ( isConstant( left ) && isConstant( right ) )
+            result = fold( new ExprNode.Binary( oper, left, right ) );
+        else if ( oper == ExprNode.Operator.ADD && isValue( right, 0 ) )
+            result = left;
+        else if ( oper == ExprNode.Operator.ADD && isValue( left, 0 ) )
+            result = right;
+        else if ( oper == ExprNode.Operator.SUBTRACT && isValue( right, 0 ) )
+            result = left;
+        else if ( oper == ExprNode.Operator.SUBTRACT && isValue( left, 0 ) )
+            result = new ExprNode.Negate( right ).accept( this );
+        else if ( oper == ExprNode.Operator.MULTIPLY && isValue( right, 1 ) )
+            result = left;
+        else if ( oper == ExprNode.Operator.MULTIPLY && isValue( left, 1 ) )
+            result = right;
+        else if ( oper == ExprNode.Operator.DIVIDE && isValue( right, 1 ) )
+            result = left;
+        else if ( oper == ExprNode.Operator.POWER && isValue( right, 1 ) )
+            result = left;
+        else if ( oper == ExprNode.Operator.POWER && isValue( right, 0 ) )
+            result = new ExprNode.Constant( 1 );
+        else
+            result = new ExprNode.Binary( oper, left, right );
+        return result;
+    }
+
+    @Override
+    public ExprNode visit( ExprNode.Call node )
+    {
+        List<ExprNode>  args        = new ArrayList<>();
+        boolean         allConst    = true;
+        for ( ExprNode arg : node.getArgs() )
+        {
+            ExprNode    optArg  = arg.accept( this );
+            allConst &= isConstant( optArg );
+            args.add( optArg );
+        }
+        ExprNode        result      =
+            new ExprNode.Call( node.getFunction(), args );
+        if ( allConst )
+            result = fold( result );
+        return result;
+    }
+
+    /**
+     * Evaluates a given node
+     * whose operands are all constants,
+     * and returns a constant with the result.
+     * If the result is not finite
+     * the given node is returned unchanged.
+     * 
+     * @param node  the given node
+     * 
+     * @return
+     *      a constant with the value of the given node,
+     *      or the given node if its value is not finite
+     */
+    private static ExprNode fold( ExprNode node )
+    {
+        ExprNode    result  = node;
+        double      value   = node.evaluate( new double[0] );
+        if ( Double.isFinite( value ) )
+            result = new ExprNode.Constant( value );
+        return result;
+    }
+
+    /**
+     * Determines whether a given node is a constant.
+     * 
+     * @param node  the given node
+     * 
+     * @return  true if the given node is a constant
+     */
+    private static boolean isConstant( ExprNode node )
+    {
+        return node instanceof ExprNode.Constant;
+    }
+
+    /**
+     * Determines whether a given node
+     * is a constant with a given value.
+     * 
+     * @param node  the given node
+     * @param value the given value
+     * 
+     * @return  true if the given node is a constant with the given value
+     */
+    private static boolean isValue( ExprNode node, double value )
+    {
+        boolean result  =
+            isConstant( node )
+            && ((ExprNode.Constant)node).getValue() == value;
+        return result;
+    }
+}
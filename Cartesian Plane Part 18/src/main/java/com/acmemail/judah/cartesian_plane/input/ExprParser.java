@@ -0,0 +1,683 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Parses an expression string
+ * into a tree of {@linkplain ExprNode} objects.
+ * The syntax accepted
+ * is the syntax accepted by exp4j:
+ * <ul>
+ * <li>
+ *     The binary operators +, -, *, /, % and ^,
+ *     with the usual precedence;
+ *     ^ is right-associative
+ *     and binds more tightly than unary minus,
+ *     so <em>-2^2</em> is -4.
+ * </li>
+ * <li>
+ *     The unary operators + and -.
+ * </li>
+ * <li>
+ *     Implicit multiplication,
+ *     as in <em>2x</em>, <em>3sin(t)</em> and <em>(a + b)(a - b)</em>.
+ * </li>
+ * <li>
+ *     The constants <em>pi, &pi;, e</em> and <em>&phi;</em>.
+ * </li>
+ * <li>
+ *     All functions known to {@linkplain ExprFunction}.
+ * </li>
+ * <li>
+ *     Any variable in the set of variable names
+ *     passed to the constructor.
+ * </li>
+ * </ul>
+ * <p>
+ * As with exp4j,
+ * an identifier that is not itself a known name
+ * is split into the longest known name
+ * that prefixes it
+ * followed by whatever remains;
+ * given variables <em>x</em> and <em>y</em>
+ * the identifier <em>xy</em>
+ * is parsed as <em>x * y</em>.
+ * </p>
+ * <p>
+ * Each distinct variable in a parsed expression
+ * is assigned a slot,
+ * in order of first appearance;
+ * after a successful parse
+ * the names of the variables, in slot order,
+ * can be obtained from
+ * {@linkplain #getVariableNames()}.
+ * </p>
+ * 
+ * @author Jack Straub
+ * 
+ * @see ExprNode
+ */
+public class ExprParser
+{
+    /** Named constants recognized by the parser. */
+    private static final Map<String,Double> constants   =
+        new LinkedHashMap<>();
+
+    static
+    {
+        constants.put( "pi", Math.PI );
+        constants.put( "\u03C0", Math.PI );
+        constants.put( "e", Math.E );
+        // Same value as exp4j
+        constants.put( "\u03C6", 1.61803398874 );
+    }
+
+    /** Names of the variables that may appear in an expression. */
+    private final Set<String>   varNames;
+    /** Names of the variables in the last parsed expression. */
+    private final List<String>  slots   = new ArrayList<>();
+    /** The tokens in the expression being parsed. */
+    private List<Token>         tokens;
+    /** Index of the next token to parse. */
+    private int                 next;
+
+    /**
+     * Constructor.
+     * Establishes the set of variable names
+     * that may appear in an expression.
+     * 
+     * @param varNames  the set of variable names
+     */
+    public ExprParser( Collection<String> varNames )
+    {
+        this.varNames = new HashSet<>( varNames );
+    }
+
+    /**
+     * Parses a given expression string.
+     * 
+     * @param exprStr   the given expression string
+     * 
+     * @return  the root of the parsed expression tree
+     * 
+     * @throws ValidationException if the expression string is invalid
+     */
+    public ExprNode parse( String exprStr )
+    {
+        slots.clear();
+        tokens = tokenize( exprStr );
+        next = 0;
+        if ( peek().type == TokenType.END )
+            throw new ValidationException( "Expression can not be empty" );
+        ExprNode    root    = expression();
+        Token       token   = peek();
+        if ( token.type == TokenType.RPAREN )
+            throw error( "Mismatched parentheses", token );
+        if ( token.type != TokenType.END )
+            throw error( "Unexpected token '" + token.text + "'", token );
+        return root;
+    }
+
+    /**
+     * Gets the names of the variables
+     * in the last parsed expression,
+     * in slot order.
+     * 
+     * @return  the names of the variables in the last parsed expression
+     */
+    public List<String> getVariableNames()
+    {
+        List<String>    list    = Collections.unmodifiableList( slots );
+        return list;
+    }
+
+    /**
+     * Returns true if the expressions of a given Equation
+     * are written in the syntax accepted by this parser,
+     * and call functions with the same meaning.
+     * That is so for an {@linkplain Exp4jEquation}
+     * and a {@linkplain CompiledEquation};
+     * it is not so for a {@linkplain JEPEquation},
+     * in which, for example,
+     * <em>log</em> is the base 10 logarithm.
+     *
+     * @param equation  the given Equation
+     *
+     * @return  true if this parser accepts the given Equation's syntax
+     */
+    public static boolean accepts( Equation equation )
+    {
+        boolean result  =
+            equation instanceof Exp4jEquation
+            || equation instanceof CompiledEquation;
+        return result;
+    }
+
+    /**
+     * Gets an unmodifiable map of the named constants
+     * recognized by the parser.
+     * 
+     * @return  map of named constants
+     */
+    public static Map<String,Double> getConstants()
+    {
+        Map<String,Double>  map = Collections.unmodifiableMap( constants );
+        return map;
+    }
+
+    /**
+     * Parses a sequence of terms
+     * separated by the binary + and - operators.
+     * 
+     * @return  the root of the parsed subtree
+     */
+    private ExprNode expression()
+    {
+        ExprNode    node    = term();
+        while ( isOperator( peek(), '+', '-' ) )
+        {
+            Token               token   = nextToken();
+            ExprNode.Operator   oper    =
+                token.text.equals( "+" ) ?
+                ExprNode.Operator.ADD :
+                ExprNode.Operator.SUBTRACT;
+            node = new ExprNode.Binary( oper, node, term() );
+        }
+        return node;
+    }
+
+    /**
+     * Parses a sequence of factors
+     * separated by the *, / and % operators,
+     * or implicitly multiplied.
+     * 
+     * @return  the root of the parsed subtree
+     */
+    private ExprNode term()
+    {
+        ExprNode    node    = factor();
+        boolean     done    = false;
+        while ( !done )
+        {
+            Token   token   = peek();
+            if ( isOperator( token, '*', '/', '%' ) )
+            {
+                nextToken();
+                node = new ExprNode.Binary( toOperator( token ), node, factor() );
+            }
+            else if ( startsOperand( token ) )
+            {
+                // Implicit multiplication; exp4j does not allow a
+                // number to immediately follow another number.
+                Token   prev    = tokens.get( next - 1 );
+                if ( prev.type == TokenType.NUMBER
+                    && token.type == TokenType.NUMBER )
+                    throw error( "Unable to parse '" + token.text + "'", token );
+                node =
+                    new ExprNode.Binary(
+                        ExprNode.Operator.MULTIPLY,
+                        node,
+                        factor()
+                    );
+            }
+            else
+                done = true;
+        }
+        return node;
+    }
+
+    /**
+     * Parses an optionally signed power.
+     * 
+     * @return  the root of the parsed subtree
+     */
+    private ExprNode factor()
+    {
+        ExprNode    node    = null;
+        Token       token   = peek();
+        if ( isOperator( token, '-' ) )
+        {
+            nextToken();
+            node = new ExprNode.Negate( factor() );
+        }
+        else if ( isOperator( token, '+' ) )
+        {
+            nextToken();
+            node = factor();
+        }
+        else
+            node = power();
+        return node;
+    }
+
+    /**
+     * Parses a primary expression,
+     * optionally raised to a power.
+     * Exponentiation is right-associative.
+     * 
+     * @return  the root of the parsed subtree
+     */
+    private ExprNode power()
+    {
+        ExprNode    node    = primary();
+        if ( isOperator( peek(), '^' ) )
+        {
+            nextToken();
+            node =
+                new ExprNode.Binary( ExprNode.Operator.POWER, node, factor() );
+        }
+        return node;
+    }
+
+    /**
+     * Parses a number, constant, variable,
+     * function call or parenthesized expression.
+     * 
+     * @return  the root of the parsed subtree
+     */
+    private ExprNode primary()
+    {
+        ExprNode    node    = null;
+        Token       token   = nextToken();
+        switch ( token.type )
+        {
+        case NUMBER:
+            node = new ExprNode.Constant( token.value );
+            break;
+        case CONSTANT:
+            node = new ExprNode.Constant( token.value, token.text );
+            break;
+        case VARIABLE:
+            int slot    = slots.indexOf( token.text );
+            if ( slot < 0 )
+            {
+                slot = slots.size();
+                slots.add( token.text );
+            }
+            node = new ExprNode.Variable( token.text, slot );
+            break;
+        case FUNCTION:
+            node = call( token );
+            break;
+        case LPAREN:
+            node = expression();
+            if ( nextToken().type != TokenType.RPAREN )
+                throw error( "Mismatched parentheses", token );
+            break;
+        case END:
+            throw error( "Unexpected end of expression", token );
+        default:
+            throw error( "Unexpected token '" + token.text + "'", token );
+        }
+        return node;
+    }
+
+    /**
+     * Parses the argument list
+     * of a function call.
+     * 
+     * @param funkToken the token that names the function
+     * 
+     * @return  the root of the parsed subtree
+     */
+    private ExprNode call( Token funkToken )
+    {
+        ExprFunction    funk    = ExprFunction.get( funkToken.text );
+        List<ExprNode>  args    = new ArrayList<>();
+        if ( nextToken().type != TokenType.LPAREN )
+            throw error(
+                "Missing argument list for function '" + funkToken.text + "'",
+                funkToken
+            );
+        args.add( expression() );
+        while ( peek().type == TokenType.COMMA )
+        {
+            nextToken();
+            args.add( expression() );
+        }
+        if ( nextToken().type != TokenType.RPAREN )
+            throw error( "Mismatched parentheses", funkToken );
+        if ( args.size() != funk.getArity() )
+            throw error(
+                "Invalid number of arguments for function '"
+                    + funkToken.text + "'",
+                funkToken
+            );
+        ExprNode    node    = new ExprNode.Call( funk, args );
+        return node;
+    }
+
+    /**
+     * Returns true if a given token
+     * can begin an operand
+     * that is implicitly multiplied
+     * by a preceding operand.
+     * 
+     * @param token the given token
+     * 
+     * @return  true if the given token can begin an operand
+     */
+    private boolean startsOperand( Token token )
+    {
+        boolean result  =
+            token.type == TokenType.NUMBER
+            || token.type == TokenType.CONSTANT
+            || token.type == TokenType.VARIABLE
+            || token.type == TokenType.FUNCTION
+            || token.type == TokenType.LPAREN;
+        return result;
+    }
+
+    /**
+     * Returns true if a given token
+     * is one of a given set of operators.
+     * 
+     * @param token the given token
+     * @param opers the given set of operators
+     * 
+     * @return  true if the given token is one of the given operators
+     */
+    private static boolean isOperator( Token token, char... opers )
+    {
+        boolean result  = false;
+        if ( token.type == TokenType.OPERATOR )
+            for ( char oper : opers )
+                if ( token.text.charAt( 0 ) == oper )
+                    result = true;
+        return result;
+    }
+
+    /**
+     * Converts a token
+     * representing a binary operator
+     * to its corresponding Operator.
+     * 
+     * @param token the token to convert
+     * 
+     * @return  the corresponding Operator
+     */
+    private static ExprNode.Operator toOperator( Token token )
+    {
+        ExprNode.Operator   oper    = null;
+        for ( ExprNode.Operator test : ExprNode.Operator.values() )
+            if ( test.getSymbol().equals( token.text ) )
+                oper = test;
+        return oper;
+    }
+
+    /**
+     * Returns the next token to parse
+     * without consuming it.
+     * 
+     * @return  the next token to parse
+     */
+    private Token peek()
+    {
+        return tokens.get( next );
+    }
+
+    /**
+     * Consumes and returns the next token to parse.
+     * The END token is never consumed.
+     * 
+     * @return  the next token to parse
+     */
+    private Token nextToken()
+    {
+        Token   token   = tokens.get( next );
+        if ( token.type != TokenType.END )
+            ++next;
+        return token;
+    }
+
+    /**
+     * Splits a given expression string into tokens.
+     * The last token in the list
+     * is always an END token.
+     * 
+     * @param exprStr   the given expression string
+     * 
+     * @return  the list of tokens in the given expression string
+     * 
+     * @throws ValidationException if an invalid token is encountered
+     */
+    private List<Token> tokenize( String exprStr )
+    {
+        List<Token> list    = new ArrayList<>();
+        int         len     = exprStr.length();
+        int         pos     = 0;
+        while ( pos < len )
+        {
+            char    ccc     = exprStr.charAt( pos );
+            int     start   = pos;
+            if ( Character.isWhitespace( ccc ) )
+                ++pos;
+            else if ( Character.isDigit( ccc ) || ccc == '.' )
+            {
+                pos = scanNumber( exprStr, pos );
+                String  text    = exprStr.substring( start, pos );
+                double  value   = 0;
+                try
+                {
+                    value = Double.parseDouble( text );
+                }
+                catch ( NumberFormatException exc )
+                {
+                    String  msg =
+                        "Invalid number '" + text + "' at position " + start;
+                    throw new ValidationException( msg, exc );
+                }
+                list.add( new Token( TokenType.NUMBER, text, value, start ) );
+            }
+            else if ( isIdentifierStart( ccc ) )
+            {
+                Token   token   = scanIdentifier( exprStr, pos );
+                list.add( token );
+                pos += token.text.length();
+            }
+            else if ( "+-*/%^".indexOf( ccc ) >= 0 )
+            {
+                String  text    = String.valueOf( ccc );
+                list.add( new Token( TokenType.OPERATOR, text, 0, pos++ ) );
+            }
+            else if ( ccc == '(' )
+                list.add( new Token( TokenType.LPAREN, "(", 0, pos++ ) );
+            else if ( ccc == ')' )
+                list.add( new Token( TokenType.RPAREN, ")", 0, pos++ ) );
+            else if ( ccc == ',' )
+                list.add( new Token( TokenType.COMMA, ",", 0, pos++ ) );
+            else
+            {
+                String  msg =
+                    "Unable to parse char '" + ccc + "' at position " + pos;
+                throw new ValidationException( msg );
+            }
+        }
+        list.add( new Token( TokenType.END, "", 0, len ) );
+        return list;
+    }
+
+    /**
+     * Finds the end of a number
+     * beginning at a given position
+     * in a given string.
+     * An exponent is recognized
+     * only if the 'e' or 'E' is followed by a digit,
+     * or by a sign and a digit;
+     * otherwise the 'e' is left to be parsed
+     * as the constant <em>e</em>.
+     * 
+     * @param str   the given string
+     * @param pos   the given position
+     * 
+     * @return  the position immediately following the number
+     */
+    private static int scanNumber( String str, int pos )
+    {
+        int     len     = str.length();
+        while ( pos < len
+            && (Character.isDigit( str.charAt( pos ) )
+                || str.charAt( pos ) == '.') )
+            ++pos;
+        if ( pos < len && (str.charAt( pos ) == 'e' || str.charAt( pos ) == 'E') )
+        {
+            int     expPos  = pos + 1;
+            if ( expPos < len
+                && (str.charAt( expPos ) == '+' || str.charAt( expPos ) == '-') )
+                ++expPos;
+            if ( expPos < len && Character.isDigit( str.charAt( expPos ) ) )
+            {
+                pos = expPos;
+                while ( pos < len && Character.isDigit( str.charAt( pos ) ) )
+                    ++pos;
+            }
+        }
+        return pos;
+    }
+
+    /**
+     * Scans the identifier
+     * beginning at a given position
+     * in a given string,
+     * returning a token for the longest known name
+     * that prefixes it.
+     * 
+     * @param str   the given string
+     * @param pos   the given position
+     * 
+     * @return  a token for the longest known name at the given position
+     * 
+     * @throws ValidationException if no known name is found
+     */
+    private Token scanIdentifier( String str, int pos )
+    {
+        int     end     = pos + 1;
+        while ( end < str.length() && isIdentifierPart( str.charAt( end ) ) )
+            ++end;
+        Token   token   = null;
+        for ( int inx = end ; token == null && inx > pos ; --inx )
+        {
+            String  name    = str.substring( pos, inx );
+            if ( varNames.contains( name ) )
+                token = new Token( TokenType.VARIABLE, name, 0, pos );
+            else if ( constants.containsKey( name ) )
+                token =
+                    new Token(
+                        TokenType.CONSTANT,
+                        name,
+                        constants.get( name ),
+                        pos
+                    );
+            else if ( ExprFunction.get( name ) != null )
+                token = new Token( TokenType.FUNCTION, name, 0, pos );
+        }
+        if ( token == null )
+        {
+            String  msg =
+                "Unknown function or variable '"
+                    + str.substring( pos, end )
+                    + "' at position " + pos;
+            throw new ValidationException( msg );
+        }
+        return token;
+    }
+
+    /**
+     * Returns true if a given character
+     * can begin an identifier.
+     * 
+     * @param ccc   the given character
+     * 
+     * @return  true if the given character can begin an identifier
+     */
+    private static boolean isIdentifierStart( char ccc )
+    {
+        boolean result  = Character.isLetter( ccc ) || ccc == '_';
+        return result;
+    }
+
+    /**
+     * Returns true if a given character
+     * can continue an identifier.
+     * 
+     * @param ccc   the given character
+     * 
+     * @return  true if the given character can continue an identifier
+     */
+    private static boolean isIdentifierPart( char ccc )
+    {
+        boolean result  = Character.isLetterOrDigit( ccc ) || ccc == '_';
+        return result;
+    }
+
+    /**
+     * Creates an exception
+     * describing an error at a given token.
+     * 
+     * @param msg   text describing the error
+     * @param token the given token
+     * 
+     * @return  an exception describing the error
+     */
+    private static ValidationException error( String msg, Token token )
+    {
+        String  text    = msg + " at position " + token.pos;
+        return new ValidationException( text );
+    }
+
+    /**
+     * Enumerates the types of token
+     * that may appear in an expression.
+     */
+    private enum TokenType
+    {
+        NUMBER,
+        CONSTANT,
+        VARIABLE,
+        FUNCTION,
+        OPERATOR,
+        LPAREN,
+        RPAREN,
+        COMMA,
+        END
+    }
+
+    /**
+     * Token in an expression string.
+     */
+    private static class Token
+    {
+        /** The type of this token. */
+        private final TokenType type;
+        /** The text of this token. */
+        private final String    text;
+        /** The value of a NUMBER or CONSTANT token. */
+        private final double    value;
+        /** The position of this token in the expression string. */
+        private final int       pos;
+
+        /**
+         * Constructor.
+         * Establishes the properties of this token.
+         * 
+         * @param type  the type of this token
+         * @param text  the text of this token
+         * @param value the value of this token
+         * @param pos   the position of this token
+         */
+        Token( TokenType type, String text, double value, int pos )
+        {
+            this.type = type;
+            this.text = text;
+            this.value = value;
+            this.pos = pos;
+        }
+    }
+}
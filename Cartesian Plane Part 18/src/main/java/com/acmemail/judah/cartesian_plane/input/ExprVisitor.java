@@ -0,0 +1,62 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+/**
+ * Visitor for traversing
+ * an expression tree
+ * produced by {@linkplain ExprParser}.
+ * There is one method
+ * for each type of node in the tree.
+ * 
+ * @author Jack Straub
+ * 
+ * @param <R>   the type of value produced by the visitor
+ * 
+ * @see ExprNode#accept(ExprVisitor)
+ */
+public interface ExprVisitor<R>
+{
+    /**
+     * Visits a numeric constant.
+     * 
+     * @param node  the node to visit
+     * 
+     * @return  the result of visiting the node
+     */
+    R visit( ExprNode.Constant node );
+
+    /**
+     * Visits a variable.
+     * 
+     * @param node  the node to visit
+     * 
+     * @return  the result of visiting the node
+     */
+    R visit( ExprNode.Variable node );
+
+    /**
+     * Visits a unary minus operation.
+     * 
+     * @param node  the node to visit
+     * 
+     * @return  the result of visiting the node
+     */
+    R visit( ExprNode.Negate node );
+
+    /**
+     * Visits a binary operation.
+     * 
+     * @param node  the node to visit
+     * 
+     * @return  the result of visiting the node
+     */
+    R visit( ExprNode.Binary node );
+
+    /**
+     * Visits a function call.
+     * 
+     * @param node  the node to visit
+     * 
+     * @return  the result of visiting the node
+     */
+    R visit( ExprNode.Call node );
+}
@@ -0,0 +1,262 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Least-recently-used cache
+ * of parsed expressions.
+ * An entry is keyed by the text of an expression
+ * together with the set of variable names
+ * that were declared when it was parsed;
+ * the same text parsed against
+ * a different set of variables
+ * is a different entry.
+ * When the cache is full
+ * the least recently used entry is discarded.
+ * <p>
+ * The cache keeps a count of hits and misses,
+ * for the purpose of tuning.
+ * All operations are thread-safe.
+ * Parsing takes place outside of any lock,
+ * so two threads that miss on the same key
+ * at the same time
+ * may both parse the expression;
+ * the result is the same either way.
+ * </p>
+ * <p>
+ * The cached objects are shared
+ * by every user of the cache;
+ * a user that needs to modify a cached object,
+ * for example to set the values of its variables,
+ * must either copy it first
+ * or synchronize on it.
+ * </p>
+ * 
+ * @author Jack Straub
+ * 
+ * @param <T>   the type of a parsed expression
+ * 
+ * @see Equation#evaluate(String)
+ */
+public class ExpressionCache<T>
+{
+    /** Default maximum number of entries in a cache. */
+    public static final int DEFAULT_CAPACITY    = 256;
+
+    /** Maximum number of entries in this cache. */
+    private final int           capacity;
+    /** The entries in this cache, in access order. */
+    private final Map<Key,T>    map;
+    /** Number of lookups that found an entry. */
+    private long                hits        = 0;
+    /** Number of lookups that did not find an entry. */
+    private long                misses      = 0;
+
+    /**
+     * Default constructor.
+     * Instantiates a cache
+     * with a default capacity.
+     */
+    public ExpressionCache()
+    {
+        this( DEFAULT_CAPACITY );
+    }
+
+    /**
+     * Constructor.
+     * Instantiates a cache
+     * with a given capacity.
+     * 
+     * @param capacity  the given capacity
+     * 
+     * @throws IllegalArgumentException if capacity is not positive
+     */
+    public ExpressionCache( int capacity )
+    {
+        if ( capacity < 1 )
+        {
+            String  msg = "Invalid capacity: " + capacity;
+            throw new IllegalArgumentException( msg );
+        }
+        this.capacity = capacity;
+        map = new LinkedHashMap<>( 16, .75f, true ) {
+            private static final long serialVersionUID = 1L;
+            @Override
+            protected boolean removeEldestEntry( Map.Entry<Key,T> eldest )
+            {
+                return size() > ExpressionCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the parsed expression
+     * for a given expression string
+     * and set of variable names.
+     * If the expression is not in the cache
+     * it is parsed by a given function,
+     * and the result is added to the cache.
+     * If the function returns null,
+     * indicating that the expression is invalid,
+     * nothing is added to the cache
+     * and null is returned.
+     * 
+     * @param exprStr   the given expression string
+     * @param varNames  the given set of variable names
+     * @param parser    function to parse the expression
+     * 
+     * @return  the parsed expression, or null if invalid
+     */
+    public T get(
+        String exprStr,
+        Set<String> varNames,
+        Function<String,T> parser
+    )
+    {
+        Key key     = new Key( exprStr, varNames );
+        T   value   = null;
+        synchronized ( this )
+        {
+            value = map.get( key );
+            if ( value != null )
+                ++hits;
+            else
+                ++misses;
+        }
+
+        if ( value == null )
+        {
+            value = parser.apply( exprStr );
+            if ( value != null )
+            {
+                synchronized ( this )
+                {
+                    map.put( key, value );
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Returns the maximum number of entries
+     * in this cache.
+     * 
+     * @return  the maximum number of entries in this cache
+     */
+    public int getCapacity()
+    {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of entries
+     * currently in this cache.
+     * 
+     * @return  the number of entries currently in this cache
+     */
+    public synchronized int size()
+    {
+        return map.size();
+    }
+
+    /**
+     * Returns the number of lookups
+     * that found an entry in this cache.
+     * 
+     * @return  the number of lookups that found an entry
+     */
+    public synchronized long getHitCount()
+    {
+        return hits;
+    }
+
+    /**
+     * Returns the number of lookups
+     * that did not find an entry in this cache.
+     * 
+     * @return  the number of lookups that did not find an entry
+     */
+    public synchronized long getMissCount()
+    {
+        return misses;
+    }
+
+    /**
+     * Discards all entries in this cache,
+     * and resets the hit and miss counts to 0.
+     */
+    public synchronized void clear()
+    {
+        map.clear();
+        hits = 0;
+        misses = 0;
+    }
+
+    @Override
+    public synchronized String toString()
+    {
+        String  str =
+            "ExpressionCache[size=" + map.size() + ",capacity=" + capacity
+            + ",hits=" + hits + ",misses=" + misses + "]";
+        return str;
+    }
+
+    /**
+     * Key to an entry in the cache:
+     * the text of an expression
+     * and the set of variable names
+     * against which it was parsed.
+     * 
+     * @author Jack Straub
+     */
+    private static class Key
+    {
+        /** The text of the expression. */
+        private final String        exprStr;
+        /** The set of variable names. */
+        private final Set<String>   varNames;
+
+        /**
+         * Constructor.
+         * The set of variable names is copied.
+         * 
+         * @param exprStr   the text of the expression
+         * @param varNames  the set of variable names
+         */
+        public Key( String exprStr, Set<String> varNames )
+        {
+            this.exprStr = exprStr;
+            this.varNames = Set.copyOf( varNames );
+        }
+
+        @Override
+        public int hashCode()
+        {
+            int hash    = Objects.hash( exprStr, varNames );
+            return hash;
+        }
+
+        @Override
+        public boolean equals( Object other )
+        {
+            boolean result  = false;
+            if ( this == other )
+                result = true;
+            else if ( !(other instanceof Key) )
+                result = false;
+            else
+            {
+                Key that    = (Key)other;
+                result =
+                    exprStr.equals( that.exprStr )
+                    && varNames.equals( that.varNames );
+            }
+            return result;
+        }
+    }
+}
@@ -321,14 +321,18 @@ public class FileManager
         lines.add("x= " + equation.getXExpression() );
         lines.add("t= " + equation.getTExpression() );
         lines.add("r= " + equation.getRExpression() );
+        lines.add("f= " + equation.getFExpression() );
+        lines.add("z= " + equation.getZExpression() );
     }
     
     /**
-     * Generates the commands to set the plot and precision.
+     * Generates the commands to set the plot, precision
+     * and auto range mode.
      */
     private static void writeMiscellaneous( Equation equation )
     {
         lines.add( "prec " + equation.getPrecision() );
+        lines.add( "autorange " + equation.isAutoRange() );
         lines.add( "plot " + equation.getPlot() );
     }
 }
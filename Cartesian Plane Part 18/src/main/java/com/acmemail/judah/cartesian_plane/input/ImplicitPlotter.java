@@ -0,0 +1,512 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import java.awt.geom.Rectangle2D;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Generates the points of the curve
+ * described by an implicit equation
+ * of the form <em>f(x,y) = 0</em>,
+ * such as <em>x<sup>2</sup> + y<sup>2</sup> - 1 = 0</em>.
+ * The curve is found by evaluating <em>f</em>
+ * over a rectangular grid
+ * and extracting the contour <em>f = 0</em>
+ * with the <em>marching squares</em> algorithm.
+ * <p>
+ * The grid is evaluated in two passes.
+ * First <em>f</em> is evaluated
+ * at the corners of a coarse grid,
+ * whose cells are several samples wide.
+ * Only a coarse cell
+ * in which the sign of <em>f</em> changes
+ * can contain part of the curve;
+ * such cells are refined
+ * into a fine grid,
+ * with one sample per step,
+ * and marching squares is applied
+ * to each cell of the fine grid.
+ * A feature of the curve
+ * that lies entirely inside a coarse cell,
+ * without changing the sign of <em>f</em>
+ * at any of its corners,
+ * is not detected.
+ * </p>
+ * <p>
+ * The grid is divided into horizontal tiles,
+ * each a band of coarse rows,
+ * which may be processed in parallel
+ * in the common fork-join pool.
+ * Each tile is processed
+ * by its own {@linkplain Evaluator},
+ * obtained from a factory supplied by the caller,
+ * and generates its own segments of the curve;
+ * the segments are stored in a {@linkplain PointBuffer}
+ * in tile order,
+ * so the result does not depend
+ * on the order in which the tiles are processed.
+ * Each segment consists of two points
+ * followed by a {@linkplain PointBuffer#addBreak() break}.
+ * </p>
+ * 
+ * @author Jack Straub
+ * 
+ * @see Equation#fPlot(PointBuffer)
+ */
+public class ImplicitPlotter
+{
+    /** The default width of a coarse cell, in steps. */
+    public static final int     DEFAULT_REFINEMENT  = 8;
+    /** The number of tiles per available processor. */
+    private static final int    tilesPerCPU         = 4;
+
+    /**
+     * Evaluates the function <em>f(x,y)</em>
+     * that describes an implicit curve.
+     * 
+     * @author Jack Straub
+     */
+    @FunctionalInterface
+    public interface Evaluator
+    {
+        /**
+         * Evaluates <em>f(x,y)</em>
+         * for given values of <em>x</em> and <em>y</em>.
+         * If <em>f</em> is undefined at the given point
+         * NaN should be returned.
+         * 
+         * @param xco   the given value of x
+         * @param yco   the given value of y
+         * 
+         * @return  the value of f(x,y), or NaN if undefined
+         */
+        double evaluate( double xco, double yco );
+    }
+
+    /**
+     * Default constructor; not used.
+     */
+    private ImplicitPlotter()
+    {
+    }
+
+    /**
+     * Generates the points of an implicit curve
+     * within given bounds,
+     * using the default refinement,
+     * and stores them in a given buffer.
+     * 
+     * @param bounds    the given bounds
+     * @param step      the distance between samples on the fine grid
+     * @param parallel  true to process tiles in parallel
+     * @param factory   factory for obtaining Evaluators
+     * @param buffer    the given buffer
+     * 
+     * @see #plot(Rectangle2D, double, int, boolean, Supplier, PointBuffer)
+     */
+    public static void plot(
+        Rectangle2D bounds,
+        double step,
+        boolean parallel,
+        Supplier<Evaluator> factory,
+        PointBuffer buffer
+    )
+    {
+        plot( bounds, step, DEFAULT_REFINEMENT, parallel, factory, buffer );
+    }
+
+    /**
+     * Generates the points of an implicit curve
+     * within given bounds,
+     * and stores them in a given buffer.
+     * The buffer is cleared
+     * before any points are stored.
+     * The width of a coarse cell
+     * is the given refinement
+     * multiplied by the given step.
+     * A new Evaluator is obtained
+     * from the given factory
+     * for every tile.
+     * If the bounds are empty
+     * or the step is not positive
+     * no points are generated.
+     * 
+     * @param bounds        the given bounds
+     * @param step
+     *      the distance between samples on the fine grid
+     * @param refinement
+     *      the number of fine cells
+     *      along each side of a coarse cell
+     * @param parallel      true to process tiles in parallel
+     * @param factory       factory for obtaining Evaluators
+     * @param buffer        the given buffer
+     * 
+     * @throws IllegalArgumentException if refinement is less than 1
+     */
+    public static void plot(
+        Rectangle2D bounds,
+        double step,
+        int refinement,
+        boolean parallel,
+        Supplier<Evaluator> factory,
+        PointBuffer buffer
+    )
+    {
+        if ( refinement < 1 )
+        {
+            String  msg = "Invalid refinement: " + refinement;
+            throw new IllegalArgumentException( msg );
+        }
+        buffer.clear();
+        if ( !(step > 0) || bounds.isEmpty() )
+            return;
+
+        double  coarse      = step * refinement;
+        int     cols        =
+            Math.max( 1, (int)Math.ceil( bounds.getWidth() / coarse ) );
+        int     rows        =
+            Math.max( 1, (int)Math.ceil( bounds.getHeight() / coarse ) );
+        int     maxTiles    =
+            tilesPerCPU * Runtime.getRuntime().availableProcessors();
+        int     numTiles    = Math.min( rows, maxTiles );
+        int     tileRows    = (rows + numTiles - 1) / numTiles;
+
+        PointBuffer[]   segments    = new PointBuffer[numTiles];
+        IntStream       tiles       = IntStream.range( 0, numTiles );
+        if ( parallel )
+            tiles = tiles.parallel();
+        tiles.forEach( t -> {
+            int     first   = t * tileRows;
+            int     last    = Math.min( rows, first + tileRows );
+            Tile    tile    =
+                new Tile( bounds, step, refinement, cols, factory.get() );
+            segments[t] = tile.plot( first, last );
+        });
+        for ( PointBuffer tileBuffer : segments )
+            buffer.addAll(
+                tileBuffer.getXArray(),
+                tileBuffer.getYArray(),
+                tileBuffer.size()
+            );
+    }
+
+    /**
+     * Encapsulates the processing
+     * of one tile of the grid.
+     * A Tile is used by a single thread.
+     * 
+     * @author Jack Straub
+     */
+    private static class Tile
+    {
+        /** The x-coordinate of the left side of the grid. */
+        private final double        xOrigin;
+        /** The y-coordinate of the bottom of the grid. */
+        private final double        yOrigin;
+        /** The distance between samples on the fine grid. */
+        private final double        step;
+        /** The width of a coarse cell. */
+        private final double        coarse;
+        /** The number of fine cells along each side of a coarse cell. */
+        private final int           refinement;
+        /** The number of columns in the coarse grid. */
+        private final int           cols;
+        /** Evaluates f(x,y). */
+        private final Evaluator     evaluator;
+        /** The values of f at the corners of the fine grid of a cell. */
+        private final double[]      fine;
+        /** The segments generated by this tile. */
+        private final PointBuffer   buffer      = new PointBuffer();
+
+        /**
+         * Constructor.
+         * Establishes the geometry of the grid
+         * and the Evaluator to use.
+         * 
+         * @param bounds        the bounds of the grid
+         * @param step          the distance between fine samples
+         * @param refinement    fine cells per side of a coarse cell
+         * @param cols          the number of columns in the coarse grid
+         * @param evaluator     the Evaluator to use
+         */
+        Tile(
+            Rectangle2D bounds,
+            double step,
+            int refinement,
+            int cols,
+            Evaluator evaluator
+        )
+        {
+            this.xOrigin = bounds.getMinX();
+            this.yOrigin = bounds.getMinY();
+            this.step = step;
+            this.coarse = step * refinement;
+            this.refinement = refinement;
+            this.cols = cols;
+            this.evaluator = evaluator;
+            this.fine = new double[(refinement + 1) * (refinement + 1)];
+        }
+
+        /**
+         * Generates the segments of the curve
+         * that lie in a given band of coarse rows.
+         * 
+         * @param first the first row in the band
+         * @param last  the row following the last row in the band
+         * 
+         * @return  buffer containing the generated segments
+         */
+        PointBuffer plot( int first, int last )
+        {
+            double[]    below   = new double[cols + 1];
+            double[]    above   = new double[cols + 1];
+            evaluateRow( first, below );
+            for ( int row = first ; row < last ; ++row )
+            {
+                evaluateRow( row + 1, above );
+                for ( int col = 0 ; col < cols ; ++col )
+                {
+                    if ( changesSign(
+                        below[col], below[col + 1],
+                        above[col + 1], above[col]
+                    ) )
+                        refine( col, row );
+                }
+                double[]    temp    = below;
+                below = above;
+                above = temp;
+            }
+            return buffer;
+        }
+
+        /**
+         * Evaluates f at the corners of the coarse grid
+         * along a given row,
+         * storing the values in a given array.
+         * 
+         * @param row       the given row
+         * @param values    the given array
+         */
+        private void evaluateRow( int row, double[] values )
+        {
+            double  yco = yOrigin + row * coarse;
+            for ( int col = 0 ; col <= cols ; ++col )
+                values[col] = evaluator.evaluate( xOrigin + col * coarse, yco );
+        }
+
+        /**
+         * Evaluates f on the fine grid
+         * of the coarse cell
+         * at a given column and row,
+         * and applies marching squares
+         * to each cell of the fine grid.
+         * 
+         * @param col   the given column
+         * @param row   the given row
+         */
+        private void refine( int col, int row )
+        {
+            double  xBase   = xOrigin + col * coarse;
+            double  yBase   = yOrigin + row * coarse;
+            int     width   = refinement + 1;
+            for ( int jnx = 0 ; jnx <= refinement ; ++jnx )
+            {
+                double  yco = yBase + jnx * step;
+                for ( int inx = 0 ; inx <= refinement ; ++inx )
+                    fine[jnx * width + inx] =
+                        evaluator.evaluate( xBase + inx * step, yco );
+            }
+
+            for ( int jnx = 0 ; jnx < refinement ; ++jnx )
+                for ( int inx = 0 ; inx < refinement ; ++inx )
+                {
+                    int     corner  = jnx * width + inx;
+                    march(
+                        xBase + inx * step,
+                        yBase + jnx * step,
+                        fine[corner],
+                        fine[corner + 1],
+                        fine[corner + width + 1],
+                        fine[corner + width]
+                    );
+                }
+        }
+
+        /**
+         * Applies marching squares to one cell of the fine grid,
+         * storing the segments of the curve
+         * that cross the cell.
+         * The corners of the cell are given
+         * in counterclockwise order,
+         * starting with the lower left.
+         * A cell with an undefined corner is ignored.
+         * 
+         * @param xco   the x-coordinate of the lower left corner
+         * @param yco   the y-coordinate of the lower left corner
+         * @param v0    the value of f at the lower left corner
+         * @param v1    the value of f at the lower right corner
+         * @param v2    the value of f at the upper right corner
+         * @param v3    the value of f at the upper left corner
+         */
+        private void march(
+            double xco,
+            double yco,
+            double v0,
+            double v1,
+            double v2,
+            double v3
+        )
+        {
+            if ( Double.isNaN( v0 + v1 + v2 + v3 ) )
+                return;
+
+            boolean p0      = v0 > 0;
+            boolean p1      = v1 > 0;
+            boolean p2      = v2 > 0;
+            boolean p3      = v3 > 0;
+            double  right   = xco + step;
+            double  top     = yco + step;
+
+            // Find the points where the curve crosses each edge;
+            // NaN if it doesn't.
+            double  nan     = Double.NaN;
+            double  bottomX = p0 != p1 ? lerp( xco, right, v0, v1 ) : nan;
+            double  rightY  = p1 != p2 ? lerp( yco, top, v1, v2 ) : nan;
+            double  topX    = p3 != p2 ? lerp( xco, right, v3, v2 ) : nan;
+            double  leftY   = p0 != p3 ? lerp( yco, top, v0, v3 ) : nan;
+
+            if ( p0 == p2 && p1 == p3 && p0 != p1 )
+            {
+                // Saddle: the curve crosses all four edges. Resolve
+                // the ambiguity using the value at the center of the
+                // cell: if its sign matches the lower left corner
+                // the lower right and upper left corners are cut off,
+                // otherwise the lower left and upper right.
+                boolean center  = (v0 + v1 + v2 + v3) / 4 > 0;
+                if ( center == p0 )
+                {
+                    addSegment( bottomX, yco, right, rightY );
+                    addSegment( xco, leftY, topX, top );
+                }
+                else
+                {
+                    addSegment( bottomX, yco, xco, leftY );
+                    addSegment( right, rightY, topX, top );
+                }
+            }
+            else
+            {
+                // Zero or two edges are crossed.
+                double  x1  = Double.NaN;
+                double  y1  = Double.NaN;
+                double  x2  = Double.NaN;
+                double  y2  = Double.NaN;
+                if ( !Double.isNaN( bottomX ) )
+                {
+                    x1 = bottomX;
+                    y1 = yco;
+                }
+                if ( !Double.isNaN( rightY ) )
+                {
+                    if ( Double.isNaN( x1 ) )
+                    {
+                        x1 = right;
+                        y1 = rightY;
+                    }
+                    else
+                    {
+                        x2 = right;
+                        y2 = rightY;
+                    }
+                }
+                if ( !Double.isNaN( topX ) )
+                {
+                    if ( Double.isNaN( x1 ) )
+                    {
+                        x1 = topX;
+                        y1 = top;
+                    }
+                    else
+                    {
+                        x2 = topX;
+                        y2 = top;
+                    }
+                }
+                if ( !Double.isNaN( leftY ) )
+                {
+                    x2 = xco;
+                    y2 = leftY;
+                }
+                if ( !Double.isNaN( x2 ) )
+                    addSegment( x1, y1, x2, y2 );
+            }
+        }
+
+        /**
+         * Adds a segment of the curve to the buffer,
+         * followed by a break.
+         * 
+         * @param x1    the x-coordinate of the first end point
+         * @param y1    the y-coordinate of the first end point
+         * @param x2    the x-coordinate of the second end point
+         * @param y2    the y-coordinate of the second end point
+         */
+        private void addSegment( double x1, double y1, double x2, double y2 )
+        {
+            buffer.add( x1, y1 );
+            buffer.add( x2, y2 );
+            buffer.addBreak();
+        }
+    }
+
+    /**
+     * Determines whether the sign of f changes
+     * across the corners of a cell.
+     * Undefined corners are ignored.
+     * 
+     * @param v0    the value of f at the first corner
+     * @param v1    the value of f at the second corner
+     * @param v2    the value of f at the third corner
+     * @param v3    the value of f at the fourth corner
+     * 
+     * @return  true if the sign of f changes across the corners
+     */
+    private static boolean
+    changesSign( double v0, double v1, double v2, double v3 )
+    {
+        int     positive    = 0;
+        int     negative    = 0;
+        positive += v0 > 0 ? 1 : 0;
+        positive += v1 > 0 ? 1 : 0;
+        positive += v2 > 0 ? 1 : 0;
+        positive += v3 > 0 ? 1 : 0;
+        negative += v0 <= 0 ? 1 : 0;
+        negative += v1 <= 0 ? 1 : 0;
+        negative += v2 <= 0 ? 1 : 0;
+        negative += v3 <= 0 ? 1 : 0;
+        boolean result  = positive > 0 && negative > 0;
+        return result;
+    }
+
+    /**
+     * Estimates, by linear interpolation,
+     * the point on an edge
+     * at which f is zero.
+     * The values of f at the ends of the edge
+     * must have opposite signs.
+     * 
+     * @param co1   the coordinate of the first end of the edge
+     * @param co2   the coordinate of the second end of the edge
+     * @param val1  the value of f at the first end of the edge
+     * @param val2  the value of f at the second end of the edge
+     * 
+     * @return  the coordinate at which f is zero
+     */
+    private static double
+    lerp( double co1, double co2, double val1, double val2 )
+    {
+        double  frac    = val1 / (val1 - val2);
+        double  result  = co1 + frac * (co2 - co1);
+        return result;
+    }
+}
@@ -0,0 +1,175 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+/**
+ * Computes the sine and cosine
+ * of a sequence of angles
+ * separated by a uniform step,
+ * such as the values of theta
+ * in a polar r-plot,
+ * without calling Math.sin and Math.cos
+ * for every angle.
+ * Given the sine and cosine
+ * of one angle, <em>t</em>,
+ * those of the next angle, <em>t + h</em>,
+ * are obtained by rotation:
+ * <pre>
+ *     cos(t + h) = cos(t)cos(h) - sin(t)sin(h)
+ *     sin(t + h) = sin(t)cos(h) + cos(t)sin(h)</pre>
+ * <p>
+ * Each rotation introduces a small rounding error,
+ * and the errors accumulate.
+ * To keep the accumulated error
+ * within a given tolerance,
+ * the sine and cosine are recalculated exactly,
+ * using Math.sin and Math.cos,
+ * at regular intervals;
+ * the length of the interval
+ * is derived from the tolerance,
+ * the step,
+ * and the magnitude of the largest angle.
+ * A tolerance of 0
+ * causes every angle to be calculated exactly.
+ * </p>
+ * <p>
+ * Angles are identified by a non-negative index:
+ * the angle with index <em>i + 1</em>
+ * is assumed to be the angle with index <em>i</em>
+ * plus the step.
+ * If an angle is requested
+ * whose index does not immediately follow
+ * that of the previous angle,
+ * it is calculated exactly.
+ * An IncrementalSinCos
+ * is not thread-safe;
+ * in a parallel plot,
+ * each task must have its own.
+ * </p>
+ * 
+ * @author Jack Straub
+ * 
+ * @see Equation#setPolarTolerance(double)
+ */
+public class IncrementalSinCos
+{
+    /**
+     * Estimated upper bound on the rounding error
+     * introduced by a single rotation.
+     */
+    private static final double rotationError   = 4 * Math.ulp( 1.0 );
+
+    /** The cosine of the step. */
+    private final double    cosStep;
+    /** The sine of the step. */
+    private final double    sinStep;
+    /** The number of rotations between exact calculations. */
+    private final int       interval;
+
+    /** The cosine of the current angle. */
+    private double          cos         = 1;
+    /** The sine of the current angle. */
+    private double          sin         = 0;
+    /** The index of the current angle; -1 if none. */
+    private long            index       = -1;
+    /** The number of rotations since the last exact calculation. */
+    private int             rotations   = 0;
+
+    /**
+     * Constructor.
+     * Establishes the step between angles,
+     * the largest angle, in absolute value,
+     * and the tolerance.
+     * 
+     * @param step      the step between angles
+     * @param maxAngle  the magnitude of the largest angle
+     * @param tolerance
+     *      the maximum error permitted
+     *      in a calculated sine or cosine
+     * 
+     * @throws IllegalArgumentException
+     *      if the tolerance is negative or NaN
+     */
+    public IncrementalSinCos( double step, double maxAngle, double tolerance )
+    {
+        if ( !(tolerance >= 0) )
+        {
+            String  msg = "Invalid tolerance: " + tolerance;
+            throw new IllegalArgumentException( msg );
+        }
+        cosStep = Math.cos( step );
+        sinStep = Math.sin( step );
+
+        // Each step contributes the rounding error of the rotation
+        // plus the rounding error in the angle itself.
+        double  perStep = rotationError + Math.ulp( Math.abs( maxAngle ) );
+        double  steps   = tolerance / perStep;
+        interval = (int)Math.min( Integer.MAX_VALUE, steps );
+    }
+
+    /**
+     * Moves to the angle with a given index and value.
+     * If the index immediately follows
+     * that of the previous angle,
+     * and the interval between exact calculations
+     * has not expired,
+     * the sine and cosine of the previous angle
+     * are rotated by the step;
+     * otherwise they are calculated exactly
+     * from the given value.
+     * 
+     * @param index the given index; must be non-negative
+     * @param angle the given value
+     */
+    public void moveTo( long index, double angle )
+    {
+        if ( this.index >= 0 
+            && index == this.index + 1 
+            && rotations < interval )
+        {
+            double  nextCos = cos * cosStep - sin * sinStep;
+            sin = sin * cosStep + cos * sinStep;
+            cos = nextCos;
+            ++rotations;
+        }
+        else
+        {
+            cos = Math.cos( angle );
+            sin = Math.sin( angle );
+            rotations = 0;
+        }
+        this.index = index;
+    }
+
+    /**
+     * Gets the cosine of the current angle.
+     * 
+     * @return  the cosine of the current angle
+     */
+    public double cos()
+    {
+        return cos;
+    }
+
+    /**
+     * Gets the sine of the current angle.
+     * 
+     * @return  the sine of the current angle
+     */
+    public double sin()
+    {
+        return sin;
+    }
+
+    /**
+     * Gets the maximum number of rotations
+     * between exact calculations.
+     * A value of 0
+     * indicates that every angle
+     * is calculated exactly.
+     * 
+     * @return  the maximum number of rotations between exact calculations
+     */
+    public int getInterval()
+    {
+        return interval;
+    }
+}
@@ -30,7 +30,9 @@ public class InputParser
             Command.YPLOT,
             Command.XYPLOT,
             Command.TPLOT,
-            Command.RPLOT
+            Command.RPLOT,
+            Command.FPLOT,
+            Command.ZPLOT
         );
     
     /** 
@@ -129,6 +131,12 @@ public class InputParser
         case TEQUALS:
             parseArg( equation::setTExpression, equation::getTExpression );
             break;
+        case FEQUALS:
+            parseArg( equation::setFExpression, equation::getFExpression );
+            break;
+        case ZEQUALS:
+            parseArg( equation::setZExpression, equation::getZExpression );
+            break;
         case SET:
             parseVars();
             break;
@@ -144,6 +152,12 @@ public class InputParser
         case PREC:
             parseInteger( equation::setPrecision, equation::getPrecision );
             break;
+        case AUTORANGE:
+            parseBoolean( equation::setAutoRange, equation::isAutoRange );
+            break;
+        case OPTIMIZE:
+            printOptimized();
+            break;
         case PLOT:
             parsePlot();
             break;
@@ -165,10 +179,18 @@ public class InputParser
         case XYPLOT:
         case RPLOT:
         case TPLOT:
+        case FPLOT:
+        case DPLOT:
+        case ZPLOT:
         case OPEN:
         case SAVE:
         case LOAD:
         case SELECT:
+        case OVERLAY:
+        case SWEEP:
+        case ROOTS:
+        case EXTREMA:
+        case INTEGRATE:
             // ignore these
             break;
         default:
@@ -257,9 +279,37 @@ public class InputParser
         }
     }
     
+    /**
+     * Interprets the current argument as a boolean,
+     * TRUE or FALSE (case-insensitive),
+     * and sets the value in the encapsulated Equation.
+     * If the argument string is empty
+     * the current value of the resource
+     * is printed to stdout.
+     * If an error occurs
+     * associated messages 
+     * are stored in the <em>errors</em> list.
+     * 
+     * @param setter    method to set the converted value
+     * @param getter    method to obtain the current value
+     *                  of the indicated resource
+     */
+    private void 
+    parseBoolean( Consumer<Boolean> setter, Supplier<Object> getter )
+    {
+        if ( argString.isEmpty() )
+            System.out.println( getter.get() );
+        else if ( argString.equalsIgnoreCase( "true" ) )
+            setter.accept( true );
+        else if ( argString.equalsIgnoreCase( "false" ) )
+            setter.accept( false );
+        else
+            formatError( argString, "is not a valid boolean" );
+    }
+    
     /**
      * Interprets the current argument as a type of plot,
-     * YPLOT, XPLOT, XYPLOT, RPLOT or TPLOT.
+     * YPLOT, XPLOT, XYPLOT, RPLOT, TPLOT, FPLOT or ZPLOT.
      * Converts it to a Command
      * and sets the value in the encapsulated Equation.
      * If the argument string is empty
@@ -400,6 +450,56 @@ public class InputParser
         );
     }
     
+    /**
+     * Prints to stdout
+     * the optimized form of the current argument,
+     * as it would be evaluated during a plot.
+     * If the argument is empty
+     * the optimized forms of the x-, y-, t-, r- and f-expressions
+     * are printed.
+     * If the argument is not a valid expression
+     * an error is stored in the <em>errors</em> list.
+     * 
+     * @see Equation#getOptimizedExpression(String)
+     */
+    private void printOptimized()
+    {
+        if ( !argString.isEmpty() )
+        {
+            Optional<String>    optStr  = 
+                equation.getOptimizedExpression( argString );
+            if ( optStr.isPresent() )
+                System.out.println( optStr.get() );
+            else
+                formatError( argString, "is not a valid expression" );
+        }
+        else
+        {
+            printOptimized( "x", equation.getXExpression() );
+            printOptimized( "y", equation.getYExpression() );
+            printOptimized( "t", equation.getTExpression() );
+            printOptimized( "r", equation.getRExpression() );
+            printOptimized( "f", equation.getFExpression() );
+        }
+    }
+    
+    /**
+     * Prints to stdout
+     * the name and optimized form
+     * of one of the expressions
+     * in the encapsulated Equation.
+     * 
+     * @param name      the name of the expression, e.g. "y"
+     * @param exprStr   the expression
+     */
+    private void printOptimized( String name, String exprStr )
+    {
+        final String    format  = "%s=%s%n";
+        String          optStr  =
+            equation.getOptimizedExpression( exprStr ).orElse( exprStr );
+        System.out.printf( format, name, optStr );
+    }
+    
     /**
      * Sets one of the parameter names
      * for a parametric or polar equation 
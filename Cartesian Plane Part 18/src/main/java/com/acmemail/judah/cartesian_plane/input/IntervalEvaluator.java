@@ -0,0 +1,970 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Evaluates an expression tree
+ * produced by {@linkplain ExprParser}
+ * over an interval of values of one variable,
+ * by interval arithmetic.
+ * Given an interval <em>[a,b]</em>
+ * the evaluator produces an interval
+ * that is guaranteed to contain
+ * the value of the expression
+ * at every point of <em>[a,b]</em>
+ * at which the expression is defined;
+ * the bounds are widened by one unit in the last place
+ * at every operation,
+ * to allow for rounding error.
+ * The interval may be wider than necessary;
+ * for example, because each occurrence of a variable
+ * is treated independently,
+ * <em>x - x</em> over <em>[0,1]</em>
+ * produces <em>[-1,1]</em>, not <em>[0,0]</em>.
+ * <p>
+ * The evaluator also determines
+ * whether the expression
+ * is certainly continuous over <em>[a,b]</em>.
+ * If the interval may contain
+ * a singularity, such as the poles of <em>tan(x)</em>,
+ * a jump, such as those of <em>floor(x)</em>,
+ * or a point at which the expression is undefined,
+ * the expression is reported as discontinuous
+ * and the bounds may be infinite.
+ * If the expression is undefined
+ * over the whole interval
+ * the bounds are NaN.
+ * </p>
+ * <p>
+ * The tree is translated, once,
+ * into a sequence of steps,
+ * one per node,
+ * in the manner of {@linkplain DualEvaluator}.
+ * An evaluator keeps working storage
+ * for each node of the tree,
+ * so it must not be shared between threads.
+ * </p>
+ * 
+ * @author Jack Straub
+ * 
+ * @see IntervalPlotter
+ */
+public class IntervalEvaluator
+{
+    /** The period of the trigonometric functions. */
+    private static final double twoPI   = 2 * Math.PI;
+
+    /** The slot of the variable that varies over the interval. */
+    private final int               slot;
+    /** The values of all other variables, by slot. */
+    private final double[]          values;
+    /** The steps to execute, in order. */
+    private final List<Runnable>    steps   = new ArrayList<>();
+    /** The term that represents the varying variable. */
+    private final Term              input   = new Term( false );
+    /** The term that represents the root of the tree. */
+    private final Term              result;
+
+    /**
+     * Constructor.
+     * Translates the tree
+     * rooted at a given node
+     * for evaluation over intervals
+     * of the variable in a given slot.
+     * 
+     * @param root      the given node
+     * @param slot
+     *      the slot of the variable that varies over the interval;
+     *      may be -1 if the expression doesn't use the variable
+     * @param values    the values of all other variables, by slot
+     * 
+     * @throws ValidationException
+     *      if the tree calls a function
+     *      for which there is no interval rule
+     */
+    public IntervalEvaluator( ExprNode root, int slot, double[] values )
+    {
+        this.slot = slot;
+        this.values = values.clone();
+        input.continuous = true;
+        result = root.accept( new Translator() );
+    }
+
+    /**
+     * Evaluates the expression
+     * over a given interval of the varying variable.
+     * The results may then be obtained from
+     * {@linkplain #getLow()}, {@linkplain #getHigh()}
+     * and {@linkplain #isContinuous()}.
+     * 
+     * @param low   the lower bound of the given interval
+     * @param high  the upper bound of the given interval
+     * 
+     * @throws IllegalArgumentException if low is greater than high
+     */
+    public void evaluate( double low, double high )
+    {
+        if ( low > high )
+        {
+            String  msg = "Invalid interval: [" + low + "," + high + "]";
+            throw new IllegalArgumentException( msg );
+        }
+        input.low = low;
+        input.high = high;
+        for ( Runnable step : steps )
+            step.run();
+    }
+
+    /**
+     * Gets the lower bound of the value of the expression
+     * calculated by the most recent evaluation.
+     * 
+     * @return  the lower bound of the value of the expression
+     */
+    public double getLow()
+    {
+        return result.low;
+    }
+
+    /**
+     * Gets the upper bound of the value of the expression
+     * calculated by the most recent evaluation.
+     * 
+     * @return  the upper bound of the value of the expression
+     */
+    public double getHigh()
+    {
+        return result.high;
+    }
+
+    /**
+     * Indicates whether the most recent evaluation
+     * found the expression to be certainly continuous
+     * over the interval.
+     * 
+     * @return  true if the expression is certainly continuous
+     */
+    public boolean isContinuous()
+    {
+        return result.continuous;
+    }
+
+    /**
+     * Returns the greatest double
+     * that is less than a given value.
+     * 
+     * @param value the given value
+     * 
+     * @return  the greatest double that is less than the given value
+     */
+    private static double down( double value )
+    {
+        return Math.nextDown( value );
+    }
+
+    /**
+     * Returns the least double
+     * that is greater than a given value.
+     * 
+     * @param value the given value
+     * 
+     * @return  the least double that is greater than the given value
+     */
+    private static double up( double value )
+    {
+        return Math.nextUp( value );
+    }
+
+    /**
+     * Indicates whether a given interval
+     * contains a point of the form
+     * <em>offset + k * period</em>
+     * for some integer <em>k</em>.
+     * 
+     * @param low       the lower bound of the given interval
+     * @param high      the upper bound of the given interval
+     * @param offset    the offset of the points
+     * @param period    the distance between points
+     * 
+     * @return  true if the given interval contains such a point
+     */
+    private static boolean
+    contains( double low, double high, double offset, double period )
+    {
+        double  first   =
+            offset + Math.ceil( (low - offset) / period ) * period;
+        return first <= high;
+    }
+
+    /**
+     * The bounds and continuity of one node of the tree.
+     * 
+     * @author Jack Straub
+     */
+    private static class Term
+    {
+        /** True if this term is a constant. */
+        private final boolean   constant;
+        /** The lower bound of this term. */
+        private double          low;
+        /** The upper bound of this term. */
+        private double          high;
+        /** True if this term is certainly continuous. */
+        private boolean         continuous;
+
+        /**
+         * Constructor.
+         * Instantiates a term
+         * whose bounds are calculated by a step.
+         * 
+         * @param constant  true if this term is a constant
+         */
+        private Term( boolean constant )
+        {
+            this.constant = constant;
+        }
+
+        /**
+         * Constructor.
+         * Instantiates a constant term
+         * with a given value.
+         * 
+         * @param value the given value
+         */
+        private Term( double value )
+        {
+            this( true );
+            low = value;
+            high = value;
+            continuous = true;
+        }
+
+        /**
+         * Sets the bounds and continuity of this term.
+         * If either bound is NaN
+         * the term is not continuous.
+         * 
+         * @param low           the lower bound
+         * @param high          the upper bound
+         * @param continuous    true if this term is certainly continuous
+         */
+        private void set( double low, double high, boolean continuous )
+        {
+            this.low = low;
+            this.high = high;
+            this.continuous =
+                continuous && !Double.isNaN( low ) && !Double.isNaN( high );
+        }
+
+        /**
+         * Sets this term to the unbounded interval,
+         * and marks it discontinuous.
+         */
+        private void setUnbounded()
+        {
+            set(
+                Double.NEGATIVE_INFINITY,
+                Double.POSITIVE_INFINITY,
+                false
+            );
+        }
+    }
+
+    /**
+     * Translates the nodes of a tree
+     * into steps.
+     * Visiting a node
+     * adds the steps for its sub-tree to the list of steps,
+     * and returns the term
+     * that will hold the node's bounds.
+     * A node whose operands are all constant
+     * is evaluated immediately,
+     * and translated to a constant.
+     * 
+     * @author Jack Straub
+     */
+    private class Translator implements ExprVisitor<Term>
+    {
+        @Override
+        public Term visit( ExprNode.Constant node )
+        {
+            return new Term( node.getValue() );
+        }
+
+        @Override
+        public Term visit( ExprNode.Variable node )
+        {
+            Term    term    = input;
+            if ( node.getSlot() != slot )
+                term = new Term( values[node.getSlot()] );
+            return term;
+        }
+
+        @Override
+        public Term visit( ExprNode.Negate node )
+        {
+            Term    oper    = node.getOperand().accept( this );
+            Term    dest    = null;
+            if ( oper.constant )
+                dest = new Term( -oper.low );
+            else
+            {
+                dest = new Term( false );
+                Term    term    = dest;
+                steps.add( () ->
+                    term.set( -oper.high, -oper.low, oper.continuous )
+                );
+            }
+            return dest;
+        }
+
+        @Override
+        public Term visit( ExprNode.Binary node )
+        {
+            ExprNode.Operator   oper    = node.getOperator();
+            Term                left    = node.getLeft().accept( this );
+            Term                right   = node.getRight().accept( this );
+            Term                dest    = null;
+            if ( left.constant && right.constant )
+                dest = new Term( oper.apply( left.low, right.low ) );
+            else
+            {
+                dest = new Term( false );
+                steps.add( binary( oper, left, right, dest ) );
+            }
+            return dest;
+        }
+
+        @Override
+        public Term visit( ExprNode.Call node )
+        {
+            ExprFunction    funk        = node.getFunction();
+            List<ExprNode>  args        = node.getArgs();
+            Term[]          opers       = new Term[args.size()];
+            boolean         allConst    = true;
+            for ( int inx = 0 ; inx < opers.length ; ++inx )
+            {
+                opers[inx] = args.get( inx ).accept( this );
+                allConst &= opers[inx].constant;
+            }
+
+            Term            dest        = null;
+            if ( allConst )
+            {
+                double[]    argv    = new double[opers.length];
+                for ( int inx = 0 ; inx < argv.length ; ++inx )
+                    argv[inx] = opers[inx].low;
+                dest = new Term( funk.apply( argv ) );
+            }
+            else if ( opers.length == 2 && funk.getName().equals( "pow" ) )
+            {
+                dest = new Term( false );
+                steps.add(
+                    binary( ExprNode.Operator.POWER, opers[0], opers[1], dest )
+                );
+            }
+            else if ( opers.length == 1 )
+            {
+                dest = new Term( false );
+                steps.add( unary( funk.getName(), opers[0], dest ) );
+            }
+            else
+            {
+                String  msg =
+                    "No interval rule for function: " + funk.getName();
+                throw new ValidationException( msg );
+            }
+            return dest;
+        }
+
+        /**
+         * Creates a step
+         * that applies a given binary operator
+         * to two given terms,
+         * at least one of which is not constant.
+         * 
+         * @param oper  the given operator
+         * @param left  the left operand
+         * @param right the right operand
+         * @param dest  the term in which to store the result
+         * 
+         * @return  the step
+         */
+        private Runnable binary(
+            ExprNode.Operator oper,
+            Term left,
+            Term right,
+            Term dest
+        )
+        {
+            Runnable    step    = null;
+            switch ( oper )
+            {
+            case ADD:
+                step = () -> dest.set(
+                    down( left.low + right.low ),
+                    up( left.high + right.high ),
+                    left.continuous && right.continuous
+                );
+                break;
+            case SUBTRACT:
+                step = () -> dest.set(
+                    down( left.low - right.high ),
+                    up( left.high - right.low ),
+                    left.continuous && right.continuous
+                );
+                break;
+            case MULTIPLY:
+                step = () -> multiply(
+                    left.low, left.high, right.low, right.high,
+                    left.continuous && right.continuous,
+                    dest
+                );
+                break;
+            case DIVIDE:
+                step = () -> divide( left, right, dest );
+                break;
+            case MODULO:
+                step = () -> modulo( left, right, dest );
+                break;
+            case POWER:
+                step = right.constant ?
+                    power( left, right.low, dest ) :
+                    () -> power( left, right, dest );
+                break;
+            }
+            return step;
+        }
+
+        /**
+         * Calculates the product of two intervals,
+         * storing the result in a given term.
+         * If any product of the bounds is NaN,
+         * as is the product of 0 and infinity,
+         * the result is unbounded.
+         * 
+         * @param aLow          lower bound of the first interval
+         * @param aHigh         upper bound of the first interval
+         * @param bLow          lower bound of the second interval
+         * @param bHigh         upper bound of the second interval
+         * @param continuous    true if both operands are continuous
+         * @param dest          the given term
+         */
+        private void multiply(
+            double aLow,
+            double aHigh,
+            double bLow,
+            double bHigh,
+            boolean continuous,
+            Term dest
+        )
+        {
+            double  prod1   = aLow * bLow;
+            double  prod2   = aLow * bHigh;
+            double  prod3   = aHigh * bLow;
+            double  prod4   = aHigh * bHigh;
+            double  low     =
+                Math.min( Math.min( prod1, prod2 ), Math.min( prod3, prod4 ) );
+            double  high    =
+                Math.max( Math.max( prod1, prod2 ), Math.max( prod3, prod4 ) );
+            if ( Double.isNaN( low ) && !isNaN( aLow, aHigh, bLow, bHigh ) )
+                dest.setUnbounded();
+            else
+                dest.set( down( low ), up( high ), continuous );
+        }
+
+        /**
+         * Indicates whether any of the bounds
+         * of two intervals is NaN.
+         * 
+         * @param aLow  lower bound of the first interval
+         * @param aHigh upper bound of the first interval
+         * @param bLow  lower bound of the second interval
+         * @param bHigh upper bound of the second interval
+         * 
+         * @return  true if any of the bounds is NaN
+         */
+        private boolean
+        isNaN( double aLow, double aHigh, double bLow, double bHigh )
+        {
+            boolean result  = Double.isNaN( aLow ) || Double.isNaN( aHigh )
+                || Double.isNaN( bLow ) || Double.isNaN( bHigh );
+            return result;
+        }
+
+        /**
+         * Divides one term by another,
+         * storing the result in a given term.
+         * If the divisor may be 0
+         * the result is unbounded and discontinuous.
+         * 
+         * @param left  the dividend
+         * @param right the divisor
+         * @param dest  the given term
+         */
+        private void divide( Term left, Term right, Term dest )
+        {
+            if ( right.low <= 0 && right.high >= 0 )
+                dest.setUnbounded();
+            else
+                multiply(
+                    left.low, left.high,
+                    down( 1 / right.high ), up( 1 / right.low ),
+                    left.continuous && right.continuous,
+                    dest
+                );
+        }
+
+        /**
+         * Calculates the remainder
+         * after dividing one term by another,
+         * storing the result in a given term.
+         * The result is continuous
+         * only if the divisor is constant
+         * and the quotient, truncated to an integer,
+         * is the same throughout the dividend.
+         * 
+         * @param left  the dividend
+         * @param right the divisor
+         * @param dest  the given term
+         */
+        private void modulo( Term left, Term right, Term dest )
+        {
+            double  limit   =
+                Math.max( Math.abs( right.low ), Math.abs( right.high ) );
+            boolean same    = false;
+            double  quot    = 0;
+            if ( right.low == right.high && right.low != 0 )
+            {
+                quot = (left.low - left.low % right.low) / right.low;
+                double  quotHigh    =
+                    (left.high - left.high % right.low) / right.low;
+                same = quot == quotHigh;
+            }
+            if ( same )
+            {
+                double  offset  = quot * right.low;
+                dest.set(
+                    down( left.low - offset ),
+                    up( left.high - offset ),
+                    left.continuous
+                );
+            }
+            else
+                dest.set( -limit, limit, false );
+        }
+
+        /**
+         * Creates a step
+         * that raises a given term
+         * to a given constant power.
+         * 
+         * @param base  the given term
+         * @param exp   the given power
+         * @param dest  the term in which to store the result
+         * 
+         * @return  the step
+         */
+        private Runnable power( Term base, double exp, Term dest )
+        {
+            DoubleUnaryOperator func    = x -> Math.pow( x, Math.abs( exp ) );
+            boolean             integer =
+                exp == Math.rint( exp ) && Math.abs( exp ) < 0x1p53;
+            boolean             even    = integer && exp % 2 == 0;
+            Runnable            step    = null;
+            if ( exp == 0 )
+                step = () -> dest.set( 1, 1, true );
+            else if ( even )
+                step = () -> even( func, base, dest );
+            else if ( integer )
+                step = () -> increasing( func, base, dest );
+            else
+                step = () -> increasing(
+                    func, base, 0, Double.POSITIVE_INFINITY, false, dest
+                );
+            if ( exp < 0 )
+            {
+                Runnable    positive    = step;
+                step = () -> {
+                    positive.run();
+                    reciprocal( dest, dest );
+                };
+            }
+            return step;
+        }
+
+        /**
+         * Raises a given term
+         * to a power
+         * given by a non-constant term,
+         * storing the result in a given term.
+         * The power is calculated as
+         * <em>exp(exponent * log(base))</em>;
+         * if the base is not certainly positive
+         * the result is unbounded and discontinuous.
+         * 
+         * @param base  the given term
+         * @param exp   the term that gives the power
+         * @param dest  the given term
+         */
+        private void power( Term base, Term exp, Term dest )
+        {
+            if ( !(base.low > 0) )
+                dest.setUnbounded();
+            else
+            {
+                double  logLow  = down( Math.log( base.low ) );
+                double  logHigh = up( Math.log( base.high ) );
+                multiply(
+                    exp.low, exp.high, logLow, logHigh,
+                    base.continuous && exp.continuous,
+                    dest
+                );
+                dest.set(
+                    down( Math.exp( dest.low ) ),
+                    up( Math.exp( dest.high ) ),
+                    dest.continuous
+                );
+            }
+        }
+
+        /**
+         * Calculates the reciprocal of a given term,
+         * storing the result in another given term,
+         * which may be the same as the first.
+         * If the given term may be 0
+         * the result is unbounded and discontinuous.
+         * 
+         * @param oper  the given term
+         * @param dest  the term in which to store the result
+         */
+        private void reciprocal( Term oper, Term dest )
+        {
+            if ( oper.low <= 0 && oper.high >= 0 )
+                dest.setUnbounded();
+            else
+                dest.set(
+                    down( 1 / oper.high ),
+                    up( 1 / oper.low ),
+                    oper.continuous
+                );
+        }
+
+        /**
+         * Applies a given increasing function
+         * to a given term,
+         * storing the result in another given term.
+         * The function is defined on a given domain;
+         * the term is clipped to the domain,
+         * and if it extends beyond the domain
+         * the result is discontinuous.
+         * If the term lies entirely outside the domain
+         * the result is NaN.
+         * 
+         * @param func      the given function
+         * @param oper      the given term
+         * @param domLow    the lower bound of the domain
+         * @param domHigh   the upper bound of the domain
+         * @param pole
+         *      true if the function has a pole
+         *      at the lower bound of the domain
+         * @param dest      the term in which to store the result
+         */
+        private void increasing(
+            DoubleUnaryOperator func,
+            Term oper,
+            double domLow,
+            double domHigh,
+            boolean pole,
+            Term dest
+        )
+        {
+            double  low     = Math.max( oper.low, domLow );
+            double  high    = Math.min( oper.high, domHigh );
+            if ( !(low <= high) )
+                dest.set( Double.NaN, Double.NaN, false );
+            else
+            {
+                boolean inside  =
+                    oper.low >= domLow && oper.high <= domHigh
+                    && !(pole && low == domLow);
+                dest.set(
+                    down( func.applyAsDouble( low ) ),
+                    up( func.applyAsDouble( high ) ),
+                    oper.continuous && inside
+                );
+            }
+        }
+
+        /**
+         * Applies a given function
+         * that is increasing over the whole real line
+         * to a given term,
+         * storing the result in another given term.
+         * 
+         * @param func  the given function
+         * @param oper  the given term
+         * @param dest  the term in which to store the result
+         */
+        private void
+        increasing( DoubleUnaryOperator func, Term oper, Term dest )
+        {
+            increasing(
+                func, oper,
+                Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY,
+                false, dest
+            );
+        }
+
+        /**
+         * Applies a given function
+         * that is decreasing for negative arguments
+         * and increasing for positive arguments,
+         * such as <em>abs</em> or <em>cosh</em>,
+         * to a given term,
+         * storing the result in another given term.
+         * 
+         * @param func  the given function
+         * @param oper  the given term
+         * @param dest  the term in which to store the result
+         */
+        private void even( DoubleUnaryOperator func, Term oper, Term dest )
+        {
+            double  fLow    = func.applyAsDouble( oper.low );
+            double  fHigh   = func.applyAsDouble( oper.high );
+            double  low     = Math.min( fLow, fHigh );
+            if ( oper.low <= 0 && oper.high >= 0 )
+                low = func.applyAsDouble( 0 );
+            dest.set(
+                down( low ),
+                up( Math.max( fLow, fHigh ) ),
+                oper.continuous
+            );
+        }
+
+        /**
+         * Applies <em>sin</em> or <em>cos</em>
+         * to a given term,
+         * storing the result in another given term.
+         * The bounds are the values at the ends of the term,
+         * unless the term contains a maximum or minimum
+         * of the function.
+         * 
+         * @param func      Math::sin or Math::cos
+         * @param maximum   the smallest non-negative maximum of func
+         * @param oper      the given term
+         * @param dest      the term in which to store the result
+         */
+        private void periodic(
+            DoubleUnaryOperator func,
+            double maximum,
+            Term oper,
+            Term dest
+        )
+        {
+            double  low     = -1;
+            double  high    = 1;
+            if ( oper.high - oper.low < twoPI )
+            {
+                double  fLow    = func.applyAsDouble( oper.low );
+                double  fHigh   = func.applyAsDouble( oper.high );
+                double  minimum = maximum + Math.PI;
+                if ( !contains( oper.low, oper.high, minimum, twoPI ) )
+                    low = Math.max( -1, down( Math.min( fLow, fHigh ) ) );
+                if ( !contains( oper.low, oper.high, maximum, twoPI ) )
+                    high = Math.min( 1, up( Math.max( fLow, fHigh ) ) );
+            }
+            dest.set( low, high, oper.continuous );
+        }
+
+        /**
+         * Applies <em>tan</em> or <em>cot</em>
+         * to a given term,
+         * storing the result in another given term.
+         * If the term contains a pole of the function
+         * the result is unbounded and discontinuous;
+         * otherwise the function is monotonic over the term.
+         * 
+         * @param func  Math::tan or ExprFunction::cot
+         * @param pole  the smallest non-negative pole of func
+         * @param sign  1 if func is increasing, -1 if decreasing
+         * @param oper  the given term
+         * @param dest  the term in which to store the result
+         */
+        private void tangent(
+            DoubleUnaryOperator func,
+            double pole,
+            int sign,
+            Term oper,
+            Term dest
+        )
+        {
+            double  fLow    = func.applyAsDouble( oper.low );
+            double  fHigh   = func.applyAsDouble( oper.high );
+            // The second test catches a pole that the first misses
+            // due to rounding; the function is monotonic between
+            // poles, so a reversal means a pole was crossed.
+            if ( oper.high - oper.low >= Math.PI
+                || contains( oper.low, oper.high, pole, Math.PI )
+                || sign * (fHigh - fLow) < 0 )
+                dest.setUnbounded();
+            else
+                dest.set(
+                    down( Math.min( fLow, fHigh ) ),
+                    up( Math.max( fLow, fHigh ) ),
+                    oper.continuous
+                );
+        }
+
+        /**
+         * Creates a step
+         * that applies the function of one argument
+         * with a given name
+         * to a given term.
+         * 
+         * @param name  the given name
+         * @param oper  the given term
+         * @param dest  the term in which to store the result
+         * 
+         * @return  the step
+         * 
+         * @throws ValidationException
+         *      if there is no interval rule for the given function
+         */
+        private Runnable unary( String name, Term oper, Term dest )
+        {
+            double      inf     = Double.POSITIVE_INFINITY;
+            Runnable    step    = null;
+            switch ( name )
+            {
+            case "sin":
+                step = () -> periodic( Math::sin, Math.PI / 2, oper, dest );
+                break;
+            case "cos":
+                step = () -> periodic( Math::cos, 0, oper, dest );
+                break;
+            case "tan":
+                step = () -> tangent( Math::tan, Math.PI / 2, 1, oper, dest );
+                break;
+            case "cot":
+                step = () -> tangent( ExprFunction::cot, 0, -1, oper, dest );
+                break;
+            case "sec":
+                step = () -> {
+                    periodic( Math::cos, 0, oper, dest );
+                    reciprocal( dest, dest );
+                };
+                break;
+            case "csc":
+                step = () -> {
+                    periodic( Math::sin, Math.PI / 2, oper, dest );
+                    reciprocal( dest, dest );
+                };
+                break;
+            case "asin":
+                step = () -> increasing( Math::asin, oper, -1, 1, false, dest );
+                break;
+            case "acos":
+                // acos(x) = pi/2 - asin(x)
+                step = () -> {
+                    increasing( Math::asin, oper, -1, 1, false, dest );
+                    dest.set(
+                        down( Math.PI / 2 - dest.high ),
+                        up( Math.PI / 2 - dest.low ),
+                        dest.continuous
+                    );
+                };
+                break;
+            case "atan":
+                step = () -> increasing( Math::atan, oper, dest );
+                break;
+            case "sinh":
+                step = () -> increasing( Math::sinh, oper, dest );
+                break;
+            case "cosh":
+                step = () -> even( Math::cosh, oper, dest );
+                break;
+            case "tanh":
+                step = () -> increasing( Math::tanh, oper, dest );
+                break;
+            case "abs":
+                step = () -> even( Math::abs, oper, dest );
+                break;
+            case "log":
+                step = () -> increasing( Math::log, oper, 0, inf, true, dest );
+                break;
+            case "log10":
+                step = () ->
+                    increasing( Math::log10, oper, 0, inf, true, dest );
+                break;
+            case "log2":
+                step = () ->
+                    increasing( ExprFunction::log2, oper, 0, inf, true, dest );
+                break;
+            case "log1p":
+                step = () ->
+                    increasing( Math::log1p, oper, -1, inf, true, dest );
+                break;
+            case "sqrt":
+                step = () ->
+                    increasing( Math::sqrt, oper, 0, inf, false, dest );
+                break;
+            case "cbrt":
+                step = () -> increasing( Math::cbrt, oper, dest );
+                break;
+            case "exp":
+                step = () -> increasing( Math::exp, oper, dest );
+                break;
+            case "expm1":
+                step = () -> increasing( Math::expm1, oper, dest );
+                break;
+            case "toDegrees":
+                step = () -> increasing(
+                    ExprFunction::toDegrees, oper, -inf, inf, false, dest
+                );
+                break;
+            case "toRadians":
+                step = () -> increasing(
+                    ExprFunction::toRadians, oper, -inf, inf, false, dest
+                );
+                break;
+            case "ceil":
+                step = () -> stepFunction( Math::ceil, oper, dest );
+                break;
+            case "floor":
+                step = () -> stepFunction( Math::floor, oper, dest );
+                break;
+            case "signum":
+                step = () -> stepFunction( Math::signum, oper, dest );
+                break;
+            default:
+                String  msg = "No interval rule for function: " + name;
+                throw new ValidationException( msg );
+            }
+            return step;
+        }
+
+        /**
+         * Applies a given non-decreasing step function,
+         * such as <em>floor</em>,
+         * to a given term,
+         * storing the result in another given term.
+         * The result is continuous
+         * only if the function has the same value
+         * at both ends of the term.
+         * 
+         * @param func  the given function
+         * @param oper  the given term
+         * @param dest  the term in which to store the result
+         */
+        private void
+        stepFunction( DoubleUnaryOperator func, Term oper, Term dest )
+        {
+            double  low     = func.applyAsDouble( oper.low );
+            double  high    = func.applyAsDouble( oper.high );
+            dest.set( low, high, oper.continuous && low == high );
+        }
+    }
+}
@@ -0,0 +1,480 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Generates the points of the plot
+ * of an equation of the form <em>y=f(x)</em>,
+ * using {@linkplain IntervalEvaluator interval arithmetic}
+ * to avoid wasted work
+ * and to detect asymptotes.
+ * The samples of the iteration range
+ * are divided into blocks,
+ * and the range of <em>y</em>
+ * over each block
+ * is bounded by interval evaluation.
+ * <ul>
+ * <li>
+ *     If <em>f</em> is continuous over a block,
+ *     and its bounds lie entirely above or below
+ *     the visible region,
+ *     none of the samples inside the block is evaluated;
+ *     only the first sample is plotted,
+ *     so that the line joining the block to its neighbors
+ *     still leaves the visible region
+ *     in the right direction.
+ * </li>
+ * <li>
+ *     If <em>f</em> is continuous over a block,
+ *     and it may be visible,
+ *     every sample is evaluated and plotted.
+ * </li>
+ * <li>
+ *     If <em>f</em> may not be continuous over a block
+ *     the block is bisected,
+ *     until the discontinuity is isolated
+ *     between two adjacent samples;
+ *     a {@linkplain PointBuffer#addBreak() break}
+ *     is stored between them,
+ *     so that the samples on either side
+ *     of an asymptote, such as the poles of <em>tan(x)</em>,
+ *     are not joined by a spurious line.
+ * </li>
+ * </ul>
+ * The points themselves
+ * are calculated by the equation's own
+ * {@linkplain Equation#getYFunction() y-function};
+ * interval evaluation only decides
+ * which of them are calculated.
+ * 
+ * @author Jack Straub
+ * 
+ * @see IntervalEvaluator
+ */
+public class IntervalPlotter
+{
+    /** The default number of samples in a block. */
+    public static final int DEFAULT_BLOCK_SIZE  = 32;
+
+    /**
+     * Default constructor; not used.
+     */
+    private IntervalPlotter()
+    {
+    }
+
+    /**
+     * Generates the plot
+     * of the y-expression of a given Equation,
+     * storing the points in a given buffer,
+     * if the y-expression is supported by interval evaluation
+     * (see {@linkplain #newEvaluator(Equation)}).
+     * The iteration range is determined
+     * as for {@linkplain Equation#yPlot(PointBuffer)};
+     * if the Equation's viewport has been established
+     * samples that lie above or below the viewport
+     * are culled.
+     * The buffer is cleared
+     * before any points are stored.
+     * If the y-expression is not supported
+     * neither the buffer nor the Equation is changed,
+     * and the caller is expected to plot the Equation
+     * by other means.
+     * 
+     * @param equation  the given Equation
+     * @param buffer    the given buffer
+     * 
+     * @return  true if the plot was generated
+     * 
+     * @throws ValidationException  if the y-expression is invalid
+     */
+    public static boolean yPlot( Equation equation, PointBuffer buffer )
+    {
+        IntervalEvaluator   bounds  = newEvaluator( equation );
+        if ( bounds != null )
+        {
+            Viewport    port    = equation.getViewport();
+            boolean     auto    = equation.isAutoRange() && port != null;
+            double      start   =
+                auto ? port.getXMin() : equation.getRangeStart();
+            double      end     =
+                auto ? port.getXMax() : equation.getRangeEnd();
+            double      step    =
+                auto ? port.getStep() : equation.getRangeStep();
+            plot(
+                start, end, step,
+                DEFAULT_BLOCK_SIZE,
+                List.of( newPass( equation, bounds, buffer ) )
+            );
+        }
+        return bounds != null;
+    }
+
+    /**
+     * Indicates whether a y-plot of a given Equation,
+     * generated by this class,
+     * culls samples outside the y-range
+     * of the Equation's viewport.
+     * Such a plot depends on the y-range
+     * as well as on the Equation's
+     * {@linkplain Equation#getVersion() version},
+     * which does not change
+     * when only the y-range changes;
+     * a client that caches the plot
+     * must also compare the y-range
+     * (see {@linkplain Viewport#sameYRange(Viewport, Viewport)}).
+     * The plot is culled
+     * if the Equation is plotted sequentially,
+     * without an adaptive sampler,
+     * its viewport has been established
+     * and its y-expression is supported
+     * by interval evaluation.
+     * 
+     * @param equation  the given Equation
+     * 
+     * @return  true if a y-plot of the given Equation is culled
+     */
+    public static boolean culls( Equation equation )
+    {
+        boolean result  =
+            !equation.isParallel()
+            && equation.getAdaptiveSampler() == null
+            && equation.getViewport() != null
+            && newEvaluator( equation ) != null;
+        return result;
+    }
+
+    /**
+     * Creates an evaluator
+     * that bounds the y-expression of a given Equation
+     * over intervals of <em>x</em>,
+     * using the current values of the Equation's variables.
+     * Null is returned if the y-expression
+     * is not supported by interval evaluation;
+     * that is the case if:
+     * <ul>
+     * <li>
+     *     the Equation's syntax is not that of
+     *     {@linkplain ExprParser}
+     *     (see {@linkplain ExprParser#accepts(Equation)});
+     *     bounds calculated from a different syntax
+     *     could cull visible samples;
+     * </li>
+     * <li>
+     *     ExprParser can't parse the y-expression;
+     *     if the y-expression is invalid
+     *     the Equation will report the error
+     *     when it is plotted by other means; or
+     * </li>
+     * <li>
+     *     the y-expression calls a function
+     *     for which there is no interval rule.
+     * </li>
+     * </ul>
+     * 
+     * @param equation  the given Equation
+     * 
+     * @return
+     *      an evaluator for the y-expression of the given Equation,
+     *      or null if the y-expression is not supported
+     */
+    public static IntervalEvaluator newEvaluator( Equation equation )
+    {
+        IntervalEvaluator   evaluator   = null;
+        if ( ExprParser.accepts( equation ) )
+        {
+            try
+            {
+                Map<String,Double>  vars    = equation.getVars();
+                ExprParser          parser  = new ExprParser( vars.keySet() );
+                ExprNode            root    =
+                    parser.parse( equation.getYExpression() );
+                List<String>        names   = parser.getVariableNames();
+                double[]            values  = new double[names.size()];
+                for ( int inx = 0 ; inx < values.length ; ++inx )
+                    values[inx] = vars.get( names.get( inx ) );
+                evaluator =
+                    new IntervalEvaluator( root, names.indexOf( "x" ), values );
+            }
+            catch ( ValidationException exc )
+            {
+                evaluator = null;
+            }
+        }
+        return evaluator;
+    }
+
+    /**
+     * Generates the plot of a given function
+     * over a given iteration range,
+     * storing the points in a given buffer.
+     * Samples that lie entirely above or below
+     * a given range of y-coordinates
+     * are culled.
+     * The buffer is cleared
+     * before any points are stored.
+     * 
+     * @param bounds    
+     *      bounds the function over intervals;
+     *      may be null, in which case every sample is plotted
+     * @param func      calculates the function at a point
+     * @param start     the start of the iteration range
+     * @param end       the end of the iteration range
+     * @param step      the increment between samples
+     * @param yMin      the smallest visible y-coordinate
+     * @param yMax      the largest visible y-coordinate
+     * @param blockSize the number of samples in a block
+     * @param buffer    the given buffer
+     * 
+     * @throws IllegalArgumentException if blockSize is not positive
+     */
+    public static void plot(
+        IntervalEvaluator bounds,
+        DoubleUnaryOperator func,
+        double start,
+        double end,
+        double step,
+        double yMin,
+        double yMax,
+        int blockSize,
+        PointBuffer buffer
+    )
+    {
+        Pass    pass    = new Pass( bounds, func, yMin, yMax, buffer );
+        plot( start, end, step, blockSize, List.of( pass ) );
+    }
+
+    /**
+     * Generates several plots
+     * in a single pass over a given iteration range.
+     * The x-coordinates of the samples in each block
+     * are calculated once,
+     * and every plot processes the block
+     * before moving on to the next;
+     * each plot may be culled and refined
+     * independently of the others.
+     * The buffer of every plot is cleared
+     * before any points are stored.
+     * 
+     * @param start     the start of the iteration range
+     * @param end       the end of the iteration range
+     * @param step      the increment between samples
+     * @param blockSize the number of samples in a block
+     * @param passes    the plots to generate
+     * 
+     * @throws IllegalArgumentException if blockSize is not positive
+     * 
+     * @see OverlayPlotter
+     */
+    static void plot(
+        double start,
+        double end,
+        double step,
+        int blockSize,
+        List<Pass> passes
+    )
+    {
+        if ( blockSize < 1 )
+        {
+            String  msg = "Invalid block size: " + blockSize;
+            throw new IllegalArgumentException( msg );
+        }
+        int         count   =
+            ParallelPlotter.getSampleCount( start, end, step );
+        double[]    xcos    = new double[blockSize + 1];
+        for ( Pass pass : passes )
+            pass.buffer.clear();
+        for ( int first = 0 ; first < count - 1 ; first += blockSize )
+        {
+            int     last    = Math.min( first + blockSize, count - 1 );
+            for ( int inx = first ; inx <= last ; ++inx )
+                xcos[inx - first] = start + inx * step;
+            for ( Pass pass : passes )
+                pass.block( xcos, 0, last - first );
+        }
+        if ( count > 0 )
+        {
+            double  xco     = start + (count - 1) * step;
+            for ( Pass pass : passes )
+                pass.add( xco );
+        }
+    }
+
+    /**
+     * Creates the state of a plot
+     * of the y-expression of a given Equation,
+     * to be stored in a given buffer.
+     * If the Equation's viewport has been established
+     * samples that lie above or below the viewport
+     * are culled.
+     * If the y-expression is not supported
+     * by interval evaluation
+     * every sample is plotted.
+     * 
+     * @param equation  the given Equation
+     * @param buffer    the given buffer
+     * 
+     * @return  the state of a plot of the given Equation
+     * 
+     * @throws ValidationException  if the y-expression is invalid
+     */
+    static Pass newPass( Equation equation, PointBuffer buffer )
+    {
+        Pass    pass    = newPass( equation, newEvaluator( equation ), buffer );
+        return pass;
+    }
+
+    /**
+     * Creates the state of a plot
+     * of a given function,
+     * to be stored in a given buffer.
+     * Every sample is plotted.
+     * 
+     * @param func      the given function
+     * @param buffer    the given buffer
+     * 
+     * @return  the state of a plot of the given function
+     */
+    static Pass newPass( DoubleUnaryOperator func, PointBuffer buffer )
+    {
+        Pass    pass    = new Pass( 
+            null, 
+            func, 
+            Double.NEGATIVE_INFINITY, 
+            Double.POSITIVE_INFINITY, 
+            buffer
+        );
+        return pass;
+    }
+
+    /**
+     * Creates the state of a plot
+     * of the y-expression of a given Equation,
+     * bounded by a given evaluator,
+     * to be stored in a given buffer.
+     * 
+     * @param equation  the given Equation
+     * @param bounds    the given evaluator; may be null
+     * @param buffer    the given buffer
+     * 
+     * @return  the state of a plot of the given Equation
+     * 
+     * @throws ValidationException  if the y-expression is invalid
+     */
+    private static Pass newPass( 
+        Equation equation, 
+        IntervalEvaluator bounds,
+        PointBuffer buffer
+    )
+    {
+        Viewport    port    = equation.getViewport();
+        double      yMin    =
+            port != null ? port.getYMin() : Double.NEGATIVE_INFINITY;
+        double      yMax    =
+            port != null ? port.getYMax() : Double.POSITIVE_INFINITY;
+        Pass        pass    = new Pass( 
+            bounds, equation.getYFunction(), yMin, yMax, buffer
+        );
+        return pass;
+    }
+
+    /**
+     * The state of a single plot.
+     * 
+     * @author Jack Straub
+     */
+    static class Pass
+    {
+        /** Bounds the function over intervals; may be null. */
+        private final IntervalEvaluator     bounds;
+        /** Calculates the function at a point. */
+        private final DoubleUnaryOperator   func;
+        /** The smallest visible y-coordinate. */
+        private final double                yMin;
+        /** The largest visible y-coordinate. */
+        private final double                yMax;
+        /** The buffer in which to store the points. */
+        private final PointBuffer           buffer;
+
+        /**
+         * Constructor.
+         * Establishes the state of the plot.
+         * 
+         * @param bounds    
+         *      bounds the function over intervals;
+         *      may be null, in which case every sample is plotted
+         * @param func      calculates the function at a point
+         * @param yMin      the smallest visible y-coordinate
+         * @param yMax      the largest visible y-coordinate
+         * @param buffer    the buffer in which to store the points
+         */
+        private Pass(
+            IntervalEvaluator bounds,
+            DoubleUnaryOperator func,
+            double yMin,
+            double yMax,
+            PointBuffer buffer
+        )
+        {
+            this.bounds = bounds;
+            this.func = func;
+            this.yMin = yMin;
+            this.yMax = yMax;
+            this.buffer = buffer;
+        }
+
+        /**
+         * Plots the samples of a block,
+         * from a given first sample, inclusive,
+         * to a given last sample, exclusive.
+         * The last sample is plotted
+         * as part of the following block.
+         * 
+         * @param xcos  the x-coordinates of the samples
+         * @param first the index of the given first sample
+         * @param last  the index of the given last sample
+         */
+        private void block( double[] xcos, int first, int last )
+        {
+            boolean continuous  = true;
+            boolean hidden      = false;
+            if ( bounds != null )
+            {
+                bounds.evaluate( xcos[first], xcos[last] );
+                continuous = bounds.isContinuous();
+                hidden = bounds.getHigh() < yMin || bounds.getLow() > yMax;
+            }
+            if ( continuous && hidden )
+                add( xcos[first] );
+            else if ( continuous )
+            {
+                for ( int inx = first ; inx < last ; ++inx )
+                    add( xcos[inx] );
+            }
+            else if ( last - first == 1 )
+            {
+                add( xcos[first] );
+                buffer.addBreak();
+            }
+            else
+            {
+                int     mid     = (first + last) >>> 1;
+                block( xcos, first, mid );
+                block( xcos, mid, last );
+            }
+        }
+
+        /**
+         * Calculates the sample at a given x-coordinate,
+         * and adds it to the buffer.
+         * 
+         * @param xco   the given x-coordinate
+         */
+        private void add( double xco )
+        {
+            buffer.add( xco, func.applyAsDouble( xco ) );
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package com.acmemail.judah.cartesian_plane.input;
 
 import java.util.Stack;
-import java.util.stream.IntStream;
 
 import org.nfunk.jep.ParseException;
 import org.nfunk.jep.function.PostfixMathCommand;
@@ -11,8 +10,20 @@ import org.nfunk.jep.function.PostfixMathCommand;
  * a JEP custom function.
  * implements PostfixMathCommand
  * as required by JEP.
+ * <p>
+ * Each evaluation of a function
+ * that extends this class directly
+ * allocates an array to hold its arguments.
+ * A function of one or two arguments
+ * should extend {@linkplain JEPUnaryFunction}
+ * or {@linkplain JEPBinaryFunction} instead,
+ * which avoid the array.
+ * </p>
  * 
  * @author Jack Straub
+ * 
+ * @see JEPUnaryFunction
+ * @see JEPBinaryFunction
  */
 public abstract class JEPAbstractFunction extends PostfixMathCommand
 {
@@ -68,8 +79,8 @@ public abstract class JEPAbstractFunction extends PostfixMathCommand
 
         checkStack( inStack );
         double[]    params  = new double[actNumParams];
-        IntStream.iterate( actNumParams - 1, i -> i >= 0, i -> i - 1 )
-            .forEach( i -> params[i] = (Double)inStack.pop() );
+        for ( int inx = actNumParams - 1 ; inx >= 0 ; --inx )
+            params[inx] = (Double)inStack.pop();
         double      result  = evaluate( params );
         inStack.push( result );
     }
@@ -0,0 +1,72 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import java.util.Stack;
+
+import org.nfunk.jep.ParseException;
+
+/**
+ * Abstract class that encapsulates
+ * a JEP custom function
+ * of exactly two arguments.
+ * The arguments are popped from JEP's stack
+ * and passed directly
+ * to {@linkplain #evaluate(double, double)},
+ * so that, unlike the general case
+ * implemented by {@linkplain JEPAbstractFunction},
+ * no array is allocated
+ * to hold the arguments.
+ * <p>
+ * To implement a binary custom function
+ * extend this class
+ * and override <em>evaluate( double param1, double param2 )</em>.
+ * </p>
+ * 
+ * @author Jack Straub
+ * 
+ * @see JEPUnaryFunction
+ * @see JEPFunctions
+ */
+public abstract class JEPBinaryFunction extends JEPAbstractFunction
+{
+    /**
+     * Method to evaluate a JEP function
+     * for given arguments.
+     * 
+     * @param param1    the first argument
+     * @param param2    the second argument
+     * 
+     * @return  the result of the evaluation
+     */
+    public abstract double evaluate( double param1, double param2 );
+
+    /**
+     * Constructor.
+     * Establishes the name of the function.
+     * 
+     * @param name  the name of the function
+     */
+    public JEPBinaryFunction( String name )
+    {
+        super( name, 2 );
+    }
+
+    @Override
+    public double evaluate( double... params )
+    {
+        double  result  = evaluate( params[0], params[1] );
+        return result;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    @Override
+    public void run( Stack inStack )
+        throws ParseException, ClassCastException
+    {
+        checkStack( inStack );
+
+        // Arguments are on the stack in reverse order.
+        double  param2  = (Double)inStack.pop();
+        double  param1  = (Double)inStack.pop();
+        inStack.push( evaluate( param1, param2 ) );
+    }
+}
@@ -1,16 +1,23 @@
 package com.acmemail.judah.cartesian_plane.input;
 
 import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.DoubleConsumer;
+import java.util.function.DoubleUnaryOperator;
 import java.util.stream.DoubleStream;
 import java.util.stream.Stream;
 
+import org.nfunk.jep.ASTVarNode;
 import org.nfunk.jep.JEP;
+import org.nfunk.jep.Node;
 
 /**
  * Implementation of the Equation interface
@@ -42,6 +49,13 @@ import org.nfunk.jep.JEP;
  */
 public class JEPEquation implements Equation
 {
+    /** 
+     * Cache of parsers parsed by {@linkplain #evaluate(String)},
+     * shared by all instances of this class.
+     */
+    private static final ExpressionCache<JEP>  exprCache   =
+        new ExpressionCache<>();
+    
     private final Map<String,Double>    vars        = new HashMap<>();
     private String                      name        = "New Equation";
     private double                      rStart      = -1;
@@ -56,6 +70,9 @@ public class JEPEquation implements Equation
     private String                      yExprStr    = "1";
     private String                      tExprStr    = "1";
     private String                      rExprStr    = "1";
+    private String                      fExprStr    = "1";
+    private String                      zExprStr    = DomainColoring.ZED;
+    private Set<String>                 zDeps       = Set.of();
     private String                      param       = "t";
     private String                      radius      = "r";
     private String                      theta       = "t";
@@ -63,6 +80,13 @@ public class JEPEquation implements Equation
     private JEP                         yExpr       = null;
     private JEP                         tExpr       = null;
     private JEP                         rExpr       = null;
+    private JEP                         fExpr       = null;
+    private boolean                     parallel    = false;
+    private AdaptiveSampler             sampler     = null;
+    private double                      polarTol    = 0;
+    private boolean                     autoRange   = false;
+    private Viewport                    viewport    = null;
+    private long                        version     = 0;
     
     /**
      * Default constructor.
@@ -123,13 +147,16 @@ public class JEPEquation implements Equation
     @Override
     public void setVar(String name, double val)
     {
-        vars.put( name, val );
+        Double  prev    = vars.put( name, val );
+        if ( (prev == null || prev != val) && dependsOn( name ) )
+            ++version;
     }
 
     @Override
     public void removeVar(String name)
     {
-        vars.remove( name );
+        if ( vars.remove( name ) != null && dependsOn( name ) )
+            ++version;
     }
 
     @Override
@@ -181,6 +208,27 @@ public class JEPEquation implements Equation
         return result;
     }
 
+    @Override
+    public Result setFExpression(String exprStr)
+    {
+        Result    result  = 
+            validateExpr( exprStr, s -> fExprStr = s, e -> fExpr = e );
+        return result;
+    }
+
+    @Override
+    public Result setZExpression(String exprStr)
+    {
+        Result    result  = DomainColoring.validate( exprStr, vars.keySet() );
+        if ( result.isSuccess() )
+        {
+            zExprStr = exprStr;
+            zDeps = DomainColoring.dependencies( exprStr );
+            ++version;
+        }
+        return result;
+    }
+
     @Override
     public String getXExpression()
     {
@@ -204,6 +252,58 @@ public class JEPEquation implements Equation
     {
         return rExprStr;
     }
+
+    @Override
+    public String getFExpression()
+    {
+        return fExprStr;
+    }
+
+    @Override
+    public String getZExpression()
+    {
+        return zExprStr;
+    }
+    
+    @Override
+    public Set<String> getXDependencies()
+    {
+        return dependencies( xExpr );
+    }
+    
+
+    @Override
+    public Set<String> getYDependencies()
+    {
+        return dependencies( yExpr );
+    }
+    
+
+    @Override
+    public Set<String> getTDependencies()
+    {
+        return dependencies( tExpr );
+    }
+    
+
+    @Override
+    public Set<String> getRDependencies()
+    {
+        return dependencies( rExpr );
+    }
+    
+
+    @Override
+    public Set<String> getFDependencies()
+    {
+        return dependencies( fExpr );
+    }
+    
+    @Override
+    public Set<String> getZDependencies()
+    {
+        return zDeps;
+    }
     
     @Override
     public boolean isValidExpression( String exprStr )
@@ -217,56 +317,273 @@ public class JEPEquation implements Equation
     @Override
     public Stream<Point2D> yPlot()
     {
-        plot = "YPlot";
-        updateVars( yExpr );
-        Stream<Point2D> stream  =
-            DoubleStream.iterate( rStart, d -> d <= rEnd, d -> d + rStep )
-                .peek( d -> yExpr.addVariable( "x", d ) )
-                .mapToObj( d -> new Point2D.Double( d, yExpr.getValue() ) );
+        Stream<Point2D> stream  = null;
+        if ( parallel || sampler != null )
+            stream = bufferStream( this::yPlot );
+        else
+        {
+            plot = "YPlot";
+            boolean auto    = autoRange && viewport != null;
+            double  start   = auto ? viewport.getXMin() : rStart;
+            double  end     = auto ? viewport.getXMax() : rEnd;
+            double  step    = auto ? viewport.getStep() : rStep;
+            JEP yOpt    = newWorker( yExprStr );
+            stream =
+                DoubleStream.iterate( start, d -> d <= end, d -> d + step )
+                    .peek( d -> yOpt.addVariable( "x", d ) )
+                    .mapToObj( d -> new Point2D.Double( d, yOpt.getValue() ) );
+        }
         return stream;
     }
 
     @Override
     public Stream<Point2D> xyPlot()
     {
-        plot = "XYPlot";
-        updateVars( xExpr );
-        updateVars( yExpr );
-        Stream<Point2D> stream  =
-            DoubleStream.iterate( rStart, t -> t <= rEnd, t -> t + rStep )
-                .peek( t -> xExpr.addVariable( "t", t ) )
-                .peek( t -> yExpr.addVariable( "t", t ) )
-                .mapToObj( t -> 
-                    new Point2D.Double( xExpr.getValue(), yExpr.getValue() )
-                );
+        Stream<Point2D> stream  = null;
+        if ( parallel || sampler != null )
+            stream = bufferStream( this::xyPlot );
+        else
+        {
+            plot = "XYPlot";
+            JEP xOpt    = newWorker( xExprStr );
+            JEP yOpt    = newWorker( yExprStr );
+            stream =
+                DoubleStream.iterate( rStart, t -> t <= rEnd, t -> t + rStep )
+                    .peek( t -> xOpt.addVariable( param, t ) )
+                    .peek( t -> yOpt.addVariable( param, t ) )
+                    .mapToObj( t -> 
+                        new Point2D.Double( xOpt.getValue(), yOpt.getValue() )
+                    );
+        }
         return stream;
     }
 
     @Override
     public Stream<Point2D> rPlot()
     {
-        plot = "RPlot";
-        updateVars( rExpr );
-        Stream<Point2D> stream  =
-            DoubleStream.iterate( rStart, t -> t <= rEnd, t -> t + rStep )
-                .peek( t -> rExpr.addVariable( theta, t ) )
-                .mapToObj( t -> Polar.of( rExpr.getValue(), t ) )
-                .map( p -> p.toPoint() );
+        Stream<Point2D> stream  = null;
+        if ( parallel || sampler != null || polarTol > 0 )
+            stream = bufferStream( this::rPlot );
+        else
+        {
+            plot = "RPlot";
+            JEP rOpt    = newWorker( rExprStr );
+            stream =
+                DoubleStream.iterate( rStart, t -> t <= rEnd, t -> t + rStep )
+                    .peek( t -> rOpt.addVariable( theta, t ) )
+                    .mapToObj( t -> {
+                        double  rco = rOpt.getValue();
+                        return new Point2D.Double(
+                            rco * Math.cos( t ), rco * Math.sin( t )
+                        );
+                    });
+        }
         return stream;
     }
 
     @Override
     public Stream<Point2D> tPlot()
     {
-        plot = "TPlot";
-        Stream<Point2D> stream  =
-            DoubleStream.iterate( rStart, r -> r <= rEnd, r -> r += rStep )
-                .peek( r -> tExpr.addVariable( radius, r ) )
-                .mapToObj( r -> Polar.of( r, tExpr.getValue() ) )
-                .map( p -> p.toPoint() );
+        Stream<Point2D> stream  = null;
+        if ( parallel || sampler != null )
+            stream = bufferStream( this::tPlot );
+        else
+        {
+            plot = "TPlot";
+            JEP tOpt    = newWorker( tExprStr );
+            stream =
+                DoubleStream.iterate( rStart, r -> r <= rEnd, r -> r += rStep )
+                    .peek( r -> tOpt.addVariable( radius, r ) )
+                    .mapToObj( r -> {
+                        double  tco = tOpt.getValue();
+                        return new Point2D.Double(
+                            r * Math.cos( tco ), r * Math.sin( tco )
+                        );
+                    });
+        }
+        return stream;
+    }
+
+    /**
+     * Generates the (x,y) coordinates
+     * of the curve described by
+     * the implicit equation <em>f(x,y) = 0</em>.
+     * The curve is always traced into a buffer;
+     * see {@linkplain #fPlot(PointBuffer)}.
+     * 
+     * @return the (x,y) coordinates of the curve
+     * 
+     * @throws ValidationException if the equation is invalid
+     */
+    @Override
+    public Stream<Point2D> fPlot()
+    {
+        Stream<Point2D> stream  = bufferStream( this::fPlot );
         return stream;
     }
 
+    @Override
+    public void yPlot( PointBuffer buffer )
+    {
+        plot = "YPlot";
+        boolean auto    = autoRange && viewport != null;
+        double  start   = auto ? viewport.getXMin() : rStart;
+        double  end     = auto ? viewport.getXMax() : rEnd;
+        double  step    = auto ? viewport.getStep() : rStep;
+        JEP yOpt    = newWorker( yExprStr );
+        if ( sampler != null )
+            sampler.sample( start, end, (xco, pt) -> {
+                yOpt.addVariable( "x", xco );
+                pt.setLocation( xco, yOpt.getValue() );
+            }, buffer );
+        else if ( parallel )
+            ParallelPlotter.plot( start, end, step, () -> {
+                JEP expr    = newWorker( yExprStr );
+                return (b, i, xco) -> {
+                    expr.addVariable( "x", xco );
+                    b.set( i, xco, expr.getValue() );
+                };
+            }, buffer );
+        else
+        {
+            buffer.clear();
+            for ( double xco = start ; xco <= end ; xco += step )
+            {
+                yOpt.addVariable( "x", xco );
+                buffer.add( xco, yOpt.getValue() );
+            }
+        }
+    }
+
+    @Override
+    public DoubleUnaryOperator getYFunction()
+    {
+        JEP expr    = newWorker( yExprStr );
+        return xco -> {
+            expr.addVariable( "x", xco );
+            return expr.getValue();
+        };
+    }
+
+    @Override
+    public void xyPlot( PointBuffer buffer )
+    {
+        plot = "XYPlot";
+        JEP xOpt    = newWorker( xExprStr );
+        JEP yOpt    = newWorker( yExprStr );
+        if ( sampler != null )
+            sampler.sample( rStart, rEnd, (tco, pt) -> {
+                xOpt.addVariable( param, tco );
+                yOpt.addVariable( param, tco );
+                pt.setLocation( xOpt.getValue(), yOpt.getValue() );
+            }, buffer );
+        else if ( parallel )
+            ParallelPlotter.plot( rStart, rEnd, rStep, () -> {
+                JEP xCopy   = newWorker( xExprStr );
+                JEP yCopy   = newWorker( yExprStr );
+                return (b, i, tco) -> {
+                    xCopy.addVariable( param, tco );
+                    yCopy.addVariable( param, tco );
+                    b.set( i, xCopy.getValue(), yCopy.getValue() );
+                };
+            }, buffer );
+        else
+        {
+            buffer.clear();
+            for ( double tco = rStart ; tco <= rEnd ; tco += rStep )
+            {
+                xOpt.addVariable( param, tco );
+                yOpt.addVariable( param, tco );
+                buffer.add( xOpt.getValue(), yOpt.getValue() );
+            }
+        }
+    }
+
+    @Override
+    public void rPlot( PointBuffer buffer )
+    {
+        plot = "RPlot";
+        JEP rOpt    = newWorker( rExprStr );
+        if ( sampler != null )
+            sampler.sample( rStart, rEnd, (tco, pt) -> {
+                rOpt.addVariable( theta, tco );
+                double  rco = rOpt.getValue();
+                pt.setLocation( rco * Math.cos( tco ), rco * Math.sin( tco ) );
+            }, buffer );
+        else if ( parallel )
+            ParallelPlotter.plot( rStart, rEnd, rStep, () -> {
+                JEP                 expr    = newWorker( rExprStr );
+                IncrementalSinCos   trig    = newSinCos();
+                return (b, i, tco) -> {
+                    expr.addVariable( theta, tco );
+                    double  rco = expr.getValue();
+                    trig.moveTo( i, tco );
+                    b.set( i, rco * trig.cos(), rco * trig.sin() );
+                };
+            }, buffer );
+        else
+        {
+            buffer.clear();
+            IncrementalSinCos   trig    = newSinCos();
+            int                 inx     = 0;
+            for ( double tco = rStart ; tco <= rEnd ; tco += rStep )
+            {
+                rOpt.addVariable( theta, tco );
+                double  rco = rOpt.getValue();
+                trig.moveTo( inx++, tco );
+                buffer.add( rco * trig.cos(), rco * trig.sin() );
+            }
+        }
+    }
+
+    @Override
+    public void tPlot( PointBuffer buffer )
+    {
+        plot = "TPlot";
+        JEP tOpt    = newWorker( tExprStr );
+        if ( sampler != null )
+            sampler.sample( rStart, rEnd, (rco, pt) -> {
+                tOpt.addVariable( radius, rco );
+                double  tco = tOpt.getValue();
+                pt.setLocation( rco * Math.cos( tco ), rco * Math.sin( tco ) );
+            }, buffer );
+        else if ( parallel )
+            ParallelPlotter.plot( rStart, rEnd, rStep, () -> {
+                JEP expr    = newWorker( tExprStr );
+                return (b, i, rco) -> {
+                    expr.addVariable( radius, rco );
+                    double  tco = expr.getValue();
+                    b.set( i, rco * Math.cos( tco ), rco * Math.sin( tco ) );
+                };
+            }, buffer );
+        else
+        {
+            buffer.clear();
+            for ( double rco = rStart ; rco <= rEnd ; rco += rStep )
+            {
+                tOpt.addVariable( radius, rco );
+                double  tco = tOpt.getValue();
+                buffer.add( rco * Math.cos( tco ), rco * Math.sin( tco ) );
+            }
+        }
+    }
+
+    @Override
+    public void fPlot( PointBuffer buffer )
+    {
+        plot = "FPlot";
+        Rectangle2D bounds  = getImplicitBounds();
+        double      step    = viewport != null ? viewport.getStep() : rStep;
+        ImplicitPlotter.plot( bounds, step, parallel, () -> {
+            JEP expr    = newWorker( fExprStr );
+            return (xco, yco) -> {
+                expr.addVariable( "x", xco );
+                expr.addVariable( "y", yco );
+                return expr.getValue();
+            };
+        }, buffer );
+    }
+
     @Override
     public String getParamName()
     {
@@ -277,6 +594,7 @@ public class JEPEquation implements Equation
     public void setParamName(String param)
     {
         this.param = param;
+        ++version;
     }
 
     @Override
@@ -289,6 +607,7 @@ public class JEPEquation implements Equation
     public void setRadiusName(String radius)
     {
         this.radius = radius;
+        ++version;
     }
 
     @Override
@@ -301,6 +620,7 @@ public class JEPEquation implements Equation
     public void setThetaName(String theta)
     {
         this.theta = theta;
+        ++version;
     }
     
     /**
@@ -436,15 +756,182 @@ public class JEPEquation implements Equation
         return plot;
     }
 
+    @Override
+    public void setParallel( boolean parallel )
+    {
+        this.parallel = parallel;
+    }
+
+    @Override
+    public boolean isParallel()
+    {
+        return parallel;
+    }
+
+    @Override
+    public void setAdaptiveSampler( AdaptiveSampler sampler )
+    {
+        this.sampler = sampler;
+        ++version;
+        if ( sampler != null && viewport != null )
+            viewport.configure( sampler );
+    }
+
+    @Override
+    public AdaptiveSampler getAdaptiveSampler()
+    {
+        return sampler;
+    }
+
+    @Override
+    public void setPolarTolerance( double tolerance )
+    {
+        if ( !(tolerance >= 0) )
+        {
+            String  msg = "Invalid tolerance: " + tolerance;
+            throw new IllegalArgumentException( msg );
+        }
+        if ( tolerance != polarTol )
+            ++version;
+        polarTol = tolerance;
+    }
+
+    @Override
+    public double getPolarTolerance()
+    {
+        return polarTol;
+    }
+
+    @Override
+    public void setAutoRange( boolean autoRange )
+    {
+        this.autoRange = autoRange;
+        ++version;
+    }
+
+    @Override
+    public boolean isAutoRange()
+    {
+        return autoRange;
+    }
+
+    @Override
+    public void setViewport( Viewport viewport )
+    {
+        // A new viewport changes a plot only if it determines
+        // the range of a y-plot or the grid of an f-plot, or
+        // configures the sampler. A y-plot culled by an
+        // IntervalPlotter also depends on the y-range, which
+        // its caches compare separately.
+        boolean implicit    = plot.equalsIgnoreCase( "FPlot" );
+        if ( (autoRange || implicit || sampler != null) 
+            && !Objects.equals( viewport, this.viewport ) )
+            ++version;
+        this.viewport = viewport;
+        if ( viewport != null && sampler != null )
+            viewport.configure( sampler );
+    }
+
+    @Override
+    public Viewport getViewport()
+    {
+        return viewport;
+    }
+
+    @Override
+    public long getVersion()
+    {
+        return version;
+    }
+
+    /**
+     * Returns the cache of expressions
+     * parsed by {@linkplain #evaluate(String)}.
+     * The cache is shared by all instances of this class.
+     * 
+     * @return  the cache of expressions parsed by evaluate(String)
+     */
+    public static ExpressionCache<JEP> getExpressionCache()
+    {
+        return exprCache;
+    }
+    
+    /**
+     * Returns the optimized form of a given expression,
+     * with every variable except <em>x</em>, <em>y</em>
+     * and the parameter, radius and angle names
+     * treated as a constant.
+     * This is the form evaluated by the plot methods.
+     * 
+     * @param exprStr   the given expression
+     * 
+     * @return  
+     *      an Optional containing the optimized expression,
+     *      or an empty Optional if the given expression is invalid
+     */
+    @Override
+    public Optional<String> getOptimizedExpression( String exprStr )
+    {
+        Optional<String>    result  = Optional.empty();
+        JEP                 parser  = newParser();
+        parser.parseExpression( exprStr );
+        if ( !parser.hasError() )
+        {
+            getOptimizer().optimize( parser );
+            String  optStr  = JEPOptimizer.toString( parser.getTopNode() );
+            result = Optional.of( optStr );
+        }
+        return result;
+    }
+    
+    /**
+     * Evaluates a given expression
+     * using the current values of this Equation's variables.
+     * Parsers are cached
+     * by expression string and variable names,
+     * so an expression that is evaluated repeatedly
+     * is parsed only once.
+     * 
+     * @param exprStr   the given expression
+     * 
+     * @return
+     *      the value of the given expression,
+     *      or an empty Optional if the expression is invalid
+     */
     @Override
     public Optional<Double> evaluate(String exprStr)
     {
         Optional<Double>    result  = Optional.empty();
+        JEP                 parser  = 
+            exprCache.get( exprStr, vars.keySet(), this::parseValidated );
+        if ( parser != null )
+        {
+            // The cached parser is shared, and evaluating it
+            // requires setting its variables.
+            synchronized ( parser )
+            {
+                updateVars( parser );
+                result = Optional.of( parser.getValue() );
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Instantiates a parser,
+     * and parses a given expression into it.
+     * 
+     * @param exprStr   the given expression
+     * 
+     * @return  the new parser, or null if the expression is invalid
+     */
+    private JEP parseValidated( String exprStr )
+    {
         JEP parser  = newParser();
         parser.parseExpression( exprStr );
-        if ( !parser.hasError() )
-            result = Optional.of( parser.getValue() );
-        return result;
+        if ( parser.hasError() )
+            parser = null;
+        return parser;
     }
     
     /**
@@ -470,6 +957,7 @@ public class JEPEquation implements Equation
         {
             valSetter.accept( dVal.get() );
             strSetter.accept( str );
+            ++version;
             result = new Result( true );
         }
         else
@@ -497,6 +985,7 @@ public class JEPEquation implements Equation
         setYExpression( yExprStr );
         setTExpression( tExprStr );
         setRExpression( rExprStr );
+        setFExpression( fExprStr );
     }
     
     /**
@@ -542,6 +1031,7 @@ public class JEPEquation implements Equation
             result = new Result( true, null );
             objDest.accept( parser );
             strDest.accept( exprStr );
+            ++version;
         }
         return result;
     }
@@ -562,6 +1052,138 @@ public class JEPEquation implements Equation
         return parser;
     }
     
+    /**
+     * Instantiates a JEP object
+     * for the private use of a single plot,
+     * or of a single thread
+     * during a parallel plot,
+     * and parses a given expression into it.
+     * The parsed expression is optimized
+     * using the current values of the variables;
+     * see {@linkplain JEPOptimizer}.
+     * The expression has already been validated.
+     * 
+     * @param exprStr   the given expression
+     * 
+     * @return  the new JEP object
+     */
+    private JEP newWorker( String exprStr )
+    {
+        JEP parser  = newParser();
+        parser.parseExpression( exprStr );
+        getOptimizer().optimize( parser );
+        return parser;
+    }
+    
+    /**
+     * Returns an optimizer
+     * that treats every variable except <em>x</em>, <em>y</em>
+     * and the parameter, radius and angle names
+     * as a constant.
+     * 
+     * @return  an optimizer for plotting this Equation
+     */
+    private JEPOptimizer getOptimizer()
+    {
+        Set<String>     freeNames   = 
+            new HashSet<>( List.of( "x", "y", param, radius, theta ) );
+        JEPOptimizer    optimizer   = new JEPOptimizer( freeNames );
+        return optimizer;
+    }
+    
+    /**
+     * Returns the names of the variables
+     * read by a given parsed expression.
+     * If the expression is null
+     * an empty set is returned.
+     * 
+     * @param expr  the given parsed expression
+     * 
+     * @return  the names of the variables read by the given expression
+     */
+    private static Set<String> dependencies( JEP expr )
+    {
+        Set<String> names   = new HashSet<>();
+        if ( expr != null && expr.getTopNode() != null )
+            addVarNames( expr.getTopNode(), names );
+        return Set.copyOf( names );
+    }
+    
+    /**
+     * Adds to a given set
+     * the names of all the variables
+     * in the parse tree rooted at a given node.
+     * 
+     * @param node  the given node
+     * @param names the given set
+     */
+    private static void addVarNames( Node node, Set<String> names )
+    {
+        if ( node instanceof ASTVarNode )
+            names.add( ((ASTVarNode)node).getName() );
+        int count   = node.jjtGetNumChildren();
+        for ( int inx = 0 ; inx < count ; ++inx )
+            addVarNames( node.jjtGetChild( inx ), names );
+    }
+    
+    /**
+     * Creates an object to calculate
+     * the sine and cosine of theta
+     * during an r-plot,
+     * using the current iteration range
+     * and polar tolerance.
+     * 
+     * @return  object to calculate the sine and cosine of theta
+     */
+    private IncrementalSinCos newSinCos()
+    {
+        double              maxAngle    =
+            Math.max( Math.abs( rStart ), Math.abs( rEnd ) );
+        IncrementalSinCos   trig        =
+            new IncrementalSinCos( rStep, maxAngle, polarTol );
+        return trig;
+    }
+
+    /**
+     * Returns the region of the plane
+     * traversed by an f-plot:
+     * the bounds of the viewport, if any,
+     * otherwise the square
+     * in which x and y both traverse
+     * the iteration range.
+     * 
+     * @return  the region of the plane traversed by an f-plot
+     */
+    private Rectangle2D getImplicitBounds()
+    {
+        Rectangle2D bounds  = null;
+        if ( viewport != null )
+            bounds = viewport.getBounds();
+        else
+        {
+            double  size    = rEnd - rStart;
+            bounds = new Rectangle2D.Double( rStart, rStart, size, size );
+        }
+        return bounds;
+    }
+
+    /**
+     * Generates a plot in parallel or adaptively,
+     * using a given buffer-based plot method,
+     * and returns the points of the plot
+     * as a stream.
+     * 
+     * @param plotter   the given plot method
+     * 
+     * @return  the points of the plot, in order
+     */
+    private Stream<Point2D> bufferStream( Consumer<PointBuffer> plotter )
+    {
+        PointBuffer buffer  = new PointBuffer();
+        plotter.accept( buffer );
+        return buffer.stream();
+    }
+    
     /**
      * Add all existing variables
      * to the given parser.
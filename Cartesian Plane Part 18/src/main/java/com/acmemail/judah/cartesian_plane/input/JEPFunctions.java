@@ -17,21 +17,36 @@ import org.nfunk.jep.JEP;
  * <ol>
  * <li>
  *     Add a <em>public static nested class</em>
- *     that extends {@link JEPAbstractFunction}.
+ *     that extends {@link JEPUnaryFunction}
+ *     for a function of one argument,
+ *     {@link JEPBinaryFunction}
+ *     for a function of two arguments,
+ *     or {@link JEPAbstractFunction}
+ *     for any other function.
  * </li>
  * <li>
  *     Add a default constructor
  *     that invokes the super class constructor
  *     passing the function name
- *     and the number of arguments
+ *     and, for a JEPAbstractFunction,
+ *     the number of arguments
  *     expected by the custom function.
  * </li>
  * <li>
- *     Override the <em>evaluate( double params )</em> method.
+ *     Override the <em>evaluate</em> method:
+ *     <em>evaluate( double param )</em> for a JEPUnaryFunction,
+ *     <em>evaluate( double param1, double param2 )</em>
+ *     for a JEPBinaryFunction,
+ *     or <em>evaluate( double... params )</em> otherwise.
  *     Compute and return the desired value.
  * </li>
  * </ol>
  * <p>
+ * Unary and binary functions
+ * receive their arguments directly from JEP's stack;
+ * no array is allocated to hold them.
+ * </p>
+ * <p>
  * See {@link JEPFunctions.ToDegrees} for an example.
  * 
  * @author Jack Straub
@@ -94,22 +109,21 @@ public class JEPFunctions
      * 
      * @author Jack Straub
      */
-    public static class ToDegrees extends JEPAbstractFunction
+    public static class ToDegrees extends JEPUnaryFunction
     {
         /**
          * Constructor.
-         * Establishes the name of the custom function,
-         * and the number of required arguments.
+         * Establishes the name of the custom function.
          */
         public ToDegrees()
         {
-            super( "toDegrees", 1 );
+            super( "toDegrees" );
         }
         
         @Override
-        public double evaluate( double... params )
+        public double evaluate( double param )
         {
-            double  degrees = params[0] * 180 / Math.PI;
+            double  degrees = param * 180 / Math.PI;
             return degrees;
         }
     }
@@ -119,23 +133,22 @@ public class JEPFunctions
      * 
      * @author Jack Straub
      */
-    public static class ToRadians extends JEPAbstractFunction
+    public static class ToRadians extends JEPUnaryFunction
     {
         /**
          * Constructor.
-         * Establishes the name of the custom function,
-         * and the number of required arguments.
+         * Establishes the name of the custom function.
          */
         public ToRadians()
         {
-            super( "toRadians", 1 );
+            super( "toRadians" );
             
         }
         
         @Override
-        public double evaluate( double... params )
+        public double evaluate( double param )
         {
-            double  radians = params[0] * Math.PI / 180.;
+            double  radians = param * Math.PI / 180.;
             return radians;
         }
     }
@@ -146,22 +159,21 @@ public class JEPFunctions
      * 
      * @author Jack Straub
      */
-    public static class Secant extends JEPAbstractFunction
+    public static class Secant extends JEPUnaryFunction
     {
         /**
          * Constructor.
-         * Establishes the name of the custom function,
-         * and the number of required arguments.
+         * Establishes the name of the custom function.
          */
         public Secant()
         {
-            super( "sec", 1 );            
+            super( "sec" );            
         }
         
         @Override
-        public double evaluate( double... params )
+        public double evaluate( double param )
         {
-            double  secant = 1.0 / Math.cos( params[0] );
+            double  secant = 1.0 / Math.cos( param );
             return secant;
         }
     }
@@ -172,23 +184,22 @@ public class JEPFunctions
      * 
      * @author Jack Straub
      */
-    public static class Cosecant extends JEPAbstractFunction
+    public static class Cosecant extends JEPUnaryFunction
     {
         /**
          * Constructor.
-         * Establishes the name of the custom function,
-         * and the number of required arguments.
+         * Establishes the name of the custom function.
          */
         public Cosecant()
         {
-            super( "csc", 1 );
+            super( "csc" );
             
         }
         
         @Override
-        public double evaluate( double... params )
+        public double evaluate( double param )
         {
-            double  cosecant = 1.0 / Math.sin( params[0] );
+            double  cosecant = 1.0 / Math.sin( param );
             return cosecant;
         }
     }
@@ -199,22 +210,21 @@ public class JEPFunctions
      * 
      * @author Jack Straub
      */
-    public static class Cotangent extends JEPAbstractFunction
+    public static class Cotangent extends JEPUnaryFunction
     {
         /**
          * Constructor.
-         * Establishes the name of the custom function,
-         * and the number of required arguments.
+         * Establishes the name of the custom function.
          */
         public Cotangent()
         {
-            super( "cot", 1 );            
+            super( "cot" );            
         }
         
         @Override
-        public double evaluate( double... params )
+        public double evaluate( double param )
         {
-            double  cotan = 1.0 / Math.tan( params[0] );
+            double  cotan = 1.0 / Math.tan( param );
             return cotan;
         }
     }
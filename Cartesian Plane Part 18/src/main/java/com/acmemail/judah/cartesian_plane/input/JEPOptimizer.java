@@ -0,0 +1,269 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import java.util.Set;
+import java.util.StringJoiner;
+
+import org.nfunk.jep.ASTConstant;
+import org.nfunk.jep.ASTFunNode;
+import org.nfunk.jep.ASTVarNode;
+import org.nfunk.jep.JEP;
+import org.nfunk.jep.Node;
+import org.nfunk.jep.ParseException;
+import org.nfunk.jep.ParserTreeConstants;
+
+/**
+ * Rewrites the parse tree
+ * of an expression parsed by JEP
+ * so that it is cheaper to evaluate.
+ * This is the JEP counterpart
+ * of {@linkplain ExprOptimizer};
+ * JEP's syntax differs from exp4j's
+ * (for example, <em>log</em> is the base-10 logarithm),
+ * so the tree is rewritten in place
+ * rather than converted to an {@linkplain ExprNode}.
+ * <p>
+ * Every variable that is not one of a given set
+ * of <em>free</em> names,
+ * such as a constant declared with a <em>set</em> command,
+ * is treated as a constant.
+ * A sub-tree that depends only on constants
+ * is evaluated by JEP
+ * and replaced by a single constant node;
+ * this includes calls to custom functions
+ * such as <em>toRadians</em> and <em>sec</em>.
+ * Calls to <em>rand</em>,
+ * which is not a pure function,
+ * are never folded.
+ * A sub-tree whose value is not a finite number
+ * is left unchanged.
+ * The root of the tree is never replaced;
+ * if the entire expression is constant
+ * its children are folded instead.
+ * </p>
+ * <p>
+ * Algebraic identities are not applied;
+ * JEP offers no convenient way
+ * to restructure its parse trees.
+ * </p>
+ * 
+ * @author Jack Straub
+ * 
+ * @see ExprOptimizer
+ * @see JEPEquation
+ */
+public class JEPOptimizer
+{
+    /** Name of JEP's random number function, which is not pure. */
+    private static final String randName    = "rand";
+
+    /** Names of the variables that vary during a plot. */
+    private final Set<String>   freeNames;
+
+    /**
+     * Constructor.
+     * Establishes the names of the variables
+     * that are <em>not</em> to be treated as constants.
+     * 
+     * @param freeNames the names of the variables that vary
+     */
+    public JEPOptimizer( Set<String> freeNames )
+    {
+        this.freeNames = Set.copyOf( freeNames );
+    }
+
+    /**
+     * Optimizes, in place,
+     * the expression most recently parsed
+     * by a given JEP object.
+     * Constants are evaluated
+     * using the current values of the variables
+     * in the JEP object.
+     * 
+     * @param parser    the given JEP object
+     */
+    public void optimize( JEP parser )
+    {
+        Node    root    = parser.getTopNode();
+        if ( root != null && isConstant( parser, root ) )
+            foldChildren( parser, root );
+    }
+
+    /**
+     * Converts the tree rooted at a given node
+     * to a string,
+     * for debugging.
+     * Every operation with two operands
+     * that is itself an operand
+     * is enclosed in parentheses.
+     * 
+     * @param node  the given node
+     * 
+     * @return  string representation of the given tree
+     */
+    public static String toString( Node node )
+    {
+        String  str = null;
+        if ( node instanceof ASTConstant )
+        {
+            Object  value   = ((ASTConstant)node).getValue();
+            if ( value instanceof Double )
+                str = new ExprNode.Constant( (Double)value ).toString();
+            else
+                str = String.valueOf( value );
+        }
+        else if ( node instanceof ASTVarNode )
+            str = ((ASTVarNode)node).getName();
+        else if ( !(node instanceof ASTFunNode) )
+            str = node.toString();
+        else if ( !((ASTFunNode)node).isOperator() )
+        {
+            String          name    = ((ASTFunNode)node).getName();
+            StringJoiner    joiner  = new StringJoiner( ", ", name + "(", ")" );
+            for ( int inx = 0 ; inx < node.jjtGetNumChildren() ; ++inx )
+                joiner.add( toString( node.jjtGetChild( inx ) ) );
+            str = joiner.toString();
+        }
+        else
+        {
+            String  symbol  = ((ASTFunNode)node).getOperator().getSymbol();
+            if ( node.jjtGetNumChildren() == 1 )
+                str = symbol + operand( node.jjtGetChild( 0 ) );
+            else
+            {
+                StringJoiner    joiner  = 
+                    new StringJoiner( " " + symbol + " " );
+                for ( int inx = 0 ; inx < node.jjtGetNumChildren() ; ++inx )
+                    joiner.add( operand( node.jjtGetChild( inx ) ) );
+                str = joiner.toString();
+            }
+        }
+        return str;
+    }
+
+    /**
+     * Determines whether the tree rooted at a given node
+     * depends only on constants.
+     * If it does not,
+     * any of the node's children that do
+     * are replaced by constant nodes.
+     * 
+     * @param parser    JEP object used to evaluate sub-trees
+     * @param node      the given node
+     * 
+     * @return  true if the given tree depends only on constants
+     */
+    private boolean isConstant( JEP parser, Node node )
+    {
+        boolean result  = false;
+        if ( node instanceof ASTConstant )
+            result = true;
+        else if ( node instanceof ASTVarNode )
+            result = !freeNames.contains( ((ASTVarNode)node).getName() );
+        else if ( node instanceof ASTFunNode )
+        {
+            int         count       = node.jjtGetNumChildren();
+            boolean[]   childConst  = new boolean[count];
+            boolean     allConst    = true;
+            for ( int inx = 0 ; inx < count ; ++inx )
+            {
+                Node    child   = node.jjtGetChild( inx );
+                childConst[inx] = isConstant( parser, child );
+                allConst &= childConst[inx];
+            }
+            result = allConst && isPure( (ASTFunNode)node );
+            if ( !result )
+                for ( int inx = 0 ; inx < count ; ++inx )
+                    if ( childConst[inx] )
+                        fold( parser, node, inx );
+        }
+        return result;
+    }
+
+    /**
+     * Replaces with constant nodes
+     * all the children of a given node.
+     * The children are assumed
+     * to depend only on constants.
+     * 
+     * @param parser    JEP object used to evaluate sub-trees
+     * @param node      the given node
+     */
+    private static void foldChildren( JEP parser, Node node )
+    {
+        int count   = node.jjtGetNumChildren();
+        for ( int inx = 0 ; inx < count ; ++inx )
+            fold( parser, node, inx );
+    }
+
+    /**
+     * Evaluates the child of a given node
+     * at a given index,
+     * and replaces it with a constant node.
+     * If the child is already a constant node,
+     * cannot be evaluated,
+     * or its value is not a finite number,
+     * the child is left unchanged.
+     * 
+     * @param parser    JEP object used to evaluate the child
+     * @param parent    the given node
+     * @param inx       the given index
+     */
+    private static void fold( JEP parser, Node parent, int inx )
+    {
+        Node    child   = parent.jjtGetChild( inx );
+        try
+        {
+            Object  value   = null;
+            if ( !(child instanceof ASTConstant) )
+                value = parser.evaluate( child );
+            if ( value instanceof Double && Double.isFinite( (Double)value ) )
+            {
+                ASTConstant constant    =
+                    new ASTConstant( ParserTreeConstants.JJTCONSTANT );
+                constant.setValue( value );
+                constant.jjtSetParent( parent );
+                parent.jjtAddChild( constant, inx );
+            }
+        }
+        catch ( ParseException exc )
+        {
+            // Leave the child unchanged.
+        }
+    }
+
+    /**
+     * Determines whether a given function node
+     * represents a pure function:
+     * one whose value depends only on its arguments.
+     * 
+     * @param node  the given function node
+     * 
+     * @return  true if the given function is pure
+     */
+    private static boolean isPure( ASTFunNode node )
+    {
+        boolean result  = !randName.equals( node.getName() );
+        return result;
+    }
+
+    /**
+     * Converts a given node to a string
+     * for use as an operand,
+     * enclosing it in parentheses
+     * if it is an operation with two operands.
+     * 
+     * @param node  the given node
+     * 
+     * @return  the string representation of the given node
+     */
+    private static String operand( Node node )
+    {
+        String  str = toString( node );
+        if ( node instanceof ASTFunNode
+            && ((ASTFunNode)node).isOperator()
+            && node.jjtGetNumChildren() > 1
+        )
+            str = "(" + str + ")";
+        return str;
+    }
+}
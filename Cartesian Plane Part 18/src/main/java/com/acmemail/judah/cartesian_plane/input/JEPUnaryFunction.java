@@ -0,0 +1,68 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import java.util.Stack;
+
+import org.nfunk.jep.ParseException;
+
+/**
+ * Abstract class that encapsulates
+ * a JEP custom function
+ * of exactly one argument.
+ * The argument is popped from JEP's stack
+ * and passed directly
+ * to {@linkplain #evaluate(double)},
+ * so that, unlike the general case
+ * implemented by {@linkplain JEPAbstractFunction},
+ * no array is allocated
+ * to hold the argument.
+ * <p>
+ * To implement a unary custom function
+ * extend this class
+ * and override <em>evaluate( double param )</em>.
+ * </p>
+ * 
+ * @author Jack Straub
+ * 
+ * @see JEPBinaryFunction
+ * @see JEPFunctions
+ */
+public abstract class JEPUnaryFunction extends JEPAbstractFunction
+{
+    /**
+     * Method to evaluate a JEP function
+     * for a given argument.
+     * 
+     * @param param the given argument
+     * 
+     * @return  the result of the evaluation
+     */
+    public abstract double evaluate( double param );
+
+    /**
+     * Constructor.
+     * Establishes the name of the function.
+     * 
+     * @param name  the name of the function
+     */
+    public JEPUnaryFunction( String name )
+    {
+        super( name, 1 );
+    }
+
+    @Override
+    public double evaluate( double... params )
+    {
+        double  result  = evaluate( params[0] );
+        return result;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    @Override
+    public void run( Stack inStack )
+        throws ParseException, ClassCastException
+    {
+        checkStack( inStack );
+        double  param   = (Double)inStack.pop();
+        inStack.push( evaluate( param ) );
+    }
+}
@@ -0,0 +1,243 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Generates the plots of several equations
+ * for display on the same grid.
+ * Each plot is stored in its own
+ * {@linkplain PointBuffer}.
+ * <p>
+ * Y-plots (<em>y=f(x)</em>)
+ * that iterate over the same range
+ * with the same step
+ * are generated together,
+ * in a single pass over the range:
+ * the range is divided into blocks,
+ * the values of <em>x</em> in each block
+ * are generated once,
+ * and the y-expression of every equation in the group
+ * is processed for the block
+ * before moving on to the next one.
+ * Each equation is evaluated
+ * by its own {@linkplain Equation#getYFunction() y-function}.
+ * If its y-expression is supported
+ * by {@linkplain IntervalPlotter interval evaluation}
+ * the equation's samples are culled and refined
+ * exactly as for a single y-plot,
+ * omitting samples outside the viewport
+ * and breaking the line at asymptotes;
+ * otherwise every sample is plotted.
+ * Plots of other types,
+ * and y-plots that are generated in parallel
+ * or by an adaptive sampler
+ * are generated individually,
+ * by the plot methods of their equations.
+ * </p>
+ * <p>
+ * The range of a y-plot
+ * is determined by the equation's viewport
+ * when the equation is in auto range mode;
+ * it is the responsibility of the caller
+ * to establish the viewport
+ * of each equation
+ * before generating the plots.
+ * </p>
+ * 
+ * @author Jack Straub
+ */
+public class OverlayPlotter
+{
+    /**
+     * Default constructor; not used.
+     */
+    private OverlayPlotter()
+    {
+    }
+
+    /**
+     * Generates the plots of a list of equations,
+     * and stores them in a list of buffers.
+     * The type of the plot for the equation
+     * at a given index in the list
+     * is given by the corresponding element of
+     * the list of plot types,
+     * and its points are stored
+     * in the corresponding element of
+     * the list of buffers.
+     * Each buffer is cleared
+     * before any points are stored.
+     * 
+     * @param equations the given list of equations
+     * @param plotTypes the type of plot for each equation
+     * @param buffers   the buffer for each equation
+     * 
+     * @throws IllegalArgumentException
+     *      if the lists are not all the same size,
+     *      or a plot type is not one of
+     *      YPLOT, XYPLOT, RPLOT, TPLOT or FPLOT
+     * @throws ValidationException if an equation is invalid
+     */
+    public static void plot(
+        List<Equation> equations,
+        List<Command> plotTypes,
+        List<PointBuffer> buffers
+    )
+    {
+        int     size    = equations.size();
+        if ( plotTypes.size() != size || buffers.size() != size )
+        {
+            String  msg =
+                "Mismatched list sizes: " + size + ", "
+                + plotTypes.size() + ", " + buffers.size();
+            throw new IllegalArgumentException( msg );
+        }
+
+        // Group the y-plots that can share a pass over the range;
+        // the key is the start, end and step of the range.
+        Map<List<Double>,List<Integer>> groups  = new LinkedHashMap<>();
+        for ( int inx = 0 ; inx < size ; ++inx )
+        {
+            Equation    equation    = equations.get( inx );
+            Command     plotType    = plotTypes.get( inx );
+            if ( plotType == Command.YPLOT
+                && !equation.isParallel()
+                && equation.getAdaptiveSampler() == null )
+                groups.computeIfAbsent( getRange( equation ), k ->
+                    new ArrayList<>()
+                ).add( inx );
+            else
+                plot( equation, plotType, buffers.get( inx ) );
+        }
+
+        for ( Map.Entry<List<Double>,List<Integer>> entry : groups.entrySet() )
+        {
+            List<Double>                range   = entry.getKey();
+            List<IntervalPlotter.Pass>  passes  = new ArrayList<>();
+            for ( int inx : entry.getValue() )
+                passes.add( 
+                    IntervalPlotter.newPass( 
+                        equations.get( inx ), 
+                        buffers.get( inx )
+                    )
+                );
+            IntervalPlotter.plot(
+                range.get( 0 ), range.get( 1 ), range.get( 2 ),
+                IntervalPlotter.DEFAULT_BLOCK_SIZE,
+                passes
+            );
+        }
+    }
+
+    /**
+     * Iterates once over a given range
+     * with a given step,
+     * evaluating a list of functions
+     * for every value in the range,
+     * and storing the resulting (x,y) coordinates
+     * of each function
+     * in the corresponding element of
+     * a list of buffers.
+     * Each buffer is cleared
+     * before any points are stored.
+     * 
+     * @param start     the start of the given range
+     * @param end       the end of the given range
+     * @param step      the given step
+     * @param funcs     the given list of functions
+     * @param buffers   the buffer for each function
+     */
+    public static void yPlot(
+        double start,
+        double end,
+        double step,
+        List<DoubleUnaryOperator> funcs,
+        List<PointBuffer> buffers
+    )
+    {
+        List<IntervalPlotter.Pass>  passes  = new ArrayList<>();
+        for ( int inx = 0 ; inx < funcs.size() ; ++inx )
+            passes.add( 
+                IntervalPlotter.newPass( funcs.get( inx ), buffers.get( inx ) )
+            );
+        IntervalPlotter.plot(
+            start, end, step,
+            IntervalPlotter.DEFAULT_BLOCK_SIZE,
+            passes
+        );
+    }
+
+    /**
+     * Returns the range of a y-plot
+     * of a given equation,
+     * expressed as a list
+     * containing the start, end and step of the range.
+     * The range is determined by the viewport
+     * if the equation is in auto range mode
+     * and has a viewport.
+     * 
+     * @param equation  the given equation
+     * 
+     * @return  the range of a y-plot of the given equation
+     */
+    private static List<Double> getRange( Equation equation )
+    {
+        Viewport        viewport    = equation.getViewport();
+        boolean         auto        =
+            equation.isAutoRange() && viewport != null;
+        List<Double>    range       = auto
+            ? List.of(
+                viewport.getXMin(),
+                viewport.getXMax(),
+                viewport.getStep()
+            )
+            : List.of(
+                equation.getRangeStart(),
+                equation.getRangeEnd(),
+                equation.getRangeStep()
+            );
+        return range;
+    }
+
+    /**
+     * Generates the plot of a given type
+     * from a given equation,
+     * using the equation's own plot method,
+     * and stores it in a given buffer.
+     * 
+     * @param equation  the given equation
+     * @param plotType  the given type of plot
+     * @param buffer    the given buffer
+     * 
+     * @throws IllegalArgumentException if the plot type is not supported
+     */
+    static void
+    plot( Equation equation, Command plotType, PointBuffer buffer )
+    {
+        switch ( plotType )
+        {
+        case YPLOT:
+            equation.yPlot( buffer );
+            break;
+        case XYPLOT:
+            equation.xyPlot( buffer );
+            break;
+        case RPLOT:
+            equation.rPlot( buffer );
+            break;
+        case TPLOT:
+            equation.tPlot( buffer );
+            break;
+        case FPLOT:
+            equation.fPlot( buffer );
+            break;
+        default:
+            String  msg = "Invalid plot type: " + plotType;
+            throw new IllegalArgumentException( msg );
+        }
+    }
+}
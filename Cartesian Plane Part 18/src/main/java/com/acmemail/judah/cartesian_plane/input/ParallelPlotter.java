@@ -0,0 +1,263 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Generates the points of a plot
+ * using all available processors.
+ * The iteration range is divided
+ * into contiguous chunks
+ * which are processed in parallel.
+ * Samples are generated by index,
+ * so that the i<sup>th</sup> sample
+ * is taken at <em>start + i * step</em>,
+ * rather than by repeatedly adding the step
+ * to the previous sample;
+ * this is what allows the range to be split.
+ * <p>
+ * The points of the plot are stored
+ * in a {@linkplain PointBuffer}
+ * in the order in which they occur
+ * in the iteration range,
+ * regardless of the order
+ * in which the chunks are processed.
+ * Each chunk is processed
+ * by its own {@linkplain Sampler},
+ * obtained from a factory supplied by the caller;
+ * a Sampler typically encapsulates
+ * a private copy of an expression,
+ * so that no two threads
+ * ever evaluate the same expression object.
+ * </p>
+ * <p>
+ * If the buffer has a {@linkplain PointBuffer.Monitor monitor}
+ * the monitor is notified
+ * after every 4,096 samples in a chunk,
+ * and whenever a chunk is complete.
+ * Because the chunks are processed out of order
+ * the monitor is not given the buffer being filled;
+ * instead it is given a separate buffer
+ * holding the points
+ * of the longest run of complete chunks
+ * at the start of the range.
+ * The monitor is notified on the threads
+ * that process the chunks,
+ * but never by more than one thread at a time.
+ * If the monitor abandons the plot
+ * by throwing an exception,
+ * chunks that have not yet started are skipped,
+ * chunks in progress stop at their next notification,
+ * and the exception is propagated to the caller.
+ * </p>
+ * 
+ * @author Jack Straub
+ * 
+ * @see Equation#setParallel(boolean)
+ */
+public class ParallelPlotter
+{
+    /** The minimum number of samples in a chunk. */
+    private static final int    minChunkSize    = 1024;
+    /** The number of chunks per available processor. */
+    private static final int    chunksPerCPU    = 4;
+    /**
+     * The number of samples in a chunk
+     * between notifications of the monitor, minus one;
+     * must be one less than a power of 2.
+     */
+    private static final int    checkpointMask  = 4096 - 1;
+
+    /**
+     * Generates the point
+     * at a given index in a plot.
+     * 
+     * @author Jack Straub
+     */
+    @FunctionalInterface
+    public interface Sampler
+    {
+        /**
+         * Generates the point
+         * at a given index in a plot,
+         * and stores it in a given buffer.
+         * 
+         * @param buffer    the given buffer
+         * @param inx       the given index
+         * @param var       the value of the iteration variable at the index
+         */
+        void sample( PointBuffer buffer, int inx, double var );
+    }
+
+    /**
+     * Default constructor; not used.
+     */
+    private ParallelPlotter()
+    {
+    }
+
+    /**
+     * Calculates the number of samples
+     * in a given iteration range.
+     * The range includes its end point,
+     * allowing for a small amount of rounding error
+     * in the calculation.
+     * If the step is not positive,
+     * or the end of the range
+     * precedes its start,
+     * the range is empty.
+     * 
+     * @param start the start of the iteration range
+     * @param end   the end of the iteration range
+     * @param step  the increment between samples
+     * 
+     * @return  the number of samples in the given range
+     */
+    public static int getSampleCount( double start, double end, double step )
+    {
+        int     count   = 0;
+        if ( step > 0 && end >= start )
+        {
+            double  steps   = (end - start) / step;
+            count = (int)Math.floor( steps + 1e-9 * Math.max( 1, steps ) ) + 1;
+        }
+        return count;
+    }
+
+    /**
+     * Generates the points of a plot
+     * over a given iteration range,
+     * storing them in a given buffer.
+     * The buffer is cleared
+     * before any points are stored.
+     * A new Sampler is obtained
+     * from the given factory
+     * for every chunk of the range.
+     * If the buffer has a monitor
+     * the monitor is notified
+     * as the chunks are processed,
+     * as described for {@linkplain ParallelPlotter}.
+     * 
+     * @param start     the start of the iteration range
+     * @param end       the end of the iteration range
+     * @param step      the increment between samples
+     * @param factory   factory for obtaining Samplers
+     * @param buffer    the given buffer
+     */
+    public static void plot(
+        double start,
+        double end,
+        double step,
+        Supplier<Sampler> factory,
+        PointBuffer buffer
+    )
+    {
+        int count       = getSampleCount( start, end, step );
+        int maxChunks   =
+            chunksPerCPU * Runtime.getRuntime().availableProcessors();
+        int numChunks   =
+            Math.max( 1, Math.min( maxChunks, count / minChunkSize ) );
+        int chunkSize   = (count + numChunks - 1) / numChunks;
+
+        buffer.clear();
+        buffer.resize( count );
+        Progress    progress    = buffer.getMonitor() == null ? null :
+            new Progress( buffer, numChunks, chunkSize );
+        IntStream.range( 0, numChunks )
+            .parallel()
+            .forEach( c -> {
+                if ( progress != null )
+                    progress.checkpoint();
+                Sampler sampler = factory.get();
+                int     first   = c * chunkSize;
+                int     last    = Math.min( count, first + chunkSize );
+                for ( int inx = first ; inx < last ; ++inx )
+                {
+                    sampler.sample( buffer, inx, start + inx * step );
+                    if ( progress != null && (inx & checkpointMask) == 0 )
+                        progress.checkpoint();
+                }
+                if ( progress != null )
+                    progress.complete( c );
+            });
+    }
+
+    /**
+     * Notifies the monitor of a buffer
+     * of the progress of a parallel plot.
+     * The monitor is given a separate buffer
+     * holding the points
+     * of the longest run of complete chunks
+     * at the start of the plot.
+     * All operations are synchronized,
+     * so the monitor is never notified
+     * by more than one thread at a time.
+     * 
+     * @author Jack Straub
+     */
+    private static class Progress
+    {
+        /** The buffer being filled. */
+        private final PointBuffer           buffer;
+        /** The monitor of the buffer being filled. */
+        private final PointBuffer.Monitor   monitor;
+        /** The number of samples in a chunk. */
+        private final int                   chunkSize;
+        /** For each chunk, true if the chunk is complete. */
+        private final boolean[]             complete;
+        /** The points of the leading run of complete chunks. */
+        private final PointBuffer           prefix      = new PointBuffer();
+        /** The first chunk that is not in the prefix. */
+        private int                         nextChunk   = 0;
+
+        /**
+         * Constructor.
+         * Establishes the buffer being filled,
+         * the number of chunks
+         * and the number of samples in a chunk.
+         * 
+         * @param buffer    the buffer being filled
+         * @param numChunks the number of chunks
+         * @param chunkSize the number of samples in a chunk
+         */
+        public Progress( PointBuffer buffer, int numChunks, int chunkSize )
+        {
+            this.buffer = buffer;
+            this.monitor = buffer.getMonitor();
+            this.chunkSize = chunkSize;
+            complete = new boolean[numChunks];
+        }
+
+        /**
+         * Notifies the monitor.
+         * Any exception thrown by the monitor
+         * is propagated to the caller.
+         */
+        public synchronized void checkpoint()
+        {
+            monitor.checkpoint( prefix );
+        }
+
+        /**
+         * Records that a given chunk is complete,
+         * adds to the prefix
+         * any chunks that now follow it without a gap,
+         * and notifies the monitor.
+         * 
+         * @param chunk the given chunk
+         */
+        public synchronized void complete( int chunk )
+        {
+            complete[chunk] = true;
+            while ( nextChunk < complete.length && complete[nextChunk] )
+            {
+                int first   = nextChunk * chunkSize;
+                int last    = Math.min( buffer.size(), first + chunkSize );
+                for ( int inx = first ; inx < last ; ++inx )
+                    prefix.add( buffer.getX( inx ), buffer.getY( inx ) );
+                ++nextChunk;
+            }
+            monitor.checkpoint( prefix );
+        }
+    }
+}
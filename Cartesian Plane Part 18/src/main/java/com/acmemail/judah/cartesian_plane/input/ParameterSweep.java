@@ -0,0 +1,390 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Encapsulates the frames of an animation
+ * that shows how a plot changes
+ * as the value of one of its variables
+ * is swept across a range.
+ * The i<sup>th</sup> of <em>n</em> frames
+ * is the plot made with the variable set to
+ * <em>from + i * (to - from) / (n - 1)</em>,
+ * so the first frame is made at <em>from</em>
+ * and the last at <em>to</em>.
+ * <p>
+ * All frames are computed in advance,
+ * using all available processors;
+ * the frames are divided among a number of tasks,
+ * each of which plots its frames
+ * using its own {@linkplain Equation#copy() copy}
+ * of the equation.
+ * The frames are stored compactly,
+ * in one pair of primitive float arrays,
+ * so that they may be played back
+ * without recomputation;
+ * single precision is ample
+ * for coordinates that are destined
+ * to be drawn on the screen.
+ * </p>
+ * 
+ * @author Jack Straub
+ */
+public class ParameterSweep
+{
+    /** The name of the variable swept. */
+    private final String    varName;
+    /** The value of the variable in the first frame. */
+    private final double    from;
+    /** The value of the variable in the last frame. */
+    private final double    to;
+    /** The x-coordinates of all frames, in order. */
+    private final float[]   xcos;
+    /** The y-coordinates of all frames, in order. */
+    private final float[]   ycos;
+    /**
+     * The index of the first point of each frame,
+     * followed by the total number of points.
+     */
+    private final int[]     offsets;
+
+    /**
+     * Constructor.
+     * Establishes the properties of the sweep
+     * and its frames.
+     * 
+     * @param varName   the name of the variable swept
+     * @param from      the value of the variable in the first frame
+     * @param to        the value of the variable in the last frame
+     * @param xcos      the x-coordinates of all frames
+     * @param ycos      the y-coordinates of all frames
+     * @param offsets   the index of the first point of each frame
+     */
+    private ParameterSweep(
+        String varName,
+        double from,
+        double to,
+        float[] xcos,
+        float[] ycos,
+        int[] offsets
+    )
+    {
+        this.varName = varName;
+        this.from = from;
+        this.to = to;
+        this.xcos = xcos;
+        this.ycos = ycos;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Computes the frames of a sweep
+     * of a given variable of a given equation
+     * across a given range.
+     * The given equation is not modified;
+     * the frames are plotted by copies of the equation,
+     * which are made on the calling thread.
+     * If the equation is in auto range mode
+     * the caller should establish its viewport
+     * before computing the sweep.
+     * 
+     * @param equation      the given equation
+     * @param plotType
+     *      the type of plot to generate:
+     *      YPLOT, XYPLOT, RPLOT, TPLOT or FPLOT
+     * @param varName       the name of the given variable
+     * @param from          the value of the variable in the first frame
+     * @param to            the value of the variable in the last frame
+     * @param frameCount    the number of frames
+     * 
+     * @return  the computed sweep
+     * 
+     * @throws IllegalArgumentException
+     *      if the variable is not declared by the equation,
+     *      the number of frames is less than 1,
+     *      or the plot type is not supported
+     * @throws ValidationException if the equation is invalid
+     */
+    public static ParameterSweep compute(
+        Equation equation,
+        Command plotType,
+        String varName,
+        double from,
+        double to,
+        int frameCount
+    )
+    {
+        if ( equation.getVar( varName ).isEmpty() )
+        {
+            String  msg = "Variable not declared: " + varName;
+            throw new IllegalArgumentException( msg );
+        }
+        if ( frameCount < 1 )
+        {
+            String  msg = "Invalid frame count: " + frameCount;
+            throw new IllegalArgumentException( msg );
+        }
+
+        // Frames are dealt to the tasks in turn, so that frames
+        // that are expensive to plot are spread among the tasks.
+        int             numTasks    = Math.min(
+            frameCount,
+            Runtime.getRuntime().availableProcessors()
+        );
+        List<Equation>  copies      = new ArrayList<>();
+        for ( int inx = 0 ; inx < numTasks ; ++inx )
+        {
+            Equation    copy    = equation.copy();
+            copy.setParallel( false );
+            copies.add( copy );
+        }
+        float[][]   frameXcos   = new float[frameCount][];
+        float[][]   frameYcos   = new float[frameCount][];
+        IntStream.range( 0, numTasks )
+            .parallel()
+            .forEach( t -> {
+                Equation    copy    = copies.get( t );
+                PointBuffer buffer  = new PointBuffer();
+                for ( int inx = t ; inx < frameCount ; inx += numTasks )
+                {
+                    double  value   = valueOf( from, to, frameCount, inx );
+                    copy.setVar( varName, value );
+                    OverlayPlotter.plot( copy, plotType, buffer );
+                    frameXcos[inx] = toFloats( buffer.getXArray(), buffer );
+                    frameYcos[inx] = toFloats( buffer.getYArray(), buffer );
+                }
+            });
+
+        int[]   offsets = new int[frameCount + 1];
+        for ( int inx = 0 ; inx < frameCount ; ++inx )
+            offsets[inx + 1] = offsets[inx] + frameXcos[inx].length;
+        float[] xcos    = new float[offsets[frameCount]];
+        float[] ycos    = new float[offsets[frameCount]];
+        for ( int inx = 0 ; inx < frameCount ; ++inx )
+        {
+            int     len = frameXcos[inx].length;
+            System.arraycopy( frameXcos[inx], 0, xcos, offsets[inx], len );
+            System.arraycopy( frameYcos[inx], 0, ycos, offsets[inx], len );
+        }
+
+        ParameterSweep  sweep   =
+            new ParameterSweep( varName, from, to, xcos, ycos, offsets );
+        return sweep;
+    }
+
+    /**
+     * Gets the name of the variable swept.
+     * 
+     * @return  the name of the variable swept
+     */
+    public String getVarName()
+    {
+        return varName;
+    }
+
+    /**
+     * Gets the value of the variable in the first frame.
+     * 
+     * @return  the value of the variable in the first frame
+     */
+    public double getFrom()
+    {
+        return from;
+    }
+
+    /**
+     * Gets the value of the variable in the last frame.
+     * 
+     * @return  the value of the variable in the last frame
+     */
+    public double getTo()
+    {
+        return to;
+    }
+
+    /**
+     * Gets the number of frames in this sweep.
+     * 
+     * @return  the number of frames in this sweep
+     */
+    public int getFrameCount()
+    {
+        return offsets.length - 1;
+    }
+
+    /**
+     * Gets the total number of points
+     * in all frames of this sweep.
+     * 
+     * @return  the total number of points in this sweep
+     */
+    public int getPointCount()
+    {
+        return xcos.length;
+    }
+
+    /**
+     * Gets the value of the variable
+     * in the frame at a given index.
+     * 
+     * @param frame the given index
+     * 
+     * @return  the value of the variable in the given frame
+     * 
+     * @throws IndexOutOfBoundsException if frame is out of range
+     */
+    public double getValue( int frame )
+    {
+        checkFrame( frame );
+        return valueOf( from, to, getFrameCount(), frame );
+    }
+
+    /**
+     * Gets the number of points
+     * in the frame at a given index.
+     * 
+     * @param frame the given index
+     * 
+     * @return  the number of points in the given frame
+     * 
+     * @throws IndexOutOfBoundsException if frame is out of range
+     */
+    public int getFrameSize( int frame )
+    {
+        checkFrame( frame );
+        return offsets[frame + 1] - offsets[frame];
+    }
+
+    /**
+     * Stores the points of the frame
+     * at a given index
+     * in a given buffer.
+     * The buffer is cleared
+     * before any points are stored.
+     * 
+     * @param frame     the given index
+     * @param buffer    the given buffer
+     * 
+     * @throws IndexOutOfBoundsException if frame is out of range
+     */
+    public void getFrame( int frame, PointBuffer buffer )
+    {
+        checkFrame( frame );
+        buffer.clear();
+        buffer.ensureCapacity( getFrameSize( frame ) );
+        for ( int inx = offsets[frame] ; inx < offsets[frame + 1] ; ++inx )
+            buffer.add( xcos[inx], ycos[inx] );
+    }
+
+    /**
+     * Writes the frames of this sweep
+     * to a given file
+     * in comma-separated-value format.
+     * See {@linkplain #export(PrintWriter)}.
+     * 
+     * @param file  the given file
+     * 
+     * @throws IOException if an I/O error occurs
+     */
+    public void export( File file ) throws IOException
+    {
+        try (
+            FileWriter fWriter = new FileWriter( file );
+            PrintWriter pWriter = new PrintWriter( fWriter );
+        )
+        {
+            export( pWriter );
+            if ( pWriter.checkError() )
+                throw new IOException( "Error writing " + file.getPath() );
+        }
+    }
+
+    /**
+     * Writes the frames of this sweep
+     * to a given output stream
+     * in comma-separated-value format.
+     * The first line is a header
+     * naming the columns:
+     * <em>frame,&lt;variable name&gt;,x,y</em>.
+     * Each subsequent line describes one point:
+     * the index of its frame,
+     * the value of the variable in the frame,
+     * and the coordinates of the point.
+     * The coordinates of a break are NaN.
+     * 
+     * @param pWriter   the given output stream
+     */
+    public void export( PrintWriter pWriter )
+    {
+        pWriter.println( "frame," + varName + ",x,y" );
+        int     frameCount  = getFrameCount();
+        for ( int frame = 0 ; frame < frameCount ; ++frame )
+        {
+            String  prefix  = frame + "," + getValue( frame ) + ",";
+            for ( int inx = offsets[frame] ; inx < offsets[frame + 1] ; ++inx )
+                pWriter.println( prefix + xcos[inx] + "," + ycos[inx] );
+        }
+        pWriter.flush();
+    }
+
+    /**
+     * Verifies that a given frame index is in range.
+     * 
+     * @param frame the given frame index
+     * 
+     * @throws IndexOutOfBoundsException if frame is out of range
+     */
+    private void checkFrame( int frame )
+    {
+        if ( frame < 0 || frame >= getFrameCount() )
+        {
+            String  msg = "Invalid frame: " + frame;
+            throw new IndexOutOfBoundsException( msg );
+        }
+    }
+
+    /**
+     * Calculates the value of the variable
+     * in a given frame of a sweep.
+     * 
+     * @param from          the value of the variable in the first frame
+     * @param to            the value of the variable in the last frame
+     * @param frameCount    the number of frames in the sweep
+     * @param frame         the index of the given frame
+     * 
+     * @return  the value of the variable in the given frame
+     */
+    private static double
+    valueOf( double from, double to, int frameCount, int frame )
+    {
+        double  value   = frameCount == 1 ?
+            from : from + frame * (to - from) / (frameCount - 1);
+        return value;
+    }
+
+    /**
+     * Converts the coordinates in a given array
+     * to single precision.
+     * The number of coordinates to convert
+     * is the size of a given buffer.
+     * 
+     * @param coords    the given array
+     * @param buffer    the buffer that contains the array
+     * 
+     * @return  a new array of single precision coordinates
+     */
+    private static float[] toFloats( double[] coords, PointBuffer buffer )
+    {
+        int     size    = buffer.size();
+        float[] result  = new float[size];
+        for ( int inx = 0 ; inx < size ; ++inx )
+            result[inx] = (float)coords[inx];
+        return result;
+    }
+}
@@ -0,0 +1,395 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Bounded cache of plot results.
+ * A plot is identified
+ * by the Equation that generated it
+ * and the type of the plot,
+ * such as {@linkplain Command#YPLOT};
+ * its points are stored
+ * together with the {@linkplain Equation#getVersion() version}
+ * of the Equation at the time the plot was made.
+ * A request for a plot
+ * whose Equation is still at the stored version
+ * is satisfied by copying the stored points;
+ * otherwise the plot is regenerated
+ * and the stored points are replaced.
+ * <p>
+ * Equations are compared by identity.
+ * When the cache is full
+ * the least recently used plot is discarded.
+ * The cache keeps a count of hits and misses.
+ * </p>
+ * <p>
+ * A PlotCache is thread-safe.
+ * A plot is typically generated on a background thread
+ * from a {@linkplain Equation#copy() snapshot} of an Equation
+ * that is owned by another thread;
+ * in that case the plot is identified
+ * by the original Equation,
+ * and the version of the Equation
+ * at the time the snapshot was taken
+ * is supplied by the caller
+ * (see {@linkplain #plot(Equation, long, Command, Consumer, PointBuffer)}).
+ * The cache is not locked while a plot is generated.
+ * </p>
+ * <p>
+ * A y-plot {@linkplain IntervalPlotter#culls(Equation) culled}
+ * to the y-range of a viewport
+ * depends on the y-range
+ * as well as on the version of its Equation;
+ * the y-range of such a plot
+ * is stored together with its version
+ * (see {@linkplain 
+ * #plot(Equation, long, Command, Viewport, Consumer, PointBuffer)}).
+ * </p>
+ * 
+ * @author Jack Straub
+ * 
+ * @see Equation#getVersion()
+ */
+public class PlotCache
+{
+    /** Default maximum number of plots in a cache. */
+    public static final int DEFAULT_CAPACITY    = 8;
+
+    /** Maximum number of plots in this cache. */
+    private final int               capacity;
+    /** The plots in this cache, in access order. */
+    private final Map<Key,Entry>    map;
+    /** Number of requests satisfied from the cache. */
+    private long                    hits        = 0;
+    /** Number of requests that required a new plot. */
+    private long                    misses      = 0;
+
+    /**
+     * Default constructor.
+     * Instantiates a cache
+     * with a default capacity.
+     */
+    public PlotCache()
+    {
+        this( DEFAULT_CAPACITY );
+    }
+
+    /**
+     * Constructor.
+     * Instantiates a cache
+     * with a given capacity.
+     * 
+     * @param capacity  the given capacity
+     * 
+     * @throws IllegalArgumentException if capacity is not positive
+     */
+    public PlotCache( int capacity )
+    {
+        if ( capacity < 1 )
+        {
+            String  msg = "Invalid capacity: " + capacity;
+            throw new IllegalArgumentException( msg );
+        }
+        this.capacity = capacity;
+        map = new LinkedHashMap<>( 16, .75f, true ) {
+            private static final long serialVersionUID = 1L;
+            @Override
+            protected boolean removeEldestEntry( Map.Entry<Key,Entry> eldest )
+            {
+                return size() > PlotCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Stores the points of a plot
+     * of a given type
+     * from a given Equation
+     * in a given buffer.
+     * If the plot is in the cache
+     * at the Equation's current version
+     * the stored points are copied to the buffer;
+     * otherwise the plot is generated
+     * by a given plot method,
+     * and a copy of the result is stored in the cache.
+     * If the plot method throws an exception
+     * nothing is stored in the cache.
+     * This method must be invoked
+     * on the thread that owns the Equation.
+     * 
+     * @param equation  the given Equation
+     * @param plotType  the given type of plot
+     * @param plotter   the given plot method
+     * @param buffer    the given buffer
+     */
+    public void plot(
+        Equation equation,
+        Command plotType,
+        BiConsumer<Equation,PointBuffer> plotter,
+        PointBuffer buffer
+    )
+    {
+        long    version = equation.getVersion();
+        plot( 
+            equation, 
+            version, 
+            plotType, 
+            b -> plotter.accept( equation, b ), 
+            buffer
+        );
+    }
+
+    /**
+     * Stores the points of a plot
+     * of a given type
+     * from a given Equation
+     * at a given version
+     * in a given buffer.
+     * If the plot is in the cache
+     * at the given version
+     * the stored points are copied to the buffer;
+     * otherwise the plot is generated
+     * by a given plotter,
+     * and a copy of the result is stored in the cache.
+     * If the plotter throws an exception
+     * nothing is stored in the cache.
+     * <p>
+     * The Equation only identifies the plot,
+     * and is never accessed;
+     * the plotter typically plots a snapshot
+     * of the Equation
+     * taken when the Equation was at the given version.
+     * So this method may be invoked on any thread.
+     * </p>
+     * 
+     * @param equation  the given Equation
+     * @param version   the given version
+     * @param plotType  the given type of plot
+     * @param plotter   the given plotter
+     * @param buffer    the given buffer
+     */
+    public void plot(
+        Equation equation,
+        long version,
+        Command plotType,
+        Consumer<PointBuffer> plotter,
+        PointBuffer buffer
+    )
+    {
+        plot( equation, version, plotType, null, plotter, buffer );
+    }
+
+    /**
+     * Stores the points of a plot
+     * of a given type
+     * from a given Equation
+     * at a given version
+     * in a given buffer,
+     * where the plot may be culled
+     * to the y-range of a given viewport.
+     * The plot is obtained as described for
+     * {@linkplain #plot(Equation, long, Command, Consumer, PointBuffer)},
+     * except that if a viewport is given
+     * the stored points are used
+     * only if they were stored
+     * with a viewport that has the same y-range.
+     * 
+     * @param equation  the given Equation
+     * @param version   the given version
+     * @param plotType  the given type of plot
+     * @param yRange
+     *      the viewport to whose y-range the plot is culled;
+     *      null if the plot does not depend on the y-range
+     * @param plotter   the given plotter
+     * @param buffer    the given buffer
+     * 
+     * @see IntervalPlotter#culls(Equation)
+     */
+    public void plot(
+        Equation equation,
+        long version,
+        Command plotType,
+        Viewport yRange,
+        Consumer<PointBuffer> plotter,
+        PointBuffer buffer
+    )
+    {
+        Key     key     = new Key( equation, plotType );
+        boolean hit     = false;
+        synchronized ( this )
+        {
+            Entry   entry   = map.get( key );
+            hit = entry != null 
+                && entry.version == version
+                && Viewport.sameYRange( entry.yRange, yRange );
+            if ( hit )
+            {
+                ++hits;
+                buffer.copyFrom( entry.points );
+            }
+            else
+                ++misses;
+        }
+        if ( !hit )
+        {
+            plotter.accept( buffer );
+            Entry   entry   = new Entry( version, yRange, buffer );
+            synchronized ( this )
+            {
+                // Don't replace the plot of a later version
+                // that completed first.
+                Entry   prev    = map.get( key );
+                if ( prev == null || prev.version <= version )
+                    map.put( key, entry );
+            }
+        }
+    }
+
+    /**
+     * Returns the maximum number of plots
+     * in this cache.
+     * 
+     * @return  the maximum number of plots in this cache
+     */
+    public int getCapacity()
+    {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of plots
+     * currently in this cache.
+     * 
+     * @return  the number of plots currently in this cache
+     */
+    public synchronized int size()
+    {
+        return map.size();
+    }
+
+    /**
+     * Returns the number of requests
+     * satisfied from this cache.
+     * 
+     * @return  the number of requests satisfied from this cache
+     */
+    public synchronized long getHitCount()
+    {
+        return hits;
+    }
+
+    /**
+     * Returns the number of requests
+     * that required a new plot.
+     * 
+     * @return  the number of requests that required a new plot
+     */
+    public synchronized long getMissCount()
+    {
+        return misses;
+    }
+
+    /**
+     * Discards all plots in this cache,
+     * and resets the hit and miss counts to 0.
+     */
+    public synchronized void clear()
+    {
+        map.clear();
+        hits = 0;
+        misses = 0;
+    }
+
+    /**
+     * Identifies a plot:
+     * the Equation that generated it,
+     * compared by identity,
+     * and the type of the plot.
+     * 
+     * @author Jack Straub
+     */
+    private static class Key
+    {
+        /** The Equation that generated the plot. */
+        private final Equation  equation;
+        /** The type of the plot. */
+        private final Command   plotType;
+
+        /**
+         * Constructor.
+         * Establishes the Equation and type of plot.
+         * 
+         * @param equation  the Equation that generated the plot
+         * @param plotType  the type of the plot
+         */
+        public Key( Equation equation, Command plotType )
+        {
+            this.equation = equation;
+            this.plotType = plotType;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            int hash    =
+                31 * System.identityHashCode( equation ) + plotType.hashCode();
+            return hash;
+        }
+
+        @Override
+        public boolean equals( Object other )
+        {
+            boolean result  = false;
+            if ( this == other )
+                result = true;
+            else if ( !(other instanceof Key) )
+                result = false;
+            else
+            {
+                Key that    = (Key)other;
+                result =
+                    equation == that.equation && plotType == that.plotType;
+            }
+            return result;
+        }
+    }
+
+    /**
+     * The points of a plot,
+     * the version of the Equation
+     * that generated them
+     * and the viewport to whose y-range
+     * they were culled, if any.
+     * 
+     * @author Jack Straub
+     */
+    private static class Entry
+    {
+        /** The version of the Equation that generated the plot. */
+        private final long          version;
+        /** The viewport to whose y-range the plot was culled; may be null. */
+        private final Viewport      yRange;
+        /** The points of the plot. */
+        private final PointBuffer   points  = new PointBuffer( 0 );
+
+        /**
+         * Constructor.
+         * Establishes the version of the Equation,
+         * the viewport to whose y-range the plot was culled
+         * and a copy of the points of the plot.
+         * 
+         * @param version   the version of the Equation
+         * @param yRange    the viewport; may be null
+         * @param points    the points of the plot
+         */
+        public Entry( long version, Viewport yRange, PointBuffer points )
+        {
+            this.version = version;
+            this.yRange = yRange;
+            this.points.copyFrom( points );
+        }
+    }
+}
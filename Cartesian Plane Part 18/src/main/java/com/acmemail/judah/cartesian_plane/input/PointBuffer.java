@@ -0,0 +1,471 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import java.awt.geom.Point2D;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Reusable buffer
+ * for storing the (x,y) coordinates
+ * generated by a plot operation.
+ * Coordinates are stored
+ * in parallel arrays of primitive doubles;
+ * no object is created
+ * for an individual point.
+ * The arrays grow as necessary
+ * and are never shrunk,
+ * so a buffer that is cleared and refilled
+ * for every plot
+ * quickly reaches a steady state
+ * in which no further allocation takes place.
+ * <p>
+ * A buffer may contain <em>breaks,</em>
+ * which separate the points on either side
+ * of a discontinuity in a plot.
+ * A break is stored as a point
+ * whose coordinates are both NaN;
+ * the points on either side of a break
+ * must not be connected when the plot is drawn.
+ * </p>
+ * <p>
+ * A buffer may have a {@linkplain Monitor monitor,}
+ * which is notified periodically
+ * as points are added to the buffer.
+ * A monitor may, for example,
+ * publish partial results of a long plot,
+ * or abandon a plot that is no longer needed
+ * by throwing an unchecked exception.
+ * </p>
+ *
+ * @author Jack Straub
+ *
+ * @see Equation#yPlot(PointBuffer)
+ * @see Equation#xyPlot(PointBuffer)
+ * @see Equation#rPlot(PointBuffer)
+ * @see Equation#tPlot(PointBuffer)
+ */
+public class PointBuffer
+{
+    /** Default initial capacity of a buffer. */
+    private static final int    defaultCapacity = 1024;
+    /**
+     * The number of points added by {@linkplain #add(double, double)}
+     * between notifications of the monitor, minus one;
+     * must be one less than a power of 2.
+     */
+    private static final int    checkpointMask  = 4096 - 1;
+
+    /** The x-coordinates stored in this buffer. */
+    private double[]    xcos;
+    /** The y-coordinates stored in this buffer. */
+    private double[]    ycos;
+    /** The number of points stored in this buffer. */
+    private int         size    = 0;
+    /** The monitor of this buffer; null if none. */
+    private Monitor     monitor = null;
+
+    /**
+     * Default constructor.
+     * Instantiates a buffer
+     * with a default initial capacity.
+     */
+    public PointBuffer()
+    {
+        this( defaultCapacity );
+    }
+
+    /**
+     * Constructor.
+     * Instantiates a buffer
+     * with a given initial capacity.
+     *
+     * @param capacity  the given initial capacity
+     *
+     * @throws IllegalArgumentException if capacity is negative
+     */
+    public PointBuffer( int capacity )
+    {
+        if ( capacity < 0 )
+        {
+            String  msg = "Invalid capacity: " + capacity;
+            throw new IllegalArgumentException( msg );
+        }
+        xcos = new double[capacity];
+        ycos = new double[capacity];
+    }
+
+    /**
+     * Discards all points in this buffer.
+     * The capacity of the buffer is unchanged.
+     */
+    public void clear()
+    {
+        size = 0;
+    }
+
+    /**
+     * Adds a point to the end of this buffer.
+     *
+     * @param xco   the x-coordinate of the point
+     * @param yco   the y-coordinate of the point
+     */
+    public void add( double xco, double yco )
+    {
+        if ( size == xcos.length )
+            ensureCapacity( size + 1 );
+        xcos[size] = xco;
+        ycos[size] = yco;
+        ++size;
+        if ( (size & checkpointMask) == 0 && monitor != null )
+            monitor.checkpoint( this );
+    }
+
+    /**
+     * Adds to the end of this buffer
+     * the first <em>count</em> points
+     * described by given arrays
+     * of x- and y-coordinates.
+     *
+     * @param xcos  the given array of x-coordinates
+     * @param ycos  the given array of y-coordinates
+     * @param count the number of points to add
+     */
+    public void addAll( double[] xcos, double[] ycos, int count )
+    {
+        ensureCapacity( size + count );
+        System.arraycopy( xcos, 0, this.xcos, size, count );
+        System.arraycopy( ycos, 0, this.ycos, size, count );
+        size += count;
+        if ( monitor != null )
+            monitor.checkpoint( this );
+    }
+
+    /**
+     * Adds to the end of this buffer
+     * the points of a given buffer,
+     * starting at a given position.
+     *
+     * @param source    the given buffer
+     * @param from      the given position
+     *
+     * @throws IndexOutOfBoundsException
+     *      if from is negative or greater than the size of source
+     */
+    public void addAll( PointBuffer source, int from )
+    {
+        if ( from < 0 || from > source.size )
+        {
+            String  msg = "From: " + from + ", size: " + source.size;
+            throw new IndexOutOfBoundsException( msg );
+        }
+        int count   = source.size - from;
+        ensureCapacity( size + count );
+        System.arraycopy( source.xcos, from, xcos, size, count );
+        System.arraycopy( source.ycos, from, ycos, size, count );
+        size += count;
+        if ( monitor != null )
+            monitor.checkpoint( this );
+    }
+
+    /**
+     * Returns a buffer
+     * that contains the points currently in this buffer
+     * without copying them:
+     * the new buffer shares the arrays of this buffer.
+     * Points subsequently added to the end of this buffer
+     * do not appear in the new buffer,
+     * so a buffer that is only ever appended to
+     * may publish its contents
+     * to another thread
+     * without copying.
+     * Neither buffer may otherwise be modified
+     * while the new buffer is in use.
+     *
+     * @return  a buffer that shares the points of this buffer
+     */
+    public PointBuffer view()
+    {
+        PointBuffer view    = new PointBuffer( 0 );
+        view.xcos = xcos;
+        view.ycos = ycos;
+        view.size = size;
+        return view;
+    }
+
+    /**
+     * Sets the monitor of this buffer.
+     * The monitor is notified
+     * after every 4,096 points added by
+     * {@linkplain #add(double, double)},
+     * and after every invocation of
+     * {@linkplain #addAll(double[], double[], int)}.
+     * The monitor is notified
+     * on the thread that adds the points,
+     * so it may safely read the contents of the buffer.
+     *
+     * @param monitor   the monitor; may be null
+     */
+    public void setMonitor( Monitor monitor )
+    {
+        this.monitor = monitor;
+    }
+
+    /**
+     * Gets the monitor of this buffer.
+     * A task that fills several buffers
+     * on behalf of a single operation
+     * may give them all the same monitor.
+     *
+     * @return  the monitor of this buffer; may be null
+     *
+     * @see #setMonitor(Monitor)
+     */
+    public Monitor getMonitor()
+    {
+        return monitor;
+    }
+
+    /**
+     * Adds a break to the end of this buffer.
+     *
+     * @see #isBreak(int)
+     */
+    public void addBreak()
+    {
+        add( Double.NaN, Double.NaN );
+    }
+
+    /**
+     * Determines whether the point
+     * at a given position in this buffer
+     * is a break.
+     *
+     * @param inx   the given position
+     *
+     * @return  true if the point at the given position is a break
+     *
+     * @throws IndexOutOfBoundsException if inx is out of range
+     *
+     * @see #addBreak()
+     */
+    public boolean isBreak( int inx )
+    {
+        checkIndex( inx );
+        boolean result  = Double.isNaN( xcos[inx] ) && Double.isNaN( ycos[inx] );
+        return result;
+    }
+
+    /**
+     * Replaces the point
+     * at a given position in this buffer.
+     * Different threads may safely
+     * replace points at different positions
+     * concurrently.
+     *
+     * @param inx   the given position
+     * @param xco   the x-coordinate of the point
+     * @param yco   the y-coordinate of the point
+     *
+     * @throws IndexOutOfBoundsException if inx is out of range
+     *
+     * @see #resize(int)
+     */
+    public void set( int inx, double xco, double yco )
+    {
+        checkIndex( inx );
+        xcos[inx] = xco;
+        ycos[inx] = yco;
+    }
+
+    /**
+     * Changes the number of points in this buffer
+     * to a given value.
+     * If the buffer grows,
+     * the coordinates of the new points
+     * are unspecified;
+     * typically they are subsequently set
+     * via {@linkplain #set(int, double, double)}.
+     *
+     * @param newSize   the given value
+     *
+     * @throws IllegalArgumentException if newSize is negative
+     */
+    public void resize( int newSize )
+    {
+        if ( newSize < 0 )
+        {
+            String  msg = "Invalid size: " + newSize;
+            throw new IllegalArgumentException( msg );
+        }
+        ensureCapacity( newSize );
+        size = newSize;
+    }
+
+    /**
+     * Replaces the contents of this buffer
+     * with a copy of the contents of a given buffer.
+     *
+     * @param source    the given buffer
+     */
+    public void copyFrom( PointBuffer source )
+    {
+        ensureCapacity( source.size );
+        System.arraycopy( source.xcos, 0, xcos, 0, source.size );
+        System.arraycopy( source.ycos, 0, ycos, 0, source.size );
+        size = source.size;
+    }
+
+    /**
+     * Increases the capacity of this buffer,
+     * if necessary,
+     * so that it can hold at least a given number of points
+     * without further allocation.
+     *
+     * @param minCapacity   the given number of points
+     */
+    public void ensureCapacity( int minCapacity )
+    {
+        if ( minCapacity > xcos.length )
+        {
+            int newCapacity = Math.max( minCapacity, 2 * xcos.length );
+            xcos = Arrays.copyOf( xcos, newCapacity );
+            ycos = Arrays.copyOf( ycos, newCapacity );
+        }
+    }
+
+    /**
+     * Returns the number of points in this buffer.
+     *
+     * @return  the number of points in this buffer
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns the x-coordinate of the point
+     * at a given position in this buffer.
+     *
+     * @param inx   the given position
+     *
+     * @return  the x-coordinate of the point at the given position
+     *
+     * @throws IndexOutOfBoundsException if inx is out of range
+     */
+    public double getX( int inx )
+    {
+        checkIndex( inx );
+        return xcos[inx];
+    }
+
+    /**
+     * Returns the y-coordinate of the point
+     * at a given position in this buffer.
+     *
+     * @param inx   the given position
+     *
+     * @return  the y-coordinate of the point at the given position
+     *
+     * @throws IndexOutOfBoundsException if inx is out of range
+     */
+    public double getY( int inx )
+    {
+        checkIndex( inx );
+        return ycos[inx];
+    }
+
+    /**
+     * Returns the array
+     * that stores the x-coordinates of this buffer.
+     * Only the first {@linkplain #size()} elements
+     * are meaningful.
+     * The array is not copied;
+     * it is valid only until the next operation
+     * that modifies this buffer.
+     *
+     * @return  the array that stores the x-coordinates of this buffer
+     */
+    public double[] getXArray()
+    {
+        return xcos;
+    }
+
+    /**
+     * Returns the array
+     * that stores the y-coordinates of this buffer.
+     * Only the first {@linkplain #size()} elements
+     * are meaningful.
+     * The array is not copied;
+     * it is valid only until the next operation
+     * that modifies this buffer.
+     *
+     * @return  the array that stores the y-coordinates of this buffer
+     */
+    public double[] getYArray()
+    {
+        return ycos;
+    }
+
+    /**
+     * Returns a stream of Point2D objects
+     * equivalent to the points in this buffer.
+     * Breaks are omitted from the stream.
+     * Intended for testing and debugging;
+     * the stream creates a new object
+     * for every point.
+     *
+     * @return  a stream of Point2D objects equivalent to this buffer
+     */
+    public Stream<Point2D> stream()
+    {
+        Stream<Point2D> stream  =
+            IntStream.range( 0, size )
+                .filter( i -> !isBreak( i ) )
+                .mapToObj( i -> new Point2D.Double( xcos[i], ycos[i] ) );
+        return stream;
+    }
+
+    /**
+     * Receives periodic notifications
+     * as points are added to a PointBuffer.
+     *
+     * @author Jack Straub
+     *
+     * @see PointBuffer#setMonitor(Monitor)
+     */
+    @FunctionalInterface
+    public interface Monitor
+    {
+        /**
+         * Notifies this monitor
+         * that points have been added to a given buffer.
+         * The monitor may abandon the operation
+         * that is adding points to the buffer
+         * by throwing an unchecked exception,
+         * which is propagated to the caller
+         * of the operation.
+         *
+         * @param buffer    the given buffer
+         */
+        void checkpoint( PointBuffer buffer );
+    }
+
+    /**
+     * Verifies that a given index
+     * identifies a point in this buffer.
+     *
+     * @param inx   the given index
+     *
+     * @throws IndexOutOfBoundsException if inx is out of range
+     */
+    private void checkIndex( int inx )
+    {
+        if ( inx < 0 || inx >= size )
+        {
+            String  msg = "Index: " + inx + ", size: " + size;
+            throw new IndexOutOfBoundsException( msg );
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import java.awt.geom.Rectangle2D;
+import java.util.Objects;
+
+/**
+ * Describes the region of the Cartesian plane
+ * that is currently visible,
+ * and the density of the pixels
+ * used to display it.
+ * The region is expressed in user coordinates;
+ * the pixel density is expressed
+ * as the number of device pixels per unit.
+ * A Viewport is immutable.
+ * <p>
+ * A Viewport is used
+ * to derive the iteration range of a y-plot
+ * from the visible grid,
+ * rather than from the range
+ * given in the equation,
+ * taking about one sample per device pixel.
+ * </p>
+ * 
+ * @author Jack Straub
+ * 
+ * @see Equation#setAutoRange(boolean)
+ * @see com.acmemail.judah.cartesian_plane.CartesianPlane#getViewport()
+ */
+public class Viewport
+{
+    /** The visible region, in user coordinates. */
+    private final Rectangle2D   bounds;
+    /** The number of device pixels per unit. */
+    private final double        pixelsPerUnit;
+
+    /**
+     * Constructor.
+     * Establishes the visible region
+     * and the pixel density.
+     * 
+     * @param bounds        the visible region, in user coordinates
+     * @param pixelsPerUnit the number of device pixels per unit
+     * 
+     * @throws IllegalArgumentException
+     *      if pixelsPerUnit is not positive,
+     *      or bounds is empty
+     */
+    public Viewport( Rectangle2D bounds, double pixelsPerUnit )
+    {
+        if ( !(pixelsPerUnit > 0) )
+        {
+            String  msg = "Invalid pixels per unit: " + pixelsPerUnit;
+            throw new IllegalArgumentException( msg );
+        }
+        if ( bounds.isEmpty() )
+            throw new IllegalArgumentException( "Empty bounds: " + bounds );
+        this.bounds = (Rectangle2D)bounds.clone();
+        this.pixelsPerUnit = pixelsPerUnit;
+    }
+
+    /**
+     * Returns the visible region,
+     * in user coordinates.
+     * 
+     * @return  the visible region
+     */
+    public Rectangle2D getBounds()
+    {
+        return (Rectangle2D)bounds.clone();
+    }
+
+    /**
+     * Returns the number of device pixels per unit.
+     * 
+     * @return  the number of device pixels per unit
+     */
+    public double getPixelsPerUnit()
+    {
+        return pixelsPerUnit;
+    }
+
+    /**
+     * Returns the smallest visible x-coordinate.
+     * 
+     * @return  the smallest visible x-coordinate
+     */
+    public double getXMin()
+    {
+        return bounds.getMinX();
+    }
+
+    /**
+     * Returns the largest visible x-coordinate.
+     * 
+     * @return  the largest visible x-coordinate
+     */
+    public double getXMax()
+    {
+        return bounds.getMaxX();
+    }
+
+    /**
+     * Returns the smallest visible y-coordinate.
+     * 
+     * @return  the smallest visible y-coordinate
+     */
+    public double getYMin()
+    {
+        return bounds.getMinY();
+    }
+
+    /**
+     * Returns the largest visible y-coordinate.
+     * 
+     * @return  the largest visible y-coordinate
+     */
+    public double getYMax()
+    {
+        return bounds.getMaxY();
+    }
+
+    /**
+     * Indicates whether two Viewports,
+     * either or both of which may be null,
+     * cover the same range of y-coordinates.
+     * Two null Viewports cover the same range;
+     * a null Viewport and a non-null Viewport
+     * do not.
+     * 
+     * @param first     the first Viewport; may be null
+     * @param second    the second Viewport; may be null
+     * 
+     * @return  true if the Viewports cover the same y-range
+     * 
+     * @see IntervalPlotter
+     */
+    public static boolean sameYRange( Viewport first, Viewport second )
+    {
+        boolean result  = false;
+        if ( first == null || second == null )
+            result = first == second;
+        else
+            result = 
+                first.getYMin() == second.getYMin()
+                && first.getYMax() == second.getYMax();
+        return result;
+    }
+
+    /**
+     * Returns the distance, in user coordinates,
+     * between adjacent device pixels.
+     * This is the step to use
+     * to take one sample per pixel.
+     * 
+     * @return  the distance between adjacent device pixels
+     */
+    public double getStep()
+    {
+        return 1 / pixelsPerUnit;
+    }
+
+    /**
+     * Configures a given AdaptiveSampler
+     * to plot into this Viewport:
+     * the sampler's bounds are set
+     * to the visible region,
+     * and its scale to the pixel density.
+     * 
+     * @param sampler   the given AdaptiveSampler
+     */
+    public void configure( AdaptiveSampler sampler )
+    {
+        sampler.setBounds( bounds );
+        sampler.setScale( pixelsPerUnit );
+    }
+
+    @Override
+    public int hashCode()
+    {
+        int hash    = Objects.hash( bounds, pixelsPerUnit );
+        return hash;
+    }
+
+    @Override
+    public boolean equals( Object other )
+    {
+        boolean result  = false;
+        if ( this == other )
+            result = true;
+        else if ( other == null )
+            result = false;
+        else if ( !(other instanceof Viewport) )
+            result = false;
+        else
+        {
+            Viewport    that    = (Viewport)other;
+            if ( pixelsPerUnit != that.pixelsPerUnit )
+                result = false;
+            else
+                result = bounds.equals( that.bounds );
+        }
+        return result;
+    }
+
+    @Override
+    public String toString()
+    {
+        String  str =
+            "Viewport[x=" + bounds.getX() + ",y=" + bounds.getY()
+            + ",w=" + bounds.getWidth() + ",h=" + bounds.getHeight()
+            + ",ppu=" + pixelsPerUnit + "]";
+        return str;
+    }
+}
@@ -0,0 +1,104 @@
+package com.acmemail.judah.cartesian_plane.sandbox;
+
+import java.util.function.Supplier;
+
+import com.acmemail.judah.cartesian_plane.input.CompiledEquation;
+import com.acmemail.judah.cartesian_plane.input.Equation;
+import com.acmemail.judah.cartesian_plane.input.Exp4jEquation;
+import com.acmemail.judah.cartesian_plane.input.JEPEquation;
+import com.acmemail.judah.cartesian_plane.input.PointBuffer;
+
+/**
+ * This application compares the speed
+ * of the three Equation implementations:
+ * Exp4jEquation, JEPEquation and CompiledEquation.
+ * For each of several sample expressions
+ * a y-plot is generated repeatedly
+ * by each implementation,
+ * and the number of evaluations per second
+ * is reported.
+ * Each implementation is first run
+ * for a few iterations
+ * without timing,
+ * to give the JIT compiler
+ * a chance to do its work.
+ * 
+ * @author Jack Straub
+ */
+public class EquationBenchmark
+{
+    /** Sample expressions to evaluate. */
+    private static final String[]   exprs       =
+    {
+        "2x^2 - 3x + 1",
+        "sin(x)cos(2x) + sqrt(abs(x))",
+        "a x^3 + b x^2 + c x + exp(-x^2)",
+        "sec(x) + csc(x) + toDegrees(x)",
+    };
+    /** Number of samples generated by each plot. */
+    private static final int        samples     = 100_000;
+    /** Number of plots generated before timing begins. */
+    private static final int        warmup      = 20;
+    /** Number of timed plots. */
+    private static final int        iterations  = 50;
+
+    /**
+     * Application entry point.
+     * 
+     * @param args command line arguments, not used.
+     */
+    public static void main(String[] args)
+    {
+        System.out.printf(
+            "%-36s %14s %14s %14s%n",
+            "Expression", "exp4j", "JEP", "compiled"
+        );
+        for ( String expr : exprs )
+        {
+            double  exp4j       = measure( Exp4jEquation::new, expr );
+            double  jep         = measure( JEPEquation::new, expr );
+            double  compiled    = measure( CompiledEquation::new, expr );
+            System.out.printf(
+                "%-36s %14.0f %14.0f %14.0f%n",
+                expr, exp4j, jep, compiled
+            );
+        }
+        System.out.println( "(evaluations per second)" );
+    }
+
+    /**
+     * Measures the number of evaluations per second
+     * achieved by a given Equation implementation
+     * for a given expression.
+     * 
+     * @param supplier  supplies the Equation implementation
+     * @param expr      the given expression
+     * 
+     * @return  the number of evaluations per second
+     */
+    private static double measure( Supplier<Equation> supplier, String expr )
+    {
+        Equation    equation    = supplier.get();
+        equation.setVar( "a", 1.5 );
+        equation.setVar( "b", -2 );
+        equation.setVar( "c", .5 );
+        equation.setRangeStart( "-1" );
+        equation.setRangeEnd( "1" );
+        equation.setRangeStep( String.valueOf( 2.0 / samples ) );
+        if ( !equation.setYExpression( expr ).isSuccess() )
+            throw new IllegalArgumentException( "Invalid: " + expr );
+
+        PointBuffer buffer  = new PointBuffer( samples + 1 );
+        for ( int inx = 0 ; inx < warmup ; ++inx )
+            equation.yPlot( buffer );
+
+        long        start   = System.nanoTime();
+        for ( int inx = 0 ; inx < iterations ; ++inx )
+            equation.yPlot( buffer );
+        long        elapsed = System.nanoTime() - start;
+
+        double      evals   = (double)buffer.size() * iterations;
+        double      rate    = evals / (elapsed / 1e9);
+        return rate;
+    }
+}
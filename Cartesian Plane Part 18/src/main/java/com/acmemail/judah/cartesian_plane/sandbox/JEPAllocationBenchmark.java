@@ -0,0 +1,118 @@
+package com.acmemail.judah.cartesian_plane.sandbox;
+
+import java.lang.management.ManagementFactory;
+
+import org.nfunk.jep.JEP;
+
+import com.acmemail.judah.cartesian_plane.input.JEPFunctions;
+
+/**
+ * This application measures
+ * the number of bytes allocated on the heap
+ * per evaluation of an expression by JEP.
+ * Expressions that call custom functions,
+ * such as <em>sec</em> and <em>toDegrees</em>,
+ * are compared with expressions
+ * that call only built-in functions,
+ * such as <em>cos</em>;
+ * the difference is the cost
+ * of invoking a custom function.
+ * Each expression is first evaluated
+ * a number of times without measurement,
+ * to give the JIT compiler
+ * a chance to do its work.
+ * <p>
+ * Allocation is measured with
+ * {@linkplain com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)},
+ * which is specific to HotSpot.
+ * </p>
+ * 
+ * @author Jack Straub
+ */
+public class JEPAllocationBenchmark
+{
+    /** Sample expressions to evaluate. */
+    private static final String[]   exprs       =
+    {
+        "x",
+        "cos(x)",
+        "sec(x)",
+        "cos(x) + sin(x)",
+        "sec(x) + csc(x)",
+        "toDegrees(x) + toRadians(x) + cot(x)",
+    };
+    /** Number of evaluations before measurement begins. */
+    private static final int        warmup      = 200_000;
+    /** Number of measured evaluations. */
+    private static final int        iterations  = 1_000_000;
+
+    /** Receives results so that evaluations can't be optimized away. */
+    private static volatile double  sink;
+
+    /**
+     * Application entry point.
+     * 
+     * @param args command line arguments, not used.
+     */
+    public static void main(String[] args)
+    {
+        System.out.printf( "%-40s %14s%n", "Expression", "bytes/eval" );
+        for ( String expr : exprs )
+            System.out.printf( "%-40s %14.1f%n", expr, measure( expr ) );
+    }
+
+    /**
+     * Measures the number of bytes allocated
+     * per evaluation of a given expression.
+     * 
+     * @param expr  the given expression
+     * 
+     * @return  the number of bytes allocated per evaluation
+     */
+    private static double measure( String expr )
+    {
+        com.sun.management.ThreadMXBean    bean    =
+            (com.sun.management.ThreadMXBean)
+                ManagementFactory.getThreadMXBean();
+        long        threadID    = Thread.currentThread().getId();
+        JEP         parser      = new JEP();
+        parser.addStandardConstants();
+        parser.addStandardFunctions();
+        JEPFunctions.addFunctions( parser );
+        parser.setImplicitMul( true );
+        parser.addVariable( "x", 0 );
+        parser.parseExpression( expr );
+        if ( parser.hasError() )
+            throw new IllegalArgumentException( "Invalid: " + expr );
+
+        double      sum         = 0;
+        for ( int inx = 0 ; inx < warmup ; ++inx )
+            sum += evaluate( parser, inx );
+        long        start       = bean.getThreadAllocatedBytes( threadID );
+        for ( int inx = 0 ; inx < iterations ; ++inx )
+            sum += evaluate( parser, inx );
+        long        allocated   =
+            bean.getThreadAllocatedBytes( threadID ) - start;
+        sink = sum;
+        double      perEval     = (double)allocated / iterations;
+        return perEval;
+    }
+
+    /**
+     * Evaluates the expression
+     * most recently parsed by a given JEP object
+     * for a value of x
+     * derived from a given index.
+     * 
+     * @param parser    the given JEP object
+     * @param inx       the given index
+     * 
+     * @return  the value of the expression
+     */
+    private static double evaluate( JEP parser, int inx )
+    {
+        parser.setVarValue( "x", inx * .001 );
+        double  value   = parser.getValue();
+        return value;
+    }
+}
@@ -0,0 +1,313 @@
+package com.acmemail.judah.cartesian_plane;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import javax.swing.SwingUtilities;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.acmemail.judah.cartesian_plane.BackgroundPlotter.Progress;
+import com.acmemail.judah.cartesian_plane.input.PointBuffer;
+
+class BackgroundPlotterTest
+{
+    /** Maximum time to wait for an event, in seconds. */
+    private static final long   timeout     = 10;
+
+    private final AtomicInteger         updates     = new AtomicInteger();
+    private final BlockingQueue<Progress>   events  =
+        new LinkedBlockingQueue<>();
+    private final BackgroundPlotter     plotter     =
+        new BackgroundPlotter( () -> updates.incrementAndGet() );
+    private final List<PointBuffer>     published   = 
+        Collections.synchronizedList( new ArrayList<>() );
+    private final NotificationListener  listener    = e -> {
+        if ( e.getSource() == plotter )
+        {
+            events.add( (Progress)e.getData() );
+            published.add( plotter.getPoints() );
+        }
+    };
+
+    @BeforeEach
+    public void beforeEach() throws Exception
+    {
+        // The NotificationManager is accessed only on the EDT.
+        SwingUtilities.invokeAndWait( () ->
+            NotificationManager.INSTANCE.addNotificationListener(
+                CPConstants.PLOT_PROGRESS_NP,
+                listener
+            )
+        );
+    }
+
+    @AfterEach
+    public void afterEach() throws Exception
+    {
+        SwingUtilities.invokeAndWait( () ->
+            NotificationManager.INSTANCE.removeNotificationListener(
+                CPConstants.PLOT_PROGRESS_NP,
+                listener
+            )
+        );
+    }
+
+    @Test
+    public void testComplete() throws Exception
+    {
+        int     count   = 100_000;
+        start( b -> addPoints( b, count ) );
+        assertEquals( Progress.State.STARTED, nextEvent().getState() );
+        Progress    progress    = awaitEnd();
+        assertEquals( Progress.State.COMPLETED, progress.getState() );
+        assertEquals( count, progress.getSize() );
+        assertEquals( count, onEDT( () -> plotter.getPoints().size() ) );
+        assertFalse( onEDT( () -> plotter.isRunning() ) );
+        assertTrue( updates.get() > 0 );
+
+        onEDT( () -> { plotter.clear(); return null; } );
+        assertEquals( 0, onEDT( () -> plotter.getPoints().size() ) );
+    }
+
+    @Test
+    public void testPartialResults() throws Exception
+    {
+        int     chunk   = 4096;
+        int     chunks  = 5;
+        start( b -> {
+            for ( int inx = 0 ; inx < chunks ; ++inx )
+            {
+                pause( 2 * BackgroundPlotter.FRAME_INTERVAL );
+                addPoints( b, chunk );
+            }
+        });
+        // Partial results must grow, and the first must arrive
+        // well before the plot is complete.
+        int         first       = 0;
+        int         partial     = 0;
+        Progress    progress    = nextEvent();
+        while ( progress.isRunning() )
+        {
+            if ( progress.getState() == Progress.State.RUNNING )
+            {
+                assertTrue( progress.getSize() > partial );
+                partial = progress.getSize();
+                if ( first == 0 )
+                    first = partial;
+            }
+            progress = nextEvent();
+        }
+        assertTrue( first > 0 );
+        assertTrue( first < chunk * chunks );
+        assertEquals( Progress.State.COMPLETED, progress.getState() );
+        assertEquals( chunk * chunks, progress.getSize() );
+    }
+
+    @Test
+    public void testPartialContents() throws Exception
+    {
+        // Partial results are accumulated incrementally;
+        // a published result must not change
+        // as the plot continues.
+        int     chunk   = 4096;
+        start( b -> {
+            for ( int inx = 0 ; inx < 4 * chunk ; ++inx )
+            {
+                if ( inx % chunk == 0 )
+                    pause( 2 * BackgroundPlotter.FRAME_INTERVAL );
+                b.add( inx, inx );
+            }
+            
+            // A buffer that is refilled is published from the start.
+            pause( 2 * BackgroundPlotter.FRAME_INTERVAL );
+            b.clear();
+            for ( int inx = 0 ; inx < 2 * chunk ; ++inx )
+                b.add( -inx, -inx );
+        });
+        Progress    progress    = awaitEnd();
+        assertEquals( Progress.State.COMPLETED, progress.getState() );
+        
+        List<Integer>   sizes   = new ArrayList<>();
+        for ( PointBuffer buffer : onEDT( () -> List.copyOf( published ) ) )
+        {
+            if ( buffer.size() == 0 )
+                continue;
+            sizes.add( buffer.size() );
+            int sign    = buffer.getX( buffer.size() - 1 ) < 0 ? -1 : 1;
+            for ( int inx = 0 ; inx < buffer.size() ; ++inx )
+                assertEquals( sign * inx, buffer.getX( inx ) );
+        }
+        List<Integer>   expSizes    = List.of( 
+            chunk, 2 * chunk, 3 * chunk, 4 * chunk, chunk, 2 * chunk
+        );
+        assertEquals( expSizes, sizes );
+    }
+
+    @Test
+    public void testCancel() throws Exception
+    {
+        CountDownLatch  running     = new CountDownLatch( 1 );
+        CountDownLatch  abandoned   = new CountDownLatch( 1 );
+        start( b -> {
+            running.countDown();
+            try
+            {
+                // Runs until cancelled. The buffer is cleared
+                // so that its size remains bounded.
+                while ( true )
+                {
+                    b.clear();
+                    addPoints( b, 4096 );
+                }
+            }
+            finally
+            {
+                abandoned.countDown();
+            }
+        });
+        assertEquals( Progress.State.STARTED, nextEvent().getState() );
+
+        // STARTED is published before the job is executed; a job
+        // superseded before it runs is skipped without entering
+        // its body, so wait until the body is running.
+        assertTrue( running.await( timeout, TimeUnit.SECONDS ) );
+        start( b -> addPoints( b, 10 ) );
+        assertTrue( abandoned.await( timeout, TimeUnit.SECONDS ) );
+        Progress    progress    = awaitEnd();
+        assertEquals( Progress.State.CANCELLED, progress.getState() );
+        progress = awaitEnd();
+        assertEquals( Progress.State.COMPLETED, progress.getState() );
+        assertEquals( 10, onEDT( () -> plotter.getPoints().size() ) );
+    }
+
+    @Test
+    public void testFailed() throws Exception
+    {
+        RuntimeException    exc = new IllegalStateException();
+        start( b -> {
+            throw exc;
+        });
+        Progress    progress    = awaitEnd();
+        assertEquals( Progress.State.FAILED, progress.getState() );
+        assertNotNull( progress.getError() );
+        assertSame( exc, progress.getError() );
+    }
+
+    /**
+     * Starts a plot on the EDT.
+     * 
+     * @param consumer  the plotter to start
+     * 
+     * @throws Exception if the operation is interrupted or fails
+     */
+    private void start( Consumer<PointBuffer> consumer ) throws Exception
+    {
+        onEDT( () -> { plotter.start( consumer ); return null; } );
+    }
+
+    /**
+     * Waits for the next event
+     * that does not describe a plot in progress.
+     * 
+     * @return  the next event that describes a finished plot
+     * 
+     * @throws InterruptedException if the wait is interrupted
+     */
+    private Progress awaitEnd() throws InterruptedException
+    {
+        Progress    progress    = nextEvent();
+        while ( progress.isRunning() )
+            progress = nextEvent();
+        return progress;
+    }
+
+    /**
+     * Waits for the next event.
+     * 
+     * @return  the next event
+     * 
+     * @throws InterruptedException if the wait is interrupted
+     */
+    private Progress nextEvent() throws InterruptedException
+    {
+        Progress    progress    = events.poll( timeout, TimeUnit.SECONDS );
+        assertNotNull( progress );
+        return progress;
+    }
+
+    /**
+     * Executes a given task on the EDT
+     * and returns its result.
+     * 
+     * @param <T>   the type of the result
+     * @param task  the given task
+     * 
+     * @return  the result of the task
+     * 
+     * @throws Exception if the operation is interrupted or fails
+     */
+    private static <T> T onEDT( java.util.concurrent.Callable<T> task )
+        throws Exception
+    {
+        Object[]    result  = new Object[1];
+        SwingUtilities.invokeAndWait( () -> {
+            try
+            {
+                result[0] = task.call();
+            }
+            catch ( Exception exc )
+            {
+                throw new RuntimeException( exc );
+            }
+        });
+        @SuppressWarnings("unchecked")
+        T   value   = (T)result[0];
+        return value;
+    }
+
+    /**
+     * Adds a given number of points to a buffer.
+     * 
+     * @param buffer    the buffer
+     * @param count     the given number of points
+     */
+    private static void addPoints( PointBuffer buffer, int count )
+    {
+        for ( int inx = 0 ; inx < count ; ++inx )
+            buffer.add( inx, inx );
+    }
+
+    /**
+     * Pauses the current thread
+     * for a given number of milliseconds.
+     * 
+     * @param millis    the given number of milliseconds
+     */
+    private static void pause( long millis )
+    {
+        try
+        {
+            Thread.sleep( millis );
+        }
+        catch ( InterruptedException exc )
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
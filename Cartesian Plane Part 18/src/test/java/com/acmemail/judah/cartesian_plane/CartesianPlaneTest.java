@@ -0,0 +1,208 @@
+package com.acmemail.judah.cartesian_plane;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.beans.PropertyChangeEvent;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import javax.swing.SwingUtilities;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CartesianPlaneTest
+{
+    private static final PropertyManager    pmgr        =
+        PropertyManager.INSTANCE;
+    private static final String             propName    =
+        CPConstants.GRID_LINE_WEIGHT_PN;
+    private static final List<String>       marginProps =
+        List.of(
+            CPConstants.MARGIN_TOP_WIDTH_PN,
+            CPConstants.MARGIN_RIGHT_WIDTH_PN,
+            CPConstants.MARGIN_BOTTOM_WIDTH_PN,
+            CPConstants.MARGIN_LEFT_WIDTH_PN
+        );
+
+    private final Map<String,String>    origMargins = new HashMap<>();
+    private String          origWeight;
+    private CartesianPlane  plane;
+
+    @BeforeEach
+    void beforeEach()
+    {
+        origWeight = pmgr.asString( propName );
+        marginProps.forEach( p -> origMargins.put( p, pmgr.asString( p ) ) );
+        plane = new CartesianPlane( 300, 200 );
+        plane.setSize( 300, 200 );
+    }
+
+    @AfterEach
+    void afterEach()
+    {
+        pmgr.removePropertyChangeListener( plane );
+        pmgr.setProperty( propName, origWeight );
+        origMargins.forEach( pmgr::setProperty );
+    }
+
+    @Test
+    void testReuse()
+    {
+        paint( 1 );
+        assertEquals( 1, plane.getGridBuildCount() );
+        paint( 1 );
+        paint( 1 );
+        assertEquals( 1, plane.getGridBuildCount() );
+    }
+
+    @Test
+    void testResize()
+    {
+        paint( 1 );
+        plane.setSize( 400, 250 );
+        paint( 1 );
+        assertEquals( 2, plane.getGridBuildCount() );
+        paint( 1 );
+        assertEquals( 2, plane.getGridBuildCount() );
+    }
+
+    @Test
+    void testProfileChange()
+    {
+        paint( 1 );
+        float   weight  = CPConstants.asFloat( origWeight );
+        pmgr.setProperty( propName, weight + 1 );
+        paint( 1 );
+        assertEquals( 2, plane.getGridBuildCount() );
+        paint( 1 );
+        assertEquals( 2, plane.getGridBuildCount() );
+    }
+
+    @Test
+    void testUnrelatedPropertyChange()
+    {
+        paint( 1 );
+        plane.propertyChange(
+            new PropertyChangeEvent( this, "noSuchProp", "", "" )
+        );
+        paint( 1 );
+        assertEquals( 1, plane.getGridBuildCount() );
+    }
+
+    @Test
+    void testScaleChange()
+    {
+        paint( 1 );
+        paint( 2 );
+        assertEquals( 2, plane.getGridBuildCount() );
+        paint( 2 );
+        assertEquals( 2, plane.getGridBuildCount() );
+        paint( 1 );
+        assertEquals( 3, plane.getGridBuildCount() );
+    }
+
+    @Test
+    void testImagePlotter() throws Exception
+    {
+        // The image is rendered on a background thread
+        // and drawn once it is complete. The margins must
+        // leave room for the grid, whatever a previous
+        // test may have left in the PropertyManager.
+        marginProps.forEach( p -> pmgr.setProperty( p, 20 ) );
+        int                     rgb     = Color.MAGENTA.getRGB();
+        BufferedImage           image   = 
+            new BufferedImage( 1, 1, BufferedImage.TYPE_INT_RGB );
+        image.setRGB( 0, 0, rgb );
+        AtomicReference<Thread> thread  = new AtomicReference<>();
+        Thread                  edt     = onEDT( () -> {
+            plane.setImagePlotter( v -> {
+                thread.set( Thread.currentThread() );
+                return image;
+            });
+            paint( 1 );
+            return Thread.currentThread();
+        });
+        
+        long    deadline    = 
+            System.nanoTime() + TimeUnit.SECONDS.toNanos( 10 );
+        int     count       = 0;
+        while ( count == 0 && System.nanoTime() < deadline )
+        {
+            Thread.sleep( 10 );
+            BufferedImage   painted = onEDT( () -> paint( 1 ) );
+            count = countPixels( painted, rgb );
+        }
+        assertTrue( count > 0 );
+        assertNotSame( edt, thread.get() );
+    }
+
+    /**
+     * Executes a given task on the event dispatch thread,
+     * and waits for it to complete.
+     * 
+     * @param <T>   the type of result returned by the task
+     * @param task  the given task
+     * 
+     * @return  the result of the task
+     * 
+     * @throws Exception    if the task cannot be executed
+     */
+    private static <T> T onEDT( Supplier<T> task ) 
+        throws Exception
+    {
+        AtomicReference<T>  result  = new AtomicReference<>();
+        SwingUtilities.invokeAndWait( () -> result.set( task.get() ) );
+        return result.get();
+    }
+
+    /**
+     * Counts the pixels of a given color in a given image.
+     * 
+     * @param image the given image
+     * @param rgb   the given color
+     * 
+     * @return  the number of pixels of the given color
+     */
+    private static int countPixels( BufferedImage image, int rgb )
+    {
+        int count   = 0;
+        for ( int row = 0 ; row < image.getHeight() ; ++row )
+            for ( int col = 0 ; col < image.getWidth() ; ++col )
+                if ( image.getRGB( col, row ) == rgb )
+                    ++count;
+        return count;
+    }
+
+    /**
+     * Paints the plane
+     * into an image scaled by a given factor,
+     * simulating a device with the given scale.
+     *
+     * @param scale the given factor
+     * 
+     * @return  the image into which the plane was painted
+     */
+    private BufferedImage paint( int scale )
+    {
+        int             width   = plane.getWidth() * scale;
+        int             height  = plane.getHeight() * scale;
+        BufferedImage   image   =
+            new BufferedImage( width, height, BufferedImage.TYPE_INT_RGB );
+        Graphics2D      gtx     = image.createGraphics();
+        gtx.scale( scale, scale );
+        plane.paintComponent( gtx );
+        gtx.dispose();
+        return image;
+    }
+}
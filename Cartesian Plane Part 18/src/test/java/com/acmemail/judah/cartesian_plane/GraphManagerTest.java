@@ -1,15 +1,19 @@
 package com.acmemail.judah.cartesian_plane;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.Image;
 import java.awt.Rectangle;
+import java.awt.Stroke;
 import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
@@ -342,6 +346,101 @@ public class GraphManagerTest
         assertEquals( origStroke, actStroke );
     }
     
+    @ParameterizedTest
+    @ValueSource( booleans= {false, true} )
+    public void testDrawLinesAsPath( boolean asPath )
+    {
+        // Half-pixel coordinates, where drawing a path
+        // and drawing line by line may differ.
+        Rectangle2D     rect    = 
+            new Rectangle2D.Float( 10.5f, 20.5f, 301, 257 );
+        Profile         profile = new Profile();
+        GraphManager    test    = new GraphManager( rect, profile );
+        assertFalse( test.isDrawLinesAsPath() );
+        test.setDrawLinesAsPath( asPath );
+        assertEquals( asPath, test.isDrawLinesAsPath() );
+        
+        BufferedImage   actImg  = 
+            new BufferedImage( defImgWidth, defImgHeight, defImgType );
+        Graphics2D      gtx     = actImg.createGraphics();
+        test.refresh( gtx );
+        test.drawGridLines();
+        test.drawAxes();
+        test.drawMinorTics();
+        test.drawMajorTics();
+        gtx.dispose();
+        
+        BufferedImage   expImg  = drawLines( rect, profile, asPath );
+        for ( int row = 0 ; row < defImgHeight ; ++row )
+            for ( int col = 0 ; col < defImgWidth ; ++col )
+                assertEquals(
+                    expImg.getRGB( col, row ), 
+                    actImg.getRGB( col, row ),
+                    "(" + col + "," + row + ")"
+                );
+    }
+    
+    /**
+     * Draws the background, grid lines, axes and tic marks
+     * described by a given Profile
+     * in a given rectangle,
+     * the way the original GraphManager drew them:
+     * every line is drawn separately as a Line2D.
+     * Optionally, every set of lines,
+     * and the axes,
+     * is instead drawn as a single path.
+     * 
+     * @param rect      the given rectangle
+     * @param profile   the given Profile
+     * @param asPath    true to draw each set of lines as a path
+     * 
+     * @return  an image containing the drawn lines
+     */
+    private BufferedImage 
+    drawLines( Rectangle2D rect, Profile profile, boolean asPath )
+    {
+        BufferedImage   image   = 
+            new BufferedImage( defImgWidth, defImgHeight, defImgType );
+        Graphics2D      gtx     = image.createGraphics();
+        gtx.setColor( profile.getMainWindow().getBGColor() );
+        gtx.fill( rect );
+        float           gpu     = profile.getGridUnit();
+        for ( String name : List.of( GRID_LINES, AXES, TIC_MINOR, TIC_MAJOR ) )
+        {
+            LinePropertySet propSet = profile.getLinePropertySet( name );
+            Stroke          stroke  = new BasicStroke( 
+                propSet.getStroke(), 
+                BasicStroke.CAP_BUTT, 
+                BasicStroke.JOIN_BEVEL
+            );
+            gtx.setColor( propSet.getColor() );
+            gtx.setStroke( stroke );
+            Path2D          path    = new Path2D.Float();
+            List<Line2D>    lines   = new ArrayList<>();
+            if ( name.equals( AXES ) )
+                LineGenerator.axesIterator( rect )
+                    .forEachRemaining( lines::add );
+            else if ( propSet.getDraw() )
+                new LineGenerator( 
+                    rect, 
+                    gpu, 
+                    propSet.getSpacing(), 
+                    propSet.getLength(), 
+                    LineGenerator.BOTH
+                ).forEach( lines::add );
+            for ( Line2D line : lines )
+            {
+                if ( asPath )
+                    path.append( line, false );
+                else
+                    gtx.draw( line );
+            }
+            gtx.draw( path );
+        }
+        gtx.dispose();
+        return image;
+    }
+    
     /**
      * Create a BufferedImage and a rectangle
      * with bounds that fall inside the image
@@ -0,0 +1,149 @@
+package com.acmemail.judah.cartesian_plane;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.awt.Font;
+import java.awt.font.FontRenderContext;
+import java.awt.font.TextLayout;
+import java.awt.geom.AffineTransform;
+
+import org.junit.jupiter.api.Test;
+
+class LabelCacheTest
+{
+    private static final String             fontName    = Font.DIALOG;
+    private static final FontRenderContext  frc         =
+        new FontRenderContext( null, false, false );
+
+    @Test
+    void testDefaults()
+    {
+        LabelCache  cache   = new LabelCache();
+        assertEquals( LabelCache.DEFAULT_CAPACITY, cache.getCapacity() );
+        assertEquals( 0, cache.size() );
+        assertNull( cache.getFont() );
+        assertThrows( IllegalStateException.class, () -> cache.getLayout( 1 ) );
+    }
+
+    @Test
+    void testInvalidArgs()
+    {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> new LabelCache( 0, 2 )
+        );
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> new LabelCache( 10, -1 )
+        );
+    }
+
+    @Test
+    void testHitMiss()
+    {
+        LabelCache  cache   = new LabelCache();
+        cache.validate( fontName, Font.PLAIN, 10, frc, 50 );
+        Font        font    = cache.getFont();
+        assertEquals( new Font( fontName, Font.PLAIN, 10 ), font );
+
+        TextLayout  layout  = cache.getLayout( 1.5f );
+        assertEquals( 1, cache.getMissCount() );
+        assertLayout( "1.50", font, layout );
+        assertSame( layout, cache.getLayout( 1.5f ) );
+        assertEquals( 1, cache.getHitCount() );
+        assertLayout( "-2.00", font, cache.getLayout( -2 ) );
+        assertEquals( 2, cache.getMissCount() );
+        assertEquals( 2, cache.size() );
+
+        // Validating with unchanged properties retains the labels.
+        cache.validate( fontName, Font.PLAIN, 10, frc, 50 );
+        assertSame( font, cache.getFont() );
+        assertSame( layout, cache.getLayout( 1.5f ) );
+        assertEquals( 0, cache.getInvalidationCount() );
+
+        cache.clear();
+        assertEquals( 0, cache.size() );
+        assertEquals( 0, cache.getHitCount() );
+        assertEquals( 0, cache.getMissCount() );
+        assertSame( font, cache.getFont() );
+    }
+
+    @Test
+    void testInvalidate()
+    {
+        LabelCache  cache   = new LabelCache();
+        cache.validate( fontName, Font.PLAIN, 10, frc, 50 );
+        TextLayout  layout  = cache.getLayout( 1 );
+
+        // Any change of font, context or grid unit empties the cache.
+        cache.validate( fontName, Font.BOLD, 10, frc, 50 );
+        assertEquals( 0, cache.size() );
+        assertEquals( Font.BOLD, cache.getFont().getStyle() );
+        assertNotSame( layout, cache.getLayout( 1 ) );
+        cache.validate( fontName, Font.BOLD, 12, frc, 50 );
+        assertEquals( 12, cache.getFont().getSize() );
+        cache.validate( Font.MONOSPACED, Font.BOLD, 12, frc, 50 );
+        assertEquals( Font.MONOSPACED, cache.getFont().getName() );
+        cache.validate( Font.MONOSPACED, Font.BOLD, 12, frc, 60 );
+        FontRenderContext   scaled  =
+            new FontRenderContext(
+                AffineTransform.getScaleInstance( 2, 2 ), false, false
+            );
+        cache.validate( Font.MONOSPACED, Font.BOLD, 12, scaled, 60 );
+        assertEquals( 5, cache.getInvalidationCount() );
+    }
+
+    @Test
+    void testCapacity()
+    {
+        LabelCache  cache   = new LabelCache( 2, 2 );
+        cache.validate( fontName, Font.PLAIN, 10, frc, 50 );
+        cache.getLayout( 1 );
+        cache.getLayout( 2 );
+        cache.getLayout( 1 );
+        cache.getLayout( 3 );
+        assertEquals( 2, cache.size() );
+
+        // 2 was least recently used, so it was discarded.
+        cache.getLayout( 1 );
+        assertEquals( 2, cache.getHitCount() );
+        cache.getLayout( 2 );
+        assertEquals( 4, cache.getMissCount() );
+    }
+
+    @Test
+    void testPrecision()
+    {
+        LabelCache  cache   = new LabelCache( 10, 1 );
+        cache.validate( fontName, Font.PLAIN, 10, frc, 50 );
+        assertLayout( "0.3", cache.getFont(), cache.getLayout( .25f ) );
+        cache = new LabelCache( 10, 0 );
+        cache.validate( fontName, Font.PLAIN, 10, frc, 50 );
+        assertLayout( "  3", cache.getFont(), cache.getLayout( 3 ) );
+    }
+
+    /**
+     * Verifies that a given layout
+     * has the same characters and bounds
+     * as a layout of given text
+     * in a given font.
+     * 
+     * @param expText   the given text
+     * @param font      the given font
+     * @param actual    the given layout
+     */
+    private static void
+    assertLayout( String expText, Font font, TextLayout actual )
+    {
+        TextLayout  expected    = new TextLayout( expText, font, frc );
+        assertEquals(
+            expected.getCharacterCount(),
+            actual.getCharacterCount()
+        );
+        assertEquals( expected.getBounds(), actual.getBounds() );
+    }
+}
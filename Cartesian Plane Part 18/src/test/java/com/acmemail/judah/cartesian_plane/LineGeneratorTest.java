@@ -2,16 +2,23 @@ package com.acmemail.judah.cartesian_plane;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
 import java.awt.geom.Line2D;
+import java.awt.geom.PathIterator;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -213,6 +220,102 @@ class LineGeneratorTest
         
     }
 
+    @ParameterizedTest
+    @ValueSource( ints= {
+        LineGenerator.HORIZONTAL, LineGenerator.VERTICAL, LineGenerator.BOTH
+    })
+    public void testForEachLine( int orientation )
+    {
+        LineGenerator   lineGen = 
+            new LineGenerator( testRect, testGPU, testLPU, -1, orientation );
+        List<Line2D>    expList = new ArrayList<>();
+        lineGen.forEach( expList::add );
+        
+        // The same line object is reused for every line.
+        List<Line2D>    actList = new ArrayList<>();
+        List<Line2D>    objects = new ArrayList<>();
+        lineGen.forEachLine( l -> {
+            actList.add( (Line2D)l.clone() );
+            if ( !objects.contains( l ) )
+                objects.add( l );
+        });
+        assertEquals( 1, objects.size() );
+        assertEquals( expList.size(), actList.size() );
+        IntStream.range( 0, expList.size() )
+            .forEach( i -> 
+                assertLineEquals( expList.get( i ), actList.get( i ) )
+            );
+    }
+
+    @ParameterizedTest
+    @ValueSource( floats= { 1, 3, 4.5f } )
+    public void testGetPath( float lpu )
+    {
+        // The path contains one move/line pair for every line,
+        // with the same end points, in the order of the iterator.
+        LineGenerator   lineGen = 
+            new LineGenerator( testRect, testGPU, lpu, baseLen );
+        Iterator<Line2D>    iter    = lineGen.iterator();
+        PathIterator        pathIter    = 
+            lineGen.getPath().getPathIterator( null );
+        double[]            coords  = new double[6];
+        while ( iter.hasNext() )
+        {
+            Line2D  line    = iter.next();
+            assertFalse( pathIter.isDone() );
+            assertEquals( 
+                PathIterator.SEG_MOVETO, 
+                pathIter.currentSegment( coords )
+            );
+            assertEquals( line.getX1(), coords[0] );
+            assertEquals( line.getY1(), coords[1] );
+            pathIter.next();
+            assertEquals( 
+                PathIterator.SEG_LINETO, 
+                pathIter.currentSegment( coords )
+            );
+            assertEquals( line.getX2(), coords[0] );
+            assertEquals( line.getY2(), coords[1] );
+            pathIter.next();
+        }
+        assertTrue( pathIter.isDone() );
+        assertThrows( NoSuchElementException.class, iter::next );
+    }
+
+    @ParameterizedTest
+    @ValueSource( ints= { 1, 2, 3, 5 } )
+    public void testGetPathDrawn( int stroke )
+    {
+        // With integral coordinates and stroke width,
+        // drawing the path is the same as drawing every line.
+        LineGenerator   lineGen = 
+            new LineGenerator( testRect, testGPU, 5, 10 );
+        int             width   = (int)testRect.getMaxX() + 10;
+        int             height  = (int)testRect.getMaxY() + 10;
+        BufferedImage   expImg  = 
+            new BufferedImage( width, height, BufferedImage.TYPE_INT_RGB );
+        BufferedImage   actImg  = 
+            new BufferedImage( width, height, BufferedImage.TYPE_INT_RGB );
+        Graphics2D      expGtx  = expImg.createGraphics();
+        Graphics2D      actGtx  = actImg.createGraphics();
+        for ( Graphics2D gtx : List.of( expGtx, actGtx ) )
+        {
+            gtx.setColor( Color.RED );
+            gtx.setStroke( new BasicStroke( stroke ) );
+        }
+        lineGen.forEachLine( expGtx::draw );
+        actGtx.draw( lineGen.getPath() );
+        expGtx.dispose();
+        actGtx.dispose();
+        for ( int row = 0 ; row < height ; ++row )
+            for ( int col = 0 ; col < width ; ++col )
+                assertEquals(
+                    expImg.getRGB( col, row ), 
+                    actImg.getRGB( col, row ),
+                    "(" + col + "," + row + ")"
+                );
+    }
+
     @Test
     public void testAxesIterator()
     {
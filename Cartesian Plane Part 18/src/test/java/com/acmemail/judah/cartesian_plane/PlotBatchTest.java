@@ -0,0 +1,182 @@
+package com.acmemail.judah.cartesian_plane;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class PlotBatchTest
+{
+    private static final int    imageSize   = 300;
+
+    @ParameterizedTest
+    @ValueSource( doubles= { 1, 2 } )
+    public void testPoints( double scale )
+    {
+        // Batched points are pixel-for-pixel the same as points
+        // drawn individually, including translucent points.
+        assertEquals( 0, compare( new PointShape(), scale, false ) );
+        assertEquals( 0, compare( new PointShape(), scale, true ) );
+    }
+
+    @ParameterizedTest
+    @ValueSource( doubles= { 1, 2 } )
+    public void testSquares( double scale )
+    {
+        assertEquals( 0, compare( new SquareShape( 4 ), scale, false ) );
+        assertEquals( 0, compare( new SquareShape( 4 ), scale, true ) );
+    }
+
+    @Test
+    public void testSprites()
+    {
+        // In a scaled context sprites are exact; otherwise they may
+        // be stamped up to a quarter pixel from the exact position.
+        PlotShape[] shapes  =
+            { new CircleShape( 3 ), new DiamondShape( 6, 8 ) };
+        for ( PlotShape shape : shapes )
+        {
+            assertEquals( 0, compare( shape, 2, false ) );
+            assertEquals( 0, compare( shape, 2, true ) );
+            assertTrue( compare( shape, 1, false ) < imageSize * 20 );
+            assertEquals( 0, compare( shape, 1, true ) );
+        }
+    }
+
+    @Test
+    public void testMixed()
+    {
+        // Changing the shape flushes the batch, so later points
+        // are drawn over earlier ones.
+        BufferedImage   image   = newImage();
+        Graphics2D      gtx     = newGraphics( image, 1, false );
+        PlotBatch       batch   = new PlotBatch( gtx, new SquareShape( 8 ) );
+        batch.add( 50, 50 );
+        batch.setShape( new PointShape() );
+        batch.setColor( Color.BLUE );
+        batch.add( 50.5, 50.5 );
+        batch.setShape( new CircleShape( 10 ) );
+        batch.setColor( Color.GREEN );
+        batch.add( 150, 150 );
+        batch.flush();
+        gtx.dispose();
+        // The graphics context is translated by (5,7)
+        assertEquals( Color.RED.getRGB(), image.getRGB( 46 + 5, 46 + 7 ) );
+        assertEquals( Color.BLUE.getRGB(), image.getRGB( 50 + 5, 50 + 7 ) );
+        assertEquals( Color.GREEN.getRGB(), image.getRGB( 145, 157 ) );
+    }
+
+    @Test
+    public void testClip()
+    {
+        // Sprites are stamped in device coordinates, but are
+        // still clipped.
+        BufferedImage   image   = newImage();
+        Graphics2D      gtx     = newGraphics( image, 1, false );
+        gtx.setClip( new Rectangle2D.Double( 0, 0, 100, 100 ) );
+        PlotBatch       batch   = new PlotBatch( gtx, new CircleShape( 5 ) );
+        batch.add( 100, 50 );
+        batch.flush();
+        gtx.dispose();
+        assertEquals( Color.RED.getRGB(), image.getRGB( 95 + 5, 50 + 7 ) );
+        assertEquals( 0, image.getRGB( 105 + 5, 50 + 7 ) & 0xFFFFFF );
+    }
+
+    /**
+     * Draws a sequence of points,
+     * with several changes of color,
+     * once individually and once using a PlotBatch,
+     * and compares the results.
+     * 
+     * @param shape     the shape with which to draw the points
+     * @param scale     the scale of the graphics contexts
+     * @param smooth    true to enable antialiasing
+     * 
+     * @return  the number of pixels that differ
+     */
+    private static int compare( PlotShape shape, double scale, boolean smooth )
+    {
+        BufferedImage   expImage    = newImage();
+        BufferedImage   actImage    = newImage();
+        Graphics2D      expGtx      = newGraphics( expImage, scale, smooth );
+        Graphics2D      actGtx      = newGraphics( actImage, scale, smooth );
+        PlotBatch       batch       = new PlotBatch( actGtx, shape );
+        Random          randy       = new Random( 1 );
+        for ( int inx = 0 ; inx < 3000 ; ++inx )
+        {
+            if ( inx % 700 == 0 )
+            {
+                Color   color   = new Color( randy.nextInt(), true );
+                expGtx.setColor( color );
+                batch.setColor( color );
+            }
+            float   xco     = randy.nextFloat() * imageSize / 2;
+            float   yco     = (float)Math.sin( xco / 10 ) * 50 + 60;
+            expGtx.draw( shape.getShape( xco, yco ) );
+            batch.add( xco, yco );
+        }
+        batch.flush();
+        expGtx.dispose();
+        actGtx.dispose();
+
+        int             count       = 0;
+        for ( int row = 0 ; row < imageSize ; ++row )
+            for ( int col = 0 ; col < imageSize ; ++col )
+            {
+                int     expRGB  = expImage.getRGB( col, row );
+                if ( expRGB != actImage.getRGB( col, row ) )
+                    ++count;
+            }
+        return count;
+    }
+
+    /**
+     * Creates an image on which to draw.
+     * 
+     * @return  an image on which to draw
+     */
+    private static BufferedImage newImage()
+    {
+        int             type    = BufferedImage.TYPE_INT_RGB;
+        BufferedImage   image   =
+            new BufferedImage( imageSize, imageSize, type );
+        return image;
+    }
+
+    /**
+     * Creates a graphics context
+     * for drawing on a given image.
+     * The graphics context is translated
+     * by a few pixels,
+     * and the color is set to red.
+     * 
+     * @param image     the given image
+     * @param scale     the scale of the graphics context
+     * @param smooth    true to enable antialiasing
+     * 
+     * @return  the new graphics context
+     */
+    private static Graphics2D
+    newGraphics( BufferedImage image, double scale, boolean smooth )
+    {
+        Graphics2D  gtx     = image.createGraphics();
+        gtx.translate( 5, 7 );
+        gtx.scale( scale, scale );
+        if ( smooth )
+            gtx.setRenderingHint(
+                RenderingHints.KEY_ANTIALIASING,
+                RenderingHints.VALUE_ANTIALIAS_ON
+            );
+        gtx.setColor( Color.RED );
+        return gtx;
+    }
+}
@@ -0,0 +1,234 @@
+package com.acmemail.judah.cartesian_plane;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class PlotDecimatorTest
+{
+    private static final int    imageSize   = 300;
+    private static final int    pointCount  = 20000;
+
+    @ParameterizedTest
+    @ValueSource( doubles= { 1, 2 } )
+    public void testPoints( double scale )
+    {
+        // Points are decimated only if each is a single device pixel
+        double  ratio   = compare( new PointShape(), scale, false, 255 );
+        if ( scale == 1 )
+            assertTrue( ratio > 2, "ratio = " + ratio );
+        else
+            assertEquals( 1, ratio );
+    }
+
+    @ParameterizedTest
+    @ValueSource( doubles= { 1, 2 } )
+    public void testSprites( double scale )
+    {
+        PlotShape[] shapes  =
+            { new CircleShape( 3 ), new DiamondShape( 6, 8 ) };
+        for ( PlotShape shape : shapes )
+        {
+            double  ratio   = compare( shape, scale, false, 255 );
+            assertTrue( ratio > 1, "ratio = " + ratio );
+        }
+    }
+
+    @Test
+    public void testNotDecimated()
+    {
+        // Translucent colors, antialiasing and shapes that
+        // are drawn individually are never decimated.
+        assertEquals( 1, compare( new PointShape(), 1, false, 128 ) );
+        assertEquals( 1, compare( new PointShape(), 1, true, 255 ) );
+        assertEquals( 1, compare( new CircleShape( 3 ), 1, true, 255 ) );
+        assertEquals( 1, compare( new SquareShape( 4 ), 1, false, 255 ) );
+    }
+
+    @Test
+    public void testReset()
+    {
+        // After a change of color a point is drawn again,
+        // even at the same position.
+        BufferedImage   image       = newImage();
+        Graphics2D      gtx         = newGraphics( image, 1, false );
+        PlotBatch       batch       = new PlotBatch( gtx, new PointShape() );
+        PlotDecimator   decimator   = newDecimator( batch );
+        decimator.add( 50, 50 );
+        decimator.add( 50.5, 50.5 );
+        batch.setColor( Color.BLUE );
+        decimator.reset();
+        decimator.add( 50, 50 );
+        batch.flush();
+        gtx.dispose();
+        assertEquals( 3, decimator.getInputCount() );
+        assertEquals( 2, decimator.getOutputCount() );
+        assertEquals( 1.5, decimator.getReductionRatio() );
+        assertEquals( Color.BLUE.getRGB(), image.getRGB( 50 + 5, 50 + 7 ) );
+    }
+
+    @Test
+    public void testColumns()
+    {
+        // A repeated point is omitted even if other points are
+        // drawn in between, provided they are in the same column;
+        // points above and below the region are always drawn.
+        BufferedImage   image       = newImage();
+        Graphics2D      gtx         = newGraphics( image, 1, false );
+        PlotBatch       batch       = new PlotBatch( gtx, new PointShape() );
+        PlotDecimator   decimator   = newDecimator( batch );
+        decimator.add( 10, 10 );
+        decimator.add( 10, 20 );
+        decimator.add( 10, 10 );
+        assertEquals( 2, decimator.getOutputCount() );
+        decimator.add( 11, 10 );
+        decimator.add( 10, 10 );
+        assertEquals( 4, decimator.getOutputCount() );
+        decimator.add( 10, -20 );
+        decimator.add( 10, -20 );
+        decimator.add( 10, imageSize );
+        decimator.add( 10, imageSize );
+        assertEquals( 8, decimator.getOutputCount() );
+        batch.flush();
+        gtx.dispose();
+    }
+
+    @Test
+    public void testEmpty()
+    {
+        BufferedImage   image       = newImage();
+        Graphics2D      gtx         = newGraphics( image, 1, false );
+        PlotBatch       batch       = new PlotBatch( gtx, new PointShape() );
+        PlotDecimator   decimator   = newDecimator( batch );
+        assertEquals( 0, decimator.getInputCount() );
+        assertEquals( 0, decimator.getOutputCount() );
+        assertEquals( 1, decimator.getReductionRatio() );
+        gtx.dispose();
+    }
+
+    /**
+     * Draws a dense sequence of points,
+     * with several changes of color,
+     * once using a PlotBatch
+     * and once using a PlotDecimator and a PlotBatch,
+     * and verifies that the results are identical.
+     * 
+     * @param shape     the shape with which to draw the points
+     * @param scale     the scale of the graphics contexts
+     * @param smooth    true to enable antialiasing
+     * @param alpha     the alpha component of the colors
+     * 
+     * @return  the reduction ratio of the decimator
+     */
+    private static double
+    compare( PlotShape shape, double scale, boolean smooth, int alpha )
+    {
+        BufferedImage   expImage    = newImage();
+        BufferedImage   actImage    = newImage();
+        Graphics2D      expGtx      = newGraphics( expImage, scale, smooth );
+        Graphics2D      actGtx      = newGraphics( actImage, scale, smooth );
+        PlotBatch       expBatch    = new PlotBatch( expGtx, shape );
+        PlotBatch       actBatch    = new PlotBatch( actGtx, shape );
+        PlotDecimator   decimator   = newDecimator( actBatch );
+        Random          randy       = new Random( 1 );
+        for ( int inx = 0 ; inx < pointCount ; ++inx )
+        {
+            if ( inx % 7000 == 0 )
+            {
+                int     rgb     = randy.nextInt() & 0xFFFFFF;
+                Color   color   = new Color( rgb | alpha << 24, true );
+                expBatch.setColor( color );
+                actBatch.setColor( color );
+                decimator.reset();
+            }
+            // Sorted by x, scattered in y, as for noisy data
+            double  xco     = (double)inx * imageSize / pointCount / 2;
+            double  yco     =
+                Math.sin( xco / 10 ) * 50 + 60 + randy.nextDouble() * 10;
+            expBatch.add( xco, yco );
+            decimator.add( xco, yco );
+        }
+        expBatch.flush();
+        actBatch.flush();
+        expGtx.dispose();
+        actGtx.dispose();
+        assertEquals( pointCount, decimator.getInputCount() );
+
+        for ( int row = 0 ; row < imageSize ; ++row )
+            for ( int col = 0 ; col < imageSize ; ++col )
+            {
+                int     expRGB  = expImage.getRGB( col, row );
+                int     actRGB  = actImage.getRGB( col, row );
+                assertEquals( expRGB, actRGB, col + ", " + row );
+            }
+        return decimator.getReductionRatio();
+    }
+
+    /**
+     * Creates a decimator
+     * for a given batch
+     * covering the whole image.
+     * 
+     * @param batch the given batch
+     * 
+     * @return  the new decimator
+     */
+    private static PlotDecimator newDecimator( PlotBatch batch )
+    {
+        Rectangle       bounds      =
+            new Rectangle( 0, 0, imageSize, imageSize );
+        PlotDecimator   decimator   = new PlotDecimator( batch, bounds );
+        return decimator;
+    }
+
+    /**
+     * Creates an image on which to draw.
+     * 
+     * @return  an image on which to draw
+     */
+    private static BufferedImage newImage()
+    {
+        int             type    = BufferedImage.TYPE_INT_RGB;
+        BufferedImage   image   =
+            new BufferedImage( imageSize, imageSize, type );
+        return image;
+    }
+
+    /**
+     * Creates a graphics context
+     * for drawing on a given image.
+     * The graphics context is translated
+     * by a few pixels,
+     * and the color is set to red.
+     * 
+     * @param image     the given image
+     * @param scale     the scale of the graphics context
+     * @param smooth    true to enable antialiasing
+     * 
+     * @return  the new graphics context
+     */
+    private static Graphics2D
+    newGraphics( BufferedImage image, double scale, boolean smooth )
+    {
+        Graphics2D  gtx     = image.createGraphics();
+        gtx.translate( 5, 7 );
+        gtx.scale( scale, scale );
+        if ( smooth )
+            gtx.setRenderingHint(
+                RenderingHints.KEY_ANTIALIASING,
+                RenderingHints.VALUE_ANTIALIAS_ON
+            );
+        gtx.setColor( Color.RED );
+        return gtx;
+    }
+}
@@ -0,0 +1,228 @@
+package com.acmemail.judah.cartesian_plane;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Color;
+import java.awt.geom.Rectangle2D;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+import org.junit.jupiter.api.Test;
+
+import com.acmemail.judah.cartesian_plane.input.Command;
+import com.acmemail.judah.cartesian_plane.input.CompiledEquation;
+import com.acmemail.judah.cartesian_plane.input.Equation;
+import com.acmemail.judah.cartesian_plane.input.PointBuffer;
+import com.acmemail.judah.cartesian_plane.input.Viewport;
+
+class PlotLayerTest
+{
+    private static final Viewport   port    =
+        new Viewport( new Rectangle2D.Double( -2, -2, 4, 4 ), 8 );
+
+    @Test
+    public void testUpdate()
+    {
+        PlotLayer       layer1  = newLayer( "x" );
+        PlotLayer       layer2  = newLayer( "a * x" );
+        List<PlotLayer> layers  = List.of( layer1, layer2 );
+        assertEquals( -1, layer1.getVersion() );
+        assertEquals( 0, layer1.getPoints().size() );
+
+        update( layers );
+        PointBuffer     points1 = layer1.getPoints();
+        PointBuffer     points2 = layer2.getPoints();
+        assertTrue( points1.size() > 0 );
+        assertEquals( points1.size(), points2.size() );
+        assertEquals( 2 * points1.getY( 0 ), points2.getY( 0 ) );
+        assertEquals(
+            layer1.getEquation().getVersion(),
+            layer1.getVersion()
+        );
+
+        // Unchanged equations are not replotted.
+        update( layers );
+        assertSame( points1, layer1.getPoints() );
+        assertSame( points2, layer2.getPoints() );
+
+        // Only the changed equation is replotted.
+        layer2.getEquation().setVar( "a", 3 );
+        update( layers );
+        assertSame( points1, layer1.getPoints() );
+        assertNotSame( points2, layer2.getPoints() );
+        assertEquals( 3 * points1.getY( 0 ), layer2.getPoints().getY( 0 ) );
+    }
+
+    @Test
+    public void testVisibility()
+    {
+        PlotLayer       layer1  = newLayer( "x" );
+        PlotLayer       layer2  = newLayer( "-x" );
+        List<PlotLayer> layers  = List.of( layer1, layer2 );
+        layer2.setVisible( false );
+        update( layers );
+        assertTrue( layer1.getPoints().size() > 0 );
+        assertEquals( 0, layer2.getPoints().size() );
+        assertEquals( -1, layer2.getVersion() );
+
+        // Showing a layer plots only that layer.
+        PointBuffer     points1 = layer1.getPoints();
+        layer2.setVisible( true );
+        update( layers );
+        assertSame( points1, layer1.getPoints() );
+        assertTrue( layer2.getPoints().size() > 0 );
+
+        // Hiding and showing a layer replots nothing.
+        PointBuffer     points2 = layer2.getPoints();
+        layer2.setVisible( false );
+        update( layers );
+        layer2.setVisible( true );
+        update( layers );
+        assertSame( points1, layer1.getPoints() );
+        assertSame( points2, layer2.getPoints() );
+    }
+
+    @Test
+    public void testAutoRange()
+    {
+        PlotLayer       layer   = newLayer( "x" );
+        layer.getEquation().setAutoRange( true );
+        update( List.of( layer ) );
+        assertEquals( port.getXMin(), layer.getPoints().getX( 0 ) );
+        assertSame( port, layer.getEquation().getViewport() );
+    }
+
+    @Test
+    public void testSnapshot()
+    {
+        // A layer plots a copy of its equation.
+        Equation        equation    = new CompiledEquation();
+        equation.setVar( "a", 2 );
+        equation.setYExpression( "a * x" );
+        PlotLayer       layer       =
+            new PlotLayer( equation, Command.YPLOT, Color.RED, null );
+        assertNotSame( equation, layer.getEquation() );
+        update( List.of( layer ) );
+        PointBuffer     points      = layer.getPoints();
+        equation.setVar( "a", 3 );
+        update( List.of( layer ) );
+        assertSame( points, layer.getPoints() );
+        
+        // The plot is generated from the equation
+        // as it was when the Update was created.
+        layer.getEquation().setVar( "a", 4 );
+        PlotLayer.Update    update  =
+            new PlotLayer.Update( List.of( layer ), port );
+        layer.getEquation().setVar( "a", 5 );
+        update.accept( new PointBuffer() );
+        update.run();
+        PointBuffer     actual      = layer.getPoints();
+        assertEquals( 4 * actual.getX( 0 ), actual.getY( 0 ) );
+        assertTrue( layer.getVersion() < layer.getEquation().getVersion() );
+    }
+
+    @Test
+    public void testYRange()
+    {
+        // Only a plot culled to the y-range
+        // is replotted when the y-range alone changes.
+        PlotLayer       culled  = newLayer( "x" );
+        Equation        xyEqu   = new CompiledEquation();
+        xyEqu.setRangeStart( "-1" );
+        xyEqu.setRangeEnd( "1" );
+        xyEqu.setRangeStep( ".0001" );
+        PlotLayer       xyLayer =
+            new PlotLayer( xyEqu, Command.XYPLOT, Color.RED, null );
+        List<PlotLayer> layers  = List.of( culled, xyLayer );
+        update( layers );
+        PointBuffer     points1 = culled.getPoints();
+        PointBuffer     points2 = xyLayer.getPoints();
+        long            version = xyLayer.getVersion();
+        
+        Viewport        taller  =
+            new Viewport( new Rectangle2D.Double( -2, -4, 4, 8 ), 8 );
+        update( layers, taller );
+        assertNotSame( points1, culled.getPoints() );
+        assertSame( points2, xyLayer.getPoints() );
+        assertEquals( version, xyLayer.getVersion() );
+        
+        // Changing only the x-range replots nothing.
+        points1 = culled.getPoints();
+        Viewport        wider   =
+            new Viewport( new Rectangle2D.Double( -3, -4, 6, 8 ), 8 );
+        update( layers, wider );
+        assertSame( points1, culled.getPoints() );
+        assertSame( points2, xyLayer.getPoints() );
+    }
+
+    @Test
+    public void testCancel()
+    {
+        PlotLayer       layer   = newLayer( "x" );
+        PlotLayer.Update    update  =
+            new PlotLayer.Update( List.of( layer ), port );
+        PointBuffer     buffer  = new PointBuffer();
+        buffer.setMonitor( b -> {
+            throw new CancellationException();
+        });
+        assertThrows( CancellationException.class, () -> {
+            update.accept( buffer );
+        });
+        assertEquals( -1, layer.getVersion() );
+    }
+
+    /**
+     * Executes an Update of a given list of layers,
+     * as a BackgroundPlotter would.
+     * 
+     * @param layers    the given list of layers
+     */
+    private static void update( List<PlotLayer> layers )
+    {
+        update( layers, port );
+    }
+
+    /**
+     * Executes an Update of a given list of layers
+     * in a given viewport,
+     * as a BackgroundPlotter would.
+     * 
+     * @param layers    the given list of layers
+     * @param viewport  the given viewport
+     */
+    private static void 
+    update( List<PlotLayer> layers, Viewport viewport )
+    {
+        PlotLayer.Update    update  =
+            new PlotLayer.Update( layers, viewport );
+        update.accept( new PointBuffer() );
+        update.run();
+    }
+
+    /**
+     * Creates a layer
+     * that plots a given y-expression.
+     * The range of the plot is large enough
+     * that its buffer is monitored.
+     * 
+     * @param expr  the given y-expression
+     * 
+     * @return  the new layer
+     */
+    private static PlotLayer newLayer( String expr )
+    {
+        Equation    equation    = new CompiledEquation();
+        equation.setVar( "a", 2 );
+        equation.setYExpression( expr );
+        equation.setRangeStart( "-1" );
+        equation.setRangeEnd( "1" );
+        equation.setRangeStep( ".0001" );
+        PlotLayer   layer       =
+            new PlotLayer( equation, Command.YPLOT, Color.RED, null );
+        return layer;
+    }
+}
@@ -0,0 +1,221 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.geom.Rectangle2D;
+
+import org.junit.jupiter.api.Test;
+
+class AdaptiveSamplerTest
+{
+    private final AdaptiveSampler   sampler = new AdaptiveSampler( 65 );
+    private final PointBuffer       buffer  = new PointBuffer();
+
+    @Test
+    void testDefaults()
+    {
+        AdaptiveSampler sampler = new AdaptiveSampler();
+        assertEquals( 1, sampler.getXScale() );
+        assertEquals( 1, sampler.getYScale() );
+        assertEquals( 
+            AdaptiveSampler.DEFAULT_INITIAL_SEGMENTS, 
+            sampler.getInitialSegments()
+        );
+        assertEquals( AdaptiveSampler.DEFAULT_MAX_DEPTH, sampler.getMaxDepth() );
+        assertEquals( 
+            AdaptiveSampler.DEFAULT_MAX_SAMPLES, 
+            sampler.getMaxSamples()
+        );
+        assertEquals( AdaptiveSampler.DEFAULT_MAX_ANGLE, sampler.getMaxAngle() );
+        assertEquals( 
+            AdaptiveSampler.DEFAULT_MAX_DISTANCE, 
+            sampler.getMaxDistance()
+        );
+        assertEquals( 
+            AdaptiveSampler.DEFAULT_MIN_DISTANCE, 
+            sampler.getMinDistance()
+        );
+    }
+
+    @Test
+    void testStraightLine()
+    {
+        // A short, straight line needs no refinement at all.
+        sampler.setScale( 1 );
+        sampler.sample( 0, 1, (t, p) -> p.setLocation( t, 2 * t ), buffer );
+        int count   = AdaptiveSampler.DEFAULT_INITIAL_SEGMENTS + 1;
+        assertEquals( 2 * count - 1, sampler.getEvaluationCount() );
+        assertEquals( 0, buffer.getX( 0 ) );
+        assertEquals( 1, buffer.getX( buffer.size() - 1 ) );
+        assertEquals( 2, buffer.getY( buffer.size() - 1 ) );
+    }
+
+    @Test
+    void testRefinesSharpPeak()
+    {
+        // Narrow peak at x = .3; samples must concentrate there.
+        sampler.sample( 
+            -5, 
+            5, 
+            (t, p) -> p.setLocation( t, 1 / (.001 + (t - .3) * (t - .3)) ),
+            buffer
+        );
+        int near    = 0;
+        int far     = 0;
+        for ( int inx = 0 ; inx < buffer.size() ; ++inx )
+        {
+            double  xco = buffer.getX( inx );
+            if ( Math.abs( xco - .3 ) < .25 )
+                ++near;
+            else if ( xco > 2.5 )
+                ++far;
+        }
+        assertTrue( near > 4 * far, near + ", " + far );
+        
+        double  maxY    = 0;
+        for ( int inx = 0 ; inx < buffer.size() ; ++inx )
+            maxY = Math.max( maxY, buffer.getY( inx ) );
+        assertEquals( 1000, maxY, 10 );
+    }
+
+    @Test
+    void testJump()
+    {
+        sampler.sample( 
+            -1, 
+            1, 
+            (t, p) -> p.setLocation( t, t < .123 ? 0 : 10 ), 
+            buffer
+        );
+        int breaks  = 0;
+        for ( int inx = 1 ; inx < buffer.size() ; ++inx )
+        {
+            if ( buffer.isBreak( inx ) )
+            {
+                ++breaks;
+                assertEquals( 0, buffer.getY( inx - 1 ) );
+                assertEquals( 10, buffer.getY( inx + 1 ) );
+            }
+            else if ( !buffer.isBreak( inx - 1 ) )
+                assertEquals( buffer.getY( inx - 1 ), buffer.getY( inx ) );
+        }
+        assertEquals( 1, breaks );
+    }
+
+    @Test
+    void testSteepButContinuous()
+    {
+        // Steep, but continuous: no break may be inserted.
+        sampler.sample( 
+            -1, 
+            1, 
+            (t, p) -> p.setLocation( t, Math.atan( 1e4 * t ) ), 
+            buffer
+        );
+        for ( int inx = 0 ; inx < buffer.size() ; ++inx )
+            assertFalse( buffer.isBreak( inx ) );
+    }
+
+    @Test
+    void testUndefined()
+    {
+        // sqrt is undefined on the left half of the range.
+        sampler.sample( 
+            -1, 
+            1, 
+            (t, p) -> p.setLocation( t, Math.sqrt( t ) ), 
+            buffer
+        );
+        assertTrue( buffer.size() > 0 );
+        for ( int inx = 0 ; inx < buffer.size() ; ++inx )
+        {
+            assertFalse( buffer.isBreak( inx ) );
+            assertTrue( buffer.getX( inx ) >= 0 );
+        }
+        assertTrue( buffer.getX( 0 ) < .001 );
+        
+        // Undefined in the middle of the range.
+        sampler.sample( 
+            -2, 
+            2, 
+            (t, p) -> p.setLocation( t, Math.sqrt( t * t - 1 ) ), 
+            buffer
+        );
+        int breaks  = 0;
+        for ( int inx = 0 ; inx < buffer.size() ; ++inx )
+            if ( buffer.isBreak( inx ) )
+                ++breaks;
+        assertEquals( 1, breaks );
+    }
+
+    @Test
+    void testBudget()
+    {
+        sampler.setMaxSamples( 200 );
+        sampler.sample( 
+            -10, 
+            10, 
+            (t, p) -> p.setLocation( t, Math.sin( 50 * t ) ), 
+            buffer
+        );
+        assertEquals( 200, sampler.getEvaluationCount() );
+        for ( int inx = 1 ; inx < buffer.size() ; ++inx )
+            assertTrue( buffer.getX( inx - 1 ) < buffer.getX( inx ) );
+        assertEquals( 10, buffer.getX( buffer.size() - 1 ) );
+    }
+
+    @Test
+    void testBounds()
+    {
+        assertNull( sampler.getBounds() );
+        sampler.sample( 
+            -1.5, 
+            1.5, 
+            (t, p) -> p.setLocation( t, Math.tan( t ) ), 
+            buffer
+        );
+        int unbounded   = sampler.getEvaluationCount();
+        
+        Rectangle2D bounds  = new Rectangle2D.Double( -2, -2, 4, 4 );
+        sampler.setBounds( bounds );
+        assertEquals( bounds, sampler.getBounds() );
+        sampler.sample( 
+            -1.5, 
+            1.5, 
+            (t, p) -> p.setLocation( t, Math.tan( t ) ), 
+            buffer
+        );
+        assertTrue( sampler.getEvaluationCount() < unbounded );
+    }
+
+    @Test
+    void testEmptyRange()
+    {
+        buffer.add( 1, 1 );
+        sampler.sample( 1, 0, (t, p) -> p.setLocation( t, t ), buffer );
+        assertEquals( 0, buffer.size() );
+        
+        sampler.sample( 1, 1, (t, p) -> p.setLocation( t, t ), buffer );
+        assertEquals( 1, buffer.size() );
+    }
+
+    @Test
+    void testGoWrong()
+    {
+        Class<IllegalArgumentException> clazz   = 
+            IllegalArgumentException.class;
+        assertThrows( clazz, () -> new AdaptiveSampler( 0 ) );
+        assertThrows( clazz, () -> sampler.setScale( 1, -1 ) );
+        assertThrows( clazz, () -> sampler.setInitialSegments( 0 ) );
+        assertThrows( clazz, () -> sampler.setMaxDepth( -1 ) );
+        assertThrows( clazz, () -> sampler.setMaxSamples( 0 ) );
+        assertThrows( clazz, () -> sampler.setMaxAngle( 0 ) );
+        assertThrows( clazz, () -> sampler.setMaxAngle( 181 ) );
+        assertThrows( clazz, () -> sampler.setMaxDistance( 0 ) );
+        assertThrows( clazz, () -> sampler.setMinDistance( -1 ) );
+    }
+}
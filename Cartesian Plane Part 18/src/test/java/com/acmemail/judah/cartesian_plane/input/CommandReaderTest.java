@@ -139,6 +139,10 @@ class CommandReaderTest
         expResults.add( new ParsedCommand( Command.YEQUALS, "y=", "yyy" ) );
         expResults.add( new ParsedCommand( Command.XEQUALS, "X=", "XXX" ) );
         expResults.add( new ParsedCommand( Command.YEQUALS, "Y=", "YYY" ) );
+        expResults.add( new ParsedCommand( Command.FEQUALS, "f=", "fff" ) );
+        expResults.add( new ParsedCommand( Command.FEQUALS, "F=", "FFF" ) );
+        expResults.add( new ParsedCommand( Command.ZEQUALS, "z=", "zzz" ) );
+        expResults.add( new ParsedCommand( Command.ZEQUALS, "Z=", "ZZZ" ) );
         List<String>    input   = 
             expResults.stream()
                 .map( p -> p.getCommandString() + " " + p.getArgString() )
@@ -0,0 +1,1212 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class CompiledEquationTest
+{
+    private CompiledEquation   equation;
+    
+    @BeforeEach
+    public void beforeEach() throws Exception
+    {
+        equation = new CompiledEquation();
+    }
+
+    @Test
+    public void testCompiledEquation()
+    {
+        validateDefaultVariables();
+        validateDefaultRange();
+        validateDefaultXExpression();
+        validateDefaultYExpression();
+    }
+
+    @Test
+    public void testCompiledEquationString()
+    {
+        equation = new CompiledEquation( "2x" );
+        validateDefaultVariables();
+        validateDefaultRange();
+        validateDefaultXExpression();
+        
+        // verify that y expression is set to 2 
+        // (see above "new CompiledEquation( "2x" )").
+        equation.setRangeStart( "1" );
+        equation.setRangeEnd( "1" );
+        equation.setRangeStep( "1" );
+        equation.yPlot().forEach(
+            p -> assertEquals( 2, p.getY(), "Y" ) 
+        );
+    }
+
+    @Test
+    public void testCompiledEquationMapOfStringDoubleString()
+    {
+        Map<String,Double>  mapIn   = new HashMap<>();
+        String[]            vars    = { "h", "j", "k", "l" };
+        for ( String str : vars )
+            mapIn.put( str, (double)str.charAt( 0 ) );
+        
+        equation = new CompiledEquation( mapIn, "2" );
+        assertEquals( mapIn, equation.getVars() );
+        validateDefaultRange();
+        
+        // validate expressions
+        equation.setRangeStart( "1" );
+        equation.setRangeEnd( "1" );
+        equation.setRangeStep( "1" );
+        equation.xyPlot().forEach(
+            p -> {
+                assertEquals( 1, p.getX(), "X" );
+                assertEquals( 2, p.getY(), "Y" );
+            }
+        );
+    }
+
+    @Test
+    public void testNewEquation()
+    {
+        equation = (CompiledEquation)equation.newEquation();
+        validateDefaultVariables();
+        validateDefaultRange();
+        validateDefaultXExpression();
+        validateDefaultYExpression();
+    }
+
+    @Test
+    public void testCopy()
+    {
+        Rectangle2D bounds  = new Rectangle2D.Double( -1, -1, 2, 2 );
+        Viewport    port    = new Viewport( bounds, 4 );
+        equation.setName( "name" );
+        equation.setVar( "a", 1.5 );
+        equation.setVar( "p", 0 );
+        equation.setParamName( "p" );
+        equation.setRangeStart( "-a" );
+        equation.setRangeEnd( "2a" );
+        equation.setRangeStep( ".5" );
+        equation.setYExpression( "a * p^2" );
+        equation.setXExpression( "p + 1" );
+        equation.setPrecision( 7 );
+        equation.setPlot( "XYPlot" );
+        equation.setParallel( true );
+        equation.setAutoRange( true );
+        equation.setViewport( port );
+        
+        Equation    copy    = equation.copy();
+        assertTrue( copy instanceof CompiledEquation );
+        assertEquals( "name", copy.getName() );
+        assertEquals( equation.getVars(), copy.getVars() );
+        assertEquals( "p", copy.getParamName() );
+        assertEquals( "-a", copy.getRangeStartExpr() );
+        assertEquals( 3, copy.getRangeEnd() );
+        assertEquals( "a * p^2", copy.getYExpression() );
+        assertEquals( "p + 1", copy.getXExpression() );
+        assertEquals( 7, copy.getPrecision() );
+        assertEquals( "XYPlot", copy.getPlot() );
+        assertTrue( copy.isParallel() );
+        assertTrue( copy.isAutoRange() );
+        assertEquals( port, copy.getViewport() );
+        
+        // The copy is independent of the original.
+        copy.setVar( "a", 2 );
+        assertEquals( 1.5, equation.getVar( "a" ).get() );
+        List<Point2D>   expected    = 
+            equation.xyPlot().collect( Collectors.toList() );
+        copy.setRangeStart( "-1.5" );
+        copy.setRangeEnd( "3" );
+        List<Point2D>   actual      = 
+            copy.xyPlot().collect( Collectors.toList() );
+        assertEquals( expected.size(), actual.size() );
+        for ( int inx = 0 ; inx < expected.size() ; ++inx )
+        {
+            Point2D exp = expected.get( inx );
+            Point2D act = actual.get( inx );
+            assertEquals( exp.getX(), act.getX(), .0001 );
+            assertEquals( exp.getY() / 1.5 * 2, act.getY(), .0001 );
+        }
+    }
+
+    @Test
+    public void testSetRemoveVar()
+    {
+        double  val     = 3.14;
+        String  name    = "abc";
+        equation.setVar( name, val );
+        
+        Optional<Double>    actVal  = equation.getVar( name );
+        assertTrue( actVal.isPresent() );
+        assertEquals( val, actVal.get() );
+        
+        equation.removeVar( name );
+        actVal  = equation.getVar( name );
+        assertFalse( actVal.isPresent() );
+    }
+
+    @Test
+    public void testGetVars()
+    {
+        String[]            vars    = { "h", "j", "k", "l" };
+        for ( String var : vars )
+            equation.setVar( var, var.charAt( 0 ) );
+        
+        Map<String,Double>  actVars = equation.getVars();
+        for ( String var : vars )
+        {
+            Double  actVal  = actVars.get( var );
+            assertNotNull( actVal );
+            assertEquals( var.charAt( 0 ), actVal );
+        }
+    }
+
+    @Test
+    public void testSetXExpression()
+    {
+        double  xier    = 2;
+        String  xExpr   = xier + "t";
+        Result  result  = equation.setXExpression( xExpr );
+        assertTrue( result.isSuccess() );
+        assertEquals( xExpr, equation.getXExpression() );
+        
+        equation.setRangeStart( "1" );
+        equation.setRangeEnd( "1" );
+        equation.setRangeStep( "1" );
+        equation.xyPlot()
+            .forEach( p -> assertEquals( p.getX(), xier ) );
+        
+        // try setting an invalid expression
+        result  = equation.setXExpression( "invalid" );
+        assertFalse( result.isSuccess() );
+    }
+
+    @Test
+    public void testSetXExpressionGoWrong()
+    {
+        String  oldXExpr    = equation.getXExpression();
+        String  xExpr       = "notAVar * x";
+        Result  result      = equation.setXExpression( xExpr );
+        assertFalse( result.isSuccess() );
+        assertEquals( oldXExpr, equation.getXExpression() );
+    }
+
+    @Test
+    public void testSetYExpression()
+    {
+        double  xier    = 2;
+        String  yExpr   = xier + "x";
+        Result  result  = equation.setYExpression( yExpr );
+        assertTrue( result.isSuccess() );
+        assertEquals( yExpr, equation.getYExpression() );
+        
+        equation.setRangeStart( "1" );
+        equation.setRangeEnd( "1" );
+        equation.setRangeStep( "1" );
+        equation.yPlot()
+            .forEach( p -> assertEquals( p.getY(), xier ) );
+        
+        // try setting an invalid expression
+        result  = equation.setYExpression( "invalid" );
+        assertFalse( result.isSuccess() );
+    }
+
+    @Test
+    public void testSetYExpressionGoWrong()
+    {
+        String  oldyExpr    = equation.getYExpression();
+        String  yExpr       = "undeclaredVarName * x";
+        Result  result      = equation.setYExpression( yExpr );
+        assertFalse( result.isSuccess() );
+        assertEquals( oldyExpr, equation.getYExpression() );
+    }
+
+    @Test
+    public void testSetRExpression()
+    {
+        String  rExpr   = "0 + 1";
+        Result  result  = equation.setRExpression( rExpr );
+        assertTrue( result.isSuccess() );
+        assertEquals( rExpr, equation.getRExpression() );
+        
+//        equation.setRange( Math.PI, Math.PI, 1 );
+        equation.setRangeStart( "pi" );
+        equation.setRangeEnd( "pi" );
+        equation.setRangeStep( "1" );
+        equation.rPlot()
+            .forEach( p -> assertEquals( -1, p.getX(), .0001 ) );
+        
+        // try setting an invalid expression
+        result  = equation.setRExpression( "invalid" );
+        assertFalse( result.isSuccess() );
+    }
+
+    @Test
+    public void testSetRExpressionGoWrong()
+    {
+        String  oldRExpr    = equation.getRExpression();
+        String  rExpr       = "undeclaredVarName * x";
+        Result  result      = equation.setRExpression( rExpr );
+        assertFalse( result.isSuccess() );
+        assertEquals( oldRExpr, equation.getRExpression() );
+    }
+
+    @Test
+    public void testSetTExpression()
+    {
+        String  tExpr   = "pi";
+        Result  result  = equation.setTExpression( tExpr );
+        assertTrue( result.isSuccess() );
+        assertEquals( tExpr, equation.getTExpression() );
+        
+        equation.setRangeStart( "1" );
+        equation.setRangeEnd( "1" );
+        equation.setRangeStep( "1" );
+        equation.tPlot()
+            .forEach( p -> assertEquals( -1, p.getX(), .0001 ) );
+        
+        // try setting an invalid expression
+        result  = equation.setRExpression( "invalid" );
+        assertFalse( result.isSuccess() );
+    }
+
+    @Test
+    public void testSetTExpressionGoWrong()
+    {
+        String  oldTExpr    = equation.getTExpression();
+        String  tExpr       = "undeclaredVarName * x";
+        Result  result      = equation.setTExpression( tExpr );
+        assertFalse( result.isSuccess() );
+        assertEquals( oldTExpr, equation.getTExpression() );
+    }
+
+    @Test
+    public void testYPlot()
+    {
+        double  xier    = 2;
+        String  yExpr   = xier + "x";
+        equation.setYExpression( yExpr );
+        
+        double  start   = -2;
+        double  end     = 2;
+        double  step    = .1;
+        List<Point2D>   expPoints   =
+            DoubleStream.iterate( start, x -> x <= end, x -> x + step )
+                .mapToObj( x -> new Point2D.Double( x, xier * x ) )
+                .collect( Collectors.toList() );
+        
+        equation.setRangeStart( String.valueOf( start ) );
+        equation.setRangeEnd( String.valueOf( end ) );
+        equation.setRangeStep( String.valueOf( step ) );
+        List<Point2D>   actPoints   =
+            equation.yPlot()
+            .collect( Collectors.toList() );
+        
+        assertEquals( expPoints, actPoints );
+    }
+
+    @Test
+    public void testYPlotGoWrong()
+    {
+        String  varName = "varName";
+        String  yExpr   = varName + " + x";
+        equation.setVar( varName, 0 );
+        equation.setYExpression( yExpr );
+        equation.removeVar( varName );
+        
+        Class<ValidationException>  clazz   = ValidationException.class;
+        assertThrows( clazz, () -> equation.yPlot() );
+    }
+
+    @Test
+    public void testXYPlot()
+    {
+        double  xXier   = 2;
+        double  yXier   = 3;
+        String  xExpr   = xXier + "t";
+        String  yExpr   = yXier + "t";
+        equation.setXExpression( xExpr );
+        equation.setYExpression( yExpr );
+        
+        double  start   = -2;
+        double  end     = 2;
+        double  step    = .1;
+        List<Point2D>   expPoints   =
+            DoubleStream.iterate( start, t -> t <= end, t -> t + step )
+                .mapToObj( t -> new Point2D.Double( xXier * t, yXier * t ) )
+                .collect( Collectors.toList() );
+        
+        equation.setRangeStart( String.valueOf( start ) );
+        equation.setRangeEnd( String.valueOf( end ) );
+        equation.setRangeStep( String.valueOf( step ) );
+        List<Point2D>   actPoints   =
+            equation.xyPlot()
+            .collect( Collectors.toList() );
+        
+        assertEquals( expPoints, actPoints );
+    }
+
+    @Test
+    public void testXYPlotGoWrong()
+    {
+        String  xVarName    = "xVarName";
+        String  yVarName    = "yVarName";
+        String  xExpr       = xVarName + " + t";
+        String  yExpr       = yVarName + " + t";
+        equation.setVar( xVarName, 0 );
+        equation.setVar( yVarName, 0 );
+        equation.setXExpression( xExpr );
+        equation.setYExpression( yExpr );
+        
+        Class<ValidationException>  clazz   = ValidationException.class;
+        
+        // expect x-expression to throw an exception
+        equation.removeVar( xVarName );
+        assertThrows( clazz, () -> equation.xyPlot() );
+        
+        // expect y-expression to throw an exception
+        equation.setVar( xVarName, 0 );
+        equation.removeVar( yVarName );
+        assertThrows( clazz, () -> equation.xyPlot() );
+    }
+
+    @Test
+    public void testRPlot()
+    {
+        // 4 points where unit circle intersects x/y axes
+        List<Point2D>   expPoints   = List.of( 
+            new Point2D.Double( 1, 0 ), 
+            new Point2D.Double( 0, 1 ), 
+            new Point2D.Double( -1, 0 ), 
+            new Point2D.Double( 0, -1 )
+        );
+        
+        equation.setRExpression( "1" );
+        double  start   = 0;
+        double  end     = 3 * Math.PI / 2;
+        double  step    = Math.PI / 2;
+        
+        equation.setRangeStart( String.valueOf( start ) );
+        equation.setRangeEnd( String.valueOf( end ) );
+        equation.setRangeStep( String.valueOf( step ) );
+        List<Point2D>   actPoints   =
+            equation.rPlot()
+            .collect( Collectors.toList() );
+        
+        // Test equality after allowing for rounding errors
+        double  epsilon = .000001;
+        assertEquals( expPoints.size(), actPoints.size() );
+        IntStream.range( 0, 4 ).forEach( i -> {
+            Point2D ePoint  = expPoints.get( i );
+            Point2D aPoint  = actPoints.get( i );
+            assertEquals( ePoint.getX(), aPoint.getX(), epsilon, "" + i );
+            assertEquals( ePoint.getY(), aPoint.getY(), epsilon, "" + i );
+        });
+    }
+
+    @Test
+    public void testRPlotGoWrong()
+    {
+        String  varName = "varName";
+        String  rExpr   = varName + " + x";
+        equation.setVar( varName, 0 );
+        equation.setRExpression( rExpr );
+        equation.removeVar( varName );
+        
+        Class<ValidationException>  clazz   = ValidationException.class;
+        assertThrows( clazz, () -> equation.rPlot() );
+    }
+
+    @Test
+    public void testTPlot()
+    {
+        double  theta   = Math.PI / 2;
+        List<Point2D>   expPoints   = 
+            IntStream.range( 0, 4 )
+            .mapToObj( r -> 
+                new Point2D.Double(
+                        r * Math.cos( theta ),
+                        r * Math.sin( theta )
+                ))
+            .collect( Collectors.toList() );
+        
+        equation.setTExpression( "pi / 2" );
+        double  start   = 0;
+        double  end     = 3;
+        double  step    = 1;
+        
+        equation.setRangeStart( String.valueOf( start ) );
+        equation.setRangeEnd( String.valueOf( end ) );
+        equation.setRangeStep( String.valueOf( step ) );
+        List<Point2D>   actPoints   =
+            equation.tPlot()
+            .collect( Collectors.toList() );
+        
+        // Test equality after allowing for rounding errors
+        double  epsilon = .000001;
+        assertEquals( expPoints.size(), actPoints.size() );
+        IntStream.range( 0, 4 ).forEach( i -> {
+            Point2D ePoint  = expPoints.get( i );
+            Point2D aPoint  = actPoints.get( i );
+            assertEquals( ePoint.getX(), aPoint.getX(), epsilon, "" + i );
+            assertEquals( ePoint.getY(), aPoint.getY(), epsilon, "" + i );
+        });
+    }
+
+    @Test
+    public void testTPlotGoWrong()
+    {
+        String  varName = "varName";
+        String  tExpr   = varName + " + x";
+        equation.setVar( varName, 0 );
+        equation.setTExpression( tExpr );
+        equation.removeVar( varName );
+        
+        Class<ValidationException>  clazz   = ValidationException.class;
+        assertThrows( clazz, () -> equation.tPlot() );
+    }
+
+    @Test
+    public void testYPlotBuffer()
+    {
+        equation.setVar( "a", 2 );
+        equation.setYExpression( "a * sin(x) + x^2" );
+        setRange( "-2", "2", ".1" );
+        assertBufferMatchesStream( equation.yPlot(), equation::yPlot );
+    }
+
+    @Test
+    public void testXYPlotBuffer()
+    {
+        equation.setXExpression( "2cos(t)" );
+        equation.setYExpression( "3sin(t)" );
+        setRange( "0", "2pi", ".1" );
+        assertBufferMatchesStream( equation.xyPlot(), equation::xyPlot );
+    }
+
+    @Test
+    public void testRPlotBuffer()
+    {
+        equation.setRExpression( "2cos(3t)" );
+        setRange( "0", "2pi", ".1" );
+        assertBufferMatchesStream( equation.rPlot(), equation::rPlot );
+    }
+
+    @Test
+    public void testTPlotBuffer()
+    {
+        equation.setTExpression( "r / 2" );
+        setRange( "0", "10", ".25" );
+        assertBufferMatchesStream( equation.tPlot(), equation::tPlot );
+    }
+
+    @Test
+    public void testPlotBufferReuse()
+    {
+        PointBuffer buffer  = new PointBuffer( 1 );
+        setRange( "0", "9", "1" );
+        equation.yPlot( buffer );
+        assertEquals( 10, buffer.size() );
+        
+        // Refilling the buffer must discard the previous points
+        setRange( "0", "4", "1" );
+        equation.yPlot( buffer );
+        assertEquals( 5, buffer.size() );
+    }
+
+    @Test
+    public void testParallelPlot()
+    {
+        assertFalse( equation.isParallel() );
+        equation.setXExpression( "cos(t) + t" );
+        equation.setYExpression( "x^2 - 2x + sin(x)" );
+        equation.setRExpression( "1 + cos(t)" );
+        equation.setTExpression( "2r" );
+        
+        // With a step that is exactly representable, sequential
+        // and parallel plots must produce identical points.
+        setRange( "-8", "8", String.valueOf( 1 / 1024. ) );
+        assertParallelMatchesSequential( 
+            equation::yPlot, 
+            () -> equation.yPlot()
+        );
+        assertParallelMatchesSequential( 
+            equation::xyPlot, 
+            () -> equation.xyPlot()
+        );
+        assertParallelMatchesSequential( 
+            equation::rPlot, 
+            () -> equation.rPlot()
+        );
+        assertParallelMatchesSequential( 
+            equation::tPlot, 
+            () -> equation.tPlot()
+        );
+    }
+
+    @Test
+    public void testEvaluateCache()
+    {
+        ExpressionCache<?>  cache   = CompiledEquation.getExpressionCache();
+        
+        // Use an expression that no other test uses, so that the
+        // first evaluation is guaranteed to miss.
+        String  expr    = "a * 1234.5678 + b";
+        equation.setVar( "a", 2 );
+        equation.setVar( "b", 1 );
+        long    misses  = cache.getMissCount();
+        long    hits    = cache.getHitCount();
+        testEvaluatePass( expr, 2 * 1234.5678 + 1 );
+        assertEquals( misses + 1, cache.getMissCount() );
+        
+        // Same expression, same variable names, new values: hit.
+        equation.setVar( "a", 3 );
+        testEvaluatePass( expr, 3 * 1234.5678 + 1 );
+        assertEquals( hits + 1, cache.getHitCount() );
+        
+        // The same expression in another equation is also a hit.
+        Equation    other   = new CompiledEquation();
+        other.setVar( "a", 1 );
+        other.setVar( "b", 1 );
+        assertEquals( 1234.5678 + 1, other.evaluate( expr ).get(), .0001 );
+        assertEquals( hits + 2, cache.getHitCount() );
+        
+        // A different set of variable names is a different entry.
+        equation.setVar( "newVarName", 0 );
+        testEvaluatePass( expr, 3 * 1234.5678 + 1 );
+        assertEquals( misses + 2, cache.getMissCount() );
+        
+        // Removing a variable invalidates the expression.
+        equation.removeVar( "b" );
+        assertFalse( equation.evaluate( expr ).isPresent() );
+    }
+    
+    @Test
+    public void testOptimize()
+    {
+        String  expr    = "a * b * sin( c * x ) + toRadians( 45 )";
+        equation.setVar( "a", 2 );
+        equation.setVar( "b", 3 );
+        equation.setVar( "c", 4 );
+        Optional<String>    optExpr = equation.getOptimizedExpression( expr );
+        assertTrue( optExpr.isPresent() );
+        assertEquals( "a * b * sin(c * x) + 0.7853981633974483", optExpr.get() );
+        assertFalse( equation.getOptimizedExpression( "a *" ).isPresent() );
+        
+        // The optimized form is what gets plotted.
+        equation.setYExpression( expr );
+        setRange( "-1", "1", ".25" );
+        PointBuffer buffer  = new PointBuffer();
+        equation.yPlot( buffer );
+        assertEquals( 9, buffer.size() );
+        for ( int inx = 0 ; inx < buffer.size() ; ++inx )
+        {
+            double  xco     = buffer.getX( inx );
+            double  expY    = 6 * Math.sin( 4 * xco ) + Math.PI / 4;
+            assertEquals( expY, buffer.getY( inx ), .0001 );
+        }
+        
+        // Changing a constant changes the plot.
+        equation.setVar( "a", 1 );
+        equation.yPlot( buffer );
+        double  xco     = buffer.getX( 0 );
+        assertEquals( 
+            3 * Math.sin( 4 * xco ) + Math.PI / 4, 
+            buffer.getY( 0 ), 
+            .0001
+        );
+    }
+    
+    @Test
+    public void testDependencies()
+    {
+        equation.setVar( "a", 1 );
+        equation.setVar( "b", 2 );
+        equation.setVar( "c", 3 );
+        equation.setXExpression( "a * t" );
+        equation.setYExpression( "b + x" );
+        equation.setRExpression( "sin( t )" );
+        equation.setTExpression( "2 * r" );
+        assertEquals( Set.of( "a", "t" ), equation.getXDependencies() );
+        assertEquals( Set.of( "b", "x" ), equation.getYDependencies() );
+        assertEquals( Set.of( "t" ), equation.getRDependencies() );
+        assertEquals( Set.of( "r" ), equation.getTDependencies() );
+        
+        assertTrue( equation.dependsOn( "a" ) );
+        assertTrue( equation.dependsOn( "b" ) );
+        assertFalse( equation.dependsOn( "c" ) );
+        
+        equation.setYExpression( "c" );
+        assertFalse( equation.dependsOn( "b" ) );
+        assertTrue( equation.dependsOn( "c" ) );
+    }
+    
+    @Test
+    public void testZDependencies()
+    {
+        // A variable read only by the z-expression
+        // still changes the version.
+        equation.setVar( "a", 1 );
+        equation.setVar( "b", 2 );
+        assertTrue( equation.setZExpression( "z^2 + a" ).isSuccess() );
+        assertEquals( Set.of( "a" ), equation.getZDependencies() );
+        assertTrue( equation.dependsOn( "a" ) );
+        assertFalse( equation.dependsOn( "b" ) );
+        long    version = equation.getVersion();
+        equation.setVar( "a", 3 );
+        version = assertVersionChanged( version );
+        equation.setVar( "b", 3 );
+        assertEquals( version, equation.getVersion() );
+    }
+    
+    @Test
+    public void testVersion()
+    {
+        long    version = equation.getVersion();
+        assertEquals( version, equation.getVersion() );
+        
+        // No expression reads a yet.
+        equation.setVar( "a", 1 );
+        assertEquals( version, equation.getVersion() );
+        equation.setYExpression( "a * x" );
+        version = assertVersionChanged( version );
+        equation.setVar( "a", 2 );
+        version = assertVersionChanged( version );
+        equation.setVar( "a", 2 );
+        assertEquals( version, equation.getVersion() );
+        equation.setVar( "unused", 3 );
+        assertEquals( version, equation.getVersion() );
+        equation.removeVar( "unused" );
+        assertEquals( version, equation.getVersion() );
+        setRange( "-1", "1", ".5" );
+        version = assertVersionChanged( version );
+        equation.setParamName( "p" );
+        version = assertVersionChanged( version );
+        equation.setAutoRange( true );
+        version = assertVersionChanged( version );
+        
+        // Invalid expressions are not stored, so the version is
+        // unchanged.
+        equation.setYExpression( "a *" );
+        assertEquals( version, equation.getVersion() );
+        
+        // Only a change of viewport affects the version.
+        Viewport    viewport    = 
+            new Viewport( new Rectangle2D.Double( -1, -1, 2, 2 ), 10 );
+        equation.setViewport( viewport );
+        version = assertVersionChanged( version );
+        equation.setViewport( 
+            new Viewport( new Rectangle2D.Double( -1, -1, 2, 2 ), 10 )
+        );
+        assertEquals( version, equation.getVersion() );
+        
+        equation.removeVar( "a" );
+        assertVersionChanged( version );
+    }
+    
+    @Test
+    public void testAutoRange()
+    {
+        equation.setYExpression( "2x" );
+        setRange( "-1", "1", ".5" );
+        assertFalse( equation.isAutoRange() );
+        assertNull( equation.getViewport() );
+        
+        // Auto range without a viewport uses the encapsulated range.
+        equation.setAutoRange( true );
+        assertTrue( equation.isAutoRange() );
+        PointBuffer buffer  = new PointBuffer();
+        equation.yPlot( buffer );
+        assertEquals( 5, buffer.size() );
+        
+        Rectangle2D bounds      = new Rectangle2D.Double( -4, -3, 8, 6 );
+        Viewport    viewport    = new Viewport( bounds, 16 );
+        equation.setViewport( viewport );
+        assertEquals( viewport, equation.getViewport() );
+        equation.yPlot( buffer );
+        assertEquals( 8 * 16 + 1, buffer.size() );
+        assertEquals( -4, buffer.getX( 0 ) );
+        assertEquals( 4, buffer.getX( buffer.size() - 1 ) );
+        assertEquals( 1 / 16., buffer.getX( 1 ) - buffer.getX( 0 ) );
+        assertBufferMatchesStream( equation.yPlot(), equation::yPlot );
+        
+        // Other plots are unaffected.
+        equation.setXExpression( "t" );
+        equation.xyPlot( buffer );
+        assertEquals( 5, buffer.size() );
+        
+        // The viewport configures the adaptive sampler.
+        AdaptiveSampler sampler = new AdaptiveSampler();
+        equation.setAdaptiveSampler( sampler );
+        assertEquals( bounds, sampler.getBounds() );
+        assertEquals( 16, sampler.getXScale() );
+        
+        equation.setAutoRange( false );
+        equation.setAdaptiveSampler( null );
+        equation.yPlot( buffer );
+        assertEquals( 5, buffer.size() );
+    }
+
+    @Test
+    public void testAdaptivePlot()
+    {
+        AdaptiveSampler sampler = new AdaptiveSampler( 65 );
+        sampler.setBounds( new Rectangle2D.Double( -3, -5, 6, 10 ) );
+        assertNull( equation.getAdaptiveSampler() );
+        equation.setAdaptiveSampler( sampler );
+        assertEquals( sampler, equation.getAdaptiveSampler() );
+        
+        // Poles at +/- pi/2 must be separated by breaks, using far
+        // fewer evaluations than a fixed step of 1/1024.
+        setRange( "-3", "3", String.valueOf( 1 / 1024. ) );
+        equation.setYExpression( "tan(x)" );
+        PointBuffer buffer  = new PointBuffer();
+        equation.yPlot( buffer );
+        assertNoConnectorAcross( buffer, -Math.PI / 2, Math.PI / 2 );
+        assertTrue( sampler.getEvaluationCount() < 6 * 1024 );
+        assertBufferMatchesStream( equation.yPlot(), equation::yPlot );
+        
+        equation.setYExpression( "1/x" );
+        equation.yPlot( buffer );
+        assertNoConnectorAcross( buffer, 0 );
+        
+        equation.setXExpression( "t" );
+        equation.setYExpression( "tan(t)" );
+        equation.xyPlot( buffer );
+        assertNoConnectorAcross( buffer, -Math.PI / 2, Math.PI / 2 );
+        assertBufferMatchesStream( equation.xyPlot(), equation::xyPlot );
+        
+        equation.setRExpression( "2" );
+        equation.rPlot( buffer );
+        for ( int inx = 0 ; inx < buffer.size() ; ++inx )
+        {
+            double  dist    = Math.hypot( buffer.getX( inx ), buffer.getY( inx ) );
+            assertEquals( 2, dist, .0001 );
+        }
+        
+        equation.setAdaptiveSampler( null );
+        assertNull( equation.getAdaptiveSampler() );
+    }
+
+    @Test
+    public void testPolarTolerance()
+    {
+        assertEquals( 0, equation.getPolarTolerance() );
+        long    version = equation.getVersion();
+        equation.setPolarTolerance( 1e-12 );
+        assertEquals( 1e-12, equation.getPolarTolerance() );
+        version = assertVersionChanged( version );
+        equation.setPolarTolerance( 1e-12 );
+        assertEquals( version, equation.getVersion() );
+        
+        Class<IllegalArgumentException> clazz   = 
+            IllegalArgumentException.class;
+        assertThrows( clazz, () -> equation.setPolarTolerance( -1 ) );
+        assertThrows( clazz, () -> equation.setPolarTolerance( Double.NaN ) );
+        
+        // Incremental sine and cosine must be within the tolerance
+        // of the exact calculation (scaled by the radius).
+        equation.setRExpression( "t" );
+        setRange( "0", "64", String.valueOf( 1 / 1024. ) );
+        PointBuffer expBuffer   = new PointBuffer();
+        equation.setPolarTolerance( 0 );
+        equation.rPlot( expBuffer );
+        PointBuffer actBuffer   = new PointBuffer();
+        equation.setPolarTolerance( 1e-12 );
+        equation.rPlot( actBuffer );
+        assertPointsClose( expBuffer, actBuffer, 64 * 1e-12 );
+        assertBufferMatchesStream( equation.rPlot(), equation::rPlot );
+        
+        // Parallel tasks begin with an exact calculation, so they
+        // may differ from the sequential plot, but only within the
+        // tolerance.
+        equation.setParallel( true );
+        equation.rPlot( actBuffer );
+        assertPointsClose( expBuffer, actBuffer, 64 * 1e-12 );
+        equation.setParallel( false );
+        equation.setPolarTolerance( 0 );
+    }
+
+    @Test
+    public void testFPlot()
+    {
+        assertEquals( "1", equation.getFExpression() );
+        long    version = equation.getVersion();
+        assertTrue( equation.setFExpression( "x^2 + y^2 - a" ).isSuccess() );
+        assertEquals( "x^2 + y^2 - a", equation.getFExpression() );
+        version = assertVersionChanged( version );
+        assertTrue( equation.getFDependencies().contains( "a" ) );
+        assertTrue( equation.dependsOn( "a" ) );
+        assertFalse( equation.setFExpression( "x^2 +" ).isSuccess() );
+        assertEquals( "x^2 + y^2 - a", equation.getFExpression() );
+        
+        // Without a viewport, x and y traverse the iteration range.
+        equation.setVar( "a", 4 );
+        version = assertVersionChanged( version );
+        setRange( "-3", "3", String.valueOf( 1 / 64. ) );
+        PointBuffer buffer  = new PointBuffer();
+        equation.fPlot( buffer );
+        assertEquals( "FPlot", equation.getPlot() );
+        assertTrue( buffer.size() > 0 );
+        for ( int inx = 0 ; inx < buffer.size() ; ++inx )
+        {
+            if ( !buffer.isBreak( inx ) )
+            {
+                double  dist    = 
+                    Math.hypot( buffer.getX( inx ), buffer.getY( inx ) );
+                assertEquals( 2, dist, 1 / 64. );
+            }
+        }
+        assertBufferMatchesStream( equation.fPlot(), equation::fPlot );
+        
+        // With a viewport, the grid covers the viewport.
+        version = equation.getVersion();
+        Rectangle2D bounds      = new Rectangle2D.Double( 0, 0, 4, 4 );
+        equation.setViewport( new Viewport( bounds, 32 ) );
+        version = assertVersionChanged( version );
+        equation.fPlot( buffer );
+        assertTrue( buffer.size() > 0 );
+        for ( int inx = 0 ; inx < buffer.size() ; ++inx )
+            if ( !buffer.isBreak( inx ) )
+                assertTrue( bounds.contains( buffer.getX( inx ), 0 ) );
+        
+        equation.setParallel( true );
+        assertBufferMatchesStream( equation.fPlot(), equation::fPlot );
+        equation.setParallel( false );
+    }
+
+    @Test
+    public void testYPlotBufferGoWrong()
+    {
+        String  varName = "varName";
+        equation.setVar( varName, 0 );
+        equation.setYExpression( varName + " + x" );
+        equation.removeVar( varName );
+        
+        Class<ValidationException>  clazz   = ValidationException.class;
+        PointBuffer                 buffer  = new PointBuffer();
+        assertThrows( clazz, () -> equation.yPlot( buffer ) );
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings={
+        "2x^2 - 3x + 1",
+        "-x^2 + 2^-x",
+        "x % .3",
+        "2pi x",
+        "e^x / (2 + x)",
+        "sin(x)cos(x) + tan(x)",
+        "sec(x) + csc(x) + cot(x)",
+        "toDegrees(x) + toRadians(x)",
+        "pow(x, 3) + log2(x + 2) + log10(x + 2)",
+        "sqrt(abs(x)) - cbrt(x) + signum(x)",
+        "exp(x) + expm1(x) + log1p(x + 1)"
+    })
+    public void testMatchesExp4j( String expr )
+    {
+        Exp4jEquation   exp4j   = new Exp4jEquation();
+        setRange( "-1", "1", ".05" );
+        assertTrue( exp4j.setRangeStart( "-1" ).isSuccess() );
+        assertTrue( exp4j.setRangeEnd( "1" ).isSuccess() );
+        assertTrue( exp4j.setRangeStep( ".05" ).isSuccess() );
+        assertTrue( exp4j.setYExpression( expr ).isSuccess(), expr );
+        assertTrue( equation.setYExpression( expr ).isSuccess(), expr );
+
+        List<Point2D>   expPoints   =
+            exp4j.yPlot().collect( Collectors.toList() );
+        List<Point2D>   actPoints   =
+            equation.yPlot().collect( Collectors.toList() );
+        assertEquals( expPoints.size(), actPoints.size() );
+        for ( int inx = 0 ; inx < expPoints.size() ; ++inx )
+        {
+            Point2D exp = expPoints.get( inx );
+            Point2D act = actPoints.get( inx );
+            assertEquals( exp.getX(), act.getX(), expr );
+            assertEquals( exp.getY(), act.getY(), .000001, expr );
+        }
+    }
+
+    @Test
+    public void testGetParam()
+    {
+        String  pName   = "param";
+        equation.setParamName( pName );
+        assertEquals( pName, equation.getParamName() );
+    }
+
+    @Test
+    public void testGetRadius()
+    {
+        String  pName   = "radius";
+        equation.setRadiusName( pName );
+        assertEquals( pName, equation.getRadiusName() );
+    }
+
+    @Test
+    public void testGetTheta()
+    {
+        String  pName   = "theta";
+        equation.setThetaName( pName );
+        assertEquals( pName, equation.getThetaName() );
+    }
+
+    @Test
+    public void testSetRangeStart()
+    {
+        double  val     = Math.PI;
+        equation.setRangeStart( String.valueOf( val ) );
+        assertEquals( val, equation.getRangeStart() );
+    }
+
+    @Test
+    public void testSetRangeEnd()
+    {
+        double  val     = Math.PI;
+        equation.setRangeEnd( String.valueOf( val ) );
+        assertEquals( val, equation.getRangeEnd() );
+    }
+
+    @Test
+    public void testSetRangeStep()
+    {
+        double  val     = Math.PI;
+        equation.setRangeStep( String.valueOf( val ) );
+        assertEquals( val, equation.getRangeStep() );
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings={ "_", "a", "_Ab", "_99", "__a__b__1__0__" } )
+    public void testIsValidNameTrue( String str )
+    {
+        assertTrue( equation.isValidName( str ), str );
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings={ "0_ab", "%", "$a", "" } )
+    public void testIsValidNameFalse( String str )
+    {
+        assertFalse( equation.isValidName( str ), str );
+    }
+    
+    // Trying to squeeze a little more coverage out of isValidName.
+    @Test 
+    public void testIsValidNameFalseMisc()
+    {
+        int[]   invalidCodes    =
+            { '0' - 1, '9' + 1, 'A' - 1, 'Z' + 1, 'a' - 1, 'z' + 1 };
+        Arrays.stream( invalidCodes )
+            .mapToObj( i -> getString( "", i ) )
+            .forEach( s -> assertFalse( equation.isValidName( s ) ) );
+        Arrays.stream( invalidCodes )
+            .mapToObj( i -> getString( "a", i ) )
+            .forEach( s -> assertFalse( equation.isValidName( s ) ) );
+    }
+    
+    private long assertVersionChanged( long prevVersion )
+    {
+        long    version = equation.getVersion();
+        assertNotEquals( prevVersion, version );
+        return version;
+    }
+    
+    private String getString( String prefix, int encodedChar )
+    {
+        String  result  = prefix + (char)encodedChar;
+        return result;
+    }
+    
+
+    @ParameterizedTest
+    @ValueSource(strings={ "0", "0.1", "0.", "-.1", "-1.1", "pi", "cos(pi)" } )
+    public void testIsValidValueTrue( String str )
+    {
+        assertTrue( equation.isValidValue( str ), str );
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings={ "a.b", "funk(3)", "qqq" } )
+    public void testIsValidValueFalse( String str )
+    {
+        // These should all fail because they contain 
+        // undeclared variables.
+        assertFalse( equation.isValidValue( str ), str );
+    }
+
+    @Test
+    public void testEvauatePass()
+    {
+        testEvaluatePass( "2", 2 );
+        testEvaluatePass( "-.1", -.1 );
+        testEvaluatePass( "2 * 3", 6 );
+        testEvaluatePass( ".3^2", .09 );
+        testEvaluatePass( "2pi", 2 * Math.PI );
+        testEvaluatePass( "sin(pi/2)", 1 );
+        testEvaluatePass( "log(e)", 1 );
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings={ "a.b", "funk(3)", "qqq" } )
+    public void testEvaluateFail( String str )
+    {
+        Optional<Double>    optional    = equation.evaluate( str );
+        assertFalse( optional.isPresent() );
+    }
+    
+    @Test
+    public void testSetGetName()
+    {
+        String      name        = "Aristotle";
+        Equation    equation    = new CompiledEquation();
+        equation.setName( name );
+        assertEquals( name, equation.getName() );
+    }
+    
+    private void testEvaluatePass( String expr, double expVal )
+    {
+        Optional<Double>    optional    = equation.evaluate( expr );
+        assertTrue( optional.isPresent(), expr );
+        assertEquals( expVal, optional.get(), .0001, expr );
+    }
+    
+    private void validateDefaultXExpression()
+    {
+        equation.setRangeStart( "1" );
+        equation.setRangeEnd( "3" );
+        equation.setRangeStep( "1" );
+        equation.xyPlot().forEach(
+            p -> assertEquals( 1, p.getX(), "X" )
+        );
+    }
+    
+    private void validateDefaultYExpression()
+    {
+        equation.setRangeStart( "1" );
+        equation.setRangeEnd( "3" );
+        equation.setRangeStep( "1" );
+        equation.yPlot().forEach(
+            p -> assertEquals( 1, p.getY(), "Y" )
+        );
+    }
+    
+    private void setRange( String start, String end, String step )
+    {
+        assertTrue( equation.setRangeStart( start ).isSuccess() );
+        assertTrue( equation.setRangeEnd( end ).isSuccess() );
+        assertTrue( equation.setRangeStep( step ).isSuccess() );
+    }
+    
+    private void assertBufferMatchesStream( 
+        Stream<Point2D> stream, 
+        Consumer<PointBuffer> plotter
+    )
+    {
+        List<Point2D>   expPoints   = stream.collect( Collectors.toList() );
+        PointBuffer     buffer      = new PointBuffer();
+        plotter.accept( buffer );
+        List<Point2D>   actPoints   = 
+            buffer.stream().collect( Collectors.toList() );
+        assertFalse( expPoints.isEmpty() );
+        assertEquals( expPoints, actPoints );
+    }
+    
+    private void assertNoConnectorAcross( PointBuffer buffer, double... poles )
+    {
+        int     size    = buffer.size();
+        int     breaks  = 0;
+        assertTrue( size > 0 );
+        for ( int inx = 1 ; inx < size ; ++inx )
+        {
+            if ( buffer.isBreak( inx ) )
+                ++breaks;
+            else if ( !buffer.isBreak( inx - 1 ) )
+            {
+                double  prev    = buffer.getX( inx - 1 );
+                double  next    = buffer.getX( inx );
+                assertTrue( prev < next );
+                for ( double pole : poles )
+                    assertFalse( prev < pole && pole < next );
+            }
+        }
+        assertEquals( poles.length, breaks );
+    }
+    
+    private void assertPointsClose( 
+        PointBuffer expBuffer, 
+        PointBuffer actBuffer, 
+        double delta
+    )
+    {
+        int     size    = expBuffer.size();
+        assertEquals( size, actBuffer.size() );
+        for ( int inx = 0 ; inx < size ; ++inx )
+        {
+            assertEquals( expBuffer.getX( inx ), actBuffer.getX( inx ), delta );
+            assertEquals( expBuffer.getY( inx ), actBuffer.getY( inx ), delta );
+        }
+    }
+    
+    private void assertParallelMatchesSequential( 
+        Consumer<PointBuffer> plotter,
+        Supplier<Stream<Point2D>> streamer
+    )
+    {
+        PointBuffer     buffer      = new PointBuffer();
+        equation.setParallel( false );
+        plotter.accept( buffer );
+        List<Point2D>   expPoints   = 
+            buffer.stream().collect( Collectors.toList() );
+        
+        equation.setParallel( true );
+        assertTrue( equation.isParallel() );
+        plotter.accept( buffer );
+        List<Point2D>   actPoints   = 
+            buffer.stream().collect( Collectors.toList() );
+        assertEquals( expPoints, actPoints );
+        
+        actPoints = streamer.get().collect( Collectors.toList() );
+        assertEquals( expPoints, actPoints );
+        equation.setParallel( false );
+    }
+    
+    private void validateDefaultRange()
+    {
+        double  start   = equation.getRangeStart();
+        double  end     = equation.getRangeEnd();
+        double  step    = equation.getRangeStep();
+        assertTrue( start <= end );
+        assertTrue( step > 0 );
+    }
+    
+    private void validateDefaultVariables()
+    {
+        final String[]  defVars = { "a", "b", "c", "x", "y", "t" };
+        Set<String> vars    = equation.getVars().keySet();
+        for ( String  var : defVars )
+            assertTrue( vars.contains( var ), var );
+        assertEquals( "t", equation.getParamName() );
+    }
+}
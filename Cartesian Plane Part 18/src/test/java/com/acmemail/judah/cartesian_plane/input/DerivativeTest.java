@@ -0,0 +1,133 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.geom.Rectangle2D;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class DerivativeTest
+{
+    @ParameterizedTest
+    @ValueSource( strings= {"Compiled", "Exp4j"} )
+    public void testPlot( String engine )
+    {
+        Equation    equation    = newEquation( engine, "a x^3" );
+        PointBuffer fBuffer     = new PointBuffer();
+        PointBuffer dBuffer     = new PointBuffer();
+        PointBuffer expected    = new PointBuffer();
+        equation.derivative().plot( fBuffer, dBuffer );
+        equation.yPlot( expected );
+        assertEquals( expected.size(), fBuffer.size() );
+        assertEquals( expected.size(), dBuffer.size() );
+        for ( int inx = 0 ; inx < expected.size() ; ++inx )
+        {
+            double  xco     = expected.getX( inx );
+            assertEquals( xco, dBuffer.getX( inx ) );
+            assertEquals( expected.getY( inx ), fBuffer.getY( inx ), 1E-12 );
+            assertEquals( 6 * xco * xco, dBuffer.getY( inx ), 1E-12 );
+        }
+    }
+
+    @Test
+    public void testParallel()
+    {
+        Equation    equation    = newEquation( "Compiled", "sin(x)" );
+        equation.setRangeStep( ".0001" );
+        PointBuffer sequential  = new PointBuffer();
+        equation.derivative().yPlot( sequential );
+        equation.setParallel( true );
+        PointBuffer fBuffer     = new PointBuffer();
+        PointBuffer dBuffer     = new PointBuffer();
+        equation.derivative().plot( fBuffer, dBuffer );
+        assertEquals( fBuffer.size(), dBuffer.size() );
+        assertTrue( Math.abs( sequential.size() - dBuffer.size() ) <= 1 );
+        for ( int inx = 0 ; inx < dBuffer.size() ; ++inx )
+        {
+            double  xco     = dBuffer.getX( inx );
+            assertEquals( Math.sin( xco ), fBuffer.getY( inx ), 1E-12 );
+            assertEquals( Math.cos( xco ), dBuffer.getY( inx ), 1E-12 );
+        }
+    }
+
+    @Test
+    public void testAutoRange()
+    {
+        Equation    equation    = newEquation( "Compiled", "x^2" );
+        Viewport    port        =
+            new Viewport( new Rectangle2D.Double( 3, -1, 2, 2 ), 10 );
+        equation.setViewport( port );
+        equation.setAutoRange( true );
+        PointBuffer buffer      = new PointBuffer();
+        equation.derivative().yPlot( buffer );
+        assertEquals( port.getXMin(), buffer.getX( 0 ) );
+        assertEquals( 2 * port.getXMin(), buffer.getY( 0 ) );
+    }
+
+    @Test
+    public void testGetFunction()
+    {
+        Equation            equation    = newEquation( "Exp4j", "a exp(x)" );
+        DoubleUnaryOperator func        = equation.derivative().getFunction();
+        assertEquals( 2 * Math.exp( 1 ), func.applyAsDouble( 1 ), 1E-12 );
+
+        // The view is not affected by later changes to the equation.
+        equation.setVar( "a", 3 );
+        assertEquals( 2 * Math.exp( 1 ), func.applyAsDouble( 1 ), 1E-12 );
+    }
+
+    @Test
+    public void testJEP()
+    {
+        // In JEP log(x) is the base 10 logarithm, whose derivative
+        // at x = 10 is 0.0434..., not the 0.1 of the natural
+        // logarithm; JEP equations are rejected rather than
+        // differentiated with the wrong meaning.
+        Equation    equation    = newEquation( "JEP", "log(x)" );
+        assertThrows( ValidationException.class, equation::derivative );
+        assertThrows(
+            ValidationException.class,
+            () -> EquationAnalyzer.newton( equation, 1 )
+        );
+
+        Equation    exp4j       = newEquation( "Exp4j", "log10(x)" );
+        double      expected    = 1 / (10 * Math.log( 10 ));
+        double      actual      = 
+            exp4j.derivative().getFunction().applyAsDouble( 10 );
+        assertEquals( expected, actual, 1E-12 );
+    }
+
+    /**
+     * Creates an equation
+     * with a given y-expression
+     * using a given engine.
+     * The variable <em>a</em> is declared
+     * with a value of 2,
+     * and the iteration range is [-2,2].
+     * 
+     * @param engine    the given engine
+     * @param expr      the given y-expression
+     * 
+     * @return  the new equation
+     */
+    private static Equation newEquation( String engine, String expr )
+    {
+        Supplier<Equation>  ctor        =
+            engine.equals( "Exp4j" ) ? Exp4jEquation::new
+            : engine.equals( "JEP" ) ? JEPEquation::new
+            : CompiledEquation::new;
+        Equation            equation    = ctor.get();
+        equation.setVar( "a", 2 );
+        assertTrue( equation.setYExpression( expr ).isSuccess() );
+        equation.setRangeStart( "-2" );
+        equation.setRangeEnd( "2" );
+        equation.setRangeStep( ".01" );
+        return equation;
+    }
+}
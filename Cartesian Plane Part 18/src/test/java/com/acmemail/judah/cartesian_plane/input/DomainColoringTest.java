@@ -0,0 +1,152 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class DomainColoringTest
+{
+    private static final Rectangle2D    bounds  =
+        new Rectangle2D.Double( -1, -1, 2, 2 );
+    private static final double         ppu     = 8;
+    private static final Viewport       port    = new Viewport( bounds, ppu );
+
+    @Test
+    public void testToARGB()
+    {
+        // Positive real values are red, negative real values cyan;
+        // modulus 1 is fully saturated and bright.
+        assertEquals( 0xFFFF0000, DomainColoring.toARGB( 1, 0 ) );
+        assertEquals( 0xFF00FFFF, DomainColoring.toARGB( -1, 0 ) );
+
+        // Zeros are black, poles white.
+        assertEquals( 0xFF000000, DomainColoring.toARGB( 0, 0 ) );
+        int     pole    = DomainColoring.toARGB( 1E10, 1E10 );
+        assertEquals( 0xFFFFFFFF, pole );
+
+        // Undefined values are transparent.
+        assertEquals( 0, DomainColoring.toARGB( Double.NaN, 0 ) );
+        assertEquals( 0, DomainColoring.toARGB( 0, Double.NaN ) );
+    }
+
+    @Test
+    public void testRenderIdentity()
+    {
+        DomainColoring  coloring    = new DomainColoring();
+        BufferedImage   image       = coloring.render( "z", Map.of(), port );
+        assertEquals( 16, image.getWidth() );
+        assertEquals( 16, image.getHeight() );
+        for ( int row = 0 ; row < 16 ; ++row )
+            for ( int col = 0 ; col < 16 ; ++col )
+            {
+                double  xco     = -1 + (col + .5) / ppu;
+                double  yco     = 1 - (row + .5) / ppu;
+                int     expRGB  = DomainColoring.toARGB( xco, yco );
+                assertEquals( expRGB, image.getRGB( col, row ) );
+            }
+    }
+
+    @Test
+    public void testRenderWithVars()
+    {
+        DomainColoring  coloring    = new DomainColoring();
+        Map<String,Double>  vars    = Map.of( "a", .25 );
+        BufferedImage   image       =
+            coloring.render( "z * z - a", vars, port );
+        for ( int row = 0 ; row < 16 ; ++row )
+            for ( int col = 0 ; col < 16 ; ++col )
+            {
+                double  xco     = -1 + (col + .5) / ppu;
+                double  yco     = 1 - (row + .5) / ppu;
+                double  expRe   = xco * xco - yco * yco - .25;
+                double  expIm   = 2 * xco * yco;
+                int     expRGB  = DomainColoring.toARGB( expRe, expIm );
+                assertEquals( expRGB, image.getRGB( col, row ) );
+            }
+    }
+
+    @Test
+    public void testImageSize()
+    {
+        Rectangle2D     rect        = new Rectangle2D.Double( 0, 0, 3, 2 );
+        Viewport        viewport    = new Viewport( rect, 10 );
+        DomainColoring  coloring    = new DomainColoring();
+        BufferedImage   image       =
+            coloring.render( "z", Map.of(), viewport );
+        assertEquals( 30, image.getWidth() );
+        assertEquals( 20, image.getHeight() );
+    }
+
+    @Test
+    public void testUndefined()
+    {
+        DomainColoring  coloring    = new DomainColoring();
+        BufferedImage   image       =
+            coloring.render( "(z - z) / (z - z)", Map.of(), port );
+        for ( int row = 0 ; row < 16 ; ++row )
+            for ( int col = 0 ; col < 16 ; ++col )
+                assertEquals( 0, image.getRGB( col, row ) );
+    }
+
+    @Test
+    public void testCache()
+    {
+        DomainColoring      coloring    = new DomainColoring();
+        Map<String,Double>  vars        = Map.of( "a", 1. );
+        BufferedImage       image       =
+            coloring.render( "z + a", vars, port );
+        assertEquals( 1, coloring.getRenderCount() );
+
+        // Equal arguments return the cached image.
+        Viewport            samePort    =
+            new Viewport( (Rectangle2D)bounds.clone(), ppu );
+        Map<String,Double>  sameVars    = Map.of( "a", 1. );
+        assertSame( image, coloring.render( "z + a", sameVars, samePort ) );
+        assertEquals( 1, coloring.getRenderCount() );
+
+        // A change to the expression, vars or viewport
+        // renders a new image.
+        assertNotSame( image, coloring.render( "z - a", vars, port ) );
+        assertEquals( 2, coloring.getRenderCount() );
+        Map<String,Double>  newVars     = Map.of( "a", 2. );
+        coloring.render( "z - a", newVars, port );
+        assertEquals( 3, coloring.getRenderCount() );
+        Viewport            newPort     = new Viewport( bounds, 4 );
+        coloring.render( "z - a", newVars, newPort );
+        assertEquals( 4, coloring.getRenderCount() );
+
+        coloring.clear();
+        coloring.render( "z - a", newVars, newPort );
+        assertEquals( 5, coloring.getRenderCount() );
+    }
+
+    @Test
+    public void testValidate()
+    {
+        assertTrue( DomainColoring.validate( "z", List.of() ).isSuccess() );
+        assertTrue(
+            DomainColoring.validate( "exp(i * z) + a", List.of( "a" ) )
+                .isSuccess()
+        );
+        Result  result  = DomainColoring.validate( "z + a", List.of() );
+        assertFalse( result.isSuccess() );
+        assertFalse( result.getMessages().isEmpty() );
+        assertFalse( DomainColoring.validate( "z +", List.of() ).isSuccess() );
+
+        DomainColoring  coloring    = new DomainColoring();
+        assertThrows(
+            ValidationException.class,
+            () -> coloring.render( "z +", Map.of(), port )
+        );
+    }
+}
@@ -0,0 +1,145 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class DualEvaluatorTest
+{
+    private static final List<String>   varNames    = List.of( "a", "x" );
+    private static final double         aValue      = 1.5;
+
+    @ParameterizedTest
+    @CsvSource( delimiter='|', value={
+        "x              | 1",
+        "2              | 0",
+        "a              | 0",
+        "-x             | -1",
+        "2x^2 - 3x + 1  | 4x - 3",
+        "a x / (x + 1)  | a / (x + 1)^2",
+        "x % .3         | 1",
+        "x^a            | a x^(a - 1)",
+        "a^x            | a^x log(a)",
+        "x^x            | x^x (log(x) + 1)",
+        "x^0            | 0",
+        "pow(x, 3)      | 3x^2",
+        "sin(x)cos(a x) | cos(x)cos(a x) - a sin(x)sin(a x)",
+        "sqrt(x^2 + 1)  | x / sqrt(x^2 + 1)",
+        "exp(-x^2)      | -2x exp(-x^2)",
+        "log(sin(x))    | cos(x) / sin(x)",
+        "sec(x)         | sec(x)tan(x)",
+        "csc(x)         | -csc(x)cot(x)",
+        "cot(x)         | -csc(x)^2",
+        "toDegrees(x)   | 180 / pi",
+        "toRadians(a x) | a pi / 180",
+    })
+    void testSlope( String exprStr, String slopeStr )
+    {
+        for ( double xco = .1 ; xco < 1.5 ; xco += .1 )
+        {
+            double[]    vars    = { aValue, xco };
+            double      value   = evaluate( exprStr, vars );
+            double      slope   = evaluate( slopeStr, vars );
+            DualEvaluator   evaluator   = newEvaluator( exprStr );
+            assertEquals( value, evaluator.evaluate( xco ), exprStr );
+            assertEquals( value, evaluator.getValue(), exprStr );
+            assertEquals( slope, evaluator.getSlope(), 1E-12, exprStr );
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource( strings= {
+        "sin", "cos", "tan", "asin", "acos", "atan",
+        "sinh", "cosh", "tanh", "abs", "log", "log10", "log2", "log1p",
+        "ceil", "floor", "signum", "sqrt", "cbrt", "exp", "expm1",
+        "cot", "sec", "csc", "toDegrees", "toRadians",
+    })
+    void testFunctions( String name )
+    {
+        // Compare the derivative of each function to a central
+        // difference, at points where every function is smooth.
+        ExprFunction    funk        = ExprFunction.get( name );
+        DualEvaluator   evaluator   = newEvaluator( name + "(x)" );
+        double          delta       = 1E-6;
+        for ( double xco = .15 ; xco < .9 ; xco += .1 )
+        {
+            double  expected    =
+                (funk.apply( xco + delta ) - funk.apply( xco - delta ))
+                / (2 * delta);
+            evaluator.evaluate( xco );
+            assertEquals( funk.apply( xco ), evaluator.getValue(), name );
+            assertEquals( expected, evaluator.getSlope(), 1E-6, name );
+        }
+    }
+
+    @Test
+    void testAllFunctions()
+    {
+        // Every function known to the parser has a derivative rule.
+        for ( ExprFunction funk : ExprFunction.getFunctions().values() )
+        {
+            String  args    = funk.getArity() == 1 ? "(x)" : "(x, a)";
+            newEvaluator( funk.getName() + args );
+        }
+    }
+
+    @Test
+    void testNoVariable()
+    {
+        ExprParser      parser      = new ExprParser( varNames );
+        ExprNode        root        = parser.parse( "a * 2" );
+        DualEvaluator   evaluator   =
+            new DualEvaluator( root, -1, new double[] { aValue } );
+        assertEquals( 3, evaluator.evaluate( 10 ) );
+        assertEquals( 0, evaluator.getSlope() );
+    }
+
+    /**
+     * Evaluates a given expression
+     * with given variable values.
+     * 
+     * @param exprStr   the given expression
+     * @param vars      the values of a and x
+     * 
+     * @return  the value of the given expression
+     */
+    private static double evaluate( String exprStr, double[] vars )
+    {
+        ExprParser  parser  = new ExprParser( varNames );
+        ExprNode    root    = parser.parse( exprStr );
+        double[]    slots   = new double[varNames.size()];
+        List<String>    names   = parser.getVariableNames();
+        for ( int inx = 0 ; inx < names.size() ; ++inx )
+            slots[inx] = vars[varNames.indexOf( names.get( inx ) )];
+        return root.evaluate( slots );
+    }
+
+    /**
+     * Creates an evaluator
+     * for a given expression,
+     * differentiating with respect to x.
+     * The value of a is 1.5.
+     * 
+     * @param exprStr   the given expression
+     * 
+     * @return  the new evaluator
+     */
+    private static DualEvaluator newEvaluator( String exprStr )
+    {
+        ExprParser      parser  = new ExprParser( varNames );
+        ExprNode        root    = parser.parse( exprStr );
+        List<String>    names   = parser.getVariableNames();
+        double[]        slots   = new double[varNames.size()];
+        int             aSlot   = names.indexOf( "a" );
+        if ( aSlot >= 0 )
+            slots[aSlot] = aValue;
+        DualEvaluator   evaluator   =
+            new DualEvaluator( root, names.indexOf( "x" ), slots );
+        return evaluator;
+    }
+}
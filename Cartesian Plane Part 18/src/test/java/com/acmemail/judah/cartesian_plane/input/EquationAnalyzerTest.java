@@ -0,0 +1,207 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.acmemail.judah.cartesian_plane.input.EquationAnalyzer.Extremum;
+
+class EquationAnalyzerTest
+{
+    private static final double epsilon = 1E-8;
+
+    @ParameterizedTest
+    @ValueSource( strings= {"Compiled", "Exp4j", "JEP"} )
+    public void testFindRoots( String engine )
+    {
+        Equation        equation    = newEquation( engine, "x^2 - 2" );
+        List<Double>    roots       = EquationAnalyzer.findRoots( equation );
+        assertEquals( 2, roots.size() );
+        assertEquals( -Math.sqrt( 2 ), roots.get( 0 ), epsilon );
+        assertEquals( Math.sqrt( 2 ), roots.get( 1 ), epsilon );
+    }
+
+    @Test
+    public void testFindRootsSin()
+    {
+        Equation        equation    = newEquation( "Compiled", "sin(x)" );
+        List<Double>    roots       =
+            EquationAnalyzer.findRoots( equation, -10, 10, .1 );
+        assertEquals( 7, roots.size() );
+        for ( int inx = 0 ; inx < roots.size() ; ++inx )
+            assertEquals( (inx - 3) * Math.PI, roots.get( inx ), epsilon );
+    }
+
+    @Test
+    public void testFindRootsExact()
+    {
+        // 0 is a sample; it must be reported exactly once.
+        Equation        equation    = newEquation( "Compiled", "x" );
+        List<Double>    roots       =
+            EquationAnalyzer.findRoots( equation, -1, 1, .25 );
+        assertEquals( List.of( 0.0 ), roots );
+    }
+
+    @Test
+    public void testFindRootsPole()
+    {
+        Equation        equation    = newEquation( "Compiled", "1 / x" );
+        List<Double>    roots       =
+            EquationAnalyzer.findRoots( equation, -1.05, 1, .1 );
+        assertTrue( roots.isEmpty() );
+    }
+
+    @ParameterizedTest
+    @ValueSource( strings= {"Compiled", "Exp4j", "JEP"} )
+    public void testFindExtrema( String engine )
+    {
+        Equation        equation    = newEquation( engine, "sin(x)" );
+        List<Extremum>  extrema     =
+            EquationAnalyzer.findExtrema( equation, 0, 10, .1 );
+        assertEquals( 3, extrema.size() );
+        for ( int inx = 0 ; inx < extrema.size() ; ++inx )
+        {
+            Extremum    extremum    = extrema.get( inx );
+            double      expX        = Math.PI / 2 + inx * Math.PI;
+            boolean     isMax       = inx % 2 == 0;
+            assertEquals( expX, extremum.getX(), 1E-6 );
+            assertEquals( isMax ? 1 : -1, extremum.getY(), epsilon );
+            assertEquals( isMax, extremum.isMaximum() );
+            assertEquals(
+                isMax ? Extremum.Type.MAXIMUM : Extremum.Type.MINIMUM,
+                extremum.getType()
+            );
+        }
+    }
+
+    @Test
+    public void testFindExtremaEnds()
+    {
+        // The ends of the range are never extrema.
+        Equation        equation    = newEquation( "Compiled", "x" );
+        assertTrue( EquationAnalyzer.findExtrema( equation ).isEmpty() );
+    }
+
+    @ParameterizedTest
+    @ValueSource( strings= {"Compiled", "Exp4j", "JEP"} )
+    public void testIntegrate( String engine )
+    {
+        Equation    equation    = newEquation( engine, "x^2" );
+        double      result      = EquationAnalyzer.integrate( equation );
+        assertEquals( 16. / 3, result, epsilon );
+        equation.setYExpression( "sin(x)" );
+        assertEquals(
+            2,
+            EquationAnalyzer.integrate( equation, 0, Math.PI, 1E-12 ),
+            epsilon
+        );
+    }
+
+    @Test
+    public void testIntegrateReversed()
+    {
+        Equation    equation    = newEquation( "Compiled", "x^3 + 1" );
+        double      forward     =
+            EquationAnalyzer.integrate( equation, 0, 2, 1E-12 );
+        double      backward    =
+            EquationAnalyzer.integrate( equation, 2, 0, 1E-12 );
+        assertEquals( 6, forward, epsilon );
+        assertEquals( -forward, backward, epsilon );
+        assertEquals( 0, EquationAnalyzer.integrate( equation, 1, 1, 1E-12 ) );
+    }
+
+    @Test
+    public void testIntegrateUndefined()
+    {
+        Equation    equation    = newEquation( "Compiled", "sqrt(x)" );
+        double      result      =
+            EquationAnalyzer.integrate( equation, -1, 1, 1E-12 );
+        assertFalse( Double.isFinite( result ) );
+    }
+
+    @ParameterizedTest
+    @ValueSource( strings= {"Compiled", "Exp4j"} )
+    public void testNewton( String engine )
+    {
+        Equation    equation    = newEquation( engine, "x^2 - 2" );
+        assertEquals(
+            Math.sqrt( 2 ),
+            EquationAnalyzer.newton( equation, 1 ),
+            epsilon
+        );
+        assertEquals(
+            -Math.sqrt( 2 ),
+            EquationAnalyzer.newton( equation, -5 ),
+            epsilon
+        );
+
+        // The derivative is 0 at the initial guess.
+        assertTrue( Double.isNaN( EquationAnalyzer.newton( equation, 0 ) ) );
+
+        // There is no real root.
+        equation.setYExpression( "x^2 + 1" );
+        assertTrue( Double.isNaN( EquationAnalyzer.newton( equation, 1 ) ) );
+    }
+
+    @Test
+    public void testEquationUnchanged()
+    {
+        Equation    equation    = newEquation( "Compiled", "x^2 - 2" );
+        long        version     = equation.getVersion();
+        EquationAnalyzer.findRoots( equation );
+        EquationAnalyzer.findExtrema( equation );
+        EquationAnalyzer.integrate( equation );
+        assertEquals( version, equation.getVersion() );
+    }
+
+    @Test
+    public void testInvalid()
+    {
+        Equation    equation    = newEquation( "Compiled", "x" );
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> EquationAnalyzer.findRoots( equation, 0, 1, 0 )
+        );
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> EquationAnalyzer.findExtrema( equation, 0, 1, -1 )
+        );
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> EquationAnalyzer.integrate( equation, 0, 1, 0 )
+        );
+    }
+
+    /**
+     * Creates an equation
+     * with a given y-expression
+     * using a given engine.
+     * The iteration range is [-2,2].
+     * 
+     * @param engine    the given engine
+     * @param expr      the given y-expression
+     * 
+     * @return  the new equation
+     */
+    private static Equation newEquation( String engine, String expr )
+    {
+        Supplier<Equation>  ctor        =
+            engine.equals( "Exp4j" ) ? Exp4jEquation::new
+            : engine.equals( "JEP" ) ? JEPEquation::new
+            : CompiledEquation::new;
+        Equation            equation    = ctor.get();
+        assertTrue( equation.setYExpression( expr ).isSuccess() );
+        equation.setRangeStart( "-2" );
+        equation.setRangeEnd( "2" );
+        equation.setRangeStep( ".01" );
+        return equation;
+    }
+}
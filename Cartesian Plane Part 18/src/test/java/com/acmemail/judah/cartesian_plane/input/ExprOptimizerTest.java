@@ -0,0 +1,90 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class ExprOptimizerTest
+{
+    private static final List<String>   varNames    =
+        List.of( "x", "a", "b", "c" );
+    private final ExprOptimizer         optimizer   =
+        new ExprOptimizer( Map.of( "a", 2., "b", 3., "c", 4. ) );
+
+    @ParameterizedTest
+    @CsvSource( delimiter = '|', value = {
+        "2 + 3                          | 5",
+        "a * b                          | 6",
+        "a * b * sin( c * x )           | 6 * sin(4 * x)",
+        "toDegrees( pi )                | 180",
+        "sqrt( a + 2 ) * x              | 2 * x",
+        "-(-x)                          | x",
+        "-(a)                           | -2",
+        "x + 0                          | x",
+        "0 + x                          | x",
+        "x - 0                          | x",
+        "0 - x                          | -x",
+        "x * 1                          | x",
+        "1 * x                          | x",
+        "x / 1                          | x",
+        "x ^ 1                          | x",
+        "x ^ 0                          | 1",
+        "(a - 1) * x                    | x",
+        "x * 0                          | x * 0",
+        "x / 0                          | x / 0",
+        "1 / 0 + x                      | 1 / 0 + x",
+        "pi * x                         | pi * x",
+        "2 ^ 3 ^ 2 * x                  | 512 * x",
+    })
+    void testOptimize( String exprStr, String expStr )
+    {
+        ExprNode    root    = new ExprParser( varNames ).parse( exprStr );
+        String      actStr  = optimizer.optimize( root ).toString();
+        assertEquals( expStr, actStr );
+    }
+
+    @Test
+    void testCustomFunction()
+    {
+        ExprNode    root    =
+            new ExprParser( varNames ).parse( "x + toRadians( 45 )" );
+        ExprNode    optRoot = optimizer.optimize( root );
+        assertTrue( optRoot instanceof ExprNode.Binary );
+        ExprNode    right   = ((ExprNode.Binary)optRoot).getRight();
+        assertTrue( right instanceof ExprNode.Constant );
+        double      value   = ((ExprNode.Constant)right).getValue();
+        assertEquals( Math.PI / 4, value, .00001 );
+    }
+
+    @Test
+    void testSameValue()
+    {
+        String          exprStr = "a * b * sin( c * x ) + sec( a ) ^ 2 - x / b";
+        ExprParser      parser  = new ExprParser( varNames );
+        ExprNode        root    = parser.parse( exprStr );
+        ExprNode        optRoot = optimizer.optimize( root );
+        double[]        vars    = new double[parser.getVariableNames().size()];
+        List<String>    names   = parser.getVariableNames();
+        for ( double xco = -2 ; xco <= 2 ; xco += .25 )
+        {
+            for ( int inx = 0 ; inx < vars.length ; ++inx )
+            {
+                String  name    = names.get( inx );
+                vars[inx] =
+                    name.equals( "x" ) ? xco : name.equals( "a" ) ? 2
+                    : name.equals( "b" ) ? 3 : 4;
+            }
+            assertEquals(
+                root.evaluate( vars ),
+                optRoot.evaluate( vars ),
+                1e-12
+            );
+        }
+    }
+}
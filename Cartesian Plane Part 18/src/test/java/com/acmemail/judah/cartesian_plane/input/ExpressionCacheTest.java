@@ -0,0 +1,109 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class ExpressionCacheTest
+{
+    private final AtomicInteger             parseCount  = new AtomicInteger();
+    private final ExpressionCache<String>   cache       = 
+        new ExpressionCache<>( 3 );
+
+    @Test
+    void testDefaultCapacity()
+    {
+        ExpressionCache<String> cache   = new ExpressionCache<>();
+        assertEquals( ExpressionCache.DEFAULT_CAPACITY, cache.getCapacity() );
+        assertEquals( 0, cache.size() );
+    }
+
+    @Test
+    void testHitMiss()
+    {
+        Set<String> names   = Set.of( "a", "b" );
+        String      first   = cache.get( "a + b", names, this::parse );
+        assertEquals( "A + B", first );
+        assertEquals( 1, parseCount.get() );
+        assertEquals( 0, cache.getHitCount() );
+        assertEquals( 1, cache.getMissCount() );
+        
+        String      second  = 
+            cache.get( "a + b", Set.of( "b", "a" ), this::parse );
+        assertSame( first, second );
+        assertEquals( 1, parseCount.get() );
+        assertEquals( 1, cache.getHitCount() );
+        assertEquals( 1, cache.getMissCount() );
+        
+        // Same text, different variable names
+        cache.get( "a + b", Set.of( "a", "b", "c" ), this::parse );
+        assertEquals( 2, parseCount.get() );
+        assertEquals( 2, cache.getMissCount() );
+        assertEquals( 2, cache.size() );
+    }
+
+    @Test
+    void testInvalidNotCached()
+    {
+        Set<String> names   = Set.of();
+        assertNull( cache.get( "invalid", names, this::parse ) );
+        assertNull( cache.get( "invalid", names, this::parse ) );
+        assertEquals( 2, parseCount.get() );
+        assertEquals( 2, cache.getMissCount() );
+        assertEquals( 0, cache.size() );
+    }
+
+    @Test
+    void testLRU()
+    {
+        Set<String> names   = Set.of();
+        cache.get( "1", names, this::parse );
+        cache.get( "2", names, this::parse );
+        cache.get( "3", names, this::parse );
+        assertEquals( 3, cache.size() );
+        
+        // Touch "1" so that "2" becomes the eldest entry.
+        cache.get( "1", names, this::parse );
+        cache.get( "4", names, this::parse );
+        assertEquals( 3, cache.size() );
+        assertEquals( 4, parseCount.get() );
+        
+        cache.get( "1", names, this::parse );
+        assertEquals( 4, parseCount.get() );
+        cache.get( "2", names, this::parse );
+        assertEquals( 5, parseCount.get() );
+    }
+
+    @Test
+    void testClear()
+    {
+        cache.get( "1", Set.of(), this::parse );
+        cache.get( "1", Set.of(), this::parse );
+        cache.clear();
+        assertEquals( 0, cache.size() );
+        assertEquals( 0, cache.getHitCount() );
+        assertEquals( 0, cache.getMissCount() );
+    }
+
+    @Test
+    void testGoWrong()
+    {
+        assertThrows( 
+            IllegalArgumentException.class, 
+            () -> new ExpressionCache<String>( 0 )
+        );
+    }
+    
+    private String parse( String expr )
+    {
+        parseCount.incrementAndGet();
+        String  result  = expr.equals( "invalid" ) ? null : expr.toUpperCase();
+        return result;
+    }
+}
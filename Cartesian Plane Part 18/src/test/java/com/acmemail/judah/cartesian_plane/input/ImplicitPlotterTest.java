@@ -0,0 +1,224 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+class ImplicitPlotterTest
+{
+    private static final Rectangle2D    bounds  =
+        new Rectangle2D.Double( -2, -2, 4, 4 );
+    private static final double         step    = 1 / 64.;
+
+    @Test
+    public void testCircle()
+    {
+        PointBuffer buffer  = new PointBuffer();
+        ImplicitPlotter.plot(
+            bounds,
+            step,
+            false,
+            () -> (x, y) -> x * x + y * y - 1,
+            buffer
+        );
+        assertSegments( buffer );
+
+        // Every point must be on the unit circle, and the curve
+        // must pass through every quadrant.
+        int[]   quadrants   = new int[4];
+        for ( int inx = 0 ; inx < buffer.size() ; ++inx )
+        {
+            if ( buffer.isBreak( inx ) )
+                continue;
+            double  xco = buffer.getX( inx );
+            double  yco = buffer.getY( inx );
+            assertEquals( 1, Math.hypot( xco, yco ), step / 4 );
+            int     quad    = (xco >= 0 ? 0 : 1) + (yco >= 0 ? 0 : 2);
+            ++quadrants[quad];
+        }
+        for ( int count : quadrants )
+            assertTrue( count > 0 );
+
+        // The circumference is about 2 * pi / step fine cells.
+        int     segments    = buffer.size() / 3;
+        assertTrue( segments > 2 * Math.PI / step );
+        assertTrue( segments < 2 * 2 * Math.PI / step );
+    }
+
+    @Test
+    public void testRefinementOnlyAtSignChange()
+    {
+        AtomicInteger   count   = new AtomicInteger();
+        PointBuffer     buffer  = new PointBuffer();
+        ImplicitPlotter.plot(
+            bounds,
+            step,
+            false,
+            () -> (x, y) -> {
+                count.incrementAndGet();
+                return x * x + y * y - 1;
+            },
+            buffer
+        );
+
+        // An exhaustive fine grid would need (4 / step + 1)^2
+        // evaluations.
+        int     exhaustive  = (int)Math.pow( 4 / step + 1, 2 );
+        assertTrue( count.get() < exhaustive / 4 );
+
+        // If f never changes sign no cell is refined.
+        count.set( 0 );
+        ImplicitPlotter.plot(
+            bounds,
+            step,
+            false,
+            () -> (x, y) -> {
+                count.incrementAndGet();
+                return 1;
+            },
+            buffer
+        );
+        assertEquals( 0, buffer.size() );
+        
+        // Only the coarse grid is evaluated; the first row of each
+        // tile duplicates the last row of the previous tile.
+        double  coarse  = step * ImplicitPlotter.DEFAULT_REFINEMENT;
+        int     corners = (int)Math.ceil( 4 / coarse ) + 1;
+        assertTrue( count.get() >= corners * corners );
+        assertTrue( count.get() < 2 * corners * corners );
+    }
+
+    @Test
+    public void testSaddle()
+    {
+        // The lemniscate crosses itself at the origin.
+        PointBuffer buffer  = new PointBuffer();
+        ImplicitPlotter.plot(
+            bounds,
+            step,
+            false,
+            () -> (x, y) -> {
+                double  sum = x * x + y * y;
+                return sum * sum - 2 * (x * x - y * y);
+            },
+            buffer
+        );
+        assertSegments( buffer );
+        boolean nearOrigin  = false;
+        for ( int inx = 0 ; inx < buffer.size() ; ++inx )
+            if ( !buffer.isBreak( inx ) )
+            {
+                double  dist    =
+                    Math.hypot( buffer.getX( inx ), buffer.getY( inx ) );
+                nearOrigin |= dist < step;
+            }
+        assertTrue( nearOrigin );
+    }
+
+    @Test
+    public void testUndefined()
+    {
+        // f is undefined for x < 0; the curve is the right half
+        // of the unit circle.
+        PointBuffer buffer  = new PointBuffer();
+        ImplicitPlotter.plot(
+            bounds,
+            step,
+            false,
+            () -> (x, y) -> Math.sqrt( x ) * 0 + x * x + y * y - 1,
+            buffer
+        );
+        assertSegments( buffer );
+        assertTrue( buffer.size() > 0 );
+        for ( int inx = 0 ; inx < buffer.size() ; ++inx )
+            if ( !buffer.isBreak( inx ) )
+                assertTrue( buffer.getX( inx ) >= 0 );
+    }
+
+    @Test
+    public void testParallel()
+    {
+        PointBuffer seqBuffer   = new PointBuffer();
+        PointBuffer parBuffer   = new PointBuffer();
+        ImplicitPlotter.plot(
+            bounds,
+            step / 4,
+            false,
+            () -> (x, y) -> x * x - y * y * y + y - .1,
+            seqBuffer
+        );
+        ImplicitPlotter.plot(
+            bounds,
+            step / 4,
+            true,
+            () -> (x, y) -> x * x - y * y * y + y - .1,
+            parBuffer
+        );
+        List<Point2D>   expPoints   =
+            seqBuffer.stream().collect( Collectors.toList() );
+        List<Point2D>   actPoints   =
+            parBuffer.stream().collect( Collectors.toList() );
+        assertFalse( expPoints.isEmpty() );
+        assertEquals( expPoints, actPoints );
+        assertEquals( seqBuffer.size(), parBuffer.size() );
+    }
+
+    @Test
+    public void testEmpty()
+    {
+        PointBuffer buffer  = new PointBuffer();
+        buffer.add( 1, 1 );
+        Rectangle2D empty   = new Rectangle2D.Double( 0, 0, 0, 1 );
+        ImplicitPlotter.plot(
+            empty, step, false, () -> (x, y) -> x, buffer
+        );
+        assertEquals( 0, buffer.size() );
+
+        buffer.add( 1, 1 );
+        ImplicitPlotter.plot(
+            bounds, 0, false, () -> (x, y) -> x, buffer
+        );
+        assertEquals( 0, buffer.size() );
+    }
+
+    @Test
+    public void testInvalidRefinement()
+    {
+        Class<IllegalArgumentException> clazz   =
+            IllegalArgumentException.class;
+        PointBuffer                     buffer  = new PointBuffer();
+        assertThrows( clazz, () ->
+            ImplicitPlotter.plot(
+                bounds, step, 0, false, () -> (x, y) -> x, buffer
+            )
+        );
+    }
+
+    /**
+     * Verifies that a buffer consists of segments,
+     * each two points followed by a break.
+     *
+     * @param buffer    the buffer to verify
+     */
+    private static void assertSegments( PointBuffer buffer )
+    {
+        int     size    = buffer.size();
+        assertTrue( size > 0 );
+        assertEquals( 0, size % 3 );
+        for ( int inx = 0 ; inx < size ; inx += 3 )
+        {
+            assertFalse( buffer.isBreak( inx ) );
+            assertFalse( buffer.isBreak( inx + 1 ) );
+            assertTrue( buffer.isBreak( inx + 2 ) );
+        }
+    }
+}
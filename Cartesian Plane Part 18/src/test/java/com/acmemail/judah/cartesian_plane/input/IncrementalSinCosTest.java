@@ -0,0 +1,70 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class IncrementalSinCosTest
+{
+    @Test
+    public void testMoveTo()
+    {
+        double              start       = -50;
+        double              step        = .0001;
+        int                 count       = 1_000_000;
+        double              tolerance   = 1e-12;
+        IncrementalSinCos   trig        = 
+            new IncrementalSinCos( step, 50, tolerance );
+        assertTrue( trig.getInterval() > 1 );
+        for ( int inx = 0 ; inx < count ; ++inx )
+        {
+            double  angle   = start + inx * step;
+            trig.moveTo( inx, angle );
+            assertEquals( Math.cos( angle ), trig.cos(), tolerance );
+            assertEquals( Math.sin( angle ), trig.sin(), tolerance );
+        }
+    }
+
+    @Test
+    public void testMoveToNonConsecutive()
+    {
+        IncrementalSinCos   trig    = new IncrementalSinCos( .1, 10, 1e-6 );
+        trig.moveTo( 0, 0 );
+        assertEquals( 1, trig.cos() );
+        assertEquals( 0, trig.sin() );
+        
+        // An index that doesn't follow the previous index
+        // is calculated exactly.
+        trig.moveTo( 5, 2 );
+        assertEquals( Math.cos( 2 ), trig.cos() );
+        assertEquals( Math.sin( 2 ), trig.sin() );
+        trig.moveTo( 5, 3 );
+        assertEquals( Math.cos( 3 ), trig.cos() );
+        assertEquals( Math.sin( 3 ), trig.sin() );
+    }
+
+    @Test
+    public void testZeroTolerance()
+    {
+        IncrementalSinCos   trig    = new IncrementalSinCos( .01, 10, 0 );
+        assertEquals( 0, trig.getInterval() );
+        for ( int inx = 0 ; inx < 1000 ; ++inx )
+        {
+            double  angle   = inx * .01;
+            trig.moveTo( inx, angle );
+            assertEquals( Math.cos( angle ), trig.cos() );
+            assertEquals( Math.sin( angle ), trig.sin() );
+        }
+    }
+
+    @Test
+    public void testInvalidTolerance()
+    {
+        Class<IllegalArgumentException> clazz   = 
+            IllegalArgumentException.class;
+        assertThrows( clazz, () -> new IncrementalSinCos( 1, 1, -1 ) );
+        assertThrows( clazz, () -> new IncrementalSinCos( 1, 1, Double.NaN ) );
+    }
+}
@@ -87,7 +87,7 @@ class InputParserJEPTest
 
     @ParameterizedTest
     @ValueSource( strings= 
-        {"EXIT","NONE","YPLOT","XYPLOT","RPLOT","TPLOT","OPEN","SAVE","LOAD","SELECT" }
+        {"EXIT","NONE","YPLOT","XYPLOT","RPLOT","TPLOT","FPLOT","DPLOT","ZPLOT","OPEN","SAVE","LOAD","SELECT","OVERLAY","SWEEP","ROOTS","EXTREMA","INTEGRATE" }
     )
     public void testParseInputNOOP( String strCommand )
     {
@@ -125,6 +125,41 @@ class InputParserJEPTest
         testSetDouble( Command.STEP, equation::getRangeStep );
     }
 
+    @Test
+    public void testParseInputAUTORANGE()
+    {
+        Equation    equation    = parser.getEquation();
+        assertFalse( equation.isAutoRange() );
+        Result      result      = 
+            parser.parseInput( Command.AUTORANGE, "True" );
+        assertTrue( result.isSuccess() );
+        assertTrue( equation.isAutoRange() );
+        
+        result = parser.parseInput( Command.AUTORANGE, "false" );
+        assertTrue( result.isSuccess() );
+        assertFalse( equation.isAutoRange() );
+        
+        result = parser.parseInput( Command.AUTORANGE, "maybe" );
+        assertFalse( result.isSuccess() );
+        assertFalse( equation.isAutoRange() );
+    }
+
+    @Test
+    public void testParseInputOPTIMIZE()
+    {
+        Equation    equation    = parser.getEquation();
+        equation.setVar( "a", 2 );
+        assertEquals( "4 * x", getStdout( Command.OPTIMIZE, "a * a * x" ) );
+        
+        Result      result      = 
+            parser.parseInput( Command.OPTIMIZE, "a * a *" );
+        assertFalse( result.isSuccess() );
+        
+        equation.setYExpression( "x + (a - 2)" );
+        String      output      = getStdout( Command.OPTIMIZE, "" );
+        assertTrue( output.contains( "y=x" ) );
+    }
+
     @Test
     public void testParseInputPARAM()
     {
@@ -180,6 +215,22 @@ class InputParserJEPTest
         String          newVal      = "a + a + a";
         testSetString( Command.TEQUALS, newVal, equation::getTExpression );
     }
+    
+    @Test
+    public void testParseInputFEQUALS()
+    {
+        Equation        equation    = parser.getEquation();
+        String          newVal      = "x^2 + y^2 - a";
+        testSetString( Command.FEQUALS, newVal, equation::getFExpression );
+    }
+    
+    @Test
+    public void testParseInputZEQUALS()
+    {
+        Equation        equation    = parser.getEquation();
+        String          newVal      = "z^2 + a * i";
+        testSetString( Command.ZEQUALS, newVal, equation::getZExpression );
+    }
 
     @ParameterizedTest
     @ValueSource( strings= 
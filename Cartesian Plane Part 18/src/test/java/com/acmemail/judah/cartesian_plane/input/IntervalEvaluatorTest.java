@@ -0,0 +1,224 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class IntervalEvaluatorTest
+{
+    private static final List<String>   varNames    = List.of( "a", "x" );
+    private static final double         aValue      = 1.5;
+
+    @ParameterizedTest
+    @ValueSource( strings= {
+        "x",
+        "2",
+        "-x",
+        "2x^2 - 3x + 1",
+        "a x / (x + 1)",
+        "1 / x",
+        "x % .3",
+        "x % a",
+        "x^2",
+        "x^3",
+        "x^-2",
+        "x^-3",
+        "x^.5",
+        "x^a",
+        "a^x",
+        "x^x",
+        "x^0",
+        "pow(x, 3)",
+        "sin(x)cos(a x)",
+        "sqrt(x^2 + 1)",
+        "exp(-x^2)",
+        "log(sin(x))",
+        "tan(2x)",
+        "1 / (x^2 - 1)",
+        "floor(3x) + ceil(x / 2)",
+        "signum(x - .5) * x",
+    })
+    void testContainment( String exprStr )
+    {
+        testContainment( exprStr, newEvaluator( exprStr ) );
+    }
+
+    @Test
+    void testAllFunctions()
+    {
+        // Every function known to the parser has an interval rule,
+        // and its bounds contain every sample.
+        for ( ExprFunction funk : ExprFunction.getFunctions().values() )
+        {
+            String  args    = funk.getArity() == 1 ? "(a x)" : "(x, a)";
+            String  exprStr = funk.getName() + args;
+            testContainment( exprStr, newEvaluator( exprStr ) );
+        }
+    }
+
+    @Test
+    void testBounds()
+    {
+        IntervalEvaluator   evaluator   = newEvaluator( "x^2 - 1" );
+        evaluator.evaluate( -1, 2 );
+        assertEquals( -1, evaluator.getLow(), 1E-12 );
+        assertEquals( 3, evaluator.getHigh(), 1E-12 );
+        assertTrue( evaluator.isContinuous() );
+
+        evaluator = newEvaluator( "sin(x)" );
+        evaluator.evaluate( 0, Math.PI );
+        assertEquals( 0, evaluator.getLow(), 1E-12 );
+        assertEquals( 1, evaluator.getHigh(), 1E-12 );
+    }
+
+    @Test
+    void testPoles()
+    {
+        IntervalEvaluator   evaluator   = newEvaluator( "tan(x)" );
+        evaluator.evaluate( 1.5, 1.6 );
+        assertFalse( evaluator.isContinuous() );
+        evaluator.evaluate( 1.4, 1.5 );
+        assertTrue( evaluator.isContinuous() );
+
+        evaluator = newEvaluator( "1 / (x - a)" );
+        evaluator.evaluate( 1, 2 );
+        assertFalse( evaluator.isContinuous() );
+        evaluator.evaluate( 2, 3 );
+        assertTrue( evaluator.isContinuous() );
+    }
+
+    @Test
+    void testSteps()
+    {
+        IntervalEvaluator   evaluator   = newEvaluator( "floor(x)" );
+        evaluator.evaluate( .9, 1.1 );
+        assertFalse( evaluator.isContinuous() );
+        evaluator.evaluate( 1.1, 1.9 );
+        assertTrue( evaluator.isContinuous() );
+        assertEquals( 1, evaluator.getLow() );
+        assertEquals( 1, evaluator.getHigh() );
+    }
+
+    @Test
+    void testDomain()
+    {
+        // sqrt is undefined for part of the interval
+        IntervalEvaluator   evaluator   = newEvaluator( "sqrt(x)" );
+        evaluator.evaluate( -1, 1 );
+        assertFalse( evaluator.isContinuous() );
+        evaluator.evaluate( 1, 4 );
+        assertTrue( evaluator.isContinuous() );
+        assertEquals( 1, evaluator.getLow(), 1E-12 );
+        assertEquals( 2, evaluator.getHigh(), 1E-12 );
+    }
+
+    @Test
+    void testInvalidInterval()
+    {
+        IntervalEvaluator   evaluator   = newEvaluator( "x" );
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> evaluator.evaluate( 1, 0 )
+        );
+    }
+
+    @Test
+    void testNoVariable()
+    {
+        ExprParser          parser      = new ExprParser( varNames );
+        ExprNode            root        = parser.parse( "a * 2" );
+        IntervalEvaluator   evaluator   =
+            new IntervalEvaluator( root, -1, new double[] { aValue } );
+        evaluator.evaluate( -10, 10 );
+        assertEquals( 3, evaluator.getLow() );
+        assertEquals( 3, evaluator.getHigh() );
+        assertTrue( evaluator.isContinuous() );
+    }
+
+    /**
+     * Verifies that, for a sequence of intervals
+     * covering [-3,3],
+     * the bounds calculated by a given evaluator
+     * contain the value of a given expression
+     * at every sample of the interval.
+     * Where the expression is undefined
+     * the interval must be flagged
+     * as not continuous.
+     * 
+     * @param exprStr   the given expression
+     * @param evaluator the given evaluator
+     */
+    private static void
+    testContainment( String exprStr, IntervalEvaluator evaluator )
+    {
+        for ( double low = -3 ; low < 3 ; low += .37 )
+        {
+            double  high    = low + .7;
+            evaluator.evaluate( low, high );
+            for ( double xco = low ; xco <= high ; xco += .01 )
+            {
+                double  yco = evaluate( exprStr, xco );
+                String  msg = exprStr + " at " + xco;
+                if ( Double.isNaN( yco ) )
+                    assertFalse( evaluator.isContinuous(), msg );
+                else
+                {
+                    assertTrue( yco >= evaluator.getLow(), msg );
+                    assertTrue( yco <= evaluator.getHigh(), msg );
+                }
+            }
+        }
+    }
+
+    /**
+     * Evaluates a given expression
+     * at a given value of x.
+     * The value of a is 1.5.
+     * 
+     * @param exprStr   the given expression
+     * @param xco       the given value of x
+     * 
+     * @return  the value of the given expression
+     */
+    private static double evaluate( String exprStr, double xco )
+    {
+        ExprParser      parser  = new ExprParser( varNames );
+        ExprNode        root    = parser.parse( exprStr );
+        List<String>    names   = parser.getVariableNames();
+        double[]        slots   = new double[varNames.size()];
+        for ( int inx = 0 ; inx < names.size() ; ++inx )
+            slots[inx] = names.get( inx ).equals( "x" ) ? xco : aValue;
+        return root.evaluate( slots );
+    }
+
+    /**
+     * Creates an evaluator
+     * for a given expression,
+     * bounding it with respect to x.
+     * The value of a is 1.5.
+     * 
+     * @param exprStr   the given expression
+     * 
+     * @return  the new evaluator
+     */
+    private static IntervalEvaluator newEvaluator( String exprStr )
+    {
+        ExprParser      parser  = new ExprParser( varNames );
+        ExprNode        root    = parser.parse( exprStr );
+        List<String>    names   = parser.getVariableNames();
+        double[]        slots   = new double[varNames.size()];
+        int             aSlot   = names.indexOf( "a" );
+        if ( aSlot >= 0 )
+            slots[aSlot] = aValue;
+        IntervalEvaluator   evaluator   =
+            new IntervalEvaluator( root, names.indexOf( "x" ), slots );
+        return evaluator;
+    }
+}
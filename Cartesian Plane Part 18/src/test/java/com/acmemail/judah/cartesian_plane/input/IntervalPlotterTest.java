@@ -0,0 +1,251 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.geom.Rectangle2D;
+import java.util.List;
+import java.util.function.DoubleUnaryOperator;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class IntervalPlotterTest
+{
+    @Test
+    void testVisible()
+    {
+        // With nothing culled and no discontinuity, every sample
+        // is plotted.
+        PointBuffer buffer  = new PointBuffer();
+        plot( "x^2", x -> x * x, -2, 2, .01, buffer );
+        int         count   = ParallelPlotter.getSampleCount( -2, 2, .01 );
+        assertEquals( count, buffer.size() );
+        for ( int inx = 0 ; inx < count ; ++inx )
+        {
+            double  xco = -2 + inx * .01;
+            assertEquals( xco, buffer.getX( inx ), 1E-12 );
+            assertEquals( xco * xco, buffer.getY( inx ), 1E-12 );
+        }
+    }
+
+    @Test
+    void testCulled()
+    {
+        // y = x^3 is visible only for |x| <= 1; samples outside
+        // that range, apart from the first in each block,
+        // are never evaluated.
+        int[]               calls   = new int[1];
+        DoubleUnaryOperator func    = x -> {
+            ++calls[0];
+            return x * x * x;
+        };
+        PointBuffer         buffer  = new PointBuffer();
+        IntervalPlotter.plot(
+            newEvaluator( "x^3" ), func, -10, 10, .01, -1, 1, 32, buffer
+        );
+        int                 count   =
+            ParallelPlotter.getSampleCount( -10, 10, .01 );
+        assertEquals( buffer.size(), calls[0] );
+        assertTrue( calls[0] < count / 5 );
+
+        // Every visible sample is present
+        for ( double xco = -1 ; xco <= 1 ; xco += .1 )
+        {
+            final double    target  = xco;
+            boolean         found   =
+                buffer.stream().anyMatch( p ->
+                    Math.abs( p.getX() - target ) < .01
+                );
+            assertTrue( found, "x = " + xco );
+        }
+
+        // The end points are always plotted
+        assertEquals( -10, buffer.getX( 0 ), 1E-12 );
+        assertEquals( 10, buffer.getX( buffer.size() - 1 ), 1E-9 );
+    }
+
+    @Test
+    void testAsymptote()
+    {
+        PointBuffer buffer  = new PointBuffer();
+        plot( "tan(x)", Math::tan, 0, 3, .01, buffer );
+        int         breaks  = 0;
+        for ( int inx = 0 ; inx < buffer.size() ; ++inx )
+        {
+            if ( buffer.isBreak( inx ) )
+            {
+                ++breaks;
+                // the break separates the samples on either side
+                // of the pole at pi/2
+                assertTrue( buffer.getX( inx - 1 ) < Math.PI / 2 );
+                assertTrue( buffer.getX( inx + 1 ) > Math.PI / 2 );
+                assertEquals( .01, buffer.getX( inx + 1 )
+                    - buffer.getX( inx - 1 ), 1E-9 );
+            }
+        }
+        assertEquals( 1, breaks );
+    }
+
+    @Test
+    void testYPlot()
+    {
+        Equation    equation    = new Exp4jEquation();
+        equation.setVar( "a", 2 );
+        assertTrue( equation.setYExpression( "a / (x - .0123)" ).isSuccess() );
+        Viewport    port        =
+            new Viewport( new Rectangle2D.Double( -4, -1, 8, 2 ), 50 );
+        equation.setViewport( port );
+        equation.setAutoRange( true );
+        equation.setPlot( "XYPlot" );
+        PointBuffer buffer      = new PointBuffer();
+        assertTrue( IntervalPlotter.yPlot( equation, buffer ) );
+        assertEquals( "XYPlot", equation.getPlot() );
+        assertEquals( port.getXMin(), buffer.getX( 0 ) );
+
+        // One break at the pole; every plotted point is exact.
+        long        breaks      = 0;
+        for ( int inx = 0 ; inx < buffer.size() ; ++inx )
+        {
+            if ( buffer.isBreak( inx ) )
+                ++breaks;
+            else
+            {
+                double  xco = buffer.getX( inx );
+                assertEquals( 2 / (xco - .0123), buffer.getY( inx ) );
+            }
+        }
+        assertEquals( 1, breaks );
+
+        // The y-range is restricted, so some samples are culled.
+        int         count       = ParallelPlotter.getSampleCount(
+            port.getXMin(), port.getXMax(), port.getStep()
+        );
+        assertTrue( buffer.size() < count );
+    }
+
+    @Test
+    void testUnsupported()
+    {
+        Equation    equation    = new JEPEquation();
+        assertTrue( equation.setYExpression( "x == 1" ).isSuccess() );
+        PointBuffer buffer      = new PointBuffer();
+        buffer.add( 1, 1 );
+        assertFalse( IntervalPlotter.yPlot( equation, buffer ) );
+        assertEquals( 1, buffer.size() );
+    }
+
+    @Test
+    void testJEPSyntax()
+    {
+        // In JEP log(x) is the base 10 logarithm; bounding it
+        // as the natural logarithm would cull visible samples,
+        // so a JEP equation is never plotted by IntervalPlotter.
+        Equation    equation    = new JEPEquation();
+        assertTrue( equation.setYExpression( "log(x)" ).isSuccess() );
+        assertTrue( equation.setRangeStart( "1" ).isSuccess() );
+        assertTrue( equation.setRangeEnd( "100" ).isSuccess() );
+        Viewport    port        =
+            new Viewport( new Rectangle2D.Double( 1, 1.5, 99, .4 ), 1 );
+        equation.setViewport( port );
+        assertNull( IntervalPlotter.newEvaluator( equation ) );
+        PointBuffer buffer      = new PointBuffer();
+        assertFalse( IntervalPlotter.yPlot( equation, buffer ) );
+        assertEquals( 0, buffer.size() );
+        assertEquals( "YPlot", equation.getPlot() );
+
+        // The same expression in exp4j syntax is supported, and
+        // every visible sample is plotted.
+        Equation    exp4j       = new Exp4jEquation();
+        assertTrue( exp4j.setYExpression( "log10(x)" ).isSuccess() );
+        assertTrue( exp4j.setRangeStart( "1" ).isSuccess() );
+        assertTrue( exp4j.setRangeEnd( "100" ).isSuccess() );
+        exp4j.setViewport( port );
+        assertNotNull( IntervalPlotter.newEvaluator( exp4j ) );
+        assertTrue( IntervalPlotter.yPlot( exp4j, buffer ) );
+        double      step        = exp4j.getRangeStep();
+        int         count       = ParallelPlotter.getSampleCount( 1, 100, step );
+        long        visible     = IntStream.range( 0, count )
+            .mapToDouble( i -> Math.log10( 1 + i * step ) )
+            .filter( y -> y >= 1.5 && y <= 1.9 )
+            .count();
+        long        plotted     = buffer.stream()
+            .filter( p -> p.getY() >= 1.5 && p.getY() <= 1.9 )
+            .count();
+        assertTrue( visible > 0 );
+        assertEquals( visible, plotted );
+    }
+
+    @Test
+    void testInvalidBlockSize()
+    {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> IntervalPlotter.plot(
+                newEvaluator( "x" ), x -> x, 0, 1, .1, -1, 1, 0,
+                new PointBuffer()
+            )
+        );
+    }
+
+    @Test
+    void testEmpty()
+    {
+        PointBuffer buffer  = new PointBuffer();
+        buffer.add( 1, 1 );
+        plot( "x", x -> x, 1, 0, .1, buffer );
+        assertEquals( 0, buffer.size() );
+        assertFalse( buffer.stream().findAny().isPresent() );
+    }
+
+    /**
+     * Plots a given function,
+     * with no y-coordinates culled.
+     * 
+     * @param exprStr   the expression of the given function
+     * @param func      the given function
+     * @param start     the start of the iteration range
+     * @param end       the end of the iteration range
+     * @param step      the increment between samples
+     * @param buffer    the buffer in which to store the plot
+     */
+    private static void plot(
+        String exprStr,
+        DoubleUnaryOperator func,
+        double start,
+        double end,
+        double step,
+        PointBuffer buffer
+    )
+    {
+        IntervalPlotter.plot(
+            newEvaluator( exprStr ), func, start, end, step,
+            Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY,
+            IntervalPlotter.DEFAULT_BLOCK_SIZE,
+            buffer
+        );
+    }
+
+    /**
+     * Creates an evaluator
+     * for a given expression of x.
+     * 
+     * @param exprStr   the given expression
+     * 
+     * @return  the new evaluator
+     */
+    private static IntervalEvaluator newEvaluator( String exprStr )
+    {
+        ExprParser      parser  = new ExprParser( List.of( "x" ) );
+        ExprNode        root    = parser.parse( exprStr );
+        List<String>    names   = parser.getVariableNames();
+        double[]        slots   = new double[names.size()];
+        IntervalEvaluator   evaluator   =
+            new IntervalEvaluator( root, names.indexOf( "x" ), slots );
+        return evaluator;
+    }
+}
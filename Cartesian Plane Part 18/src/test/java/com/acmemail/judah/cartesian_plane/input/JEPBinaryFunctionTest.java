@@ -0,0 +1,67 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.nfunk.jep.JEP;
+
+class JEPBinaryFunctionTest
+{
+    @Test
+    void testEvaluate()
+    {
+        Divide  funk    = new Divide();
+        assertEquals( "div", funk.getName() );
+        assertEquals( 2, funk.getNumberOfParameters() );
+        assertEquals( 5, funk.evaluate( 10, 2 ) );
+        assertEquals( 4, funk.evaluate( new double[] { 12, 3 } ) );
+    }
+
+    /**
+     * Validate execution of the custom function.
+     * The order of the arguments
+     * must be significant.
+     */
+    @Test
+    void testRun()
+    {
+        JEP     parser  = new JEP();
+        Divide  funk    = new Divide();
+        parser.addFunction( funk.getName(), funk );
+        parser.parseExpression( "div( 10, 2 ) + div( 1, div( 1, 4 ) )" );
+        assertFalse( parser.hasError() );
+        assertEquals( 9, parser.getValue() );
+    }
+
+    @Test
+    void testRunGoWrong()
+    {
+        JEP     parser  = new JEP();
+        Divide  funk    = new Divide();
+        parser.addFunction( funk.getName(), funk );
+        parser.parseExpression( "div( 10 )" );
+        assertTrue( parser.hasError() );
+    }
+
+    /**
+     * Custom function that divides its first argument
+     * by its second.
+     * 
+     * @author Jack Straub
+     */
+    public static class Divide extends JEPBinaryFunction
+    {
+        public Divide()
+        {
+            super( "div" );
+        }
+
+        @Override
+        public double evaluate( double dividend, double divisor )
+        {
+            return dividend / divisor;
+        }
+    }
+}
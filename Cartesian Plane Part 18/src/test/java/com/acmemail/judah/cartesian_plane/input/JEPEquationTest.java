@@ -2,19 +2,26 @@ package com.acmemail.judah.cartesian_plane.input;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.DoubleStream;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -363,6 +370,415 @@ class JEPEquationTest
         });
     }
 
+    @Test
+    public void testYPlotBuffer()
+    {
+        equation.setVar( "a", 2 );
+        equation.setYExpression( "a * sin(x) + x^2" );
+        setRange( "-2", "2", ".1" );
+        assertBufferMatchesStream( equation.yPlot(), equation::yPlot );
+    }
+
+    @Test
+    public void testXYPlotBuffer()
+    {
+        equation.setXExpression( "2cos(t)" );
+        equation.setYExpression( "3sin(t)" );
+        setRange( "0", "2pi", ".1" );
+        assertBufferMatchesStream( equation.xyPlot(), equation::xyPlot );
+    }
+
+    @Test
+    public void testRPlotBuffer()
+    {
+        equation.setRExpression( "2cos(3t)" );
+        setRange( "0", "2pi", ".1" );
+        assertBufferMatchesStream( equation.rPlot(), equation::rPlot );
+    }
+
+    @Test
+    public void testTPlotBuffer()
+    {
+        equation.setTExpression( "r / 2" );
+        setRange( "0", "10", ".25" );
+        assertBufferMatchesStream( equation.tPlot(), equation::tPlot );
+    }
+
+    @Test
+    public void testPlotBufferReuse()
+    {
+        PointBuffer buffer  = new PointBuffer( 1 );
+        setRange( "0", "9", "1" );
+        equation.yPlot( buffer );
+        assertEquals( 10, buffer.size() );
+        
+        // Refilling the buffer must discard the previous points
+        setRange( "0", "4", "1" );
+        equation.yPlot( buffer );
+        assertEquals( 5, buffer.size() );
+    }
+
+    @Test
+    public void testParallelPlot()
+    {
+        assertFalse( equation.isParallel() );
+        equation.setXExpression( "cos(t) + t" );
+        equation.setYExpression( "x^2 - 2x + sin(x)" );
+        equation.setRExpression( "1 + cos(t)" );
+        equation.setTExpression( "2r" );
+        
+        // With a step that is exactly representable, sequential
+        // and parallel plots must produce identical points.
+        setRange( "-8", "8", String.valueOf( 1 / 1024. ) );
+        assertParallelMatchesSequential( 
+            equation::yPlot, 
+            () -> equation.yPlot()
+        );
+        assertParallelMatchesSequential( 
+            equation::xyPlot, 
+            () -> equation.xyPlot()
+        );
+        assertParallelMatchesSequential( 
+            equation::rPlot, 
+            () -> equation.rPlot()
+        );
+        assertParallelMatchesSequential( 
+            equation::tPlot, 
+            () -> equation.tPlot()
+        );
+    }
+
+    @Test
+    public void testEvaluateCache()
+    {
+        ExpressionCache<?>  cache   = JEPEquation.getExpressionCache();
+        
+        // Use an expression that no other test uses, so that the
+        // first evaluation is guaranteed to miss.
+        String  expr    = "a * 1234.5678 + b";
+        equation.setVar( "a", 2 );
+        equation.setVar( "b", 1 );
+        long    misses  = cache.getMissCount();
+        long    hits    = cache.getHitCount();
+        testEvaluatePass( expr, 2 * 1234.5678 + 1 );
+        assertEquals( misses + 1, cache.getMissCount() );
+        
+        // Same expression, same variable names, new values: hit.
+        equation.setVar( "a", 3 );
+        testEvaluatePass( expr, 3 * 1234.5678 + 1 );
+        assertEquals( hits + 1, cache.getHitCount() );
+        
+        // The same expression in another equation is also a hit.
+        Equation    other   = new JEPEquation();
+        other.setVar( "a", 1 );
+        other.setVar( "b", 1 );
+        assertEquals( 1234.5678 + 1, other.evaluate( expr ).get(), .0001 );
+        assertEquals( hits + 2, cache.getHitCount() );
+        
+        // A different set of variable names is a different entry.
+        equation.setVar( "newVarName", 0 );
+        testEvaluatePass( expr, 3 * 1234.5678 + 1 );
+        assertEquals( misses + 2, cache.getMissCount() );
+        
+        // Removing a variable invalidates the expression.
+        equation.removeVar( "b" );
+        assertFalse( equation.evaluate( expr ).isPresent() );
+    }
+    
+    @Test
+    public void testOptimize()
+    {
+        String  expr    = "a * b * sin( c * x ) + toRadians( 45 )";
+        equation.setVar( "a", 2 );
+        equation.setVar( "b", 3 );
+        equation.setVar( "c", 4 );
+        Optional<String>    optExpr = equation.getOptimizedExpression( expr );
+        assertTrue( optExpr.isPresent() );
+        assertEquals( "(6 * sin(4 * x)) + 0.7853981633974483", optExpr.get() );
+        assertFalse( equation.getOptimizedExpression( "a *" ).isPresent() );
+        
+        // The optimized form is what gets plotted.
+        equation.setYExpression( expr );
+        setRange( "-1", "1", ".25" );
+        PointBuffer buffer  = new PointBuffer();
+        equation.yPlot( buffer );
+        assertEquals( 9, buffer.size() );
+        for ( int inx = 0 ; inx < buffer.size() ; ++inx )
+        {
+            double  xco     = buffer.getX( inx );
+            double  expY    = 6 * Math.sin( 4 * xco ) + Math.PI / 4;
+            assertEquals( expY, buffer.getY( inx ), .0001 );
+        }
+        
+        // Changing a constant changes the plot.
+        equation.setVar( "a", 1 );
+        equation.yPlot( buffer );
+        double  xco     = buffer.getX( 0 );
+        assertEquals( 
+            3 * Math.sin( 4 * xco ) + Math.PI / 4, 
+            buffer.getY( 0 ), 
+            .0001
+        );
+    }
+    
+    @Test
+    public void testDependencies()
+    {
+        equation.setVar( "a", 1 );
+        equation.setVar( "b", 2 );
+        equation.setVar( "c", 3 );
+        equation.setXExpression( "a * t" );
+        equation.setYExpression( "b + x" );
+        equation.setRExpression( "sin( t )" );
+        equation.setTExpression( "2 * r" );
+        assertEquals( Set.of( "a", "t" ), equation.getXDependencies() );
+        assertEquals( Set.of( "b", "x" ), equation.getYDependencies() );
+        assertEquals( Set.of( "t" ), equation.getRDependencies() );
+        assertEquals( Set.of( "r" ), equation.getTDependencies() );
+        
+        assertTrue( equation.dependsOn( "a" ) );
+        assertTrue( equation.dependsOn( "b" ) );
+        assertFalse( equation.dependsOn( "c" ) );
+        
+        equation.setYExpression( "c" );
+        assertFalse( equation.dependsOn( "b" ) );
+        assertTrue( equation.dependsOn( "c" ) );
+    }
+    
+    @Test
+    public void testZDependencies()
+    {
+        // A variable read only by the z-expression
+        // still changes the version.
+        equation.setVar( "a", 1 );
+        equation.setVar( "b", 2 );
+        assertTrue( equation.setZExpression( "z^2 + a" ).isSuccess() );
+        assertEquals( Set.of( "a" ), equation.getZDependencies() );
+        assertTrue( equation.dependsOn( "a" ) );
+        assertFalse( equation.dependsOn( "b" ) );
+        long    version = equation.getVersion();
+        equation.setVar( "a", 3 );
+        version = assertVersionChanged( version );
+        equation.setVar( "b", 3 );
+        assertEquals( version, equation.getVersion() );
+    }
+    
+    @Test
+    public void testVersion()
+    {
+        long    version = equation.getVersion();
+        assertEquals( version, equation.getVersion() );
+        
+        // No expression reads a yet.
+        equation.setVar( "a", 1 );
+        assertEquals( version, equation.getVersion() );
+        equation.setYExpression( "a * x" );
+        version = assertVersionChanged( version );
+        equation.setVar( "a", 2 );
+        version = assertVersionChanged( version );
+        equation.setVar( "a", 2 );
+        assertEquals( version, equation.getVersion() );
+        equation.setVar( "unused", 3 );
+        assertEquals( version, equation.getVersion() );
+        equation.removeVar( "unused" );
+        assertEquals( version, equation.getVersion() );
+        setRange( "-1", "1", ".5" );
+        version = assertVersionChanged( version );
+        equation.setParamName( "p" );
+        version = assertVersionChanged( version );
+        equation.setAutoRange( true );
+        version = assertVersionChanged( version );
+        
+        // Invalid expressions are not stored, so the version is
+        // unchanged.
+        equation.setYExpression( "a *" );
+        assertEquals( version, equation.getVersion() );
+        
+        // Only a change of viewport affects the version.
+        Viewport    viewport    = 
+            new Viewport( new Rectangle2D.Double( -1, -1, 2, 2 ), 10 );
+        equation.setViewport( viewport );
+        version = assertVersionChanged( version );
+        equation.setViewport( 
+            new Viewport( new Rectangle2D.Double( -1, -1, 2, 2 ), 10 )
+        );
+        assertEquals( version, equation.getVersion() );
+        
+        equation.removeVar( "a" );
+        assertVersionChanged( version );
+    }
+    
+    @Test
+    public void testAutoRange()
+    {
+        equation.setYExpression( "2x" );
+        setRange( "-1", "1", ".5" );
+        assertFalse( equation.isAutoRange() );
+        assertNull( equation.getViewport() );
+        
+        // Auto range without a viewport uses the encapsulated range.
+        equation.setAutoRange( true );
+        assertTrue( equation.isAutoRange() );
+        PointBuffer buffer  = new PointBuffer();
+        equation.yPlot( buffer );
+        assertEquals( 5, buffer.size() );
+        
+        Rectangle2D bounds      = new Rectangle2D.Double( -4, -3, 8, 6 );
+        Viewport    viewport    = new Viewport( bounds, 16 );
+        equation.setViewport( viewport );
+        assertEquals( viewport, equation.getViewport() );
+        equation.yPlot( buffer );
+        assertEquals( 8 * 16 + 1, buffer.size() );
+        assertEquals( -4, buffer.getX( 0 ) );
+        assertEquals( 4, buffer.getX( buffer.size() - 1 ) );
+        assertEquals( 1 / 16., buffer.getX( 1 ) - buffer.getX( 0 ) );
+        assertBufferMatchesStream( equation.yPlot(), equation::yPlot );
+        
+        // Other plots are unaffected.
+        equation.setXExpression( "t" );
+        equation.xyPlot( buffer );
+        assertEquals( 5, buffer.size() );
+        
+        // The viewport configures the adaptive sampler.
+        AdaptiveSampler sampler = new AdaptiveSampler();
+        equation.setAdaptiveSampler( sampler );
+        assertEquals( bounds, sampler.getBounds() );
+        assertEquals( 16, sampler.getXScale() );
+        
+        equation.setAutoRange( false );
+        equation.setAdaptiveSampler( null );
+        equation.yPlot( buffer );
+        assertEquals( 5, buffer.size() );
+    }
+
+    @Test
+    public void testAdaptivePlot()
+    {
+        AdaptiveSampler sampler = new AdaptiveSampler( 65 );
+        sampler.setBounds( new Rectangle2D.Double( -3, -5, 6, 10 ) );
+        assertNull( equation.getAdaptiveSampler() );
+        equation.setAdaptiveSampler( sampler );
+        assertEquals( sampler, equation.getAdaptiveSampler() );
+        
+        // Poles at +/- pi/2 must be separated by breaks, using far
+        // fewer evaluations than a fixed step of 1/1024.
+        setRange( "-3", "3", String.valueOf( 1 / 1024. ) );
+        equation.setYExpression( "tan(x)" );
+        PointBuffer buffer  = new PointBuffer();
+        equation.yPlot( buffer );
+        assertNoConnectorAcross( buffer, -Math.PI / 2, Math.PI / 2 );
+        assertTrue( sampler.getEvaluationCount() < 6 * 1024 );
+        assertBufferMatchesStream( equation.yPlot(), equation::yPlot );
+        
+        equation.setYExpression( "1/x" );
+        equation.yPlot( buffer );
+        assertNoConnectorAcross( buffer, 0 );
+        
+        equation.setXExpression( "t" );
+        equation.setYExpression( "tan(t)" );
+        equation.xyPlot( buffer );
+        assertNoConnectorAcross( buffer, -Math.PI / 2, Math.PI / 2 );
+        assertBufferMatchesStream( equation.xyPlot(), equation::xyPlot );
+        
+        equation.setRExpression( "2" );
+        equation.rPlot( buffer );
+        for ( int inx = 0 ; inx < buffer.size() ; ++inx )
+        {
+            double  dist    = Math.hypot( buffer.getX( inx ), buffer.getY( inx ) );
+            assertEquals( 2, dist, .0001 );
+        }
+        
+        equation.setAdaptiveSampler( null );
+        assertNull( equation.getAdaptiveSampler() );
+    }
+
+    @Test
+    public void testPolarTolerance()
+    {
+        assertEquals( 0, equation.getPolarTolerance() );
+        long    version = equation.getVersion();
+        equation.setPolarTolerance( 1e-12 );
+        assertEquals( 1e-12, equation.getPolarTolerance() );
+        version = assertVersionChanged( version );
+        equation.setPolarTolerance( 1e-12 );
+        assertEquals( version, equation.getVersion() );
+        
+        Class<IllegalArgumentException> clazz   = 
+            IllegalArgumentException.class;
+        assertThrows( clazz, () -> equation.setPolarTolerance( -1 ) );
+        assertThrows( clazz, () -> equation.setPolarTolerance( Double.NaN ) );
+        
+        // Incremental sine and cosine must be within the tolerance
+        // of the exact calculation (scaled by the radius).
+        equation.setRExpression( "t" );
+        setRange( "0", "64", String.valueOf( 1 / 1024. ) );
+        PointBuffer expBuffer   = new PointBuffer();
+        equation.setPolarTolerance( 0 );
+        equation.rPlot( expBuffer );
+        PointBuffer actBuffer   = new PointBuffer();
+        equation.setPolarTolerance( 1e-12 );
+        equation.rPlot( actBuffer );
+        assertPointsClose( expBuffer, actBuffer, 64 * 1e-12 );
+        assertBufferMatchesStream( equation.rPlot(), equation::rPlot );
+        
+        // Parallel tasks begin with an exact calculation, so they
+        // may differ from the sequential plot, but only within the
+        // tolerance.
+        equation.setParallel( true );
+        equation.rPlot( actBuffer );
+        assertPointsClose( expBuffer, actBuffer, 64 * 1e-12 );
+        equation.setParallel( false );
+        equation.setPolarTolerance( 0 );
+    }
+
+    @Test
+    public void testFPlot()
+    {
+        assertEquals( "1", equation.getFExpression() );
+        long    version = equation.getVersion();
+        assertTrue( equation.setFExpression( "x^2 + y^2 - a" ).isSuccess() );
+        assertEquals( "x^2 + y^2 - a", equation.getFExpression() );
+        version = assertVersionChanged( version );
+        assertTrue( equation.getFDependencies().contains( "a" ) );
+        assertTrue( equation.dependsOn( "a" ) );
+        assertFalse( equation.setFExpression( "x^2 +" ).isSuccess() );
+        assertEquals( "x^2 + y^2 - a", equation.getFExpression() );
+        
+        // Without a viewport, x and y traverse the iteration range.
+        equation.setVar( "a", 4 );
+        version = assertVersionChanged( version );
+        setRange( "-3", "3", String.valueOf( 1 / 64. ) );
+        PointBuffer buffer  = new PointBuffer();
+        equation.fPlot( buffer );
+        assertEquals( "FPlot", equation.getPlot() );
+        assertTrue( buffer.size() > 0 );
+        for ( int inx = 0 ; inx < buffer.size() ; ++inx )
+        {
+            if ( !buffer.isBreak( inx ) )
+            {
+                double  dist    = 
+                    Math.hypot( buffer.getX( inx ), buffer.getY( inx ) );
+                assertEquals( 2, dist, 1 / 64. );
+            }
+        }
+        assertBufferMatchesStream( equation.fPlot(), equation::fPlot );
+        
+        // With a viewport, the grid covers the viewport.
+        version = equation.getVersion();
+        Rectangle2D bounds      = new Rectangle2D.Double( 0, 0, 4, 4 );
+        equation.setViewport( new Viewport( bounds, 32 ) );
+        version = assertVersionChanged( version );
+        equation.fPlot( buffer );
+        assertTrue( buffer.size() > 0 );
+        for ( int inx = 0 ; inx < buffer.size() ; ++inx )
+            if ( !buffer.isBreak( inx ) )
+                assertTrue( bounds.contains( buffer.getX( inx ), 0 ) );
+        
+        equation.setParallel( true );
+        assertBufferMatchesStream( equation.fPlot(), equation::fPlot );
+        equation.setParallel( false );
+    }
+
     @Test
     public void testGetParam()
     {
@@ -490,6 +906,13 @@ class JEPEquationTest
         assertFalse( optional.isPresent() );
     }
     
+    private long assertVersionChanged( long prevVersion )
+    {
+        long    version = equation.getVersion();
+        assertNotEquals( prevVersion, version );
+        return version;
+    }
+    
     private void setRange( double start, double end, double step )
     {
         equation.setRangeStart( String.valueOf( start ) );
@@ -520,6 +943,86 @@ class JEPEquationTest
         );
     }
     
+    private void setRange( String start, String end, String step )
+    {
+        assertTrue( equation.setRangeStart( start ).isSuccess() );
+        assertTrue( equation.setRangeEnd( end ).isSuccess() );
+        assertTrue( equation.setRangeStep( step ).isSuccess() );
+    }
+    
+    private void assertBufferMatchesStream( 
+        Stream<Point2D> stream, 
+        Consumer<PointBuffer> plotter
+    )
+    {
+        List<Point2D>   expPoints   = stream.collect( Collectors.toList() );
+        PointBuffer     buffer      = new PointBuffer();
+        plotter.accept( buffer );
+        List<Point2D>   actPoints   = 
+            buffer.stream().collect( Collectors.toList() );
+        assertFalse( expPoints.isEmpty() );
+        assertEquals( expPoints, actPoints );
+    }
+    
+    private void assertNoConnectorAcross( PointBuffer buffer, double... poles )
+    {
+        int     size    = buffer.size();
+        int     breaks  = 0;
+        assertTrue( size > 0 );
+        for ( int inx = 1 ; inx < size ; ++inx )
+        {
+            if ( buffer.isBreak( inx ) )
+                ++breaks;
+            else if ( !buffer.isBreak( inx - 1 ) )
+            {
+                double  prev    = buffer.getX( inx - 1 );
+                double  next    = buffer.getX( inx );
+                assertTrue( prev < next );
+                for ( double pole : poles )
+                    assertFalse( prev < pole && pole < next );
+            }
+        }
+        assertEquals( poles.length, breaks );
+    }
+    
+    private void assertPointsClose( 
+        PointBuffer expBuffer, 
+        PointBuffer actBuffer, 
+        double delta
+    )
+    {
+        int     size    = expBuffer.size();
+        assertEquals( size, actBuffer.size() );
+        for ( int inx = 0 ; inx < size ; ++inx )
+        {
+            assertEquals( expBuffer.getX( inx ), actBuffer.getX( inx ), delta );
+            assertEquals( expBuffer.getY( inx ), actBuffer.getY( inx ), delta );
+        }
+    }
+    
+    private void assertParallelMatchesSequential( 
+        Consumer<PointBuffer> plotter,
+        Supplier<Stream<Point2D>> streamer
+    )
+    {
+        PointBuffer     buffer      = new PointBuffer();
+        equation.setParallel( false );
+        plotter.accept( buffer );
+        List<Point2D>   expPoints   = 
+            buffer.stream().collect( Collectors.toList() );
+        
+        equation.setParallel( true );
+        assertTrue( equation.isParallel() );
+        plotter.accept( buffer );
+        List<Point2D>   actPoints   = 
+            buffer.stream().collect( Collectors.toList() );
+        assertEquals( expPoints, actPoints );
+        
+        actPoints = streamer.get().collect( Collectors.toList() );
+        assertEquals( expPoints, actPoints );
+        equation.setParallel( false );
+    }
+    
     private void validateDefaultRange()
     {
         double  start   = equation.getRangeStart();
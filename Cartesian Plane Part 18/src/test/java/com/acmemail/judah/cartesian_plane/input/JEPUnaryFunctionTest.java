@@ -0,0 +1,61 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.nfunk.jep.JEP;
+
+class JEPUnaryFunctionTest
+{
+    @Test
+    void testEvaluate()
+    {
+        Negate  funk    = new Negate();
+        assertEquals( "neg", funk.getName() );
+        assertEquals( 1, funk.getNumberOfParameters() );
+        assertEquals( -2, funk.evaluate( 2 ) );
+        assertEquals( -3, funk.evaluate( new double[] { 3 } ) );
+    }
+
+    @Test
+    void testRun()
+    {
+        JEP     parser  = new JEP();
+        Negate  funk    = new Negate();
+        parser.addFunction( funk.getName(), funk );
+        parser.parseExpression( "neg( 10 ) + neg( neg( 2 ) )" );
+        assertFalse( parser.hasError() );
+        assertEquals( -8, parser.getValue() );
+    }
+
+    @Test
+    void testRunGoWrong()
+    {
+        JEP     parser  = new JEP();
+        Negate  funk    = new Negate();
+        parser.addFunction( funk.getName(), funk );
+        parser.parseExpression( "neg( 10, 2 )" );
+        assertTrue( parser.hasError() );
+    }
+
+    /**
+     * Custom function that negates its argument.
+     * 
+     * @author Jack Straub
+     */
+    public static class Negate extends JEPUnaryFunction
+    {
+        public Negate()
+        {
+            super( "neg" );
+        }
+
+        @Override
+        public double evaluate( double arg )
+        {
+            return -arg;
+        }
+    }
+}
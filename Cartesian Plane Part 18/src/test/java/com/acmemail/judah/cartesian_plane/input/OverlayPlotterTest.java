@@ -0,0 +1,293 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class OverlayPlotterTest
+{
+    @ParameterizedTest
+    @ValueSource( strings= {"Compiled", "Exp4j", "JEP"} )
+    public void testIntervalPlots( String engine )
+    {
+        String[]        exprs       = { "x^2", "a * sin(x)", "x + a" };
+        List<Equation>  equations   = new ArrayList<>();
+        for ( String expr : exprs )
+            equations.add( newEquation( engine, expr ) );
+        List<Command>       types   = List.of(
+            Command.YPLOT, Command.YPLOT, Command.YPLOT
+        );
+        List<PointBuffer>   buffers = newBuffers( 3 );
+        OverlayPlotter.plot( equations, types, buffers );
+
+        // Every plot must match the interval plot of its own equation.
+        for ( int inx = 0 ; inx < exprs.length ; ++inx )
+        {
+            Equation    equation    = equations.get( inx );
+            assertPlot( intervalPlot( equation ), buffers.get( inx ) );
+        }
+    }
+
+    @Test
+    public void testSharedPass()
+    {
+        // Expressions not supported by interval evaluation
+        // share the pass with those that are; every sample
+        // of an unsupported expression is plotted.
+        Equation        eq1         = newEquation( "JEP", "x == 1" );
+        Equation        eq2         = newEquation( "JEP", "x != 1" );
+        Equation        eq3         = newEquation( "Compiled", "x^2" );
+        eq3.setViewport( 
+            new Viewport( new Rectangle2D.Double( -2, -1, 4, 2 ), 10 )
+        );
+        List<Equation>  equations   = List.of( eq1, eq2, eq3 );
+        List<Command>   types       = 
+            List.of( Command.YPLOT, Command.YPLOT, Command.YPLOT );
+        List<PointBuffer>   buffers = newBuffers( 3 );
+        OverlayPlotter.plot( equations, types, buffers );
+        int             count       = 
+            ParallelPlotter.getSampleCount( -2, 2, .01 );
+        for ( int inx = 0 ; inx < 2 ; ++inx )
+        {
+            Equation    equation    = equations.get( inx );
+            assertEquals( count, buffers.get( inx ).size() );
+            assertPlot( intervalPlot( equation ), buffers.get( inx ) );
+        }
+        assertTrue( buffers.get( 2 ).size() < count );
+        assertPlot( intervalPlot( eq3 ), buffers.get( 2 ) );
+    }
+
+    @Test
+    public void testInvalidExpression()
+    {
+        // An invalid expression is reported, not plotted by other
+        // means.
+        Equation    valid       = newEquation( "Exp4j", "x" );
+        Equation    invalid     = newEquation( "Exp4j", "a * x" );
+        invalid.removeVar( "a" );
+        assertThrows(
+            ValidationException.class,
+            () -> OverlayPlotter.plot(
+                List.of( valid, invalid ),
+                List.of( Command.YPLOT, Command.YPLOT ),
+                newBuffers( 2 )
+            )
+        );
+    }
+
+    @Test
+    public void testAsymptote()
+    {
+        // Grouped y-plots are broken at asymptotes, exactly
+        // like a single y-plot.
+        Equation    tan     = newEquation( "Compiled", "tan(x)" );
+        Equation    line    = newEquation( "Compiled", "x" );
+        tan.setRangeStart( "0" );
+        tan.setRangeEnd( "3" );
+        line.setRangeStart( "0" );
+        line.setRangeEnd( "3" );
+        List<PointBuffer>   buffers = newBuffers( 2 );
+        OverlayPlotter.plot(
+            List.of( tan, line ),
+            List.of( Command.YPLOT, Command.YPLOT ),
+            buffers
+        );
+        assertPlot( intervalPlot( tan ), buffers.get( 0 ) );
+        assertPlot( intervalPlot( line ), buffers.get( 1 ) );
+        PointBuffer buffer  = buffers.get( 0 );
+        int         breaks  = 0;
+        for ( int inx = 0 ; inx < buffer.size() ; ++inx )
+            if ( buffer.isBreak( inx ) )
+                ++breaks;
+        assertEquals( 1, breaks );
+    }
+
+    @Test
+    public void testMixedTypes()
+    {
+        Equation    yEq     = newEquation( "Compiled", "2 * x" );
+        Equation    rEq     = newEquation( "Compiled", "1" );
+        rEq.setRExpression( "1 + t" );
+        Equation    xyEq    = newEquation( "Compiled", "1" );
+        xyEq.setXExpression( "cos(t)" );
+        xyEq.setYExpression( "sin(t)" );
+        List<Equation>      equations   = List.of( yEq, rEq, xyEq );
+        List<Command>       types       = List.of(
+            Command.YPLOT, Command.RPLOT, Command.XYPLOT
+        );
+        List<PointBuffer>   buffers     = newBuffers( 3 );
+        OverlayPlotter.plot( equations, types, buffers );
+        assertPlot( intervalPlot( yEq ), buffers.get( 0 ) );
+        assertPlot( rEq::rPlot, buffers.get( 1 ) );
+        assertPlot( xyEq::xyPlot, buffers.get( 2 ) );
+    }
+
+    @Test
+    public void testDifferentRanges()
+    {
+        Equation    eq1     = newEquation( "Compiled", "x" );
+        Equation    eq2     = newEquation( "Compiled", "x" );
+        Equation    eq3     = newEquation( "Compiled", "-x" );
+        eq2.setRangeStep( ".25" );
+        eq3.setAutoRange( true );
+        Rectangle2D bounds  = new Rectangle2D.Double( -3, -3, 6, 6 );
+        Viewport    port    = new Viewport( bounds, 4 );
+        eq3.setViewport( port );
+
+        List<Equation>      equations   = List.of( eq1, eq2, eq3 );
+        List<Command>       types       = List.of(
+            Command.YPLOT, Command.YPLOT, Command.YPLOT
+        );
+        List<PointBuffer>   buffers     = newBuffers( 3 );
+        OverlayPlotter.plot( equations, types, buffers );
+        assertPlot( intervalPlot( eq1 ), buffers.get( 0 ) );
+        assertPlot( intervalPlot( eq2 ), buffers.get( 1 ) );
+        assertPlot( intervalPlot( eq3 ), buffers.get( 2 ) );
+        assertEquals( -3, buffers.get( 2 ).getX( 0 ) );
+    }
+
+    @Test
+    public void testYPlot()
+    {
+        List<DoubleUnaryOperator>   funcs   = List.of( x -> x, x -> 2 * x );
+        List<PointBuffer>           buffers = newBuffers( 2 );
+        buffers.get( 0 ).add( 100, 100 );
+        OverlayPlotter.yPlot( 0, 1, .25, funcs, buffers );
+        assertEquals( 5, buffers.get( 0 ).size() );
+        assertEquals( 5, buffers.get( 1 ).size() );
+        for ( int inx = 0 ; inx < 5 ; ++inx )
+        {
+            double  xco = inx * .25;
+            assertEquals( xco, buffers.get( 0 ).getX( inx ) );
+            assertEquals( xco, buffers.get( 0 ).getY( inx ) );
+            assertEquals( xco, buffers.get( 1 ).getX( inx ) );
+            assertEquals( 2 * xco, buffers.get( 1 ).getY( inx ) );
+        }
+    }
+
+    @Test
+    public void testInvalid()
+    {
+        Equation    equation    = newEquation( "Compiled", "x" );
+        List<PointBuffer>   buffers = newBuffers( 1 );
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> OverlayPlotter.plot(
+                List.of( equation ), List.of( Command.ZPLOT ), buffers
+            )
+        );
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> OverlayPlotter.plot(
+                List.of( equation ), List.of(), buffers
+            )
+        );
+    }
+
+    /**
+     * Returns a plot method
+     * that generates the y-plot of a given equation
+     * by an {@linkplain IntervalPlotter};
+     * if IntervalPlotter doesn't support it
+     * every sample in the range [-2,2] is plotted.
+     * 
+     * @param equation  the given equation
+     * 
+     * @return  the plot method
+     */
+    private static Consumer<PointBuffer> intervalPlot( Equation equation )
+    {
+        return b -> {
+            if ( !IntervalPlotter.yPlot( equation, b ) )
+                IntervalPlotter.plot(
+                    null, equation.getYFunction(), -2, 2, .01,
+                    Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY,
+                    IntervalPlotter.DEFAULT_BLOCK_SIZE,
+                    b
+                );
+        };
+    }
+
+    /**
+     * Verifies that a given buffer
+     * contains the same points as a plot
+     * generated by a given plot method.
+     * 
+     * @param plotter   the given plot method
+     * @param actual    the given buffer
+     */
+    private static void assertPlot(
+        Consumer<PointBuffer> plotter,
+        PointBuffer actual
+    )
+    {
+        PointBuffer expected    = new PointBuffer();
+        plotter.accept( expected );
+        int         size        = expected.size();
+        assertTrue( size > 0 );
+        assertEquals( size, actual.size() );
+        assertArrayEquals(
+            Arrays.copyOf( expected.getXArray(), size ),
+            Arrays.copyOf( actual.getXArray(), size )
+        );
+        assertArrayEquals(
+            Arrays.copyOf( expected.getYArray(), size ),
+            Arrays.copyOf( actual.getYArray(), size )
+        );
+    }
+
+    /**
+     * Creates a given number of empty buffers.
+     * 
+     * @param count the given number
+     * 
+     * @return  a list of empty buffers
+     */
+    private static List<PointBuffer> newBuffers( int count )
+    {
+        List<PointBuffer>   buffers = new ArrayList<>();
+        for ( int inx = 0 ; inx < count ; ++inx )
+            buffers.add( new PointBuffer() );
+        return buffers;
+    }
+
+    /**
+     * Creates an equation
+     * with a given y-expression
+     * using a given engine.
+     * The variable <em>a</em> is declared
+     * with a value of 2.
+     * 
+     * @param engine    the given engine
+     * @param expr      the given y-expression
+     * 
+     * @return  the new equation
+     */
+    private static Equation newEquation( String engine, String expr )
+    {
+        Supplier<Equation>  ctor        =
+            engine.equals( "Exp4j" ) ? Exp4jEquation::new
+            : engine.equals( "JEP" ) ? JEPEquation::new
+            : CompiledEquation::new;
+        Equation            equation    = ctor.get();
+        equation.setVar( "a", 2 );
+        assertTrue( equation.setYExpression( expr ).isSuccess() );
+        equation.setRangeStart( "-2" );
+        equation.setRangeEnd( "2" );
+        equation.setRangeStep( ".01" );
+        return equation;
+    }
+}
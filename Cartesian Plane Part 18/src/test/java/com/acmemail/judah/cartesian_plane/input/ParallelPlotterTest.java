@@ -0,0 +1,141 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class ParallelPlotterTest
+{
+    @Test
+    void testGetSampleCount()
+    {
+        assertEquals( 1, ParallelPlotter.getSampleCount( 0, 0, 1 ) );
+        assertEquals( 11, ParallelPlotter.getSampleCount( 0, 10, 1 ) );
+        assertEquals( 41, ParallelPlotter.getSampleCount( -1, 1, .05 ) );
+        assertEquals( 3, ParallelPlotter.getSampleCount( 0, 1, .4 ) );
+        assertEquals( 0, ParallelPlotter.getSampleCount( 1, 0, 1 ) );
+        assertEquals( 0, ParallelPlotter.getSampleCount( 0, 1, 0 ) );
+        assertEquals( 0, ParallelPlotter.getSampleCount( 0, 1, -1 ) );
+    }
+
+    @Test
+    void testPlot()
+    {
+        double      start   = -2;
+        double      end     = 2;
+        double      step    = .0001;
+        int         count   = ParallelPlotter.getSampleCount( start, end, step );
+        PointBuffer buffer  = new PointBuffer( 0 );
+        buffer.add( 100, 100 );
+        ParallelPlotter.plot( 
+            start, 
+            end, 
+            step, 
+            () -> (b, i, x) -> b.set( i, x, i ), 
+            buffer
+        );
+        assertEquals( count, buffer.size() );
+        for ( int inx = 0 ; inx < count ; ++inx )
+        {
+            assertEquals( start + inx * step, buffer.getX( inx ) );
+            assertEquals( inx, buffer.getY( inx ) );
+        }
+    }
+
+    @Test
+    void testSamplerPerChunk()
+    {
+        // Every chunk must get its own sampler; record the
+        // thread using each sampler and verify it never changes.
+        Set<Object> failures    = ConcurrentHashMap.newKeySet();
+        PointBuffer buffer      = new PointBuffer();
+        ParallelPlotter.plot( 0, 100000, 1, () -> {
+            Thread  owner   = Thread.currentThread();
+            return (b, i, x) -> {
+                if ( Thread.currentThread() != owner )
+                    failures.add( i );
+                b.set( i, x, x );
+            };
+        }, buffer );
+        assertEquals( 100001, buffer.size() );
+        assertEquals( 0, failures.size() );
+    }
+
+    @Test
+    void testMonitor()
+    {
+        // The monitor is never notified by two threads at once,
+        // and is always given a leading run of the plot.
+        int             count       = 200001;
+        AtomicBoolean   busy        = new AtomicBoolean();
+        AtomicInteger   lastSize    = new AtomicInteger();
+        Set<String>     failures    = ConcurrentHashMap.newKeySet();
+        PointBuffer     buffer      = new PointBuffer();
+        buffer.setMonitor( b -> {
+            if ( !busy.compareAndSet( false, true ) )
+                failures.add( "concurrent notification" );
+            if ( b == buffer )
+                failures.add( "notified with buffer being filled" );
+            if ( b.size() < lastSize.get() )
+                failures.add( "prefix shrank" );
+            for ( int inx = lastSize.get() ; inx < b.size() ; ++inx )
+                if ( b.getX( inx ) != inx || b.getY( inx ) != -inx )
+                    failures.add( "wrong point at " + inx );
+            lastSize.set( b.size() );
+            busy.set( false );
+        });
+        ParallelPlotter.plot( 
+            0, 
+            count - 1, 
+            1, 
+            () -> (b, i, x) -> b.set( i, x, -x ), 
+            buffer
+        );
+        assertEquals( Set.of(), failures );
+        assertEquals( count, lastSize.get() );
+        assertEquals( count, buffer.size() );
+    }
+
+    @Test
+    void testCancel()
+    {
+        // Once the monitor abandons the plot no chunk
+        // generates more than one further interval of samples.
+        int             count       = 2000001;
+        AtomicInteger   samples     = new AtomicInteger();
+        AtomicBoolean   cancelled   = new AtomicBoolean();
+        PointBuffer     buffer      = new PointBuffer();
+        buffer.setMonitor( b -> {
+            if ( samples.get() > 0 )
+            {
+                cancelled.set( true );
+                throw new CancellationException();
+            }
+        });
+        assertThrows( 
+            CancellationException.class,
+            () -> ParallelPlotter.plot( 
+                0, 
+                count - 1, 
+                1, 
+                () -> (b, i, x) -> {
+                    samples.incrementAndGet();
+                    b.set( i, x, x );
+                }, 
+                buffer
+            )
+        );
+        assertTrue( cancelled.get() );
+        int max = 
+            (Runtime.getRuntime().availableProcessors() + 1) * 4096 * 2;
+        assertTrue( samples.get() < max, "samples = " + samples.get() );
+    }
+}
@@ -0,0 +1,230 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ParameterSweepTest
+{
+    @ParameterizedTest
+    @ValueSource( strings= {"Compiled", "Exp4j", "JEP"} )
+    public void testCompute( String engine )
+    {
+        Equation        equation    = newEquation( engine, "a * x" );
+        int             frames      = 21;
+        ParameterSweep  sweep       = ParameterSweep.compute(
+            equation, Command.YPLOT, "a", 0, 10, frames
+        );
+        assertEquals( "a", sweep.getVarName() );
+        assertEquals( 0, sweep.getFrom() );
+        assertEquals( 10, sweep.getTo() );
+        assertEquals( frames, sweep.getFrameCount() );
+        assertEquals( 0, sweep.getValue( 0 ) );
+        assertEquals( 10, sweep.getValue( frames - 1 ) );
+
+        // Every frame must match a plot made at the same value.
+        PointBuffer     expected    = new PointBuffer();
+        PointBuffer     actual      = new PointBuffer();
+        int             total       = 0;
+        for ( int frame = 0 ; frame < frames ; ++frame )
+        {
+            double  value   = sweep.getValue( frame );
+            assertEquals( frame * .5, value, 1E-12 );
+            equation.setVar( "a", value );
+            equation.yPlot( expected );
+            sweep.getFrame( frame, actual );
+            assertEquals( expected.size(), sweep.getFrameSize( frame ) );
+            assertEquals( expected.size(), actual.size() );
+            for ( int inx = 0 ; inx < expected.size() ; ++inx )
+            {
+                assertEquals( expected.getX( inx ), actual.getX( inx ), 1E-6 );
+                assertEquals( expected.getY( inx ), actual.getY( inx ), 1E-5 );
+            }
+            total += actual.size();
+        }
+        assertEquals( total, sweep.getPointCount() );
+    }
+
+    @ParameterizedTest
+    @ValueSource( strings= {"Compiled", "Exp4j", "JEP"} )
+    public void testDefaultRange( String engine )
+    {
+        // The initial range expressions don't describe the initial
+        // range; the frames must still use the initial range.
+        Equation        equation    =
+            engine.equals( "Exp4j" ) ? new Exp4jEquation()
+            : engine.equals( "JEP" ) ? new JEPEquation()
+            : new CompiledEquation();
+        equation.setVar( "a", 2 );
+        assertTrue( equation.setYExpression( "a * x" ).isSuccess() );
+        PointBuffer     expected    = new PointBuffer();
+        equation.yPlot( expected );
+        assertTrue( expected.size() > 1 );
+        
+        Equation        copy        = equation.copy();
+        assertEquals( equation.getRangeStart(), copy.getRangeStart() );
+        assertEquals( equation.getRangeEnd(), copy.getRangeEnd() );
+        assertEquals( equation.getRangeStep(), copy.getRangeStep() );
+        
+        ParameterSweep  sweep       = ParameterSweep.compute(
+            equation, Command.YPLOT, "a", 0, 2, 3
+        );
+        for ( int frame = 0 ; frame < 3 ; ++frame )
+            assertEquals( expected.size(), sweep.getFrameSize( frame ) );
+    }
+
+    @Test
+    public void testAdaptiveSamplerCopied()
+    {
+        Equation        equation    = newEquation( "Compiled", "a * x" );
+        AdaptiveSampler sampler     = new AdaptiveSampler( 10 );
+        sampler.setMaxDepth( 5 );
+        sampler.setMaxAngle( 2 );
+        equation.setAdaptiveSampler( sampler );
+        AdaptiveSampler copy        = equation.copy().getAdaptiveSampler();
+        assertTrue( copy != null && copy != sampler );
+        assertEquals( 10, copy.getXScale() );
+        assertEquals( 5, copy.getMaxDepth() );
+        assertEquals( 2, copy.getMaxAngle() );
+    }
+
+    @Test
+    public void testEquationUnchanged()
+    {
+        Equation    equation    = newEquation( "Compiled", "a * x" );
+        long        version     = equation.getVersion();
+        ParameterSweep.compute( equation, Command.YPLOT, "a", 0, 10, 5 );
+        assertEquals( 2, equation.getVar( "a" ).get() );
+        assertEquals( version, equation.getVersion() );
+    }
+
+    @Test
+    public void testOneFrame()
+    {
+        Equation        equation    = newEquation( "Compiled", "a" );
+        ParameterSweep  sweep       = ParameterSweep.compute(
+            equation, Command.YPLOT, "a", 3, 5, 1
+        );
+        assertEquals( 1, sweep.getFrameCount() );
+        assertEquals( 3, sweep.getValue( 0 ) );
+        PointBuffer     buffer      = new PointBuffer();
+        sweep.getFrame( 0, buffer );
+        assertEquals( 3, buffer.getY( 0 ) );
+    }
+
+    @Test
+    public void testOtherPlotTypes()
+    {
+        Equation        equation    = newEquation( "Compiled", "1" );
+        equation.setRExpression( "a" );
+        ParameterSweep  sweep       = ParameterSweep.compute(
+            equation, Command.RPLOT, "a", 1, 2, 3
+        );
+        PointBuffer     buffer      = new PointBuffer();
+        for ( int frame = 0 ; frame < 3 ; ++frame )
+        {
+            double  radius  = sweep.getValue( frame );
+            sweep.getFrame( frame, buffer );
+            assertTrue( buffer.size() > 0 );
+            for ( int inx = 0 ; inx < buffer.size() ; ++inx )
+            {
+                double  dist    =
+                    Math.hypot( buffer.getX( inx ), buffer.getY( inx ) );
+                assertEquals( radius, dist, 1E-5 );
+            }
+        }
+    }
+
+    @Test
+    public void testExport()
+    {
+        Equation        equation    = newEquation( "Compiled", "a * x" );
+        equation.setRangeStart( "0" );
+        equation.setRangeEnd( "1" );
+        equation.setRangeStep( "1" );
+        ParameterSweep  sweep       = ParameterSweep.compute(
+            equation, Command.YPLOT, "a", 1, 2, 2
+        );
+        StringWriter    sWriter     = new StringWriter();
+        sweep.export( new PrintWriter( sWriter ) );
+        String[]        lines       = sWriter.toString().split( "\\R" );
+        assertEquals( 5, lines.length );
+        assertEquals( "frame,a,x,y", lines[0] );
+        assertEquals( "0,1.0,0.0,0.0", lines[1] );
+        assertEquals( "0,1.0,1.0,1.0", lines[2] );
+        assertEquals( "1,2.0,0.0,0.0", lines[3] );
+        assertEquals( "1,2.0,1.0,2.0", lines[4] );
+    }
+
+    @Test
+    public void testInvalid()
+    {
+        Equation        equation    = newEquation( "Compiled", "a * x" );
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> ParameterSweep.compute(
+                equation, Command.YPLOT, "notdeclared", 0, 1, 2
+            )
+        );
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> ParameterSweep.compute(
+                equation, Command.YPLOT, "a", 0, 1, 0
+            )
+        );
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> ParameterSweep.compute(
+                equation, Command.ZPLOT, "a", 0, 1, 2
+            )
+        );
+
+        ParameterSweep  sweep       = ParameterSweep.compute(
+            equation, Command.YPLOT, "a", 0, 1, 2
+        );
+        PointBuffer     buffer      = new PointBuffer();
+        assertThrows(
+            IndexOutOfBoundsException.class,
+            () -> sweep.getFrame( 2, buffer )
+        );
+        assertThrows(
+            IndexOutOfBoundsException.class,
+            () -> sweep.getValue( -1 )
+        );
+    }
+
+    /**
+     * Creates an equation
+     * with a given y-expression
+     * using a given engine.
+     * The variable <em>a</em> is declared
+     * with a value of 2.
+     * 
+     * @param engine    the given engine
+     * @param expr      the given y-expression
+     * 
+     * @return  the new equation
+     */
+    private static Equation newEquation( String engine, String expr )
+    {
+        Supplier<Equation>  ctor        =
+            engine.equals( "Exp4j" ) ? Exp4jEquation::new
+            : engine.equals( "JEP" ) ? JEPEquation::new
+            : CompiledEquation::new;
+        Equation            equation    = ctor.get();
+        equation.setVar( "a", 2 );
+        assertTrue( equation.setYExpression( expr ).isSuccess() );
+        equation.setRangeStart( "-2" );
+        equation.setRangeEnd( "2" );
+        equation.setRangeStep( ".01" );
+        return equation;
+    }
+}
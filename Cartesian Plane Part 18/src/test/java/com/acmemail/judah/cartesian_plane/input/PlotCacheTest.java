@@ -0,0 +1,293 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.awt.geom.Rectangle2D;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+import org.junit.jupiter.api.Test;
+
+class PlotCacheTest
+{
+    private final AtomicInteger     plotCount   = new AtomicInteger();
+    private final PlotCache         cache       = new PlotCache( 2 );
+    private final BiConsumer<Equation,PointBuffer>  plotter = 
+        (e,b) -> {
+            plotCount.incrementAndGet();
+            e.yPlot( b );
+        };
+
+    @Test
+    void testDefaultCapacity()
+    {
+        PlotCache   cache   = new PlotCache();
+        assertEquals( PlotCache.DEFAULT_CAPACITY, cache.getCapacity() );
+        assertEquals( 0, cache.size() );
+    }
+
+    @Test
+    void testHitMiss()
+    {
+        Equation    equation    = newEquation( "2x" );
+        PointBuffer buffer      = new PointBuffer();
+        cache.plot( equation, Command.YPLOT, plotter, buffer );
+        assertEquals( 1, plotCount.get() );
+        assertEquals( 1, cache.getMissCount() );
+        assertEquals( 5, buffer.size() );
+        
+        // Unchanged equation: the points are replayed.
+        PointBuffer replay      = new PointBuffer();
+        cache.plot( equation, Command.YPLOT, plotter, replay );
+        assertEquals( 1, plotCount.get() );
+        assertEquals( 1, cache.getHitCount() );
+        assertBuffersEqual( buffer, replay );
+        
+        // Different plot type: a different entry.
+        cache.plot( equation, Command.XYPLOT, plotter, replay );
+        assertEquals( 2, plotCount.get() );
+        assertEquals( 2, cache.size() );
+        
+        // Changed equation: the plot is regenerated.
+        equation.setYExpression( "3x" );
+        cache.plot( equation, Command.YPLOT, plotter, replay );
+        assertEquals( 3, plotCount.get() );
+        assertEquals( 3, cache.getMissCount() );
+        assertEquals( 3, replay.getY( 4 ), .0001 );
+        
+        cache.clear();
+        assertEquals( 0, cache.size() );
+        assertEquals( 0, cache.getHitCount() );
+        assertEquals( 0, cache.getMissCount() );
+    }
+
+    @Test
+    void testUnreferencedVariable()
+    {
+        Equation    equation    = newEquation( "a * x" );
+        PointBuffer buffer      = new PointBuffer();
+        equation.setVar( "a", 2 );
+        cache.plot( equation, Command.YPLOT, plotter, buffer );
+        assertEquals( 1, plotCount.get() );
+        
+        // A variable the expression doesn't read: still a hit.
+        equation.setVar( "b", 5 );
+        cache.plot( equation, Command.YPLOT, plotter, buffer );
+        assertEquals( 1, plotCount.get() );
+        assertEquals( 1, cache.getHitCount() );
+        
+        // A variable the expression reads: a miss.
+        equation.setVar( "a", 3 );
+        cache.plot( equation, Command.YPLOT, plotter, buffer );
+        assertEquals( 2, plotCount.get() );
+        assertEquals( 3, buffer.getY( 4 ), .0001 );
+    }
+
+    @Test
+    void testSnapshot()
+    {
+        // The plot is identified by the original equation and
+        // the version at which the snapshot was taken.
+        Equation    equation    = newEquation( "2x" );
+        Equation    snapshot    = equation.copy();
+        long        version     = equation.getVersion();
+        PointBuffer buffer      = new PointBuffer();
+        cache.plot( 
+            equation, 
+            version, 
+            Command.YPLOT, 
+            b -> plotter.accept( snapshot, b ), 
+            buffer
+        );
+        assertEquals( 1, plotCount.get() );
+        assertEquals( 5, buffer.size() );
+        
+        PointBuffer replay      = new PointBuffer();
+        cache.plot( 
+            equation, 
+            version, 
+            Command.YPLOT, 
+            b -> fail( "snapshot plotted again" ), 
+            replay
+        );
+        assertEquals( 1, cache.getHitCount() );
+        assertBuffersEqual( buffer, replay );
+        
+        // A plot of an earlier version that completes after
+        // a plot of a later version doesn't replace it.
+        Equation    later       = newEquation( "3x" );
+        cache.plot( 
+            equation, 
+            version + 1, 
+            Command.YPLOT, 
+            b -> plotter.accept( later, b ), 
+            buffer
+        );
+        cache.plot( 
+            equation, 
+            version, 
+            Command.YPLOT, 
+            b -> plotter.accept( snapshot, b ), 
+            replay
+        );
+        assertEquals( 3, plotCount.get() );
+        cache.plot( equation, version + 1, Command.YPLOT, b -> {}, replay );
+        assertEquals( 2, cache.getHitCount() );
+        assertEquals( 3, replay.getY( 4 ), .0001 );
+    }
+
+    @Test
+    void testCulledPlot()
+    {
+        // An IntervalPlotter culls samples outside the viewport's
+        // y-range, so a new y-range must not replay a culled plot.
+        Equation    equation    = new Exp4jEquation();
+        equation.setRangeStart( "-6" );
+        equation.setRangeEnd( "6" );
+        equation.setRangeStep( ".01" );
+        equation.setYExpression( "x^2" );
+        PointBuffer buffer      = new PointBuffer();
+        plotCulled( equation, newViewport( -7, 7, -1, 10 ), buffer );
+        assertTrue( buffer.size() < 1201 );
+        
+        long        version     = equation.getVersion();
+        plotCulled( equation, newViewport( -7, 7, -1, 40 ), buffer );
+        assertEquals( version, equation.getVersion() );
+        assertEquals( 2, plotCount.get() );
+        assertEquals( 1201, buffer.size() );
+        
+        // Changing only the x-range doesn't change the plot.
+        plotCulled( equation, newViewport( -8, 8, -1, 40 ), buffer );
+        assertEquals( 2, plotCount.get() );
+        assertEquals( 1, cache.getHitCount() );
+        assertEquals( 1201, buffer.size() );
+    }
+
+    @Test
+    void testYRangeChange()
+    {
+        // A plot that isn't culled is replayed
+        // after a change to the y-range alone.
+        Equation    equation    = newEquation( "2x" );
+        PointBuffer buffer      = new PointBuffer();
+        equation.setViewport( newViewport( -7, 7, -1, 10 ) );
+        long        version     = equation.getVersion();
+        cache.plot( equation, Command.XYPLOT, plotter, buffer );
+        
+        equation.setViewport( newViewport( -7, 7, -5, 40 ) );
+        assertEquals( version, equation.getVersion() );
+        PointBuffer replay      = new PointBuffer();
+        cache.plot( equation, Command.XYPLOT, plotter, replay );
+        assertEquals( 1, plotCount.get() );
+        assertEquals( 1, cache.getHitCount() );
+        assertBuffersEqual( buffer, replay );
+    }
+
+    @Test
+    void testIdentity()
+    {
+        // Two equal, but distinct, equations are different entries.
+        Equation    first   = newEquation( "2x" );
+        Equation    second  = newEquation( "2x" );
+        PointBuffer buffer  = new PointBuffer();
+        cache.plot( first, Command.YPLOT, plotter, buffer );
+        cache.plot( second, Command.YPLOT, plotter, buffer );
+        assertEquals( 2, plotCount.get() );
+        assertEquals( 0, cache.getHitCount() );
+    }
+
+    @Test
+    void testEviction()
+    {
+        Equation    first   = newEquation( "x" );
+        Equation    second  = newEquation( "2x" );
+        Equation    third   = newEquation( "3x" );
+        PointBuffer buffer  = new PointBuffer();
+        cache.plot( first, Command.YPLOT, plotter, buffer );
+        cache.plot( second, Command.YPLOT, plotter, buffer );
+        // Touch first, so that second is least recently used.
+        cache.plot( first, Command.YPLOT, plotter, buffer );
+        cache.plot( third, Command.YPLOT, plotter, buffer );
+        assertEquals( 2, cache.size() );
+        assertEquals( 3, plotCount.get() );
+        
+        cache.plot( first, Command.YPLOT, plotter, buffer );
+        assertEquals( 3, plotCount.get() );
+        cache.plot( second, Command.YPLOT, plotter, buffer );
+        assertEquals( 4, plotCount.get() );
+    }
+
+    @Test
+    void testPlotFails()
+    {
+        Equation    equation    = newEquation( "x" );
+        PointBuffer buffer      = new PointBuffer();
+        BiConsumer<Equation,PointBuffer>    bad = 
+            (e,b) -> { throw new IllegalStateException(); };
+        assertThrows( 
+            IllegalStateException.class,
+            () -> cache.plot( equation, Command.YPLOT, bad, buffer )
+        );
+        assertEquals( 0, cache.size() );
+    }
+
+    @Test
+    void testGoWrong()
+    {
+        assertThrows( 
+            IllegalArgumentException.class, 
+            () -> new PlotCache( 0 )
+        );
+    }
+    
+    private void 
+    plotCulled( Equation equation, Viewport viewport, PointBuffer buffer )
+    {
+        equation.setViewport( viewport );
+        assertTrue( IntervalPlotter.culls( equation ) );
+        cache.plot( 
+            equation, 
+            equation.getVersion(), 
+            Command.YPLOT, 
+            viewport,
+            b -> {
+                plotCount.incrementAndGet();
+                IntervalPlotter.yPlot( equation, b );
+            },
+            buffer
+        );
+    }
+    
+    private static Equation newEquation( String yExpr )
+    {
+        Equation    equation    = new Exp4jEquation();
+        equation.setRangeStart( "-1" );
+        equation.setRangeEnd( "1" );
+        equation.setRangeStep( ".5" );
+        equation.setYExpression( yExpr );
+        return equation;
+    }
+    
+    private static Viewport 
+    newViewport( double xMin, double xMax, double yMin, double yMax )
+    {
+        Rectangle2D rect    = 
+            new Rectangle2D.Double( xMin, yMin, xMax - xMin, yMax - yMin );
+        Viewport    port    = new Viewport( rect, 50 );
+        return port;
+    }
+    
+    private static void 
+    assertBuffersEqual( PointBuffer expected, PointBuffer actual )
+    {
+        assertEquals( expected.size(), actual.size() );
+        for ( int inx = 0 ; inx < expected.size() ; ++inx )
+        {
+            assertEquals( expected.getX( inx ), actual.getX( inx ) );
+            assertEquals( expected.getY( inx ), actual.getY( inx ) );
+        }
+    }
+}
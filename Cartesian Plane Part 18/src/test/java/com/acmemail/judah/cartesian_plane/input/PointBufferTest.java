@@ -0,0 +1,259 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+class PointBufferTest
+{
+    @Test
+    void testAddAndGet()
+    {
+        PointBuffer buffer  = new PointBuffer();
+        assertEquals( 0, buffer.size() );
+        buffer.add( 1, 2 );
+        buffer.add( 3, 4 );
+        assertEquals( 2, buffer.size() );
+        assertEquals( 1, buffer.getX( 0 ) );
+        assertEquals( 2, buffer.getY( 0 ) );
+        assertEquals( 3, buffer.getX( 1 ) );
+        assertEquals( 4, buffer.getY( 1 ) );
+    }
+
+    @Test
+    void testGrow()
+    {
+        int         count   = 1000;
+        PointBuffer buffer  = new PointBuffer( 0 );
+        for ( int inx = 0 ; inx < count ; ++inx )
+            buffer.add( inx, -inx );
+        assertEquals( count, buffer.size() );
+        assertTrue( buffer.getXArray().length >= count );
+        for ( int inx = 0 ; inx < count ; ++inx )
+        {
+            assertEquals( inx, buffer.getX( inx ) );
+            assertEquals( -inx, buffer.getY( inx ) );
+        }
+    }
+
+    @Test
+    void testClear()
+    {
+        PointBuffer buffer      = new PointBuffer( 4 );
+        double[]    xArray      = buffer.getXArray();
+        buffer.add( 1, 1 );
+        buffer.add( 2, 2 );
+        buffer.clear();
+        assertEquals( 0, buffer.size() );
+        
+        // clearing the buffer must not reallocate the arrays
+        buffer.add( 5, 6 );
+        assertTrue( xArray == buffer.getXArray() );
+        assertEquals( 5, buffer.getX( 0 ) );
+    }
+
+    @Test
+    void testStream()
+    {
+        PointBuffer buffer  = new PointBuffer();
+        buffer.add( 1, 2 );
+        buffer.add( 3, 4 );
+        List<Point2D>   expPoints   = List.of(
+            new Point2D.Double( 1, 2 ),
+            new Point2D.Double( 3, 4 )
+        );
+        List<Point2D>   actPoints   =
+            buffer.stream().collect( Collectors.toList() );
+        assertEquals( expPoints, actPoints );
+    }
+
+    @Test
+    void testResizeAndSet()
+    {
+        PointBuffer buffer  = new PointBuffer( 0 );
+        buffer.add( 1, 1 );
+        buffer.resize( 3 );
+        assertEquals( 3, buffer.size() );
+        assertEquals( 1, buffer.getX( 0 ) );
+        buffer.set( 2, 5, 6 );
+        assertEquals( 5, buffer.getX( 2 ) );
+        assertEquals( 6, buffer.getY( 2 ) );
+        
+        buffer.resize( 1 );
+        assertEquals( 1, buffer.size() );
+        assertThrows( 
+            IndexOutOfBoundsException.class, 
+            () -> buffer.set( 1, 0, 0 )
+        );
+        assertThrows( 
+            IllegalArgumentException.class, 
+            () -> buffer.resize( -1 )
+        );
+    }
+
+    @Test
+    void testBreaks()
+    {
+        PointBuffer buffer  = new PointBuffer();
+        buffer.add( 1, 2 );
+        buffer.addBreak();
+        buffer.add( 3, 4 );
+        assertEquals( 3, buffer.size() );
+        assertFalse( buffer.isBreak( 0 ) );
+        assertTrue( buffer.isBreak( 1 ) );
+        assertFalse( buffer.isBreak( 2 ) );
+        
+        List<Point2D>   expPoints   =
+            List.of( new Point2D.Double( 1, 2 ), new Point2D.Double( 3, 4 ) );
+        List<Point2D>   actPoints   =
+            buffer.stream().collect( Collectors.toList() );
+        assertEquals( expPoints, actPoints );
+        assertThrows( 
+            IndexOutOfBoundsException.class, 
+            () -> buffer.isBreak( 3 )
+        );
+    }
+
+    @Test
+    void testCopyFrom()
+    {
+        PointBuffer source  = new PointBuffer( 2 );
+        PointBuffer dest    = new PointBuffer( 1 );
+        dest.add( 10, 10 );
+        source.add( 1, 2 );
+        source.addBreak();
+        source.add( 3, 4 );
+        dest.copyFrom( source );
+        assertEquals( 3, dest.size() );
+        assertEquals( 1, dest.getX( 0 ) );
+        assertTrue( dest.isBreak( 1 ) );
+        assertEquals( 4, dest.getY( 2 ) );
+        
+        // The copy is independent of the source.
+        source.clear();
+        assertEquals( 3, dest.size() );
+        dest.copyFrom( source );
+        assertEquals( 0, dest.size() );
+    }
+
+    @Test
+    void testAddAll()
+    {
+        PointBuffer buffer  = new PointBuffer( 1 );
+        double[]    xcos    = { 1, 2, 3 };
+        double[]    ycos    = { 4, 5, 6 };
+        buffer.add( 0, 0 );
+        buffer.addAll( xcos, ycos, 2 );
+        assertEquals( 3, buffer.size() );
+        assertEquals( 0, buffer.getX( 0 ) );
+        assertEquals( 1, buffer.getX( 1 ) );
+        assertEquals( 5, buffer.getY( 2 ) );
+        buffer.addAll( xcos, ycos, 0 );
+        assertEquals( 3, buffer.size() );
+    }
+
+    @Test
+    void testAddAllFrom()
+    {
+        PointBuffer source  = new PointBuffer();
+        PointBuffer buffer  = new PointBuffer( 1 );
+        List<Integer>   sizes   = new ArrayList<>();
+        source.add( 1, 4 );
+        source.add( 2, 5 );
+        source.add( 3, 6 );
+        buffer.add( 0, 0 );
+        buffer.setMonitor( b -> sizes.add( b.size() ) );
+        buffer.addAll( source, 1 );
+        assertEquals( 3, buffer.size() );
+        assertEquals( 0, buffer.getX( 0 ) );
+        assertEquals( 2, buffer.getX( 1 ) );
+        assertEquals( 6, buffer.getY( 2 ) );
+        assertEquals( List.of( 3 ), sizes );
+        buffer.addAll( source, 3 );
+        assertEquals( 3, buffer.size() );
+        
+        Class<IndexOutOfBoundsException>    clazz   = 
+            IndexOutOfBoundsException.class;
+        assertThrows( clazz, () -> buffer.addAll( source, -1 ) );
+        assertThrows( clazz, () -> buffer.addAll( source, 4 ) );
+    }
+
+    @Test
+    void testView()
+    {
+        PointBuffer buffer  = new PointBuffer( 2 );
+        buffer.add( 1, 2 );
+        buffer.add( 3, 4 );
+        PointBuffer view    = buffer.view();
+        assertEquals( 2, view.size() );
+        assertSame( buffer.getXArray(), view.getXArray() );
+        assertSame( buffer.getYArray(), view.getYArray() );
+        
+        // Points added to the buffer don't appear in the view,
+        // even if the buffer outgrows the shared arrays.
+        buffer.add( 5, 6 );
+        assertEquals( 3, buffer.size() );
+        assertEquals( 2, view.size() );
+        assertEquals( 3, view.getX( 1 ) );
+        assertEquals( 4, view.getY( 1 ) );
+        assertThrows( 
+            IndexOutOfBoundsException.class, 
+            () -> view.getX( 2 ) 
+        );
+    }
+
+    @Test
+    void testMonitor()
+    {
+        PointBuffer     buffer  = new PointBuffer();
+        List<Integer>   sizes   = new ArrayList<>();
+        buffer.setMonitor( b -> sizes.add( b.size() ) );
+        for ( int inx = 0 ; inx < 10000 ; ++inx )
+            buffer.add( inx, inx );
+        assertEquals( List.of( 4096, 8192 ), sizes );
+
+        sizes.clear();
+        buffer.addAll( new double[2], new double[2], 2 );
+        assertEquals( List.of( 10002 ), sizes );
+
+        // A monitor may abandon an operation.
+        buffer.clear();
+        buffer.setMonitor( b -> {
+            throw new IllegalStateException();
+        });
+        assertThrows( 
+            IllegalStateException.class, 
+            () -> buffer.addAll( new double[1], new double[1], 1 )
+        );
+
+        sizes.clear();
+        buffer.setMonitor( null );
+        buffer.addAll( new double[1], new double[1], 1 );
+        assertTrue( sizes.isEmpty() );
+    }
+
+    @Test
+    void testGoWrong()
+    {
+        Class<IndexOutOfBoundsException>    clazz   = 
+            IndexOutOfBoundsException.class;
+        PointBuffer buffer  = new PointBuffer();
+        assertThrows( clazz, () -> buffer.getX( 0 ) );
+        buffer.add( 1, 1 );
+        assertThrows( clazz, () -> buffer.getY( 1 ) );
+        assertThrows( clazz, () -> buffer.getY( -1 ) );
+        assertThrows( 
+            IllegalArgumentException.class, 
+            () -> new PointBuffer( -1 )
+        );
+    }
+}
@@ -0,0 +1,68 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.awt.geom.Rectangle2D;
+
+import org.junit.jupiter.api.Test;
+
+class ViewportTest
+{
+    private final Rectangle2D   bounds      = 
+        new Rectangle2D.Double( -5, -2, 10, 4 );
+    private final Viewport      viewport    = new Viewport( bounds, 50 );
+
+    @Test
+    void testViewport()
+    {
+        assertEquals( bounds, viewport.getBounds() );
+        assertEquals( 50, viewport.getPixelsPerUnit() );
+        assertEquals( -5, viewport.getXMin() );
+        assertEquals( 5, viewport.getXMax() );
+        assertEquals( .02, viewport.getStep() );
+        
+        // Viewport must be immutable
+        bounds.setRect( 0, 0, 1, 1 );
+        assertEquals( -5, viewport.getXMin() );
+        viewport.getBounds().setRect( 0, 0, 1, 1 );
+        assertEquals( -5, viewport.getXMin() );
+    }
+
+    @Test
+    void testConfigure()
+    {
+        AdaptiveSampler sampler = new AdaptiveSampler();
+        viewport.configure( sampler );
+        assertEquals( viewport.getBounds(), sampler.getBounds() );
+        assertEquals( 50, sampler.getXScale() );
+        assertEquals( 50, sampler.getYScale() );
+    }
+
+    @Test
+    void testEqualsHashCode()
+    {
+        Rectangle2D rect    = new Rectangle2D.Double( -5, -2, 10, 4 );
+        Viewport    same    = new Viewport( rect, 50 );
+        assertEquals( viewport, same );
+        assertEquals( viewport.hashCode(), same.hashCode() );
+        assertNotEquals( viewport, new Viewport( rect, 51 ) );
+        assertNotEquals( 
+            viewport, 
+            new Viewport( new Rectangle2D.Double( -5, -2, 10, 5 ), 50 )
+        );
+        assertNotEquals( viewport, null );
+        assertNotEquals( viewport, bounds );
+    }
+
+    @Test
+    void testGoWrong()
+    {
+        Class<IllegalArgumentException> clazz   = 
+            IllegalArgumentException.class;
+        Rectangle2D empty   = new Rectangle2D.Double( 0, 0, 0, 1 );
+        assertThrows( clazz, () -> new Viewport( bounds, 0 ) );
+        assertThrows( clazz, () -> new Viewport( empty, 1 ) );
+    }
+}
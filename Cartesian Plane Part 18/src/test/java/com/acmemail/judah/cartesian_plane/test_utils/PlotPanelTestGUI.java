@@ -7,6 +7,8 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.awt.BorderLayout;
 import java.awt.Container;
 import java.awt.geom.Point2D;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
@@ -27,6 +29,8 @@ import com.acmemail.judah.cartesian_plane.graphics_utils.ComponentFinder;
 import com.acmemail.judah.cartesian_plane.graphics_utils.GUIUtils;
 import com.acmemail.judah.cartesian_plane.input.Command;
 import com.acmemail.judah.cartesian_plane.input.Equation;
+import com.acmemail.judah.cartesian_plane.input.PointBuffer;
+import com.acmemail.judah.cartesian_plane.input.Viewport;
 
 /**
  * Creates and manages a GUI containing a PlotPanel.
@@ -212,6 +216,13 @@ public class PlotPanelTestGUI extends FTextFieldTestMgr
          * @see #setStreamSupplier(Supplier)
          */
         private Supplier<Stream<PlotCommand>>   supplier;
+        /**
+         * The buffer plotter factory. Set by the client by calling 
+         * setBufferPlotterFactory at the beginning of a plot operation.
+         * If non-null, takes precedence over the stream supplier.
+         * @see #setBufferPlotterFactory(Function)
+         */
+        private Function<Viewport,Consumer<PointBuffer>>    plotter;
         /** 
          * The first point obtained from the stream supplied by
          * the stream supplier.
@@ -227,6 +238,18 @@ public class PlotPanelTestGUI extends FTextFieldTestMgr
         setStreamSupplier( Supplier<Stream<PlotCommand>> supplier )
         {
             this.supplier = supplier;
+            this.plotter = null;
+        }
+        
+        /**
+         * Sets the buffer plotter factory provided by the client.
+         */
+        @Override
+        public void setBufferPlotterFactory( 
+            Function<Viewport,Consumer<PointBuffer>> plotter
+        )
+        {
+            this.plotter = plotter;
         }
         
         /**
@@ -243,25 +266,38 @@ public class PlotPanelTestGUI extends FTextFieldTestMgr
         }
         
         /**
-         * Gets the first PlotPoint object from the stream
-         * supplied by the client.
+         * Gets the first PlotPoint object from the buffer plotter
+         * or stream supplied by the client.
          * 
          * @return
-         *      the first PlotPoint object from the stream
-         *      supplied by the client
+         *      the first PlotPoint object from the buffer plotter
+         *      or stream supplied by the client
          *
+         * @see #setBufferPlotterFactory(Function)
          * @see #setStreamSupplier(Supplier)
          * @see #plotPoint(float, float)
          */
         public Point2D getPlotPoint()
         {
-            Stream<PlotCommand> stream  = supplier.get();
-            PlotPointCommand    cmd = 
-                stream.filter( c -> (c instanceof PlotPointCommand) )
-                .map( c -> (PlotPointCommand)c )
-                .findFirst().orElse( null );
-            assertNotNull( cmd );
-            cmd.execute();
+            if ( plotter != null )
+            {
+                PointBuffer buffer  = new PointBuffer();
+                plotter.apply( getViewport() ).accept( buffer );
+                assertTrue( buffer.size() > 0 );
+                float   xco = (float)buffer.getX( 0 );
+                float   yco = (float)buffer.getY( 0 );
+                plotPoint( xco, yco );
+            }
+            else
+            {
+                Stream<PlotCommand> stream  = supplier.get();
+                PlotPointCommand    cmd = 
+                    stream.filter( c -> (c instanceof PlotPointCommand) )
+                    .map( c -> (PlotPointCommand)c )
+                    .findFirst().orElse( null );
+                assertNotNull( cmd );
+                cmd.execute();
+            }
             return point;
         }
         